@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Base state for the Siddhi benchmarks. Creates a {@link SiddhiAppRuntime} from the app returned by
+ * {@link #siddhiApp()}, subscribes a counting callback to {@code OutStream} and pre-generates a ring of input events
+ * so that event construction is not measured.
+ * <p>
+ * Every input stream used by the benchmarks has the shape
+ * {@code (symbol string, price double, volume long, payload string)}, where {@code symbol} is drawn from
+ * {@link #keyCardinality} distinct values and {@code payload} is a string of {@link #eventSize} characters.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractSiddhiBenchmark {
+
+    protected static final String STOCK_STREAM_ATTRIBUTES =
+            "(symbol string, price double, volume long, payload string)";
+    private static final int PREGENERATED_EVENTS = 1 << 16;
+
+    @Param({"16", "256"})
+    public int eventSize;
+
+    @Param({"100", "10000"})
+    public int keyCardinality;
+
+    protected SiddhiManager siddhiManager;
+    protected SiddhiAppRuntime siddhiAppRuntime;
+    protected volatile long outputCount;
+    private Object[][] events;
+    private int index;
+
+    /**
+     * @return the Siddhi app to be benchmarked, it must define {@code OutStream}.
+     */
+    protected abstract String siddhiApp();
+
+    /**
+     * Hook to populate tables or send warm up events before the measurement starts.
+     */
+    protected void prepare() throws InterruptedException {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp());
+        siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                outputCount += events.length;
+            }
+        });
+        siddhiAppRuntime.start();
+        events = generateEvents(PREGENERATED_EVENTS, keyCardinality, eventSize, 42);
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    protected InputHandler inputHandler(String streamId) {
+        return siddhiAppRuntime.getInputHandler(streamId);
+    }
+
+    /**
+     * @return a copy of the next pre-generated event data, the copy is needed as Siddhi may keep the array.
+     */
+    protected Object[] nextEvent() {
+        Object[] data = events[index];
+        index = (index + 1) & (PREGENERATED_EVENTS - 1);
+        return Arrays.copyOf(data, data.length);
+    }
+
+    protected static String symbol(int key) {
+        return "SYM" + key;
+    }
+
+    static Object[][] generateEvents(int count, int keyCardinality, int eventSize, long seed) {
+        Random random = new Random(seed);
+        char[] payloadChars = new char[eventSize];
+        Arrays.fill(payloadChars, 'x');
+        String payload = new String(payloadChars);
+        Object[][] events = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            events[i] = new Object[]{symbol(random.nextInt(keyCardinality)), random.nextDouble() * 100,
+                    (long) random.nextInt(1000), payload};
+        }
+        return events;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InputHandler#send(Object[])} through the {@code StreamJunction} of a pass through query, both for
+ * synchronous and {@code @async} streams.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InputHandlerBenchmark extends AbstractSiddhiBenchmark {
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private InputHandler inputHandler;
+
+    @Override
+    protected String siddhiApp() {
+        return (async ? "@async(buffer.size='1024') " : "") +
+                "define stream StockStream " + STOCK_STREAM_ATTRIBUTES + ";" +
+                "from StockStream " +
+                "select symbol, price, volume " +
+                "insert into OutStream;";
+    }
+
+    @Override
+    protected void prepare() {
+        inputHandler = inputHandler("StockStream");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        inputHandler.send(nextEvent());
+    }
+}
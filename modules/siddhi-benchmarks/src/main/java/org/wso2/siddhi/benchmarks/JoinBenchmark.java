@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@code JoinProcessor} for an equality join of two length windows, alternating the arriving side.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JoinBenchmark extends AbstractSiddhiBenchmark {
+
+    @Param({"100", "1000"})
+    public int windowLength;
+
+    private InputHandler leftInputHandler;
+    private InputHandler rightInputHandler;
+    private boolean left;
+
+    @Override
+    protected String siddhiApp() {
+        return "define stream StockStream " + STOCK_STREAM_ATTRIBUTES + ";" +
+                "define stream TradeStream " + STOCK_STREAM_ATTRIBUTES + ";" +
+                "from StockStream#window.length(" + windowLength + ") as s " +
+                "join TradeStream#window.length(" + windowLength + ") as t " +
+                "on s.symbol == t.symbol " +
+                "select s.symbol, s.price, t.volume " +
+                "insert into OutStream;";
+    }
+
+    @Override
+    protected void prepare() throws InterruptedException {
+        leftInputHandler = inputHandler("StockStream");
+        rightInputHandler = inputHandler("TradeStream");
+        for (int i = 0; i < windowLength; i++) {
+            leftInputHandler.send(nextEvent());
+            rightInputHandler.send(nextEvent());
+        }
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        left = !left;
+        if (left) {
+            leftInputHandler.send(nextEvent());
+        } else {
+            rightInputHandler.send(nextEvent());
+        }
+    }
+}
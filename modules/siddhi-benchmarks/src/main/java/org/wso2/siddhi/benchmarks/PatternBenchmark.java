@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pattern {@code StreamPreStateProcessor}/{@code StreamPostStateProcessor} path for a two state pattern
+ * correlated on the symbol. Pending partial matches are bounded by the {@code within} clause.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PatternBenchmark extends AbstractSiddhiBenchmark {
+
+    private InputHandler inputHandler;
+
+    @Override
+    protected String siddhiApp() {
+        return "define stream StockStream " + STOCK_STREAM_ATTRIBUTES + ";" +
+                "from every e1=StockStream[price > 99] -> " +
+                "e2=StockStream[symbol == e1.symbol and price < 1] within 100 milliseconds " +
+                "select e1.symbol, e1.price as highPrice, e2.price as lowPrice " +
+                "insert into OutStream;";
+    }
+
+    @Override
+    protected void prepare() {
+        inputHandler = inputHandler("StockStream");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        inputHandler.send(nextEvent());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the sliding {@code length} and {@code time} windows with an aggregation over the window contents.
+ * For the time window the window length is interpreted in milliseconds.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WindowBenchmark extends AbstractSiddhiBenchmark {
+
+    @Param({"length", "time"})
+    public String window;
+
+    @Param({"100", "10000"})
+    public int windowLength;
+
+    private InputHandler inputHandler;
+
+    @Override
+    protected String siddhiApp() {
+        String windowHandler;
+        if ("length".equals(window)) {
+            windowHandler = "#window.length(" + windowLength + ")";
+        } else {
+            windowHandler = "#window.time(" + windowLength + " milliseconds)";
+        }
+        return "define stream StockStream " + STOCK_STREAM_ATTRIBUTES + ";" +
+                "from StockStream" + windowHandler + " " +
+                "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "insert all events into OutStream;";
+    }
+
+    @Override
+    protected void prepare() throws InterruptedException {
+        inputHandler = inputHandler("StockStream");
+        if ("length".equals(window)) {
+            for (int i = 0; i < windowLength; i++) {
+                inputHandler.send(nextEvent());
+            }
+        }
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        inputHandler.send(nextEvent());
+    }
+}
@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.aggregation.AggregationRuntime;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.debugger.SiddhiDebugger;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.ConcurrentStreamEventPool;
 import org.wso2.siddhi.core.exception.CannotClearSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.DefinitionNotExistException;
@@ -50,7 +51,6 @@ import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.table.record.RecordTableHandler;
 import org.wso2.siddhi.core.table.record.RecordTableHandlerManager;
 import org.wso2.siddhi.core.util.ExceptionUtil;
-import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.StringUtil;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
@@ -413,6 +413,9 @@ public class SiddhiAppRuntime {
                         aggregationRuntime.startPurging();
                     }
                 }
+                for (PartitionRuntime partitionRuntime : partitionMap.values()) {
+                    partitionRuntime.startPurging();
+                }
                 runningWithoutSources = true;
             } catch (Throwable t) {
                 log.error("Error starting Siddhi App '" + siddhiAppContext.getName() + "', " +
@@ -557,6 +560,10 @@ public class SiddhiAppRuntime {
                 }
                 siddhiAppContext.getScheduledExecutorService().shutdownNow();
                 siddhiAppContext.getExecutorService().shutdownNow();
+                // Release the events pooled by the threads, which outlive the Siddhi app
+                for (ConcurrentStreamEventPool streamEventPool : siddhiAppContext.getStreamEventPoolList()) {
+                    streamEventPool.clean();
+                }
 
             }
         }, "Siddhi-SiddhiApp-" + siddhiAppContext.getName() + "-Shutdown-Cleaner");
@@ -803,9 +810,7 @@ public class SiddhiAppRuntime {
     public void enablePlayBack(boolean playBackEnabled, Long idleTime, Long incrementInMilliseconds) {
         this.siddhiAppContext.setPlayback(playBackEnabled);
         if (!playBackEnabled) {
-            for (Scheduler scheduler : siddhiAppContext.getSchedulerList()) {
-                scheduler.switchToLiveMode();
-            }
+            siddhiAppContext.getTimerWheel().switchToLiveMode();
         } else {
             if (idleTime != null && incrementInMilliseconds != null) {
                 //Only use if both values are present. Else defaults will be used which got assigned when creating
@@ -814,9 +819,7 @@ public class SiddhiAppRuntime {
                 this.siddhiAppContext.getTimestampGenerator().setIncrementInMilliseconds(incrementInMilliseconds);
             }
 
-            for (Scheduler scheduler : siddhiAppContext.getSchedulerList()) {
-                scheduler.switchToPlayBackMode();
-            }
+            siddhiAppContext.getTimerWheel().switchToPlayBackMode();
         }
     }
 }
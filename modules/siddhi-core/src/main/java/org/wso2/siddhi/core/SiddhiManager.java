@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.parser.SiddhiAppParser;
 import org.wso2.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
@@ -110,6 +111,18 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the codec used to convert snapshot states to bytes before they are persisted.
+     * {@link org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec} is used by default, and
+     * {@link org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec} can be used to persist states with Java
+     * serialization.
+     *
+     * @param snapshotCodec Snapshot Codec implementation to be used.
+     */
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.siddhiContext.setSnapshotCodec(snapshotCodec);
+    }
+
     /**
      * Method to set sink handler manager that would create sink handlers for each sink
      *
@@ -24,9 +24,11 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.IncrementalTimeConverterUtil;
 import org.wso2.siddhi.query.api.aggregation.TimePeriod;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,7 +45,7 @@ public class IncrementalDataAggregator {
     private final TimePeriod.Duration aggregateForDuration;
 
     private final BaseIncrementalValueStore baseIncrementalValueStore;
-    private final Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap;
+    private final Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap;
 
     public IncrementalDataAggregator(List<TimePeriod.Duration> incrementalDurations,
                                      TimePeriod.Duration aggregateForDuration, long oldestEventTimeStamp,
@@ -63,18 +65,46 @@ public class IncrementalDataAggregator {
     public ComplexEventChunk<StreamEvent> aggregateInMemoryData(
             Map<TimePeriod.Duration, IncrementalExecutor> incrementalExecutorMap) {
         int startIndex = incrementalDurations.indexOf(aggregateForDuration);
+        IncrementalExecutor rootExecutor = incrementalExecutorMap.get(incrementalDurations.get(0));
+        IncrementalExecutor lastExecutor = incrementalExecutorMap.get(aggregateForDuration);
+        // The root executor executes the ones after it, unless they are pipelined, and hands events to its shards,
+        // hence holding it and the pipelined executors up to the last duration read keeps the in-memory aggregates
+        // from changing, as the shards are drained when their groups are read
+        synchronized (rootExecutor) {
+            List<PipelinedExecutor> pipelinedExecutors = new ArrayList<>();
+            try {
+                Executor executor = rootExecutor;
+                while (executor != lastExecutor && executor != null) {
+                    executor = executor.getNextExecutor();
+                    if (executor instanceof PipelinedExecutor) {
+                        ((PipelinedExecutor) executor).lockDrained();
+                        pipelinedExecutors.add((PipelinedExecutor) executor);
+                    }
+                }
+                aggregateInMemoryData(incrementalExecutorMap, startIndex);
+            } finally {
+                for (PipelinedExecutor pipelinedExecutor : pipelinedExecutors) {
+                    pipelinedExecutor.unlock();
+                }
+            }
+        }
+        return createEventChunkFromAggregatedData();
+    }
+
+    private void aggregateInMemoryData(Map<TimePeriod.Duration, IncrementalExecutor> incrementalExecutorMap,
+                                       int startIndex) {
         for (int i = startIndex; i >= 0; i--) {
             TimePeriod.Duration duration = incrementalDurations.get(i);
             IncrementalExecutor incrementalExecutor = incrementalExecutorMap.get(duration);
 
             BaseIncrementalValueStore baseIncrementalValueStore = incrementalExecutor.getBaseIncrementalValueStore();
-            Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap = null;
+            Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap = null;
             if (incrementalExecutor.getBaseIncrementalValueStoreGroupByMap() != null) {
                 baseIncrementalValueStoreGroupByMap
                         = new HashMap<>(incrementalExecutor.getBaseIncrementalValueStoreGroupByMap());
             }
             if (baseIncrementalValueStoreGroupByMap != null) {
-                for (Map.Entry<String, BaseIncrementalValueStore> entry :
+                for (Map.Entry<GroupByKey, BaseIncrementalValueStore> entry :
                         baseIncrementalValueStoreGroupByMap.entrySet()) {
                     BaseIncrementalValueStore aBaseIncrementalValueStore = entry.getValue();
                     if (aBaseIncrementalValueStore.isProcessed()) {
@@ -87,10 +117,9 @@ public class IncrementalDataAggregator {
                         baseIncrementalValueStore.getTimestamp(), null);
             }
         }
-        return createEventChunkFromAggregatedData();
     }
 
-    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, String groupByKey) {
+    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, GroupByKey groupByKey) {
         long startTimeOfAggregates = IncrementalTimeConverterUtil.getStartTimeOfAggregates(timestamp,
                 aggregateForDuration);
         synchronized (this) {
@@ -137,7 +166,7 @@ public class IncrementalDataAggregator {
                 this.baseIncrementalValueStore.clean();
             }
         } else {
-            for (Map.Entry<String, BaseIncrementalValueStore> entryAgainstGroupBy :
+            for (Map.Entry<GroupByKey, BaseIncrementalValueStore> entryAgainstGroupBy :
                     baseIncrementalValueStoreGroupByMap.entrySet()) {
                 processedInMemoryEventChunk.add(entryAgainstGroupBy.getValue().createStreamEvent());
                 entryAgainstGroupBy.getValue().clean();
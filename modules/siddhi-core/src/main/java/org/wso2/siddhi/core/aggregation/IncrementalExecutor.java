@@ -27,6 +27,8 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+import org.wso2.siddhi.core.query.selector.GroupByKeyDictionary;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
 import org.wso2.siddhi.core.table.Table;
@@ -35,11 +37,11 @@ import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.query.api.aggregation.TimePeriod;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Incremental executor class which is responsible for performing incremental aggregation.
@@ -51,8 +53,9 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private final ExpressionExecutor timestampExpressionExecutor;
     private final String aggregatorName;
     private TimePeriod.Duration duration;
-    private Table table;
     private GroupByKeyGenerator groupByKeyGenerator;
+    // Only passes the key of the event, as each group has its own aggregations
+    private final GroupByKeyDictionary groupByKeyDictionary = new GroupByKeyDictionary(false);
     private StreamEventPool streamEventPool;
     private long nextEmitTime = -1;
     private long startTimeOfAggregates = -1;
@@ -64,21 +67,24 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private String elementId;
     private boolean isProcessingExecutor;
     private SiddhiAppContext siddhiAppContext;
-    private ExecutorService executorService;
+    private final IncrementalTableWriter tableWriter;
 
     private BaseIncrementalValueStore baseIncrementalValueStore;
-    private Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap = null;
+    private Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap = null;
+    // Shards aggregating the groups of the root executor on their own threads, and the events of the chunk being
+    // executed for each of them
+    private Shard[] shards = null;
+    private List<List<ShardedEvent>> shardBatches = null;
 
     public IncrementalExecutor(String aggregatorName, TimePeriod.Duration duration,
                                List<ExpressionExecutor> processExpressionExecutors,
                                ExpressionExecutor shouldUpdateTimestamp,
                                GroupByKeyGenerator groupByKeyGenerator, MetaStreamEvent metaStreamEvent,
-                               IncrementalExecutor child, boolean isRoot, Table table,
+                               Executor child, boolean isRoot, Table table,
                                SiddhiAppContext siddhiAppContext) {
         this.duration = duration;
         this.next = child;
         this.isRoot = isRoot;
-        this.table = table;
         this.siddhiAppContext = siddhiAppContext;
         this.aggregatorName = aggregatorName;
         this.streamEventPool = new StreamEventPool(metaStreamEvent, 10);
@@ -103,14 +109,31 @@ public class IncrementalExecutor implements Executor, Snapshotable {
             elementId = "IncrementalExecutor-" + siddhiAppContext.getElementIdGenerator().createNewId();
             siddhiAppContext.getSnapshotService().addSnapshotable(aggregatorName, this);
         }
-        executorService = Executors.newSingleThreadExecutor();
-
+        tableWriter = new IncrementalTableWriter(table, aggregatorName, duration, siddhiAppContext);
+        siddhiAppContext.addEternalReferencedHolder(tableWriter);
     }
 
     public void setScheduler(Scheduler scheduler) {
         this.scheduler = scheduler;
     }
 
+    /**
+     * Aggregate the groups of this root executor on the given number of threads, each aggregating the groups whose
+     * keys hash to it. The groups of all the shards are merged when they are rolled over to the next duration.
+     *
+     * @param workers    number of shards
+     * @param bufferSize number of event chunks queued for each shard
+     */
+    public void shard(int workers, int bufferSize) {
+        shards = new Shard[workers];
+        shardBatches = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            shards[i] = new Shard(bufferSize, aggregatorName, siddhiAppContext);
+            siddhiAppContext.addEternalReferencedHolder(shards[i]);
+            shardBatches.add(new ArrayList<>());
+        }
+    }
+
     @Override
     public synchronized void execute(ComplexEventChunk streamEventChunk) {
         if (LOG.isDebugEnabled()) {
@@ -135,6 +158,9 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 processAggregates(streamEvent);
             }
         }
+        if (shards != null) {
+            flushShardBatches();
+        }
     }
 
     private void sendTimerEvent() {
@@ -179,15 +205,13 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private void processAggregates(StreamEvent streamEvent) {
         synchronized (this) {
             if (isGroupBy) {
-                try {
-                    String groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
-                    GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
-                    BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreGroupByMap
-                            .computeIfAbsent(groupedByKey,
-                                    k -> baseIncrementalValueStore.cloneStore(startTimeOfAggregates));
-                    process(streamEvent, aBaseIncrementalValueStore);
-                } finally {
-                    GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
+                GroupByKey groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+                if (shards != null) {
+                    shardBatches.get((groupedByKey.hashCode() & Integer.MAX_VALUE) % shards.length)
+                            .add(new ShardedEvent(streamEvent, groupedByKey, startTimeOfAggregates));
+                } else {
+                    processGroup(streamEvent, groupedByKey, startTimeOfAggregates, groupByKeyDictionary,
+                            baseIncrementalValueStoreGroupByMap);
                 }
             } else {
                 process(streamEvent, baseIncrementalValueStore);
@@ -195,6 +219,61 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         }
     }
 
+    private void processGroup(StreamEvent streamEvent, GroupByKey groupedByKey, long startTime,
+                              GroupByKeyDictionary dictionary, Map<GroupByKey, BaseIncrementalValueStore> groupByMap) {
+        try {
+            dictionary.setCurrentKey(groupedByKey);
+            GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().set(dictionary);
+            BaseIncrementalValueStore aBaseIncrementalValueStore = groupByMap.computeIfAbsent(groupedByKey,
+                    k -> baseIncrementalValueStore.cloneStore(startTime));
+            process(streamEvent, aBaseIncrementalValueStore);
+        } finally {
+            GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().remove();
+        }
+    }
+
+    /**
+     * Hand the events collected for each shard to it
+     */
+    private void flushShardBatches() {
+        for (int i = 0; i < shards.length; i++) {
+            List<ShardedEvent> shardBatch = shardBatches.get(i);
+            if (!shardBatch.isEmpty()) {
+                shards[i].enqueue(shardBatch);
+                shardBatches.set(i, new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Wait for the shards to aggregate the events handed to them, and merge their groups into the given map, while
+     * keeping them from aggregating further events
+     *
+     * @param groupByMap map the groups are merged into
+     * @param rollover   whether the groups are moved out of the shards, as they are rolled over
+     */
+    private void mergeShards(Map<GroupByKey, BaseIncrementalValueStore> groupByMap, boolean rollover) {
+        flushShardBatches();
+        int locked = 0;
+        try {
+            for (Shard shard : shards) {
+                shard.lockDrained();
+                locked++;
+            }
+            // Shards hold disjoint groups, as each group is aggregated by the shard its key hashes to
+            for (Shard shard : shards) {
+                groupByMap.putAll(shard.baseIncrementalValueStoreGroupByMap);
+                if (rollover) {
+                    shard.baseIncrementalValueStoreGroupByMap.clear();
+                }
+            }
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                shards[i].unlock();
+            }
+        }
+    }
+
     private void process(StreamEvent streamEvent, BaseIncrementalValueStore baseIncrementalValueStore) {
 
         List<ExpressionExecutor> expressionExecutors = baseIncrementalValueStore.getExpressionExecutors();
@@ -221,6 +300,9 @@ public class IncrementalExecutor implements Executor, Snapshotable {
 
     private void dispatchAggregateEvents(long startTimeOfNewAggregates) {
         if (isGroupBy) {
+            if (shards != null) {
+                mergeShards(baseIncrementalValueStoreGroupByMap, true);
+            }
             dispatchEvents(baseIncrementalValueStoreGroupByMap);
         } else {
             dispatchEvent(startTimeOfNewAggregates, baseIncrementalValueStore);
@@ -237,16 +319,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 LOG.debug("Event dispatched by " + this.duration + " incremental executor: " + eventChunk.toString());
             }
             if (isProcessingExecutor) {
-                executorService.execute(() -> {
-                    try {
-                        table.addEvents(tableEventChunk, 1);
-                    } catch (Throwable t) {
-                        LOG.error("Exception occurred at siddhi app '" + siddhiAppContext.getName() +
-                                "' when performing table writes of aggregation '" + this.aggregatorName +
-                                "' for duration '" + this.duration + "'. This should be investigated as this can " +
-                                "cause accuracy loss.", t);
-                    }
-                });
+                tableWriter.write(tableEventChunk, 1);
             }
             if (getNextExecutor() != null) {
                 next.execute(eventChunk);
@@ -255,7 +328,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         cleanBaseIncrementalValueStore(startTimeOfNewAggregates, aBaseIncrementalValueStore);
     }
 
-    private void dispatchEvents(Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
+    private void dispatchEvents(Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
         int noOfEvents = baseIncrementalValueGroupByStore.size();
         if (noOfEvents > 0) {
             ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>(true);
@@ -268,16 +341,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 LOG.debug("Event dispatched by " + this.duration + " incremental executor: " + eventChunk.toString());
             }
             if (isProcessingExecutor) {
-                executorService.execute(() -> {
-                    try {
-                        table.addEvents(tableEventChunk, noOfEvents);
-                    } catch (Throwable t) {
-                        LOG.error("Exception occurred at siddhi app '" + siddhiAppContext.getName() +
-                                "' when performing table writes of aggregation '" + this.aggregatorName +
-                                "' for duration '" + this.duration + "'. This should be investigated as this can " +
-                                "cause accuracy loss.", t);
-                    }
-                });
+                tableWriter.write(tableEventChunk, noOfEvents);
             }
             if (getNextExecutor() != null) {
                 next.execute(eventChunk);
@@ -300,7 +364,16 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     }
 
 
-    Map<String, BaseIncrementalValueStore> getBaseIncrementalValueStoreGroupByMap() {
+    /**
+     * @return the groups of the executor, merged from its shards when it is sharded, or null when it does not group
+     * by. Groups of shards stay unchanged only while this executor is held.
+     */
+    Map<GroupByKey, BaseIncrementalValueStore> getBaseIncrementalValueStoreGroupByMap() {
+        if (shards != null) {
+            Map<GroupByKey, BaseIncrementalValueStore> groupByMap = new HashMap<>();
+            mergeShards(groupByMap, false);
+            return groupByMap;
+        }
         return baseIncrementalValueStoreGroupByMap;
     }
 
@@ -352,6 +425,57 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 aBaseIncrementalValueStore.clean();
             }
         }
+        if (shards != null) {
+            for (Shard shard : shards) {
+                for (BaseIncrementalValueStore aBaseIncrementalValueStore :
+                        shard.baseIncrementalValueStoreGroupByMap.values()) {
+                    aBaseIncrementalValueStore.clean();
+                }
+                shard.clean();
+            }
+        }
         siddhiAppContext.getSnapshotService().removeSnapshotable(aggregatorName, this);
+        siddhiAppContext.removeEternalReferencedHolder(tableWriter);
+    }
+
+    /**
+     * Stage aggregating the groups of the root executor whose keys hash to it
+     */
+    private class Shard extends PipelineStage<List<ShardedEvent>> {
+
+        // Only passes the key of the event, as each group has its own aggregations
+        private final GroupByKeyDictionary groupByKeyDictionary = new GroupByKeyDictionary(false);
+        private final Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueStoreGroupByMap =
+                new HashMap<>();
+
+        private Shard(int bufferSize, String aggregatorName, SiddhiAppContext siddhiAppContext) {
+            super(bufferSize, aggregatorName, siddhiAppContext);
+        }
+
+        @Override
+        protected void process(List<ShardedEvent> shardedEvents) {
+            for (ShardedEvent shardedEvent : shardedEvents) {
+                processGroup(shardedEvent.streamEvent, shardedEvent.groupByKey, shardedEvent.startTimeOfAggregates,
+                        groupByKeyDictionary, baseIncrementalValueStoreGroupByMap);
+            }
+        }
+    }
+
+    /**
+     * Event handed to a shard, along with its group and the start time of the aggregates it belongs to
+     */
+    private static final class ShardedEvent implements Serializable {
+
+        private static final long serialVersionUID = 3384524311628945318L;
+
+        private final StreamEvent streamEvent;
+        private final GroupByKey groupByKey;
+        private final long startTimeOfAggregates;
+
+        private ShardedEvent(StreamEvent streamEvent, GroupByKey groupByKey, long startTimeOfAggregates) {
+            this.streamEvent = streamEvent;
+            this.groupByKey = groupByKey;
+            this.startTimeOfAggregates = startTimeOfAggregates;
+        }
     }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.aggregation;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.query.api.aggregation.TimePeriod;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the aggregates rolled up by an {@link IncrementalExecutor} to the table of its duration on a separate
+ * thread. Rollups queued while a write is in progress are coalesced into a single batch, bounded by
+ * {@link #BATCH_SIZE} events and by {@link #BATCH_DELAY_MILLIS} from the first rollup of the batch, such that
+ * store backed tables receive bulk inserts. The queue is bounded, hence the executor blocks when the table falls
+ * behind. Failed batches are retried with a backoff before they are dropped.
+ * <p>
+ * Before the Siddhi app is started, rollups are written on the calling thread.
+ */
+public class IncrementalTableWriter implements EternalReferencedHolder {
+
+    private static final Logger LOG = Logger.getLogger(IncrementalTableWriter.class);
+    private static final int QUEUE_SIZE = 1024;
+    private static final int BATCH_SIZE = 1000;
+    private static final long BATCH_DELAY_MILLIS = 10;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Table table;
+    private final String aggregatorName;
+    private final TimePeriod.Duration duration;
+    private final SiddhiAppContext siddhiAppContext;
+    private volatile boolean running = false;
+
+    public IncrementalTableWriter(Table table, String aggregatorName, TimePeriod.Duration duration,
+                                  SiddhiAppContext siddhiAppContext) {
+        this.table = table;
+        this.aggregatorName = aggregatorName;
+        this.duration = duration;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public void write(ComplexEventChunk<StreamEvent> eventChunk, int noOfEvents) {
+        PendingWrite pendingWrite = new PendingWrite(eventChunk, noOfEvents);
+        try {
+            while (running) {
+                if (queue.offer(pendingWrite, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        addEvents(eventChunk, noOfEvents);
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        siddhiAppContext.getExecutorService().execute(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        while (running) {
+            PendingWrite first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first != null) {
+                writeBatch(first, System.currentTimeMillis() + BATCH_DELAY_MILLIS);
+            }
+        }
+        // Tables are shut down by the time the writer is stopped
+        if (!queue.isEmpty()) {
+            LOG.warn("Dropped " + queue.size() + " queued table writes of aggregation '" + aggregatorName +
+                    "' for duration '" + duration + "' in siddhi app '" + siddhiAppContext.getName() +
+                    "' when stopping");
+            queue.clear();
+        }
+    }
+
+    private void writeBatch(PendingWrite first, long deadline) {
+        ComplexEventChunk<StreamEvent> batch = new ComplexEventChunk<>(true);
+        batch.add(first.eventChunk.getFirst());
+        int noOfEvents = first.noOfEvents;
+        try {
+            while (noOfEvents < BATCH_SIZE) {
+                PendingWrite next = queue.poll();
+                if (next == null) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                }
+                batch.add(next.eventChunk.getFirst());
+                noOfEvents += next.noOfEvents;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        addEvents(batch, noOfEvents);
+    }
+
+    private void addEvents(ComplexEventChunk<StreamEvent> eventChunk, int noOfEvents) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                table.addEvents(eventChunk, noOfEvents);
+                return;
+            } catch (Throwable t) {
+                if (attempt == MAX_RETRIES) {
+                    LOG.error("Exception occurred at siddhi app '" + siddhiAppContext.getName() +
+                            "' when performing table writes of aggregation '" + aggregatorName +
+                            "' for duration '" + duration + "'. Dropped " + noOfEvents + " events after " +
+                            MAX_RETRIES + " retries. This should be investigated as this can cause accuracy loss.",
+                            t);
+                    return;
+                }
+                LOG.warn("Exception occurred at siddhi app '" + siddhiAppContext.getName() +
+                        "' when performing table writes of aggregation '" + aggregatorName + "' for duration '" +
+                        duration + "', retrying: " + t.getMessage());
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS << attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rollup waiting to be written
+     */
+    private static final class PendingWrite {
+
+        private final ComplexEventChunk<StreamEvent> eventChunk;
+        private final int noOfEvents;
+
+        private PendingWrite(ComplexEventChunk<StreamEvent> eventChunk, int noOfEvents) {
+            this.eventChunk = eventChunk;
+            this.noOfEvents = noOfEvents;
+        }
+    }
+}
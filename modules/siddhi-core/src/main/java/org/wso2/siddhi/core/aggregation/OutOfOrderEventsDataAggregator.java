@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 
 import java.util.HashMap;
@@ -37,7 +38,7 @@ public class OutOfOrderEventsDataAggregator {
 
     private final GroupByKeyGenerator groupByKeyGenerator;
     private final BaseIncrementalValueStore baseIncrementalValueStore;
-    private final Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore;
+    private final Map<GroupByKey, BaseIncrementalValueStore> baseIncrementalValueGroupByStore;
 
     public OutOfOrderEventsDataAggregator(List<ExpressionExecutor> baseExecutors,
                                           ExpressionExecutor shouldUpdateTimestamp,
@@ -56,7 +57,7 @@ public class OutOfOrderEventsDataAggregator {
     public ComplexEventChunk<StreamEvent> aggregateData(ComplexEventChunk<StreamEvent> retrievedData) {
         while (retrievedData.hasNext()) {
             StreamEvent streamEvent = retrievedData.next();
-            String groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+            GroupByKey groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
             BaseIncrementalValueStore baseIncrementalValueStore = baseIncrementalValueGroupByStore
                     .computeIfAbsent(groupByKey, k -> this.baseIncrementalValueStore.cloneStore(-1));
             process(streamEvent, baseIncrementalValueStore);
@@ -90,7 +91,7 @@ public class OutOfOrderEventsDataAggregator {
 
     private ComplexEventChunk<StreamEvent> createEventChunkFromAggregatedData() {
         ComplexEventChunk<StreamEvent> processedInMemoryEventChunk = new ComplexEventChunk<>(true);
-        for (Map.Entry<String, BaseIncrementalValueStore> entryAgainstTime :
+        for (Map.Entry<GroupByKey, BaseIncrementalValueStore> entryAgainstTime :
                 baseIncrementalValueGroupByStore.entrySet()) {
             processedInMemoryEventChunk.add(entryAgainstTime.getValue().createStreamEvent());
             entryAgainstTime.getValue().clean();
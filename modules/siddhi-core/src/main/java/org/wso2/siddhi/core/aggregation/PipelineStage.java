@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.aggregation;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stage of an incremental aggregation processing the items handed to it on its own thread, in the order they were
+ * queued. Items are queued in a bounded queue, hence the thread handing them blocks when the stage falls behind.
+ * <p>
+ * Readers of the state built by the stage hold it through {@link #lockDrained()}, which waits for the queued items
+ * to be processed. Items still queued, or taken by the stage but held back by the thread barrier, are part of the
+ * snapshots of the Siddhi app, and are processed again when the snapshot is restored.
+ *
+ * @param <T> type of the items processed by the stage
+ */
+public abstract class PipelineStage<T> implements EternalReferencedHolder, Snapshotable {
+
+    private static final Logger LOG = Logger.getLogger(PipelineStage.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final String aggregatorName;
+    private final SiddhiAppContext siddhiAppContext;
+    private final BlockingQueue<T> queue;
+    // Held while processing an item
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    // Held while taking an item from the queue, such that snapshots see it either queued or taken
+    private final ReentrantLock takeLock = new ReentrantLock();
+    // Items queued, taken or being processed
+    private final AtomicInteger pending = new AtomicInteger();
+    private final String elementId;
+    private volatile T taken;
+    private volatile boolean running = false;
+
+    protected PipelineStage(int bufferSize, String aggregatorName, SiddhiAppContext siddhiAppContext) {
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.aggregatorName = aggregatorName;
+        this.siddhiAppContext = siddhiAppContext;
+        this.elementId = getClass().getSimpleName() + "-" + siddhiAppContext.getElementIdGenerator().createNewId();
+        siddhiAppContext.getSnapshotService().addSnapshotable(aggregatorName, this);
+    }
+
+    /**
+     * Process an item on the thread of the stage
+     *
+     * @param item item handed to the stage
+     */
+    protected abstract void process(T item);
+
+    protected void enqueue(T item) {
+        pending.incrementAndGet();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new SiddhiAppRuntimeException("Interrupted while handing events to the next stage of " +
+                    "aggregation '" + aggregatorName + "'", e);
+        }
+    }
+
+    /**
+     * Wait for the queued items to be processed, and keep the stage from processing further items until
+     * {@link #unlock()} is called. Items can still be queued, unless the thread handing them is held as well.
+     */
+    void lockDrained() {
+        lock.lock();
+        try {
+            while (pending.get() > 0 && running) {
+                drained.await(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        siddhiAppContext.getExecutorService().execute(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        while (running) {
+            T item;
+            takeLock.lock();
+            try {
+                item = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                taken = item;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                takeLock.unlock();
+            }
+            if (item == null) {
+                continue;
+            }
+            try {
+                // Hold back while snapshots are taken, as the entry of the aggregation does
+                siddhiAppContext.getThreadBarrier().pass();
+                lock.lock();
+                try {
+                    // The item is dropped when a snapshot restored meanwhile replaced the items of the stage
+                    if (taken == item) {
+                        taken = null;
+                        try {
+                            process(item);
+                        } finally {
+                            if (pending.decrementAndGet() == 0) {
+                                drained.signalAll();
+                            }
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } catch (Throwable t) {
+                LOG.error("Exception occurred at siddhi app '" + siddhiAppContext.getName() + "' when processing " +
+                        "events of aggregation '" + aggregatorName + "'. This should be investigated as this can " +
+                        "cause accuracy loss.", t);
+            }
+        }
+        if (!queue.isEmpty() && LOG.isDebugEnabled()) {
+            LOG.debug("Dropped " + queue.size() + " queued event chunks of aggregation '" + aggregatorName +
+                    "' in siddhi app '" + siddhiAppContext.getName() + "' when stopping");
+        }
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        takeLock.lock();
+        lock.lock();
+        try {
+            List<T> items = new ArrayList<>(queue.size() + 1);
+            T takenItem = taken;
+            if (takenItem != null) {
+                items.add(takenItem);
+            }
+            items.addAll(queue);
+            Map<String, Object> state = new HashMap<>();
+            state.put("Items", items);
+            return state;
+        } finally {
+            lock.unlock();
+            takeLock.unlock();
+        }
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        takeLock.lock();
+        lock.lock();
+        try {
+            List<T> items = (List<T>) state.get("Items");
+            taken = null;
+            queue.clear();
+            if (items != null) {
+                // Queues can be smaller than the restored items when the buffer size was reduced
+                for (T item : items) {
+                    if (!queue.offer(item)) {
+                        LOG.warn("Dropped restored event chunks of aggregation '" + aggregatorName + "' in siddhi " +
+                                "app '" + siddhiAppContext.getName() + "' exceeding its buffer size");
+                        break;
+                    }
+                }
+            }
+            pending.set(queue.size());
+            if (queue.isEmpty()) {
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+            takeLock.unlock();
+        }
+    }
+
+    @Override
+    public String getElementId() {
+        return elementId;
+    }
+
+    @Override
+    public void clean() {
+        siddhiAppContext.getSnapshotService().removeSnapshotable(aggregatorName, this);
+        siddhiAppContext.removeEternalReferencedHolder(this);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.aggregation;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+
+/**
+ * {@link Executor} handing the event chunks to the next executor of the chain on its own thread, such that the
+ * {@link IncrementalExecutor}s of the durations of an aggregation run as a pipeline, each on a separate core. Chunks
+ * are queued in a bounded queue, hence the previous executor blocks when the next one falls behind, and they are
+ * executed in the order they were queued.
+ * <p>
+ * Readers of the in-memory aggregates hold the executor through {@link #lockDrained()}, such that they see every
+ * event either in the previous or in the next executor.
+ */
+public class PipelinedExecutor extends PipelineStage<ComplexEventChunk> implements Executor {
+
+    private Executor next;
+
+    public PipelinedExecutor(Executor next, int bufferSize, String aggregatorName,
+                             SiddhiAppContext siddhiAppContext) {
+        super(bufferSize, aggregatorName, siddhiAppContext);
+        this.next = next;
+    }
+
+    @Override
+    public void execute(ComplexEventChunk complexEventChunk) {
+        enqueue(complexEventChunk);
+    }
+
+    @Override
+    protected void process(ComplexEventChunk complexEventChunk) {
+        next.execute(complexEventChunk);
+    }
+
+    @Override
+    public Executor getNextExecutor() {
+        return next;
+    }
+
+    @Override
+    public void setNextExecutor(Executor executor) {
+        next = executor;
+    }
+}
@@ -19,10 +19,13 @@
 package org.wso2.siddhi.core.config;
 
 import com.lmax.disruptor.ExceptionHandler;
+import org.wso2.siddhi.core.event.stream.ConcurrentStreamEventPool;
 import org.wso2.siddhi.core.function.Script;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.Scheduler;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
@@ -33,9 +36,10 @@ import java.beans.ExceptionListener;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -54,27 +58,40 @@ public class SiddhiAppContext {
     private ThreadFactory executorThreadFactory;
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
-    private List<EternalReferencedHolder> eternalReferencedHolders;
+    private Set<EternalReferencedHolder> eternalReferencedHolders;
+    private ThreadLocal<List<EternalReferencedHolder>> recordEternalReferencedHolderThreadLocal;
     private SnapshotService snapshotService;
 
     private ThreadBarrier threadBarrier = null;
     private TimestampGenerator timestampGenerator = null;
+    private TimerWheel timerWheel;
     private ElementIdGenerator elementIdGenerator;
     private Map<String, Script> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
     private ExceptionListener runtimeExceptionListener;
     private int bufferSize;
+    private int eventPoolThreadCacheSize;
+    private int eventPoolSharedSize;
+    private boolean primitiveEventLayout;
+    private boolean compileExpressions;
+    private boolean copySnapshotState;
+    private int restoreParallelism = Runtime.getRuntime().availableProcessors();
     private String siddhiAppString;
     private List<String> includedMetrics;
     private boolean transportChannelCreationEnabled;
-    private List<Scheduler> schedulerList;
+    private Set<Scheduler> schedulers;
+    private Set<ConcurrentStreamEventPool> streamEventPools;
     private Level rootMetricsLevel;
 
     public SiddhiAppContext() {
-        this.eternalReferencedHolders = Collections.synchronizedList(new LinkedList<>());
+        this.eternalReferencedHolders = Collections.synchronizedSet(new LinkedHashSet<>());
+        this.recordEternalReferencedHolderThreadLocal = new ThreadLocal<>();
         this.scriptFunctionMap = new HashMap<String, Script>();
-        this.schedulerList = new ArrayList<Scheduler>();
+        this.schedulers = Collections.synchronizedSet(new LinkedHashSet<>());
+        this.streamEventPools = Collections.synchronizedSet(new LinkedHashSet<>());
         this.rootMetricsLevel = Level.OFF;
+        this.eventPoolThreadCacheSize = SiddhiConstants.DEFAULT_EVENT_POOL_THREAD_CACHE_SIZE;
+        this.eventPoolSharedSize = SiddhiConstants.DEFAULT_EVENT_POOL_SHARED_SIZE;
     }
 
     public SiddhiContext getSiddhiContext() {
@@ -127,10 +144,31 @@ public class SiddhiAppContext {
 
     public synchronized void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
         eternalReferencedHolders.add(eternalReferencedHolder);
+        List<EternalReferencedHolder> recordedEternalReferencedHolders =
+                recordEternalReferencedHolderThreadLocal.get();
+        if (recordedEternalReferencedHolders != null) {
+            recordedEternalReferencedHolders.add(eternalReferencedHolder);
+        }
+    }
+
+    public synchronized void removeEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
+        eternalReferencedHolders.remove(eternalReferencedHolder);
     }
 
     public List<EternalReferencedHolder> getEternalReferencedHolders() {
-        return Collections.unmodifiableList(new ArrayList<>(eternalReferencedHolders));
+        synchronized (eternalReferencedHolders) {
+            return Collections.unmodifiableList(new ArrayList<>(eternalReferencedHolders));
+        }
+    }
+
+    /**
+     * When a list is set to this thread local, the {@link EternalReferencedHolder}s added by the current thread are
+     * also collected into it, so the holders created for a partition instance can be removed when it is purged.
+     *
+     * @return thread local holding the list to record into
+     */
+    public ThreadLocal<List<EternalReferencedHolder>> getRecordEternalReferencedHolderThreadLocal() {
+        return recordEternalReferencedHolderThreadLocal;
     }
 
     public ThreadBarrier getThreadBarrier() {
@@ -165,6 +203,14 @@ public class SiddhiAppContext {
         this.timestampGenerator = timestampGenerator;
     }
 
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public SnapshotService getSnapshotService() {
         return snapshotService;
     }
@@ -221,6 +267,54 @@ public class SiddhiAppContext {
         this.bufferSize = bufferSize;
     }
 
+    public int getEventPoolThreadCacheSize() {
+        return eventPoolThreadCacheSize;
+    }
+
+    public void setEventPoolThreadCacheSize(int eventPoolThreadCacheSize) {
+        this.eventPoolThreadCacheSize = eventPoolThreadCacheSize;
+    }
+
+    public int getEventPoolSharedSize() {
+        return eventPoolSharedSize;
+    }
+
+    public void setEventPoolSharedSize(int eventPoolSharedSize) {
+        this.eventPoolSharedSize = eventPoolSharedSize;
+    }
+
+    public boolean isPrimitiveEventLayout() {
+        return primitiveEventLayout;
+    }
+
+    public void setPrimitiveEventLayout(boolean primitiveEventLayout) {
+        this.primitiveEventLayout = primitiveEventLayout;
+    }
+
+    public boolean isCompileExpressions() {
+        return compileExpressions;
+    }
+
+    public void setCompileExpressions(boolean compileExpressions) {
+        this.compileExpressions = compileExpressions;
+    }
+
+    public boolean isCopySnapshotState() {
+        return copySnapshotState;
+    }
+
+    public void setCopySnapshotState(boolean copySnapshotState) {
+        this.copySnapshotState = copySnapshotState;
+    }
+
+    public int getRestoreParallelism() {
+        return restoreParallelism;
+    }
+
+    public void setRestoreParallelism(int restoreParallelism) {
+        this.restoreParallelism = restoreParallelism;
+    }
+
     public String getSiddhiAppString() {
         return siddhiAppString;
     }
@@ -246,11 +340,27 @@ public class SiddhiAppContext {
     }
 
     public void addScheduler(Scheduler scheduler) {
-        this.schedulerList.add(scheduler);
+        this.schedulers.add(scheduler);
+    }
+
+    public void removeScheduler(Scheduler scheduler) {
+        this.schedulers.remove(scheduler);
     }
 
     public List<Scheduler> getSchedulerList() {
-        return schedulerList;
+        synchronized (schedulers) {
+            return new ArrayList<>(schedulers);
+        }
+    }
+
+    public void addStreamEventPool(ConcurrentStreamEventPool streamEventPool) {
+        this.streamEventPools.add(streamEventPool);
+    }
+
+    public List<ConcurrentStreamEventPool> getStreamEventPoolList() {
+        synchronized (streamEventPools) {
+            return new ArrayList<>(streamEventPools);
+        }
     }
 
     public Level getRootMetricsLevel() {
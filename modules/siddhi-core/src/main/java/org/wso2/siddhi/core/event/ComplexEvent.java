@@ -38,6 +38,36 @@ public interface ComplexEvent extends Serializable {
 
     void setAttribute(Object object, int[] position);
 
+    /**
+     * @param position attribute position
+     * @return true if the attribute at the given position is null
+     */
+    default boolean isNullAttribute(int[] position) {
+        return getAttribute(position) == null;
+    }
+
+    /**
+     * Read a non null INT or LONG attribute, implementations storing the attribute in primitive form will return it
+     * without boxing
+     *
+     * @param position attribute position
+     * @return attribute value
+     */
+    default long getLongAttribute(int[] position) {
+        return ((Number) getAttribute(position)).longValue();
+    }
+
+    /**
+     * Read a non null FLOAT or DOUBLE attribute, implementations storing the attribute in primitive form will return
+     * it without boxing
+     *
+     * @param position attribute position
+     * @return attribute value
+     */
+    default double getDoubleAttribute(int[] position) {
+        return ((Number) getAttribute(position)).doubleValue();
+    }
+
     Type getType();
 
     void setType(Type type);
@@ -18,6 +18,8 @@
 
 package org.wso2.siddhi.core.event;
 
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+
 /**
  * Implementation of {@link ComplexEvent} to hold events belonging to the same GroupBy group.
  */
@@ -25,10 +27,10 @@ public class GroupedComplexEvent implements ComplexEvent {
 
     private static final long serialVersionUID = 3654677405648232168L;
     private final ComplexEvent complexEvent;
-    private String groupKey;
+    private GroupByKey groupKey;
     private ComplexEvent next;
 
-    public GroupedComplexEvent(String groupKey, ComplexEvent complexEvent) {
+    public GroupedComplexEvent(GroupByKey groupKey, ComplexEvent complexEvent) {
         this.groupKey = groupKey;
         this.complexEvent = complexEvent;
     }
@@ -68,6 +70,21 @@ public class GroupedComplexEvent implements ComplexEvent {
         complexEvent.setAttribute(object, position);
     }
 
+    @Override
+    public boolean isNullAttribute(int[] position) {
+        return complexEvent.isNullAttribute(position);
+    }
+
+    @Override
+    public long getLongAttribute(int[] position) {
+        return complexEvent.getLongAttribute(position);
+    }
+
+    @Override
+    public double getDoubleAttribute(int[] position) {
+        return complexEvent.getDoubleAttribute(position);
+    }
+
     @Override
     public Type getType() {
         return complexEvent.getType();
@@ -82,11 +99,11 @@ public class GroupedComplexEvent implements ComplexEvent {
         return complexEvent;
     }
 
-    public String getGroupKey() {
+    public GroupByKey getGroupKey() {
         return groupKey;
     }
 
-    public void setGroupKey(String groupKey) {
+    public void setGroupKey(GroupByKey groupKey) {
         this.groupKey = groupKey;
     }
 }
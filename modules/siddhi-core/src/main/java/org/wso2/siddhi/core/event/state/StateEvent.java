@@ -103,8 +103,7 @@ public class StateEvent implements ComplexEvent {
                 case ON_AFTER_WINDOW_DATA_INDEX:
                     return streamEvent.getOnAfterWindowData()[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
                 default:
-                    throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
-                            position[STREAM_ATTRIBUTE_TYPE_INDEX]);
+                    return streamEvent.getAttribute(position);
             }
         }
     }
@@ -129,12 +128,36 @@ public class StateEvent implements ComplexEvent {
                     streamEvent.getOnAfterWindowData()[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
                     break;
                 default:
-                    throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
-                            position[STREAM_ATTRIBUTE_TYPE_INDEX]);
+                    streamEvent.setAttribute(object, position);
             }
         }
     }
 
+    @Override
+    public boolean isNullAttribute(int[] position) {
+        if (position[STREAM_ATTRIBUTE_TYPE_INDEX] == STATE_OUTPUT_DATA_INDEX) {
+            return outputData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] == null;
+        }
+        StreamEvent streamEvent = getStreamEvent(position);
+        return streamEvent == null || streamEvent.isNullAttribute(position);
+    }
+
+    @Override
+    public long getLongAttribute(int[] position) {
+        if (position[STREAM_ATTRIBUTE_TYPE_INDEX] == STATE_OUTPUT_DATA_INDEX) {
+            return ((Number) outputData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]]).longValue();
+        }
+        return getStreamEvent(position).getLongAttribute(position);
+    }
+
+    @Override
+    public double getDoubleAttribute(int[] position) {
+        if (position[STREAM_ATTRIBUTE_TYPE_INDEX] == STATE_OUTPUT_DATA_INDEX) {
+            return ((Number) outputData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]]).doubleValue();
+        }
+        return getStreamEvent(position).getDoubleAttribute(position);
+    }
+
     public StreamEvent getStreamEvent(int[] position) {
         StreamEvent streamEvent = streamEvents[position[STREAM_EVENT_CHAIN_INDEX]];
         if (streamEvent == null) {
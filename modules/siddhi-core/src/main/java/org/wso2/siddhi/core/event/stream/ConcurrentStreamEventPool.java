@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.event.stream;
+
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread safe event pool containing StreamEvent for reuse.
+ * Each thread borrows from and returns to its own cache without any locking, and when a thread cache gets full its
+ * events are handed over as a chain to a shared overflow from which other threads can refill their empty caches.
+ * <p>
+ * Only the event factory of {@link StreamEventPool} is used, as the events are kept in the caches of this pool. The
+ * caches are released by {@link #clean()}, such that the threads do not keep holding the events of a pool that is
+ * no longer used.
+ */
+public class ConcurrentStreamEventPool extends StreamEventPool {
+
+    private static final long serialVersionUID = 3937342711439870163L;
+    private final int threadCacheSize;
+    private final int maxSharedChains;
+    private transient ThreadLocal<EventCache> threadCache;
+    // Caches of the live threads, which are released when their thread terminates
+    private transient Set<EventCache> threadCaches;
+    private transient ConcurrentLinkedQueue<StreamEvent> sharedChains;
+    private transient AtomicInteger sharedChainCount;
+    private transient CounterTracker hitTracker;
+    private transient CounterTracker missTracker;
+
+    public ConcurrentStreamEventPool(MetaStreamEvent metaStreamEvent, int threadCacheSize, int sharedSize) {
+        super(new StreamEventFactory(metaStreamEvent));
+        this.threadCacheSize = threadCacheSize;
+        this.maxSharedChains = sharedSize / threadCacheSize;
+        init();
+    }
+
+    public ConcurrentStreamEventPool(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize,
+                                     int threadCacheSize, int sharedSize) {
+        super(new StreamEventFactory(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize));
+        this.threadCacheSize = threadCacheSize;
+        this.maxSharedChains = sharedSize / threadCacheSize;
+        init();
+    }
+
+    private void init() {
+        threadCaches = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        threadCache = ThreadLocal.withInitial(() -> {
+            EventCache cache = new EventCache();
+            threadCaches.add(cache);
+            return cache;
+        });
+        sharedChains = new ConcurrentLinkedQueue<StreamEvent>();
+        sharedChainCount = new AtomicInteger(0);
+    }
+
+    /**
+     * Set the trackers counting the borrowed events that were served from the pool and the ones that had to be
+     * newly created.
+     *
+     * @param hitTracker  tracker for pool hits, can be null
+     * @param missTracker tracker for pool misses, can be null
+     */
+    public void setTrackers(CounterTracker hitTracker, CounterTracker missTracker) {
+        this.hitTracker = hitTracker;
+        this.missTracker = missTracker;
+    }
+
+    /**
+     * Borrowing an StreamEvent
+     *
+     * @return if StreamEvent exist in the thread cache or in the shared overflow an existing event if not a new
+     * StreamEvent will be returned
+     */
+    @Override
+    public StreamEvent borrowEvent() {
+        EventCache cache = threadCache.get();
+        // Only contended when the pool is cleaned
+        synchronized (cache) {
+            if (cache.size == 0) {
+                StreamEvent chain = sharedChains.poll();
+                if (chain != null) {
+                    sharedChainCount.decrementAndGet();
+                    cache.head = chain;
+                    cache.size = threadCacheSize;
+                }
+            }
+            if (cache.size > 0) {
+                StreamEvent event = cache.head;
+                cache.head = event.getNext();
+                event.setNext(null);
+                cache.size--;
+                if (hitTracker != null) {
+                    hitTracker.inc();
+                }
+                return event;
+            }
+        }
+        if (missTracker != null) {
+            missTracker.inc();
+        }
+        return eventFactory.newInstance();
+    }
+
+    /**
+     * Collects the used InnerStreamEvents
+     * Returned events are added to the thread cache, a full thread cache is moved to the shared overflow, and when
+     * the shared overflow is also full the remaining events will be dropped
+     *
+     * @param streamEvent used event
+     */
+    @Override
+    public void returnEvents(StreamEvent streamEvent) {
+        if (streamEvent == null) {
+            return;
+        }
+        EventCache cache = threadCache.get();
+        synchronized (cache) {
+            while (streamEvent != null) {
+                if (cache.size == threadCacheSize) {
+                    if (sharedChainCount.incrementAndGet() > maxSharedChains) {
+                        sharedChainCount.decrementAndGet();
+                        return;
+                    }
+                    sharedChains.offer(cache.head);
+                    cache.head = null;
+                    cache.size = 0;
+                }
+                StreamEvent next = streamEvent.getNext();
+                streamEvent.setNext(cache.head);
+                cache.head = streamEvent;
+                cache.size++;
+                streamEvent = next;
+            }
+        }
+    }
+
+    /**
+     * @return Occupied buffer size of the calling thread's cache and the shared overflow
+     */
+    @Override
+    public int getBufferedEventsSize() {
+        return threadCache.get().size + sharedChainCount.get() * threadCacheSize;
+    }
+
+    @Override
+    public int getSize() {
+        return threadCacheSize + maxSharedChains * threadCacheSize;
+    }
+
+    /**
+     * Release the events held by the caches of all threads and by the shared overflow. The pool can still be used
+     * afterwards, refilling the caches as the events are returned.
+     */
+    public void clean() {
+        synchronized (threadCaches) {
+            for (EventCache cache : threadCaches) {
+                synchronized (cache) {
+                    cache.head = null;
+                    cache.size = 0;
+                }
+            }
+        }
+        threadCache.remove();
+        while (sharedChains.poll() != null) {
+            sharedChainCount.decrementAndGet();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+    }
+
+    /**
+     * Per thread chain of pooled events.
+     */
+    private static class EventCache {
+        private StreamEvent head;
+        private int size;
+    }
+}
@@ -39,6 +39,7 @@ public class MetaStreamEvent implements MetaComplexEvent {
     private String inputReferenceId;
     private StreamDefinition outputStreamDefinition;
     private EventType eventType = EventType.DEFAULT;
+    private boolean primitiveBeforeWindowData = false;
 
     public List<Attribute> getBeforeWindowData() {
         return beforeWindowData;
@@ -139,6 +140,118 @@ public class MetaStreamEvent implements MetaComplexEvent {
         this.eventType = eventType;
     }
 
+    public boolean isPrimitiveBeforeWindowData() {
+        return primitiveBeforeWindowData;
+    }
+
+    /**
+     * Keep the numeric before window attributes in a primitive array instead of the Object[], such that they are
+     * stored and read without boxing. Should be set before any events or variable positions are resolved.
+     *
+     * @param primitiveBeforeWindowData whether the primitive layout is used
+     */
+    public void setPrimitiveBeforeWindowData(boolean primitiveBeforeWindowData) {
+        this.primitiveBeforeWindowData = primitiveBeforeWindowData;
+    }
+
+    /**
+     * Resolve the primitive slot of a before window attribute.
+     *
+     * @param attribute before window attribute
+     * @return int array of {primitive type index, slot} when the attribute is kept in the primitive before window
+     * data, else null
+     */
+    public int[] getBeforeWindowPrimitivePosition(Attribute attribute) {
+        if (!primitiveBeforeWindowData) {
+            return null;
+        }
+        int slot = 0;
+        for (Attribute beforeWindowAttribute : beforeWindowData) {
+            int typeIndex = getPrimitiveTypeIndex(beforeWindowAttribute);
+            if (typeIndex == SiddhiConstants.UNKNOWN_STATE) {
+                continue;
+            }
+            if (slot == SiddhiConstants.MAX_PRIMITIVE_DATA_SIZE) {
+                return null;
+            }
+            if (beforeWindowAttribute.equals(attribute)) {
+                return new int[]{typeIndex, slot};
+            }
+            slot++;
+        }
+        return null;
+    }
+
+    /**
+     * @return number of slots needed for the primitive before window data
+     */
+    public int getBeforeWindowPrimitiveDataSize() {
+        if (!primitiveBeforeWindowData) {
+            return 0;
+        }
+        int size = 0;
+        for (Attribute beforeWindowAttribute : beforeWindowData) {
+            if (getPrimitiveTypeIndex(beforeWindowAttribute) != SiddhiConstants.UNKNOWN_STATE) {
+                size++;
+            }
+        }
+        return Math.min(size, SiddhiConstants.MAX_PRIMITIVE_DATA_SIZE);
+    }
+
+    /**
+     * Resolve the slot of a before window attribute in the Object[] before window data, which has no slots for the
+     * attributes kept in the primitive before window data.
+     *
+     * @param attribute before window attribute
+     * @return slot of the attribute, or -1 when it is not kept in the Object[] before window data
+     */
+    public int getBeforeWindowObjectPosition(Attribute attribute) {
+        if (!primitiveBeforeWindowData) {
+            return beforeWindowData.indexOf(attribute);
+        }
+        int slot = 0;
+        int primitiveSlot = 0;
+        for (Attribute beforeWindowAttribute : beforeWindowData) {
+            boolean primitive = getPrimitiveTypeIndex(beforeWindowAttribute) != SiddhiConstants.UNKNOWN_STATE &&
+                    primitiveSlot < SiddhiConstants.MAX_PRIMITIVE_DATA_SIZE;
+            if (primitive) {
+                primitiveSlot++;
+            }
+            if (beforeWindowAttribute != null && beforeWindowAttribute.equals(attribute)) {
+                return primitive ? -1 : slot;
+            }
+            if (!primitive) {
+                slot++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of slots needed for the Object[] before window data
+     */
+    public int getBeforeWindowObjectDataSize() {
+        return beforeWindowData.size() - getBeforeWindowPrimitiveDataSize();
+    }
+
+    private int getPrimitiveTypeIndex(Attribute attribute) {
+        if (attribute == null) {
+            return SiddhiConstants.UNKNOWN_STATE;
+        }
+        switch (attribute.getType()) {
+            case INT:
+                return SiddhiConstants.BEFORE_WINDOW_INT_DATA_INDEX;
+            case LONG:
+                return SiddhiConstants.BEFORE_WINDOW_LONG_DATA_INDEX;
+            case FLOAT:
+                return SiddhiConstants.BEFORE_WINDOW_FLOAT_DATA_INDEX;
+            case DOUBLE:
+                return SiddhiConstants.BEFORE_WINDOW_DOUBLE_DATA_INDEX;
+            default:
+                return SiddhiConstants.UNKNOWN_STATE;
+        }
+    }
+
     public AbstractDefinition getLastInputDefinition() {
         return inputDefinitions.get(inputDefinitions.size() - 1);
     }
@@ -25,6 +25,10 @@ import java.io.ObjectOutputStream;
 import java.util.Arrays;
 
 import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DOUBLE_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_FLOAT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_INT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_LONG_DATA_INDEX;
 import static org.wso2.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
 import static org.wso2.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
 import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
@@ -43,9 +47,20 @@ public class StreamEvent implements ComplexEvent {
     protected Type type = Type.CURRENT;
     private Object[] beforeWindowData;          //Attributes before window execution
     private Object[] onAfterWindowData;         //Attributes on and after window execution
+    //Numeric attributes before window execution, doubles and floats are kept as raw double bits
+    private long[] beforeWindowPrimitiveData;
+    private long beforeWindowPrimitiveNulls;    //Bit set of the null primitive attributes
     private StreamEvent next;
 
     public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize) {
+        this(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize, 0);
+    }
+
+    public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize,
+                       int beforeWindowPrimitiveDataSize) {
+        if (beforeWindowPrimitiveDataSize > 0) {
+            beforeWindowPrimitiveData = new long[beforeWindowPrimitiveDataSize];
+        }
         if (beforeWindowDataSize > 0) {
             beforeWindowData = new Object[beforeWindowDataSize];
         }
@@ -69,6 +84,22 @@ public class StreamEvent implements ComplexEvent {
         this.beforeWindowData = beforeWindowData;
     }
 
+    public long[] getBeforeWindowPrimitiveData() {
+        return beforeWindowPrimitiveData;
+    }
+
+    public void setBeforeWindowPrimitiveData(long[] beforeWindowPrimitiveData) {
+        this.beforeWindowPrimitiveData = beforeWindowPrimitiveData;
+    }
+
+    public long getBeforeWindowPrimitiveNulls() {
+        return beforeWindowPrimitiveNulls;
+    }
+
+    public void setBeforeWindowPrimitiveNulls(long beforeWindowPrimitiveNulls) {
+        this.beforeWindowPrimitiveNulls = beforeWindowPrimitiveNulls;
+    }
+
     public Object[] getOnAfterWindowData() {
         return onAfterWindowData;
     }
@@ -132,6 +163,12 @@ public class StreamEvent implements ComplexEvent {
                 return outputData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
             case ON_AFTER_WINDOW_DATA_INDEX:
                 return onAfterWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                return getBeforeWindowPrimitiveData(position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                        position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
             default:
                 throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
                         position[STREAM_ATTRIBUTE_TYPE_INDEX]);
@@ -151,12 +188,114 @@ public class StreamEvent implements ComplexEvent {
             case ON_AFTER_WINDOW_DATA_INDEX:
                 onAfterWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
                 break;
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                setBeforeWindowPrimitiveData(object, position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                        position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+                break;
             default:
                 throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
                         position[STREAM_ATTRIBUTE_TYPE_INDEX]);
         }
     }
 
+    @Override
+    public boolean isNullAttribute(int[] position) {
+        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                return (beforeWindowPrimitiveNulls & (1L << position[STREAM_ATTRIBUTE_INDEX_IN_TYPE])) != 0;
+            default:
+                return getAttribute(position) == null;
+        }
+    }
+
+    @Override
+    public long getLongAttribute(int[] position) {
+        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+                return beforeWindowPrimitiveData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                return (long) Double.longBitsToDouble(beforeWindowPrimitiveData[
+                        position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]]);
+            default:
+                return ((Number) getAttribute(position)).longValue();
+        }
+    }
+
+    @Override
+    public double getDoubleAttribute(int[] position) {
+        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+                return beforeWindowPrimitiveData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                return Double.longBitsToDouble(beforeWindowPrimitiveData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]]);
+            default:
+                return ((Number) getAttribute(position)).doubleValue();
+        }
+    }
+
+    /**
+     * Box the numeric attribute stored in the primitive before window data
+     *
+     * @param typeIndex one of the BEFORE_WINDOW_*_DATA_INDEX primitive type indexes
+     * @param index     slot of the attribute
+     * @return attribute
+     */
+    public Object getBeforeWindowPrimitiveData(int typeIndex, int index) {
+        if ((beforeWindowPrimitiveNulls & (1L << index)) != 0) {
+            return null;
+        }
+        long value = beforeWindowPrimitiveData[index];
+        switch (typeIndex) {
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+                return (int) value;
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+                return value;
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+                return (float) Double.longBitsToDouble(value);
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                return Double.longBitsToDouble(value);
+            default:
+                throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " + typeIndex);
+        }
+    }
+
+    /**
+     * Unbox and store the numeric attribute in the primitive before window data
+     *
+     * @param object    attribute
+     * @param typeIndex one of the BEFORE_WINDOW_*_DATA_INDEX primitive type indexes
+     * @param index     slot of the attribute
+     */
+    public void setBeforeWindowPrimitiveData(Object object, int typeIndex, int index) {
+        if (object == null) {
+            beforeWindowPrimitiveNulls |= 1L << index;
+            return;
+        }
+        beforeWindowPrimitiveNulls &= ~(1L << index);
+        switch (typeIndex) {
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+                beforeWindowPrimitiveData[index] = ((Number) object).longValue();
+                break;
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                beforeWindowPrimitiveData[index] = Double.doubleToRawLongBits(((Number) object).doubleValue());
+                break;
+            default:
+                throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " + typeIndex);
+        }
+    }
+
     public void setOutputData(Object object, int index) {
         this.outputData[index] = object;
     }
@@ -194,6 +333,12 @@ public class StreamEvent implements ComplexEvent {
         if (!Arrays.equals(onAfterWindowData, event.onAfterWindowData)) {
             return false;
         }
+        if (beforeWindowPrimitiveNulls != event.beforeWindowPrimitiveNulls) {
+            return false;
+        }
+        if (!Arrays.equals(beforeWindowPrimitiveData, event.beforeWindowPrimitiveData)) {
+            return false;
+        }
         // Probably incorrect - comparing Object[] arrays with Arrays.equals
         return Arrays.equals(outputData, event.outputData);
 
@@ -204,6 +349,7 @@ public class StreamEvent implements ComplexEvent {
         int result = (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (beforeWindowData != null ? Arrays.hashCode(beforeWindowData) : 0);
         result = 31 * result + (onAfterWindowData != null ? Arrays.hashCode(onAfterWindowData) : 0);
+        result = 31 * result + (beforeWindowPrimitiveData != null ? Arrays.hashCode(beforeWindowPrimitiveData) : 0);
         result = 31 * result + (outputData != null ? Arrays.hashCode(outputData) : 0);
         result = 31 * result + type.hashCode();
         return result;
@@ -221,6 +367,9 @@ public class StreamEvent implements ComplexEvent {
         return "StreamEvent{ timestamp=" + timestamp +
                 ", beforeWindowData=" + (beforeWindowData == null ? "null" : Arrays.asList(beforeWindowData)
                 .toString()) +
+                (beforeWindowPrimitiveData == null ? "" : ", beforeWindowPrimitiveData=" +
+                        Arrays.toString(beforeWindowPrimitiveData) + ", beforeWindowPrimitiveNulls=" +
+                        Long.toBinaryString(beforeWindowPrimitiveNulls)) +
                 ", onAfterWindowData=" + (onAfterWindowData == null ? "null" : Arrays.asList
                 (onAfterWindowData).toString()) +
                 ", outputData=" + (outputData == null ? "null" : Arrays.asList(outputData).toString()) +
@@ -232,6 +381,8 @@ public class StreamEvent implements ComplexEvent {
     private void writeObject(ObjectOutputStream stream)
             throws IOException {
         stream.writeObject(beforeWindowData);
+        stream.writeObject(beforeWindowPrimitiveData);
+        stream.writeLong(beforeWindowPrimitiveNulls);
         stream.writeObject(onAfterWindowData);
         stream.writeObject(outputData);
         stream.writeObject(type);
@@ -240,6 +391,8 @@ public class StreamEvent implements ComplexEvent {
         while (nextEvent != null) {
             stream.writeBoolean(true);
             stream.writeObject(nextEvent.beforeWindowData);
+            stream.writeObject(nextEvent.beforeWindowPrimitiveData);
+            stream.writeLong(nextEvent.beforeWindowPrimitiveNulls);
             stream.writeObject(nextEvent.onAfterWindowData);
             stream.writeObject(nextEvent.outputData);
             stream.writeObject(nextEvent.type);
@@ -254,6 +407,8 @@ public class StreamEvent implements ComplexEvent {
             throws IOException, ClassNotFoundException {
         StreamEvent previousStreamEvent;
         beforeWindowData = (Object[]) stream.readObject();
+        beforeWindowPrimitiveData = (long[]) stream.readObject();
+        beforeWindowPrimitiveNulls = stream.readLong();
         onAfterWindowData = (Object[]) stream.readObject();
         outputData = (Object[]) stream.readObject();
         type = (Type) stream.readObject();
@@ -263,6 +418,8 @@ public class StreamEvent implements ComplexEvent {
         while (isNextAvailable) {
             StreamEvent nextEvent = new StreamEvent(0, 0, 0);
             nextEvent.beforeWindowData = (Object[]) stream.readObject();
+            nextEvent.beforeWindowPrimitiveData = (long[]) stream.readObject();
+            nextEvent.beforeWindowPrimitiveNulls = stream.readLong();
             nextEvent.onAfterWindowData = (Object[]) stream.readObject();
             nextEvent.outputData = (Object[]) stream.readObject();
             nextEvent.type = (Type) stream.readObject();
@@ -26,14 +26,16 @@ public class StreamEventCloner {
     private final int beforeWindowDataSize;
     private final int onAfterWindowDataSize;
     private final int outputDataSize;
+    private final int beforeWindowPrimitiveDataSize;
     private final StreamEventPool streamEventPool;
 
     public StreamEventCloner(MetaStreamEvent metaStreamEvent, StreamEventPool streamEventPool) {
 
         this.streamEventPool = streamEventPool;
-        this.beforeWindowDataSize = metaStreamEvent.getBeforeWindowData().size();
+        this.beforeWindowDataSize = metaStreamEvent.getBeforeWindowObjectDataSize();
         this.onAfterWindowDataSize = metaStreamEvent.getOnAfterWindowData().size();
         this.outputDataSize = metaStreamEvent.getOutputData().size();
+        this.beforeWindowPrimitiveDataSize = metaStreamEvent.getBeforeWindowPrimitiveDataSize();
 
     }
 
@@ -49,6 +51,11 @@ public class StreamEventCloner {
             System.arraycopy(streamEvent.getBeforeWindowData(), 0, borrowedEvent.getBeforeWindowData(), 0,
                              beforeWindowDataSize);
         }
+        if (beforeWindowPrimitiveDataSize > 0) {
+            System.arraycopy(streamEvent.getBeforeWindowPrimitiveData(), 0,
+                             borrowedEvent.getBeforeWindowPrimitiveData(), 0, beforeWindowPrimitiveDataSize);
+            borrowedEvent.setBeforeWindowPrimitiveNulls(streamEvent.getBeforeWindowPrimitiveNulls());
+        }
         if (onAfterWindowDataSize > 0) {
             System.arraycopy(streamEvent.getOnAfterWindowData(), 0, borrowedEvent.getOnAfterWindowData(), 0,
                              onAfterWindowDataSize);
@@ -30,6 +30,7 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
     private int beforeWindowDataSize;
     private int onAfterWindowDataSize;
     private int outputDataSize;
+    private int beforeWindowPrimitiveDataSize;
 
     /**
      * Initialization of the factory with event data sizes
@@ -44,13 +45,25 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
         this.outputDataSize = outputDataSize;
     }
 
+    /**
+     * Initialization of the factory with the event data sizes of the given meta event
+     *
+     * @param metaStreamEvent meta stream event
+     */
+    public StreamEventFactory(MetaStreamEvent metaStreamEvent) {
+        this(metaStreamEvent.getBeforeWindowObjectDataSize(), metaStreamEvent.getOnAfterWindowData().size(),
+                metaStreamEvent.getOutputData().size());
+        this.beforeWindowPrimitiveDataSize = metaStreamEvent.getBeforeWindowPrimitiveDataSize();
+    }
+
     /**
      * Constructs new Events
      *
      * @return StreamEvent
      */
     public StreamEvent newInstance() {
-        return new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+        return new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize,
+                beforeWindowPrimitiveDataSize);
     }
 
 }
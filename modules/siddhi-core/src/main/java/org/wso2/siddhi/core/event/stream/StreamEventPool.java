@@ -26,15 +26,13 @@ import java.io.Serializable;
 public class StreamEventPool implements Serializable {
 
     private static final long serialVersionUID = -1743558131917334571L;
-    private StreamEventFactory eventFactory;
+    protected StreamEventFactory eventFactory;
     private int size;
     private int index = 0;
     private StreamEvent streamEventList;
 
     public StreamEventPool(MetaStreamEvent metaStreamEvent, int size) {
-        eventFactory = new StreamEventFactory(metaStreamEvent.getBeforeWindowData().size(),
-                metaStreamEvent.getOnAfterWindowData().size(),
-                metaStreamEvent.getOutputData().size());
+        eventFactory = new StreamEventFactory(metaStreamEvent);
         this.size = size;
     }
 
@@ -43,6 +41,15 @@ public class StreamEventPool implements Serializable {
         this.size = poolSize;
     }
 
+    /**
+     * Constructor for pools keeping the events in their own caches, which only share the event factory of this pool.
+     *
+     * @param eventFactory factory creating the events when none is pooled
+     */
+    protected StreamEventPool(StreamEventFactory eventFactory) {
+        this.eventFactory = eventFactory;
+    }
+
     /**
      * Borrowing an StreamEvent
      *
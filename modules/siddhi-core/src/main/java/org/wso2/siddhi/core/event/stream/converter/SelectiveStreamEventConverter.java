@@ -24,6 +24,11 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import java.io.Serializable;
 import java.util.List;
 
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DOUBLE_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_FLOAT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_INT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_LONG_DATA_INDEX;
+
 /**
  * The converter class that converts the events into StreamEvent
  */
@@ -50,6 +55,12 @@ public class SelectiveStreamEventConverter implements StreamEventConverter, Seri
                 case 2:
                     borrowedEvent.setOutputData(data[fromPosition], position[1]);
                     break;
+                case BEFORE_WINDOW_INT_DATA_INDEX:
+                case BEFORE_WINDOW_LONG_DATA_INDEX:
+                case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+                case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                    borrowedEvent.setBeforeWindowPrimitiveData(data[fromPosition], position[0], position[1]);
+                    break;
                 default:
                     //can not happen
             }
@@ -83,9 +83,15 @@ public class StreamEventConverterFactory {
                         StreamEventConverter.ConversionMapping conversionMapping = new StreamEventConverter
                                 .ConversionMapping();
                         conversionMapping.setFromPosition(fromPosition);
-                        int[] toPosition = new int[2];
-                        toPosition[0] = j;
-                        toPosition[1] = i;
+                        int[] toPosition = null;
+                        if (j == 0) {
+                            toPosition = metaStreamEvent.getBeforeWindowPrimitivePosition(attribute);
+                        }
+                        if (toPosition == null) {
+                            toPosition = new int[2];
+                            toPosition[0] = j;
+                            toPosition[1] = j == 0 ? metaStreamEvent.getBeforeWindowObjectPosition(attribute) : i;
+                        }
                         conversionMapping.setToPosition(toPosition);
                         conversionMappings.add(conversionMapping);
                         i++;
@@ -25,6 +25,10 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DOUBLE_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_FLOAT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_INT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_LONG_DATA_INDEX;
 import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
 import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
 import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_EVENT_CHAIN_INDEX;
@@ -71,6 +75,13 @@ public class SelectiveComplexEventPopulater implements ComplexEventPopulater {
             case 2:
                 complexEvent.setOutputData(data, toPosition[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
                 break;
+            case BEFORE_WINDOW_INT_DATA_INDEX:
+            case BEFORE_WINDOW_LONG_DATA_INDEX:
+            case BEFORE_WINDOW_FLOAT_DATA_INDEX:
+            case BEFORE_WINDOW_DOUBLE_DATA_INDEX:
+                streamEvent.setBeforeWindowPrimitiveData(data, toPosition[STREAM_ATTRIBUTE_TYPE_INDEX],
+                        toPosition[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+                break;
             default:
                 //will not happen
                 throw new IllegalStateException("To Position cannot be :" + Arrays.toString(toPosition));
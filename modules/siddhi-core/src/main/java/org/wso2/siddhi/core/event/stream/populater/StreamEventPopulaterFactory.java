@@ -58,8 +58,12 @@ public class StreamEventPopulaterFactory {
                     streamMappingElement.setToPosition(new int[]{streamEventChainIndex, 0,
                             ON_AFTER_WINDOW_DATA_INDEX, index});
                 } else {
-                    index = metaStreamEvent.getBeforeWindowData().indexOf(attribute);
-                    if (index > -1) {
+                    index = metaStreamEvent.getBeforeWindowObjectPosition(attribute);
+                    int[] primitivePosition = metaStreamEvent.getBeforeWindowPrimitivePosition(attribute);
+                    if (primitivePosition != null) {
+                        streamMappingElement.setToPosition(new int[]{streamEventChainIndex, 0,
+                                primitivePosition[0], primitivePosition[1]});
+                    } else if (index > -1) {
                         streamMappingElement.setToPosition(new int[]{streamEventChainIndex, 0,
                                 BEFORE_WINDOW_DATA_INDEX, index});
                     } else {
@@ -34,4 +34,51 @@ public interface ExpressionExecutor {
 
     void clean();
 
+    /**
+     * @return true if the executor can be evaluated through {@link #isNull(ComplexEvent)},
+     * {@link #executeLong(ComplexEvent)} and {@link #executeDouble(ComplexEvent)} without boxing its result
+     */
+    default boolean supportsPrimitiveExecution() {
+        return false;
+    }
+
+    /**
+     * @param event event to be evaluated
+     * @return true if the result of the executor is null for the given event
+     */
+    default boolean isNull(ComplexEvent event) {
+        return execute(event) == null;
+    }
+
+    /**
+     * Evaluate a non null numeric result as a long
+     *
+     * @param event event to be evaluated
+     * @return result of the executor
+     */
+    default long executeLong(ComplexEvent event) {
+        return ((Number) execute(event)).longValue();
+    }
+
+    /**
+     * Evaluate a non null numeric result as a double
+     *
+     * @param event event to be evaluated
+     * @return result of the executor
+     */
+    default double executeDouble(ComplexEvent event) {
+        return ((Number) execute(event)).doubleValue();
+    }
+
+    /**
+     * Evaluate a condition, treating a null result as false
+     *
+     * @param event event to be evaluated
+     * @return result of the executor
+     */
+    default boolean executeBoolean(ComplexEvent event) {
+        Object result = execute(event);
+        return result != null && (Boolean) result;
+    }
+
 }
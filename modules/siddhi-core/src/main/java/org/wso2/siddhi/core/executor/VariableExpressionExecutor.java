@@ -46,6 +46,46 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return event.getAttribute(position);
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        switch (attribute.getType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return event.isNullAttribute(position);
+    }
+
+    /**
+     * Read a non null numeric attribute without boxing when the event keeps it in primitive form
+     *
+     * @param event event to be evaluated
+     * @return attribute value
+     */
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return event.getLongAttribute(position);
+    }
+
+    /**
+     * Read a non null numeric attribute without boxing when the event keeps it in primitive form
+     *
+     * @param event event to be evaluated
+     * @return attribute value
+     */
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return event.getDoubleAttribute(position);
+    }
+
 
     public Attribute.Type getReturnType() {
         return attribute.getType();
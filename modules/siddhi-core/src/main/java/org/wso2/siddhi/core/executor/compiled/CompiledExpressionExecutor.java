@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.executor.compiled;
+
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parent class of the executors generated by {@link ExpressionExecutorCompiler}. Generated executors evaluate the
+ * whole expression tree in a single method and only call back into the variable executors and the executors that
+ * could not be compiled, such as function and aggregator executors.
+ */
+public abstract class CompiledExpressionExecutor implements ExpressionExecutor {
+
+    protected final VariableExpressionExecutor[] variables;
+    protected final ExpressionExecutor[] executors;
+    private final ExpressionExecutor expressionExecutor;
+
+    protected CompiledExpressionExecutor(ExpressionExecutor expressionExecutor,
+                                         VariableExpressionExecutor[] variables, ExpressionExecutor[] executors) {
+        this.expressionExecutor = expressionExecutor;
+        this.variables = variables;
+        this.executors = executors;
+    }
+
+    /**
+     * Create an instance of the generated class for a clone of the compiled expression tree
+     *
+     * @param expressionExecutor cloned expression tree
+     * @param variables          variable executors of the cloned tree
+     * @param executors          executors of the cloned tree that are not compiled
+     * @return compiled executor
+     */
+    protected abstract CompiledExpressionExecutor newInstance(ExpressionExecutor expressionExecutor,
+                                                              VariableExpressionExecutor[] variables,
+                                                              ExpressionExecutor[] executors);
+
+    public ExpressionExecutor getExpressionExecutor() {
+        return expressionExecutor;
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return expressionExecutor.getReturnType();
+    }
+
+    @Override
+    public ExpressionExecutor cloneExecutor(String key) {
+        ExpressionExecutor clonedExecutor = expressionExecutor.cloneExecutor(key);
+        List<VariableExpressionExecutor> variableList = new ArrayList<>();
+        List<ExpressionExecutor> executorList = new ArrayList<>();
+        ExpressionExecutorCompiler.collectOperands(clonedExecutor, variableList, executorList);
+        return newInstance(clonedExecutor, variableList.toArray(new VariableExpressionExecutor[variableList.size()]),
+                executorList.toArray(new ExpressionExecutor[executorList.size()]));
+    }
+
+    @Override
+    public void clean() {
+        expressionExecutor.clean();
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.executor.compiled;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorLong;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles a tree of math, compare and logical expression executors into a single generated
+ * {@link CompiledExpressionExecutor} class, so the JIT sees one monomorphic method per filter or select expression
+ * instead of a chain of virtual execute calls. Executors that are not compiled, such as functions and aggregators,
+ * are called from the generated code as they are. The Java compiler of the running JDK is used, and the interpreted
+ * executor tree is kept when it is not available or compilation fails.
+ */
+public class ExpressionExecutorCompiler {
+
+    private static final Logger log = Logger.getLogger(ExpressionExecutorCompiler.class);
+    private static final String PACKAGE_NAME = ExpressionExecutorCompiler.class.getPackage().getName();
+    private static final AtomicInteger CLASS_COUNT = new AtomicInteger();
+    private static final Map<Class<? extends ExpressionExecutor>, String> MATH_OPERATORS = new HashMap<>();
+    private static volatile boolean compilerUnavailableLogged = false;
+
+    static {
+        MATH_OPERATORS.put(AddExpressionExecutorDouble.class, "+");
+        MATH_OPERATORS.put(AddExpressionExecutorFloat.class, "+");
+        MATH_OPERATORS.put(AddExpressionExecutorInt.class, "+");
+        MATH_OPERATORS.put(AddExpressionExecutorLong.class, "+");
+        MATH_OPERATORS.put(SubtractExpressionExecutorDouble.class, "-");
+        MATH_OPERATORS.put(SubtractExpressionExecutorFloat.class, "-");
+        MATH_OPERATORS.put(SubtractExpressionExecutorInt.class, "-");
+        MATH_OPERATORS.put(SubtractExpressionExecutorLong.class, "-");
+        MATH_OPERATORS.put(MultiplyExpressionExecutorDouble.class, "*");
+        MATH_OPERATORS.put(MultiplyExpressionExecutorFloat.class, "*");
+        MATH_OPERATORS.put(MultiplyExpressionExecutorInt.class, "*");
+        MATH_OPERATORS.put(MultiplyExpressionExecutorLong.class, "*");
+        MATH_OPERATORS.put(DivideExpressionExecutorDouble.class, "/");
+        MATH_OPERATORS.put(DivideExpressionExecutorFloat.class, "/");
+        MATH_OPERATORS.put(DivideExpressionExecutorInt.class, "/");
+        MATH_OPERATORS.put(DivideExpressionExecutorLong.class, "/");
+        MATH_OPERATORS.put(ModExpressionExecutorDouble.class, "%");
+        MATH_OPERATORS.put(ModExpressionExecutorFloat.class, "%");
+        MATH_OPERATORS.put(ModExpressionExecutorInt.class, "%");
+        MATH_OPERATORS.put(ModExpressionExecutorLong.class, "%");
+    }
+
+    private ExpressionExecutorCompiler() {
+
+    }
+
+    /**
+     * Compile the given expression executor tree
+     *
+     * @param expressionExecutor root of the expression executor tree
+     * @param queryName          name of the query the expression belongs to
+     * @return compiled executor, or the given executor when it cannot be compiled
+     */
+    public static ExpressionExecutor compile(ExpressionExecutor expressionExecutor, String queryName) {
+        if (!isCompilable(expressionExecutor)) {
+            return expressionExecutor;
+        }
+        JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+        if (javaCompiler == null) {
+            if (!compilerUnavailableLogged) {
+                compilerUnavailableLogged = true;
+                log.warn("Java compiler is not available in the runtime, expressions will not be compiled");
+            }
+            return expressionExecutor;
+        }
+        String className = "CompiledExpressionExecutor" + CLASS_COUNT.incrementAndGet();
+        CodeGenerator codeGenerator = new CodeGenerator();
+        String source = codeGenerator.generateClass(className, expressionExecutor);
+        try {
+            Class<?> compiledClass = compileClass(javaCompiler, className, source);
+            Constructor<?> constructor = compiledClass.getConstructor(ExpressionExecutor.class,
+                    VariableExpressionExecutor[].class, ExpressionExecutor[].class);
+            List<VariableExpressionExecutor> variables = codeGenerator.variables;
+            List<ExpressionExecutor> executors = codeGenerator.executors;
+            return (ExpressionExecutor) constructor.newInstance(expressionExecutor,
+                    variables.toArray(new VariableExpressionExecutor[variables.size()]),
+                    executors.toArray(new ExpressionExecutor[executors.size()]));
+        } catch (Exception e) {
+            log.warn("Unable to compile expression of query '" + queryName + "', hence executing it without " +
+                    "compiling. " + e.getMessage());
+            if (log.isDebugEnabled()) {
+                log.debug("Generated source of query '" + queryName + "':\n" + source, e);
+            }
+            return expressionExecutor;
+        }
+    }
+
+    /**
+     * Collect the variable executors and the executors that are not compiled in the order used by the generated
+     * code of the given expression executor tree
+     *
+     * @param expressionExecutor root of the expression executor tree
+     * @param variables          list to collect the variable executors
+     * @param executors          list to collect the executors that are not compiled
+     */
+    static void collectOperands(ExpressionExecutor expressionExecutor, List<VariableExpressionExecutor> variables,
+                                List<ExpressionExecutor> executors) {
+        CodeGenerator codeGenerator = new CodeGenerator();
+        codeGenerator.generate(expressionExecutor, "");
+        variables.addAll(codeGenerator.variables);
+        executors.addAll(codeGenerator.executors);
+    }
+
+    private static boolean isCompilable(ExpressionExecutor expressionExecutor) {
+        if (expressionExecutor instanceof AndConditionExpressionExecutor ||
+                expressionExecutor instanceof OrConditionExpressionExecutor ||
+                expressionExecutor instanceof NotConditionExpressionExecutor) {
+            return true;
+        }
+        if (MATH_OPERATORS.containsKey(expressionExecutor.getClass())) {
+            return true;
+        }
+        return getCompareOperator(expressionExecutor) != null;
+    }
+
+    private static String getCompareOperator(ExpressionExecutor expressionExecutor) {
+        if (!(expressionExecutor instanceof CompareConditionExpressionExecutor)) {
+            return null;
+        }
+        CompareConditionExpressionExecutor compareExecutor = (CompareConditionExpressionExecutor) expressionExecutor;
+        if (!isNumeric(compareExecutor.getLeftExpressionExecutor().getReturnType()) ||
+                !isNumeric(compareExecutor.getRightExpressionExecutor().getReturnType())) {
+            return null;
+        }
+        if (expressionExecutor instanceof EqualCompareConditionExpressionExecutor) {
+            return "==";
+        } else if (expressionExecutor instanceof NotEqualCompareConditionExpressionExecutor) {
+            return "!=";
+        } else if (expressionExecutor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return ">";
+        } else if (expressionExecutor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return ">=";
+        } else if (expressionExecutor instanceof LessThanCompareConditionExpressionExecutor) {
+            return "<";
+        } else if (expressionExecutor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return "<=";
+        }
+        return null;
+    }
+
+    private static boolean isNumeric(Attribute.Type type) {
+        switch (type) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Class<?> compileClass(JavaCompiler javaCompiler, String className, final String source)
+            throws Exception {
+        String qualifiedName = PACKAGE_NAME + "." + className;
+        final Map<String, ByteArrayOutputStream> classBytes = new HashMap<>();
+        StandardJavaFileManager standardFileManager = javaCompiler.getStandardFileManager(null, null,
+                StandardCharsets.UTF_8);
+        JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, final String name, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("bytes:///" + name.replace('.', '/') + kind.extension),
+                        kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                        classBytes.put(name, outputStream);
+                        return outputStream;
+                    }
+                };
+            }
+        };
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" +
+                qualifiedName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        StringWriter diagnostics = new StringWriter();
+        try {
+            Boolean compiled = javaCompiler.getTask(diagnostics, fileManager, null,
+                    Arrays.asList("-classpath", getClassPath()), null, Collections.singletonList(sourceFile)).call();
+            if (!Boolean.TRUE.equals(compiled)) {
+                throw new SiddhiAppCreationException("Compilation of " + qualifiedName + " failed: " + diagnostics);
+            }
+        } finally {
+            fileManager.close();
+        }
+        ByteArrayOutputStream outputStream = classBytes.get(qualifiedName);
+        if (outputStream == null) {
+            throw new SiddhiAppCreationException("Compilation of " + qualifiedName + " did not produce a class");
+        }
+        return new CompiledClassLoader(ExpressionExecutorCompiler.class.getClassLoader())
+                .defineClass(qualifiedName, outputStream.toByteArray());
+    }
+
+    private static String getClassPath() throws Exception {
+        StringBuilder classPath = new StringBuilder(System.getProperty("java.class.path", ""));
+        for (Class<?> aClass : new Class<?>[]{CompiledExpressionExecutor.class, Attribute.class}) {
+            CodeSource codeSource = aClass.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                classPath.append(File.pathSeparator).append(new File(codeSource.getLocation().toURI()).getPath());
+            }
+        }
+        return classPath.toString();
+    }
+
+    /**
+     * Class loader defining a single generated executor class.
+     */
+    private static class CompiledClassLoader extends ClassLoader {
+
+        CompiledClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> defineClass(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Generates the Java source of a compiled executor. Every node of the tree is evaluated into local variables
+     * v[i], holding the primitive value, and n[i], holding whether the value is null, following the same type
+     * promotion and null semantics as the interpreted executors.
+     */
+    private static class CodeGenerator {
+
+        private final StringBuilder body = new StringBuilder();
+        private final List<VariableExpressionExecutor> variables = new ArrayList<>();
+        private final List<ExpressionExecutor> executors = new ArrayList<>();
+        private int localCount = 0;
+
+        private String generateClass(String className, ExpressionExecutor expressionExecutor) {
+            int result = generate(expressionExecutor, "        ");
+            StringBuilder source = new StringBuilder();
+            source.append("package ").append(PACKAGE_NAME).append(";\n\n")
+                    .append("import ").append(ComplexEvent.class.getName()).append(";\n")
+                    .append("import ").append(ExpressionExecutor.class.getName()).append(";\n")
+                    .append("import ").append(VariableExpressionExecutor.class.getName()).append(";\n\n")
+                    .append("public final class ").append(className)
+                    .append(" extends ").append(CompiledExpressionExecutor.class.getSimpleName()).append(" {\n\n")
+                    .append("    public ").append(className).append("(ExpressionExecutor expressionExecutor, ")
+                    .append("VariableExpressionExecutor[] variables, ExpressionExecutor[] executors) {\n")
+                    .append("        super(expressionExecutor, variables, executors);\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    protected ").append(CompiledExpressionExecutor.class.getSimpleName())
+                    .append(" newInstance(ExpressionExecutor expressionExecutor, ")
+                    .append("VariableExpressionExecutor[] variables, ExpressionExecutor[] executors) {\n")
+                    .append("        return new ").append(className)
+                    .append("(expressionExecutor, variables, executors);\n")
+                    .append("    }\n\n");
+            if (expressionExecutor.getReturnType() == Attribute.Type.BOOL) {
+                source.append("    @Override\n")
+                        .append("    public boolean executeBoolean(ComplexEvent event) {\n")
+                        .append(body)
+                        .append("        return v").append(result).append(";\n")
+                        .append("    }\n\n")
+                        .append("    @Override\n")
+                        .append("    public Object execute(ComplexEvent event) {\n")
+                        .append("        return executeBoolean(event);\n")
+                        .append("    }\n");
+            } else {
+                source.append("    @Override\n")
+                        .append("    public Object execute(ComplexEvent event) {\n")
+                        .append(body)
+                        .append("        if (n").append(result).append(") {\n")
+                        .append("            return null;\n")
+                        .append("        }\n")
+                        .append("        return v").append(result).append(";\n")
+                        .append("    }\n");
+            }
+            source.append("}\n");
+            return source.toString();
+        }
+
+        /**
+         * Append the statements evaluating the given executor
+         *
+         * @param expressionExecutor executor to be evaluated
+         * @param indent             indentation of the statements
+         * @return index of the locals holding the result
+         */
+        private int generate(ExpressionExecutor expressionExecutor, String indent) {
+            int local = localCount++;
+            Attribute.Type type = expressionExecutor.getReturnType();
+            String mathOperator = MATH_OPERATORS.get(expressionExecutor.getClass());
+            String compareOperator = getCompareOperator(expressionExecutor);
+            if (expressionExecutor instanceof VariableExpressionExecutor && isNumeric(type)) {
+                String variable = "variables[" + variables.size() + "]";
+                variables.add((VariableExpressionExecutor) expressionExecutor);
+                String read = (type == Attribute.Type.INT || type == Attribute.Type.LONG) ?
+                        variable + ".executeLong(event)" : variable + ".executeDouble(event)";
+                line(indent, "boolean n" + local + " = " + variable + ".isNull(event);");
+                line(indent, javaType(type) + " v" + local + " = n" + local + " ? 0 : (" + javaType(type) + ") " +
+                        read + ";");
+            } else if (expressionExecutor instanceof ConstantExpressionExecutor && isNumeric(type) &&
+                    ((ConstantExpressionExecutor) expressionExecutor).getValue() != null) {
+                line(indent, "boolean n" + local + " = false;");
+                line(indent, javaType(type) + " v" + local + " = " +
+                        literal(((ConstantExpressionExecutor) expressionExecutor).getValue(), type) + ";");
+            } else if (mathOperator != null) {
+                ExpressionExecutor left = getLeftOperand(expressionExecutor);
+                ExpressionExecutor right = getRightOperand(expressionExecutor);
+                int leftLocal = generate(left, indent);
+                int rightLocal = generate(right, indent);
+                String javaType = javaType(type);
+                String nullCheck = "n" + leftLocal + " || n" + rightLocal;
+                if (mathOperator.equals("/") || mathOperator.equals("%")) {
+                    nullCheck += " || (" + javaType + ") v" + rightLocal + " == 0";
+                }
+                line(indent, "boolean n" + local + " = " + nullCheck + ";");
+                line(indent, javaType + " v" + local + " = n" + local + " ? 0 : (" + javaType + ") v" + leftLocal +
+                        " " + mathOperator + " (" + javaType + ") v" + rightLocal + ";");
+            } else if (compareOperator != null) {
+                CompareConditionExpressionExecutor compareExecutor = (CompareConditionExpressionExecutor)
+                        expressionExecutor;
+                Attribute.Type leftType = compareExecutor.getLeftExpressionExecutor().getReturnType();
+                Attribute.Type rightType = compareExecutor.getRightExpressionExecutor().getReturnType();
+                int leftLocal = generate(compareExecutor.getLeftExpressionExecutor(), indent);
+                int rightLocal = generate(compareExecutor.getRightExpressionExecutor(), indent);
+                String cast = "";
+                if ((compareOperator.equals("==") || compareOperator.equals("!=")) &&
+                        ((leftType == Attribute.Type.FLOAT && rightType == Attribute.Type.LONG) ||
+                                (leftType == Attribute.Type.LONG && rightType == Attribute.Type.FLOAT))) {
+                    // equality of float and long operands is evaluated on their double values
+                    cast = "(double) ";
+                }
+                line(indent, "boolean v" + local + " = !n" + leftLocal + " && !n" + rightLocal + " && " + cast + "v" +
+                        leftLocal + " " + compareOperator + " " + cast + "v" + rightLocal + ";");
+            } else if (expressionExecutor instanceof AndConditionExpressionExecutor ||
+                    expressionExecutor instanceof OrConditionExpressionExecutor) {
+                boolean and = expressionExecutor instanceof AndConditionExpressionExecutor;
+                ExpressionExecutor left = and ?
+                        ((AndConditionExpressionExecutor) expressionExecutor).getLeftConditionExecutor() :
+                        ((OrConditionExpressionExecutor) expressionExecutor).getLeftConditionExecutor();
+                ExpressionExecutor right = and ?
+                        ((AndConditionExpressionExecutor) expressionExecutor).getRightConditionExecutor() :
+                        ((OrConditionExpressionExecutor) expressionExecutor).getRightConditionExecutor();
+                int leftLocal = generate(left, indent);
+                line(indent, "boolean v" + local + " = v" + leftLocal + ";");
+                line(indent, "if (" + (and ? "" : "!") + "v" + local + ") {");
+                int rightLocal = generate(right, indent + "    ");
+                line(indent + "    ", "v" + local + " = v" + rightLocal + ";");
+                line(indent, "}");
+            } else if (expressionExecutor instanceof NotConditionExpressionExecutor) {
+                int conditionLocal = generate(((NotConditionExpressionExecutor) expressionExecutor)
+                        .getConditionExecutor(), indent);
+                line(indent, "boolean v" + local + " = !v" + conditionLocal + ";");
+            } else if (type == Attribute.Type.BOOL) {
+                String executor = "executors[" + executors.size() + "]";
+                executors.add(expressionExecutor);
+                line(indent, "boolean v" + local + " = " + executor + ".executeBoolean(event);");
+            } else {
+                String executor = "executors[" + executors.size() + "]";
+                executors.add(expressionExecutor);
+                String javaType = javaType(type);
+                line(indent, "Object o" + local + " = " + executor + ".execute(event);");
+                line(indent, "boolean n" + local + " = o" + local + " == null;");
+                line(indent, javaType + " v" + local + " = n" + local + " ? 0 : ((Number) o" + local + ")." +
+                        javaType + "Value();");
+            }
+            return local;
+        }
+
+        private void line(String indent, String statement) {
+            body.append(indent).append(statement).append('\n');
+        }
+
+        private static ExpressionExecutor getLeftOperand(ExpressionExecutor expressionExecutor) {
+            try {
+                return (ExpressionExecutor) expressionExecutor.getClass().getMethod("getLeftExpressionExecutor")
+                        .invoke(expressionExecutor);
+            } catch (ReflectiveOperationException e) {
+                throw new SiddhiAppCreationException("Unable to read the left operand of " + expressionExecutor, e);
+            }
+        }
+
+        private static ExpressionExecutor getRightOperand(ExpressionExecutor expressionExecutor) {
+            try {
+                return (ExpressionExecutor) expressionExecutor.getClass().getMethod("getRightExpressionExecutor")
+                        .invoke(expressionExecutor);
+            } catch (ReflectiveOperationException e) {
+                throw new SiddhiAppCreationException("Unable to read the right operand of " + expressionExecutor, e);
+            }
+        }
+
+        private static String javaType(Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return "int";
+                case LONG:
+                    return "long";
+                case FLOAT:
+                    return "float";
+                case DOUBLE:
+                    return "double";
+                default:
+                    throw new SiddhiAppCreationException("Expressions of type " + type + " cannot be compiled");
+            }
+        }
+
+        private static String literal(Object value, Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return "(" + ((Number) value).intValue() + ")";
+                case LONG:
+                    return "(" + ((Number) value).longValue() + "L)";
+                case FLOAT:
+                    return "Float.intBitsToFloat(" + Float.floatToRawIntBits(((Number) value).floatValue()) + ")";
+                default:
+                    return "Double.longBitsToDouble(" + Double.doubleToRawLongBits(((Number) value).doubleValue()) +
+                            "L)";
+            }
+        }
+    }
+}
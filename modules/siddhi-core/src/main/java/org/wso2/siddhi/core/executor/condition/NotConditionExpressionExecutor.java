@@ -41,12 +41,12 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
     }
 
     public Boolean execute(ComplexEvent event) {
-        Boolean result = (Boolean) conditionExecutor.execute(event);
-        if (result == Boolean.TRUE) {
-            return Boolean.FALSE;
-        } else {
-            return Boolean.TRUE;
-        }
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return !conditionExecutor.executeBoolean(event);
     }
 
     @Override
@@ -54,6 +54,10 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
         return new NotConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
     @Override
     public void clean() {
         conditionExecutor.clean();
@@ -63,16 +63,12 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
     }
 
     public Boolean execute(ComplexEvent event) {
-        Object leftResult = leftConditionExecutor.execute(event);
-        if (leftResult != null && (Boolean) leftResult) {
-            return Boolean.TRUE;
-        } else {
-            Object rightResult = rightConditionExecutor.execute(event);
-            if (rightResult != null && (Boolean) rightResult) {
-                return Boolean.TRUE;
-            }
-        }
-        return Boolean.FALSE;
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return leftConditionExecutor.executeBoolean(event) || rightConditionExecutor.executeBoolean(event);
     }
 
     @Override
@@ -81,6 +77,14 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
                 .cloneExecutor(key));
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
+
     @Override
     public void clean() {
         leftConditionExecutor.clean();
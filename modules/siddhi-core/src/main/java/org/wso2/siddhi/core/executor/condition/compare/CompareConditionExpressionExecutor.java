@@ -28,15 +28,27 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    private final boolean primitiveExecution;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
     }
 
 
     public Boolean execute(ComplexEvent event) {
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        if (primitiveExecution) {
+            return !(leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) &&
+                    executePrimitive(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
@@ -44,6 +56,26 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected abstract Boolean execute(Object left, Object right);
 
+    /**
+     * Compare the non null operands without boxing them, numeric executors override this to read the operands
+     * through {@link ExpressionExecutor#executeLong(ComplexEvent)} and
+     * {@link ExpressionExecutor#executeDouble(ComplexEvent)}
+     *
+     * @param event event to be evaluated
+     * @return result of the comparison
+     */
+    protected boolean executePrimitive(ComplexEvent event) {
+        return execute(leftExpressionExecutor.execute(event), rightExpressionExecutor.execute(event));
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     @Override
     public void clean() {
         leftExpressionExecutor.clean();
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greaterthan;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,6 +37,11 @@ public class GreaterThanCompareConditionExpressionExecutorIntInt extends Greater
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (int) leftExpressionExecutor.executeLong(event) > (int) rightExpressionExecutor.executeLong(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new GreaterThanCompareConditionExpressionExecutorIntInt(leftExpressionExecutor.cloneExecutor(key),
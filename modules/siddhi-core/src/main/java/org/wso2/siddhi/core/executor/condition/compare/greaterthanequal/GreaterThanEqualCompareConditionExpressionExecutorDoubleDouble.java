@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -39,6 +40,11 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble exte
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) >= rightExpressionExecutor.executeDouble(event);
+    }
+
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
@@ -45,6 +45,35 @@ public class AddExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() + ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeDouble(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) + rightExpressionExecutor.executeDouble(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
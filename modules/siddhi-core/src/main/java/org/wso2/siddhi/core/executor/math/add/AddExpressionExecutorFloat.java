@@ -44,6 +44,42 @@ public class AddExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() + ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution() &&
+                leftExpressionExecutor.getReturnType() != Attribute.Type.LONG &&
+                rightExpressionExecutor.getReturnType() != Attribute.Type.LONG;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeFloat(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeFloat(event);
+    }
+
+    private float executeFloat(ComplexEvent event) {
+        return (float) leftExpressionExecutor.executeDouble(event) +
+                (float) rightExpressionExecutor.executeDouble(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
@@ -45,6 +45,39 @@ public class AddExpressionExecutorInt implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    private int executeInt(ComplexEvent event) {
+        return (int) leftExpressionExecutor.executeLong(event) + (int) rightExpressionExecutor.executeLong(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
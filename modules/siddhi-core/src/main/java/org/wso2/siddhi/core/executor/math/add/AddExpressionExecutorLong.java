@@ -46,6 +46,35 @@ public class AddExpressionExecutorLong implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return leftExpressionExecutor.executeLong(event) + rightExpressionExecutor.executeLong(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeLong(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
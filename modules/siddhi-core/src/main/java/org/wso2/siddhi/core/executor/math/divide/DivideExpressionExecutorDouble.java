@@ -50,6 +50,39 @@ public class DivideExpressionExecutorDouble implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (leftExpressionExecutor.isNull(event)) {
+            return true;
+        }
+        Object rightObject = rightExpressionExecutor.execute(event);
+        return rightObject == null || ((Number) rightObject).doubleValue() == 0.0;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeDouble(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) / rightExpressionExecutor.executeDouble(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
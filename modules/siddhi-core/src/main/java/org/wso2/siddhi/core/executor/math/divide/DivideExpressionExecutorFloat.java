@@ -49,6 +49,46 @@ public class DivideExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() / right;
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution() &&
+                leftExpressionExecutor.getReturnType() != Attribute.Type.LONG &&
+                rightExpressionExecutor.getReturnType() != Attribute.Type.LONG;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (leftExpressionExecutor.isNull(event)) {
+            return true;
+        }
+        Object rightObject = rightExpressionExecutor.execute(event);
+        return rightObject == null || ((Number) rightObject).floatValue() == 0.0f;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeFloat(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeFloat(event);
+    }
+
+    private float executeFloat(ComplexEvent event) {
+        return (float) leftExpressionExecutor.executeDouble(event) /
+                (float) rightExpressionExecutor.executeDouble(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
@@ -49,6 +49,43 @@ public class DivideExpressionExecutorInt implements ExpressionExecutor {
         return ((Number) leftObject).intValue() / right;
     }
 
+    @Override
+    public boolean supportsPrimitiveExecution() {
+        return leftExpressionExecutor.supportsPrimitiveExecution() &&
+                rightExpressionExecutor.supportsPrimitiveExecution();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (leftExpressionExecutor.isNull(event)) {
+            return true;
+        }
+        Object rightObject = rightExpressionExecutor.execute(event);
+        return rightObject == null || ((Number) rightObject).intValue() == 0;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    private int executeInt(ComplexEvent event) {
+        return (int) leftExpressionExecutor.executeLong(event) / (int) rightExpressionExecutor.executeLong(event);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
@@ -18,6 +18,8 @@
 package org.wso2.siddhi.core.partition;
 
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 
 import java.util.List;
 
@@ -28,12 +30,27 @@ import java.util.List;
 public class PartitionInstanceRuntime {
     private String key;
     private List<QueryRuntime> queryRuntimeList;
+    private List<String> streamJunctionKeys;
+    private List<Snapshotable> snapshotables;
+    private List<EternalReferencedHolder> eternalReferencedHolders;
+    private volatile long lastAccessTime;
 
     public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList) {
         this.key = key;
         this.queryRuntimeList = queryRuntimeList;
     }
 
+    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList, List<String> streamJunctionKeys,
+                                    List<Snapshotable> snapshotables,
+                                    List<EternalReferencedHolder> eternalReferencedHolders, long lastAccessTime) {
+        this.key = key;
+        this.queryRuntimeList = queryRuntimeList;
+        this.streamJunctionKeys = streamJunctionKeys;
+        this.snapshotables = snapshotables;
+        this.eternalReferencedHolders = eternalReferencedHolders;
+        this.lastAccessTime = lastAccessTime;
+    }
+
     public List<QueryRuntime> getQueryRuntimeList() {
         return queryRuntimeList;
     }
@@ -42,6 +59,33 @@ public class PartitionInstanceRuntime {
         return key;
     }
 
-}
+    /**
+     * @return keys of the local stream junctions created for this partition instance
+     */
+    public List<String> getStreamJunctionKeys() {
+        return streamJunctionKeys;
+    }
+
+    /**
+     * @return snapshotables registered when the queries of this partition instance were cloned
+     */
+    public List<Snapshotable> getSnapshotables() {
+        return snapshotables;
+    }
+
+    /**
+     * @return eternal referenced holders registered when the queries of this partition instance were cloned
+     */
+    public List<EternalReferencedHolder> getEternalReferencedHolders() {
+        return eternalReferencedHolders;
+    }
 
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
 
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
+}
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.partition;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
@@ -31,10 +32,14 @@ import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoWindowCallback;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -52,6 +57,8 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -60,6 +67,9 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Runtime class to handle partitioning. It will hold all information regarding current partitions and wil create
@@ -67,6 +77,7 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class PartitionRuntime implements Snapshotable {
 
+    private static final Logger log = Logger.getLogger(PartitionRuntime.class);
 
     private String partitionId;
     private String elementId;
@@ -85,6 +96,13 @@ public class PartitionRuntime implements Snapshotable {
             PartitionStreamReceiver>();
     private SiddhiAppContext siddhiAppContext;
     private MemoryUsageTracker memoryUsageTracker;
+    private CounterTracker liveInstanceCounter;
+    private CounterTracker purgedInstanceCounter;
+    private boolean purgingEnabled = false;
+    private long purgeInterval;
+    private long purgeIdlePeriod;
+    private ReentrantReadWriteLock purgeLock;
+    private ScheduledFuture purgingTaskStatus;
 
     public PartitionRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
                             ConcurrentMap<String, AbstractDefinition> windowDefinitionMap,
@@ -108,6 +126,11 @@ public class PartitionRuntime implements Snapshotable {
         if (partitionId == null) {
             this.partitionId = UUID.randomUUID().toString();
         }
+        initPurging(partition);
+        liveInstanceCounter = QueryParserHelper.createCounterTracker(siddhiAppContext, partitionId,
+                SiddhiConstants.METRIC_INFIX_PARTITIONS, "instances");
+        purgedInstanceCounter = QueryParserHelper.createCounterTracker(siddhiAppContext, partitionId,
+                SiddhiConstants.METRIC_INFIX_PARTITIONS, "instances.purged");
         elementId = "PartitionRuntime-" + siddhiAppContext.getElementIdGenerator().createNewId();
         siddhiAppContext.getSnapshotService().addSnapshotable("partition", this);
         this.partition = partition;
@@ -116,6 +139,43 @@ public class PartitionRuntime implements Snapshotable {
         this.streamJunctionMap = streamJunctionMap;
     }
 
+    private void initPurging(Partition partition) {
+        Annotation purge = AnnotationHelper.getAnnotation(SiddhiConstants.NAMESPACE_PURGE,
+                partition.getAnnotations());
+        if (purge == null) {
+            return;
+        }
+        String purgeEnable = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE);
+        if (purgeEnable != null) {
+            if (!("true".equalsIgnoreCase(purgeEnable) || "false".equalsIgnoreCase(purgeEnable))) {
+                throw new SiddhiAppCreationException("Invalid value for enable: " + purgeEnable + " in @purge of " +
+                        "partition '" + partitionId + "'. Please use true or false");
+            }
+            purgingEnabled = Boolean.parseBoolean(purgeEnable);
+        }
+        if (purgingEnabled) {
+            String interval = purge.getElement(SiddhiConstants.NAMESPACE_INTERVAL);
+            String idlePeriod = purge.getElement(SiddhiConstants.NAMESPACE_IDLE_PERIOD);
+            if (interval == null || idlePeriod == null) {
+                throw new SiddhiAppCreationException("Both '" + SiddhiConstants.NAMESPACE_INTERVAL + "' and '" +
+                        SiddhiConstants.NAMESPACE_IDLE_PERIOD + "' need to be defined in @purge of partition '" +
+                        partitionId + "'");
+            }
+            purgeInterval = timeToLong(interval);
+            purgeIdlePeriod = timeToLong(idlePeriod);
+            purgeLock = new ReentrantReadWriteLock();
+        }
+    }
+
+    private long timeToLong(String value) {
+        try {
+            return SiddhiCompiler.parseTimeConstantDefinition(value).value();
+        } catch (SiddhiParserException e) {
+            throw new SiddhiAppCreationException("Invalid time value '" + value + "' in @purge of partition '" +
+                    partitionId + "'", e);
+        }
+    }
+
     public QueryRuntime addQuery(QueryRuntime metaQueryRuntime) {
         Query query = metaQueryRuntime.getQuery();
 
@@ -255,8 +315,11 @@ public class PartitionRuntime implements Snapshotable {
      * @param key partition key
      */
     public void cloneIfNotExist(String key) {
-        if (!partitionInstanceRuntimeMap.containsKey(key)) {
+        PartitionInstanceRuntime partitionInstance = partitionInstanceRuntimeMap.get(key);
+        if (partitionInstance == null) {
             clonePartition(key);
+        } else if (purgingEnabled) {
+            partitionInstance.setLastAccessTime(siddhiAppContext.getTimestampGenerator().currentTime());
         }
     }
 
@@ -266,47 +329,74 @@ public class PartitionRuntime implements Snapshotable {
         if (partitionInstance == null) {
             List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
             List<QueryRuntime> partitionedQueryRuntimeList = new ArrayList<QueryRuntime>();
+            List<String> streamJunctionKeys = new ArrayList<String>();
+            List<Snapshotable> snapshotables = new ArrayList<Snapshotable>();
+            List<EternalReferencedHolder> eternalReferencedHolders = new ArrayList<EternalReferencedHolder>();
+            for (String streamId : localStreamDefinitionMap.keySet()) {
+                streamJunctionKeys.add(streamId + key);
+            }
+            for (String streamId : partitionStreamReceivers.keySet()) {
+                streamJunctionKeys.add(streamId + key);
+            }
+            SnapshotService.getRecordSnapshotableThreadLocal().set(snapshotables);
+            siddhiAppContext.getRecordEternalReferencedHolderThreadLocal().set(eternalReferencedHolders);
+            try {
+                cloneQueryRuntimes(key, queryRuntimeList, partitionedQueryRuntimeList, streamJunctionKeys);
+            } finally {
+                SnapshotService.getRecordSnapshotableThreadLocal().remove();
+                siddhiAppContext.getRecordEternalReferencedHolderThreadLocal().remove();
+            }
+            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList,
+                    streamJunctionKeys, snapshotables, eternalReferencedHolders,
+                    siddhiAppContext.getTimestampGenerator().currentTime()));
+            updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
+            if (liveInstanceCounter != null) {
+                liveInstanceCounter.inc();
+            }
+        }
 
-            for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
-
-                QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
-                queryRuntimeList.add(clonedQueryRuntime);
-
-                QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), queryRuntime,
-                        SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
-
-                if (queryRuntime.isFromLocalStream()) {
-                    for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size(); i++) {
-                        String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
-                                .getProcessStreamReceiver().getStreamId();
-                        StreamDefinition streamDefinition = null;
-                        if (streamId.startsWith("#")) {
-                            streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
-                        } else {
-                            streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
-                            if (streamDefinition == null) {
-                                streamDefinition = (StreamDefinition) windowDefinitionMap.get(streamId);
-                            }
-                        }
-                        StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
-                        if (streamJunction == null) {
-                            streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
-                                    .getExecutorThreadFactory(),
-                                    siddhiAppContext.getBufferSize(),
-                                    null, siddhiAppContext);
-                            localStreamJunctionMap.put(streamId + key, streamJunction);
+    }
+
+    private void cloneQueryRuntimes(String key, List<QueryRuntime> queryRuntimeList,
+                                    List<QueryRuntime> partitionedQueryRuntimeList,
+                                    List<String> streamJunctionKeys) {
+        for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
+
+            QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
+            queryRuntimeList.add(clonedQueryRuntime);
+
+            QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), clonedQueryRuntime,
+                    SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
+
+            if (queryRuntime.isFromLocalStream()) {
+                for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size(); i++) {
+                    String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
+                            .getProcessStreamReceiver().getStreamId();
+                    StreamDefinition streamDefinition = null;
+                    if (streamId.startsWith("#")) {
+                        streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
+                    } else {
+                        streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
+                        if (streamDefinition == null) {
+                            streamDefinition = (StreamDefinition) windowDefinitionMap.get(streamId);
                         }
-                        streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().get
-                                (i).getProcessStreamReceiver());
                     }
-                } else {
-                    partitionedQueryRuntimeList.add(clonedQueryRuntime);
+                    StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
+                    if (streamJunction == null) {
+                        streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
+                                .getExecutorThreadFactory(),
+                                siddhiAppContext.getBufferSize(),
+                                null, siddhiAppContext);
+                        localStreamJunctionMap.put(streamId + key, streamJunction);
+                        streamJunctionKeys.add(streamId + key);
+                    }
+                    streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().get
+                            (i).getProcessStreamReceiver());
                 }
+            } else {
+                partitionedQueryRuntimeList.add(clonedQueryRuntime);
             }
-            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
-            updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
         }
-
     }
 
     private void updatePartitionStreamReceivers(String key, List<QueryRuntime> partitionedQueryRuntimeList) {
@@ -315,6 +405,100 @@ public class PartitionRuntime implements Snapshotable {
         }
     }
 
+    /**
+     * Start the periodic task that purges the partition instances which have not received events for the configured
+     * idle period. This is a no-op unless purging is enabled via the @purge annotation of the partition.
+     */
+    public void startPurging() {
+        if (purgingEnabled) {
+            if (purgingTaskStatus != null) {
+                purgingTaskStatus.cancel(false);
+            }
+            purgingTaskStatus = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(
+                    this::purgeIdleInstances, purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void purgeIdleInstances() {
+        try {
+            long idleSince = siddhiAppContext.getTimestampGenerator().currentTime() - purgeIdlePeriod;
+            List<PartitionInstanceRuntime> idleInstances = new ArrayList<PartitionInstanceRuntime>();
+            for (PartitionInstanceRuntime partitionInstance : partitionInstanceRuntimeMap.values()) {
+                if (partitionInstance.getLastAccessTime() < idleSince) {
+                    idleInstances.add(partitionInstance);
+                }
+            }
+            if (idleInstances.isEmpty()) {
+                return;
+            }
+            // Stop events from reaching the partition, and snapshots from being taken, while instances are removed
+            purgeLock.writeLock().lock();
+            try {
+                siddhiAppContext.getThreadBarrier().lock();
+                try {
+                    int purgedCount = 0;
+                    for (PartitionInstanceRuntime partitionInstance : idleInstances) {
+                        if (partitionInstance.getLastAccessTime() < idleSince) {
+                            removePartitionInstance(partitionInstance);
+                            purgedCount++;
+                        }
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug("Purged " + purgedCount + " idle instances of partition '" + partitionId +
+                                "' in Siddhi App '" + siddhiAppContext.getName() + "'");
+                    }
+                } finally {
+                    siddhiAppContext.getThreadBarrier().unlock();
+                }
+            } finally {
+                purgeLock.writeLock().unlock();
+            }
+        } catch (Throwable t) {
+            log.error("Error when purging idle instances of partition '" + partitionId + "' in Siddhi App '" +
+                    siddhiAppContext.getName() + "'", t);
+        }
+    }
+
+    private synchronized void removePartitionInstance(PartitionInstanceRuntime partitionInstance) {
+        String key = partitionInstance.getKey();
+        if (!partitionInstanceRuntimeMap.remove(key, partitionInstance)) {
+            return;
+        }
+        for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
+            partitionStreamReceiver.removeStreamJunction(key);
+        }
+        for (String streamJunctionKey : partitionInstance.getStreamJunctionKeys()) {
+            localStreamJunctionMap.remove(streamJunctionKey);
+        }
+        for (EternalReferencedHolder eternalReferencedHolder : partitionInstance.getEternalReferencedHolders()) {
+            eternalReferencedHolder.stop();
+            siddhiAppContext.removeEternalReferencedHolder(eternalReferencedHolder);
+        }
+        for (Snapshotable snapshotable : partitionInstance.getSnapshotables()) {
+            snapshotable.clean();
+        }
+        for (QueryRuntime queryRuntime : partitionInstance.getQueryRuntimeList()) {
+            queryRuntime.getSelector().cleanGroupByState();
+            if (memoryUsageTracker != null) {
+                memoryUsageTracker.unregisterObject(queryRuntime);
+            }
+        }
+        if (liveInstanceCounter != null) {
+            liveInstanceCounter.dec();
+        }
+        if (purgedInstanceCounter != null) {
+            purgedInstanceCounter.inc();
+        }
+    }
+
+    /**
+     * @return lock to be held for reading while sending events to a partition instance, or null when purging is
+     * disabled
+     */
+    ReentrantReadWriteLock getPurgeLock() {
+        return purgeLock;
+    }
+
     public void addStreamJunction(String key, StreamJunction streamJunction) {
         localStreamJunctionMap.put(key, streamJunction);
     }
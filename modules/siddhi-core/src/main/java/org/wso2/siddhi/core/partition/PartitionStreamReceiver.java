@@ -30,11 +30,14 @@ import org.wso2.siddhi.core.partition.executor.PartitionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Specific {@link StreamJunction.Receiver} implementation to pump events into partitions. This will send the event
@@ -63,7 +66,9 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         this.partitionExecutors = partitionExecutors;
         this.siddhiAppContext = siddhiAppContext;
         this.streamId = streamDefinition.getId();
-        this.eventPool = new StreamEventPool(metaStreamEvent, 5);
+        this.eventPool = QueryParserHelper.createStreamEventPool(siddhiAppContext, metaStreamEvent,
+                partitionRuntime.getPartitionId() + SiddhiConstants.METRIC_DELIMITER + streamId,
+                SiddhiConstants.METRIC_INFIX_PARTITIONS);
 
     }
 
@@ -84,7 +89,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
             ComplexEvent aComplexEvent = complexEvent;
             while (aComplexEvent != null) {
-                StreamEvent borrowedEvent = borrowEvent();
+                StreamEvent borrowedEvent = eventPool.borrowEvent();
                 streamEventConverter.convertComplexEvent(aComplexEvent, borrowedEvent);
                 outputEventChunk.add(borrowedEvent);
                 aComplexEvent = aComplexEvent.getNext();
@@ -93,7 +98,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         } else {
             if (complexEvent.getNext() == null) {
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                    StreamEvent borrowedEvent = borrowEvent();
+                    StreamEvent borrowedEvent = eventPool.borrowEvent();
                     streamEventConverter.convertComplexEvent(complexEvent, borrowedEvent);
                     String key = partitionExecutor.execute(borrowedEvent);
                     send(key, borrowedEvent);
@@ -106,7 +111,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 while (complexEventChunk.hasNext()) {
                     ComplexEvent aEvent = complexEventChunk.next();
                     complexEventChunk.remove();
-                    StreamEvent borrowedEvent = borrowEvent();
+                    StreamEvent borrowedEvent = eventPool.borrowEvent();
                     streamEventConverter.convertComplexEvent(aEvent, borrowedEvent);
                     boolean currentEventMatchedPrevPartitionExecutor = false;
                     for (PartitionExecutor partitionExecutor : partitionExecutors) {
@@ -125,7 +130,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                                     send(currentKey, firstEvent);
                                     currentKey = key;
                                     outputEventChunk.clear();
-                                    StreamEvent cloneEvent = borrowEvent();
+                                    StreamEvent cloneEvent = eventPool.borrowEvent();
                                     streamEventConverter.convertComplexEvent(aEvent, cloneEvent);
                                     outputEventChunk.add(cloneEvent);
                                 }
@@ -146,7 +151,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     @Override
     public void receive(Event event) {
-        StreamEvent borrowedEvent = borrowEvent();
+        StreamEvent borrowedEvent = eventPool.borrowEvent();
         streamEventConverter.convertEvent(event, borrowedEvent);
         for (PartitionExecutor partitionExecutor : partitionExecutors) {
             String key = partitionExecutor.execute(borrowedEvent);
@@ -155,12 +160,12 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         if (partitionExecutors.size() == 0) {
             send(borrowedEvent);
         }
-        returnEvents(borrowedEvent);
+        eventPool.returnEvents(borrowedEvent);
     }
 
     @Override
     public void receive(long timestamp, Object[] data) {
-        StreamEvent borrowedEvent = borrowEvent();
+        StreamEvent borrowedEvent = eventPool.borrowEvent();
         streamEventConverter.convertData(timestamp, data, borrowedEvent);
         if (partitionExecutors.size() == 0) {
             send(borrowedEvent);
@@ -170,31 +175,31 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 send(key, borrowedEvent);
             }
         }
-        returnEvents(borrowedEvent);
+        eventPool.returnEvents(borrowedEvent);
     }
 
     @Override
     public void receive(Event[] events) {
         if (partitionExecutors.size() == 0) {
             StreamEvent currentEvent;
-            StreamEvent firstEvent = borrowEvent();
+            StreamEvent firstEvent = eventPool.borrowEvent();
             streamEventConverter.convertEvent(events[0], firstEvent);
             currentEvent = firstEvent;
             for (int i = 1; i < events.length; i++) {
-                StreamEvent nextEvent = borrowEvent();
+                StreamEvent nextEvent = eventPool.borrowEvent();
                 streamEventConverter.convertEvent(events[i], nextEvent);
                 currentEvent.setNext(nextEvent);
                 currentEvent = nextEvent;
             }
             send(firstEvent);
-            returnEvents(firstEvent);
+            eventPool.returnEvents(firstEvent);
 
         } else {
             String key = null;
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = borrowEvent();
+                StreamEvent nextEvent = eventPool.borrowEvent();
                 streamEventConverter.convertEvent(event, nextEvent);
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
                     String currentKey = partitionExecutor.execute(nextEvent);
@@ -204,7 +209,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                             firstEvent = nextEvent;
                         } else if (!currentKey.equals(key)) {
                             send(key, firstEvent);
-                            returnEvents(firstEvent);
+                            eventPool.returnEvents(firstEvent);
                             key = currentKey;
                             firstEvent = nextEvent;
                         } else {
@@ -215,7 +220,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 }
             }
             send(key, firstEvent);
-            returnEvents(firstEvent);
+            eventPool.returnEvents(firstEvent);
         }
 
     }
@@ -226,7 +231,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = borrowEvent();
+                StreamEvent nextEvent = eventPool.borrowEvent();
                 streamEventConverter.convertEvent(event, nextEvent);
                 if (firstEvent == null) {
                     firstEvent = nextEvent;
@@ -236,13 +241,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 currentEvent = nextEvent;
             }
             send(firstEvent);
-            returnEvents(firstEvent);
+            eventPool.returnEvents(firstEvent);
         } else {
             String key = null;
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = borrowEvent();
+                StreamEvent nextEvent = eventPool.borrowEvent();
                 streamEventConverter.convertEvent(event, nextEvent);
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
                     String currentKey = partitionExecutor.execute(nextEvent);
@@ -252,7 +257,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                             firstEvent = nextEvent;
                         } else if (!currentKey.equals(key)) {
                             send(key, firstEvent);
-                            returnEvents(firstEvent);
+                            eventPool.returnEvents(firstEvent);
                             key = currentKey;
                             firstEvent = nextEvent;
                         } else {
@@ -263,14 +268,25 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 }
             }
             send(key, firstEvent);
-            returnEvents(firstEvent);
+            eventPool.returnEvents(firstEvent);
         }
     }
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
-            partitionRuntime.cloneIfNotExist(key);
-            cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+            ReentrantReadWriteLock purgeLock = partitionRuntime.getPurgeLock();
+            if (purgeLock == null) {
+                partitionRuntime.cloneIfNotExist(key);
+                cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+            } else {
+                purgeLock.readLock().lock();
+                try {
+                    partitionRuntime.cloneIfNotExist(key);
+                    cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+                } finally {
+                    purgeLock.readLock().unlock();
+                }
+            }
         }
     }
 
@@ -309,16 +325,17 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * remove the local streamJunction of a purged partition instance
+     *
+     * @param key partitioning key
+     */
+    public void removeStreamJunction(String key) {
+        cachedStreamJunctionMap.remove(streamId + key);
+    }
+
     private StreamJunction createStreamJunction() {
         return new StreamJunction(streamDefinition, siddhiAppContext.getExecutorThreadFactory(),
                 siddhiAppContext.getBufferSize(), null, siddhiAppContext);
     }
-
-    private synchronized StreamEvent borrowEvent() {
-        return eventPool.borrowEvent();
-    }
-
-    private synchronized void returnEvents(StreamEvent events) {
-        eventPool.returnEvents(events);
-    }
 }
@@ -19,6 +19,7 @@ package org.wso2.siddhi.core.query;
 
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.query.input.MultiProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
@@ -27,6 +28,7 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.OutputParser;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
@@ -57,6 +59,7 @@ public class QueryRuntime implements MemoryCalculable {
     private boolean toLocalStream;
     private QuerySelector selector;
     private MetaComplexEvent metaComplexEvent;
+    private StreamEventPool[] clonedStreamEventPools;
 
     public QueryRuntime(Query query, SiddhiAppContext siddhiAppContext, StreamRuntime streamRuntime,
                         QuerySelector selector,
@@ -135,7 +138,13 @@ public class QueryRuntime implements MemoryCalculable {
         QueryRuntime queryRuntime = new QueryRuntime(query, siddhiAppContext, clonedStreamRuntime, clonedSelector,
                 clonedOutputRateLimiter, outputCallback, this.metaComplexEvent,
                 synchronised, this.queryId + key);
-        QueryParserHelper.initStreamRuntime(clonedStreamRuntime, metaComplexEvent, lockWrapper, queryId);
+        if (clonedStreamEventPools == null) {
+            clonedStreamEventPools = new StreamEventPool[streamRuntime.getSingleStreamRuntimes().size()];
+        }
+        // The thread safe event pools are shared by all partition instances of the query, such that the pooled
+        // events do not grow with the number of partition keys
+        QueryParserHelper.initStreamRuntime(clonedStreamRuntime, metaComplexEvent, lockWrapper, queryId,
+                siddhiAppContext, SiddhiConstants.METRIC_INFIX_QUERIES, clonedStreamEventPools);
 
         queryRuntime.setToLocalStream(toLocalStream);
 
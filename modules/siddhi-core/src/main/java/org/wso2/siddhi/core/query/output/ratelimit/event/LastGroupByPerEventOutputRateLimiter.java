@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -37,7 +38,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
     private String id;
     private volatile int counter = 0;
-    private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<GroupByKey, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
 
     public LastGroupByPerEventOutputRateLimiter(String id, Integer value) {
         this.id = id;
@@ -106,6 +107,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
         counter = (int) state.get("Counter");
-        allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        allGroupByKeyEvents = (Map<GroupByKey, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        GroupByKey.checkRestoredKeys(allGroupByKeyEvents.keySet(), getElementId());
     }
 }
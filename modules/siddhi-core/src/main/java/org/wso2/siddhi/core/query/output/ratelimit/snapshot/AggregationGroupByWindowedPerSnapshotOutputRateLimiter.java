@@ -22,6 +22,7 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -37,7 +38,7 @@ import java.util.concurrent.ScheduledExecutorService;
 public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
                                                                     AggregationWindowedPerSnapshotOutputRateLimiter {
     private List<GroupedComplexEvent> eventList;
-    private Map<String, Map<Integer, Object>> groupByAggregateAttributeValueMap;
+    private Map<GroupByKey, Map<Integer, Object>> groupByAggregateAttributeValueMap;
 
     protected AggregationGroupByWindowedPerSnapshotOutputRateLimiter(String id, Long value, ScheduledExecutorService
             scheduledExecutorService, List<Integer> aggregateAttributePositionList, WrappedSnapshotOutputRateLimiter
@@ -47,7 +48,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
         super(id, value, scheduledExecutorService, aggregateAttributePositionList, wrappedSnapshotOutputRateLimiter,
               siddhiAppContext, queryName);
         this.queryName = queryName;
-        groupByAggregateAttributeValueMap = new HashMap<String, Map<Integer, Object>>();
+        groupByAggregateAttributeValueMap = new HashMap<GroupByKey, Map<Integer, Object>>();
         eventList = new LinkedList<GroupedComplexEvent>();
     }
 
@@ -57,7 +58,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
         List<ComplexEventChunk<ComplexEvent>> outputEventChunks = new ArrayList<ComplexEventChunk<ComplexEvent>>();
         synchronized (this) {
             complexEventChunk.reset();
-            String currentGroupByKey = null;
+            GroupByKey currentGroupByKey = null;
             Map<Integer, Object> currentAggregateAttributeValueMap = null;
             while (complexEventChunk.hasNext()) {
                 ComplexEvent event = complexEventChunk.next();
@@ -117,7 +118,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
     private void constructOutputChunk(List<ComplexEventChunk<ComplexEvent>> outputEventChunks) {
         ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
         for (GroupedComplexEvent originalComplexEvent : eventList) {
-            String currentGroupByKey = originalComplexEvent.getGroupKey();
+            GroupByKey currentGroupByKey = originalComplexEvent.getGroupKey();
             Map<Integer, Object> currentAggregateAttributeValueMap = groupByAggregateAttributeValueMap.get
                     (currentGroupByKey);
             ComplexEvent eventCopy = cloneComplexEvent(originalComplexEvent.getComplexEvent());
@@ -142,8 +143,10 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
         eventList = (List<GroupedComplexEvent>) state.get("EventList");
-        groupByAggregateAttributeValueMap = (Map<String, Map<Integer, Object>>) state.get
+        groupByAggregateAttributeValueMap = (Map<GroupByKey, Map<Integer, Object>>) state.get
                 ("GroupByAggregateAttributeValueMap");
+        GroupByKey.checkRestoredKeys(groupByAggregateAttributeValueMap.keySet(),
+                getClass().getSimpleName());
     }
 
     @Override
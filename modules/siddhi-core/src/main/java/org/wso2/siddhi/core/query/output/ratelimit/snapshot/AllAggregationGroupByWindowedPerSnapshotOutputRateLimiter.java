@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
@@ -44,7 +45,7 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
     private final ScheduledExecutorService scheduledExecutorService;
     String queryName;
     private String id;
-    private Map<String, LastEventHolder> groupByKeyEvents = new LinkedHashMap<String, LastEventHolder>();
+    private Map<GroupByKey, LastEventHolder> groupByKeyEvents = new LinkedHashMap<GroupByKey, LastEventHolder>();
     private Scheduler scheduler;
     private long scheduledTime;
 
@@ -147,7 +148,8 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        groupByKeyEvents = (Map<String, LastEventHolder>) state.get("GroupByKeyEvents");
+        groupByKeyEvents = (Map<GroupByKey, LastEventHolder>) state.get("GroupByKeyEvents");
+        GroupByKey.checkRestoredKeys(groupByKeyEvents.keySet(), getClass().getSimpleName());
     }
 
     private class LastEventHolder {
@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
@@ -40,7 +41,7 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
     private final Long value;
     private String id;
     private ScheduledExecutorService scheduledExecutorService;
-    private Map<String, ComplexEvent> groupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<GroupByKey, ComplexEvent> groupByKeyEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
     private Scheduler scheduler;
     private long scheduledTime;
     private String queryName;
@@ -121,7 +122,7 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        groupByKeyEvents = (Map<String, ComplexEvent>) state.get("groupByKeyEvents");
+        groupByKeyEvents = (Map<GroupByKey, ComplexEvent>) state.get("groupByKeyEvents");
     }
 
     @Override
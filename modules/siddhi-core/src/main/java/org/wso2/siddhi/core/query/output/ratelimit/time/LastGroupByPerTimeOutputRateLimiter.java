@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.Schedulable;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
@@ -43,7 +44,7 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
     private static final Logger log = Logger.getLogger(LastGroupByPerTimeOutputRateLimiter.class);
     private final Long value;
     private String id;
-    private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<GroupByKey, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
     private ScheduledExecutorService scheduledExecutorService;
     private Scheduler scheduler;
     private long scheduledTime;
@@ -126,7 +127,8 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        allGroupByKeyEvents = (Map<GroupByKey, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        GroupByKey.checkRestoredKeys(allGroupByKeyEvents.keySet(), getElementId());
     }
 
 }
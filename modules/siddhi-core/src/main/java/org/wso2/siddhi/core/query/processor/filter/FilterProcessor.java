@@ -56,8 +56,7 @@ public class FilterProcessor implements Processor {
         complexEventChunk.reset();
         while (complexEventChunk.hasNext()) {
             ComplexEvent complexEvent = complexEventChunk.next();
-            Object result = conditionExecutor.execute(complexEvent);
-            if (result == null || !(Boolean) result) {
+            if (!conditionExecutor.executeBoolean(complexEvent)) {
                 complexEventChunk.remove();
             }
         }
@@ -40,12 +40,14 @@ import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * Sample Query:
@@ -96,7 +98,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private int lengthToKeep;
-    private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
+    private SortedWindow sortedWindow = new SortedWindow();
     private List<Object[]> parameterInfo;
     private EventComparator eventComparator;
 
@@ -160,8 +162,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
                 sortedWindow.add(clonedEvent);
                 if (sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = sortedWindow.remove(sortedWindow.size() - 1);
+                    StreamEvent expiredEvent = sortedWindow.pollLast();
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -186,7 +187,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("SortedWindow", sortedWindow);
+            state.put("SortedWindow", new ArrayList<StreamEvent>(sortedWindow));
         }
         return state;
     }
@@ -194,7 +195,8 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+        sortedWindow.clear();
+        sortedWindow.addAll((List<StreamEvent>) state.get("SortedWindow"));
     }
 
     @Override
@@ -211,6 +213,78 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
                 siddhiAppContext, variableExpressionExecutors, tableMap, this.queryName);
     }
 
+    /**
+     * Window events kept in a balanced tree ordered by the {@link EventComparator}. Events that compare equal are
+     * ordered by their arrival, so the last event is always the one to be expired next. Iterating the collection
+     * returns the events in the sorted order.
+     */
+    private class SortedWindow extends AbstractCollection<StreamEvent> {
+        private final TreeSet<SortedWindowEntry> entries = new TreeSet<SortedWindowEntry>(
+                new Comparator<SortedWindowEntry>() {
+                    @Override
+                    public int compare(SortedWindowEntry e1, SortedWindowEntry e2) {
+                        int comparisonResult = eventComparator.compare(e1.event, e2.event);
+                        if (comparisonResult != 0) {
+                            return comparisonResult;
+                        }
+                        return Long.compare(e1.sequence, e2.sequence);
+                    }
+                });
+        private long sequence = 0;
+
+        @Override
+        public boolean add(StreamEvent streamEvent) {
+            return entries.add(new SortedWindowEntry(streamEvent, sequence++));
+        }
+
+        StreamEvent pollLast() {
+            SortedWindowEntry entry = entries.pollLast();
+            return entry == null ? null : entry.event;
+        }
+
+        @Override
+        public Iterator<StreamEvent> iterator() {
+            final Iterator<SortedWindowEntry> iterator = entries.iterator();
+            return new Iterator<StreamEvent>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public StreamEvent next() {
+                    return iterator.next().event;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+            sequence = 0;
+        }
+    }
+
+    private static class SortedWindowEntry {
+        private final StreamEvent event;
+        private final long sequence;
+
+        SortedWindowEntry(StreamEvent event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+        }
+    }
+
     private class EventComparator implements Comparator<StreamEvent> {
         @Override
         public int compare(StreamEvent e1, StreamEvent e2) {
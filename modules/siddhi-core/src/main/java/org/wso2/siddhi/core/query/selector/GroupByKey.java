@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Key of a GroupBy group, holding the values of the group by attributes. The hash code is computed once when the key
+ * is created, and int and long values are kept as primitives.
+ * <p>
+ * Keys are generated by {@link GroupByKeyGenerator}, and are only equal to keys of the same generator having the
+ * same values.
+ */
+public abstract class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = 5049364426542377325L;
+
+    private final int hashCode;
+
+    private GroupByKey(int hashCode) {
+        this.hashCode = hashCode;
+    }
+
+    @Override
+    public final int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * @return the values of the group by attributes, each followed by {@link SiddhiConstants#KEY_DELIMITER}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendValues(sb);
+        return sb.toString();
+    }
+
+    abstract void appendValues(StringBuilder sb);
+
+    /**
+     * Check the keys of the groups of a restored state. Snapshots taken before the groups were keyed by
+     * {@link GroupByKey}s key them by strings concatenating the group by values, and cannot be restored.
+     *
+     * @param groupKeys keys of the restored groups
+     * @param element   id or name of the element restoring the state
+     */
+    public static void checkRestoredKeys(Collection<?> groupKeys, String element) {
+        for (Object groupKey : groupKeys) {
+            if (groupKey != null && !(groupKey instanceof GroupByKey)) {
+                throw new SiddhiAppRuntimeException("Cannot restore the groups of '" + element + "', as the " +
+                        "snapshot keys them by strings, such as '" + groupKey + "'. Snapshots taken by Siddhi " +
+                        "versions keying the groups by strings are not compatible with this version.");
+            }
+        }
+    }
+
+    /**
+     * Key of a single attribute
+     */
+    static final class ObjectKey extends GroupByKey {
+
+        private static final long serialVersionUID = -1784233455542066377L;
+
+        private final Object value;
+
+        ObjectKey(Object value) {
+            super(Objects.hashCode(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof ObjectKey && hashCode() == o.hashCode() &&
+                    Objects.equals(value, ((ObjectKey) o).value));
+        }
+
+        @Override
+        void appendValues(StringBuilder sb) {
+            sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+        }
+    }
+
+    /**
+     * Key of a single int or long attribute
+     */
+    static final class LongKey extends GroupByKey {
+
+        private static final long serialVersionUID = 3315672815276436010L;
+
+        private final long value;
+
+        LongKey(long value) {
+            super(Long.hashCode(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof LongKey && value == ((LongKey) o).value);
+        }
+
+        @Override
+        void appendValues(StringBuilder sb) {
+            sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+        }
+    }
+
+    /**
+     * Key of several attributes
+     */
+    static final class ObjectArrayKey extends GroupByKey {
+
+        private static final long serialVersionUID = 8190127066405271573L;
+
+        private final Object[] values;
+
+        ObjectArrayKey(Object[] values) {
+            super(Arrays.hashCode(values));
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof ObjectArrayKey && hashCode() == o.hashCode() &&
+                    Arrays.equals(values, ((ObjectArrayKey) o).values));
+        }
+
+        @Override
+        void appendValues(StringBuilder sb) {
+            for (Object value : values) {
+                sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+            }
+        }
+    }
+
+    /**
+     * Key of several int and long attributes
+     */
+    static final class LongArrayKey extends GroupByKey {
+
+        private static final long serialVersionUID = -4412545437453164931L;
+
+        private final long[] values;
+
+        LongArrayKey(long[] values) {
+            super(Arrays.hashCode(values));
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof LongArrayKey && hashCode() == o.hashCode() &&
+                    Arrays.equals(values, ((LongArrayKey) o).values));
+        }
+
+        @Override
+        void appendValues(StringBuilder sb) {
+            for (long value : values) {
+                sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary assigning dense int ids to the GroupBy keys of a selector, such that the aggregations of the selector
+ * can keep the state of all the groups in arrays indexed by the group id, instead of a map and an object per group.
+ * <p>
+ * An id is assigned when an aggregation first asks for the id of a key, and the aggregations retain the ids they
+ * hold state for. When the last aggregation releases an id, the key is removed and the id is reused for a new key.
+ * The dictionary also holds the key of the event being processed, set by the selector before its aggregations are
+ * executed. It is not thread safe, and is used under the lock of the selector.
+ * <p>
+ * When idle groups are purged, the dictionary also tracks when each group was last seen, and asks the aggregations
+ * holding state for an idle group to remove it.
+ */
+public final class GroupByKeyDictionary {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final boolean shareable;
+    private final Map<GroupByKey, Integer> ids = new HashMap<>();
+    private GroupByKey[] keys = new GroupByKey[INITIAL_CAPACITY];
+    private int[] references = new int[INITIAL_CAPACITY];
+    private long[] lastAccessTimes;
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount = 0;
+    private int nextId = 0;
+    private GroupByKey currentKey;
+    private int currentGroupId = -1;
+    private final List<GroupStateHolder> groupStateHolders = new ArrayList<>();
+    private TimestampGenerator timestampGenerator;
+    private CounterTracker liveGroupCounter;
+
+    public GroupByKeyDictionary() {
+        this(true);
+    }
+
+    /**
+     * @param shareable whether aggregations can keep their state by the ids of this dictionary. Dictionaries which
+     *                  are only used to pass the key of the current event are not shareable, as when each group has
+     *                  its own aggregations.
+     */
+    public GroupByKeyDictionary(boolean shareable) {
+        this.shareable = shareable;
+    }
+
+    public boolean isShareable() {
+        return shareable;
+    }
+
+    /**
+     * Track when each group was last seen, such that idle groups can be purged
+     */
+    public void trackAccessTimes(TimestampGenerator timestampGenerator) {
+        this.timestampGenerator = timestampGenerator;
+        this.lastAccessTimes = new long[keys.length];
+    }
+
+    public void setLiveGroupCounter(CounterTracker liveGroupCounter) {
+        this.liveGroupCounter = liveGroupCounter;
+    }
+
+    public void addGroupStateHolder(GroupStateHolder groupStateHolder) {
+        groupStateHolders.add(groupStateHolder);
+    }
+
+    public void removeGroupStateHolder(GroupStateHolder groupStateHolder) {
+        groupStateHolders.remove(groupStateHolder);
+    }
+
+    public void setCurrentKey(GroupByKey currentKey) {
+        this.currentKey = currentKey;
+        this.currentGroupId = -1;
+    }
+
+    public GroupByKey getCurrentKey() {
+        return currentKey;
+    }
+
+    /**
+     * @return id of the key of the event being processed, assigning one if the key does not have an id yet
+     */
+    public int getCurrentGroupId() {
+        if (currentGroupId == -1) {
+            currentGroupId = getId(currentKey);
+            if (timestampGenerator != null) {
+                lastAccessTimes[currentGroupId] = timestampGenerator.currentTime();
+            }
+        }
+        return currentGroupId;
+    }
+
+    /**
+     * @return id of the given key, assigning one if the key does not have an id yet
+     */
+    public int getId(GroupByKey key) {
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId;
+        if (freeIdCount > 0) {
+            newId = freeIds[--freeIdCount];
+        } else {
+            newId = nextId++;
+            if (newId == keys.length) {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+                references = Arrays.copyOf(references, references.length * 2);
+                if (lastAccessTimes != null) {
+                    lastAccessTimes = Arrays.copyOf(lastAccessTimes, lastAccessTimes.length * 2);
+                }
+            }
+        }
+        keys[newId] = key;
+        ids.put(key, newId);
+        if (timestampGenerator != null) {
+            lastAccessTimes[newId] = timestampGenerator.currentTime();
+        }
+        if (liveGroupCounter != null) {
+            liveGroupCounter.inc();
+        }
+        return newId;
+    }
+
+    public GroupByKey getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * @return upper bound of the ids assigned so far
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public void retain(int id) {
+        references[id]++;
+    }
+
+    /**
+     * Release an id retained by an aggregation, removing its key when no aggregation holds state for it anymore
+     */
+    public void release(int id) {
+        if (--references[id] > 0) {
+            return;
+        }
+        ids.remove(keys[id]);
+        keys[id] = null;
+        references[id] = 0;
+        if (id == currentGroupId) {
+            currentGroupId = -1;
+        }
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+        if (liveGroupCounter != null) {
+            liveGroupCounter.dec();
+        }
+    }
+
+    /**
+     * Remove the state of the groups which have not been seen since the given time
+     *
+     * @return number of groups removed
+     */
+    public int purgeIdleGroups(long idleSince) {
+        if (lastAccessTimes == null) {
+            return 0;
+        }
+        int purgedCount = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (references[id] > 0 && lastAccessTimes[id] < idleSince) {
+                for (GroupStateHolder groupStateHolder : groupStateHolders) {
+                    groupStateHolder.removeGroup(id);
+                }
+                purgedCount++;
+            }
+        }
+        return purgedCount;
+    }
+
+    /**
+     * Stop counting the groups of the dictionary as live, when the selector using it is cleaned
+     */
+    public void clean() {
+        if (liveGroupCounter != null) {
+            liveGroupCounter.dec(ids.size());
+            liveGroupCounter = null;
+        }
+    }
+
+    /**
+     * Holder of state of the groups of a dictionary, such as an aggregation
+     */
+    public interface GroupStateHolder {
+
+        /**
+         * Remove the state of the group, releasing its id
+         *
+         * @param groupId id of the group
+         */
+        void removeGroup(int groupId);
+    }
+}
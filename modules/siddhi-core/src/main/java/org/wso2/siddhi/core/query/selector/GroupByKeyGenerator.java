@@ -23,8 +23,8 @@ import org.wso2.siddhi.core.event.MetaComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
-import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.List;
@@ -36,6 +36,8 @@ import java.util.Map;
 public class GroupByKeyGenerator {
 
     private ExpressionExecutor[] groupByExecutors = null;
+    // Whether all the group by attributes are int or long, such that keys can keep them as primitives
+    private boolean integralKey;
 
     public GroupByKeyGenerator(List<Expression> groupByList,
                                MetaComplexEvent metaComplexEvent,
@@ -49,6 +51,13 @@ public class GroupByKeyGenerator {
                         groupByList.get(i), metaComplexEvent, currentState, tableMap, executors,
                         siddhiContext, false, 0, queryName);
             }
+            integralKey = true;
+            for (ExpressionExecutor groupByExecutor : groupByExecutors) {
+                Attribute.Type type = groupByExecutor.getReturnType();
+                if (type != Attribute.Type.INT && type != Attribute.Type.LONG) {
+                    integralKey = false;
+                }
+            }
         }
     }
 
@@ -58,16 +67,47 @@ public class GroupByKeyGenerator {
      * @param event complexEvent
      * @return GroupByKey
      */
-    public String constructEventKey(ComplexEvent event) {
-        if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append(SiddhiConstants.KEY_DELIMITER);
-            }
-            return sb.toString();
-        } else {
+    public GroupByKey constructEventKey(ComplexEvent event) {
+        if (groupByExecutors == null) {
             return null;
         }
+        if (groupByExecutors.length == 1) {
+            Object value = groupByExecutors[0].execute(event);
+            if (integralKey && value != null) {
+                return new GroupByKey.LongKey(((Number) value).longValue());
+            }
+            return new GroupByKey.ObjectKey(value);
+        }
+        if (integralKey) {
+            long[] values = new long[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                Object value = groupByExecutors[i].execute(event);
+                if (value == null) {
+                    return constructObjectArrayKey(event, values, i);
+                }
+                values[i] = ((Number) value).longValue();
+            }
+            return new GroupByKey.LongArrayKey(values);
+        }
+        return constructObjectArrayKey(event, null, 0);
+    }
+
+    /**
+     * Construct the key from boxed values, continuing from the given int and long values already computed
+     */
+    private GroupByKey constructObjectArrayKey(ComplexEvent event, long[] computedValues, int computedCount) {
+        Object[] values = new Object[groupByExecutors.length];
+        for (int i = 0; i < computedCount; i++) {
+            if (groupByExecutors[i].getReturnType() == Attribute.Type.INT) {
+                values[i] = (int) computedValues[i];
+            } else {
+                values[i] = computedValues[i];
+            }
+        }
+        for (int i = computedCount; i < groupByExecutors.length; i++) {
+            values[i] = groupByExecutors[i].execute(event);
+        }
+        return new GroupByKey.ObjectArrayKey(values);
     }
 
     public void clean() {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic task removing the aggregation state of the groups of a GroupBy query which have not received events for
+ * the idle period configured via the @purge annotation of the query. Covers the selectors of all the instances of
+ * the query when it is within a partition.
+ */
+public class GroupByStatePurger implements EternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(GroupByStatePurger.class);
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final String queryName;
+    private final long interval;
+    private final long idlePeriod;
+    private final CounterTracker purgedGroupCounter;
+    private final List<QuerySelector> querySelectors = new CopyOnWriteArrayList<>();
+    private ScheduledFuture purgingTaskStatus;
+
+    public GroupByStatePurger(SiddhiAppContext siddhiAppContext, String queryName, long interval, long idlePeriod,
+                              CounterTracker purgedGroupCounter) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.queryName = queryName;
+        this.interval = interval;
+        this.idlePeriod = idlePeriod;
+        this.purgedGroupCounter = purgedGroupCounter;
+    }
+
+    void addQuerySelector(QuerySelector querySelector) {
+        querySelectors.add(querySelector);
+    }
+
+    void removeQuerySelector(QuerySelector querySelector) {
+        querySelectors.remove(querySelector);
+    }
+
+    @Override
+    public void start() {
+        if (purgingTaskStatus != null) {
+            purgingTaskStatus.cancel(false);
+        }
+        purgingTaskStatus = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(
+                this::purgeIdleGroups, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (purgingTaskStatus != null) {
+            purgingTaskStatus.cancel(false);
+            purgingTaskStatus = null;
+        }
+    }
+
+    void purgeIdleGroups() {
+        try {
+            long idleSince = siddhiAppContext.getTimestampGenerator().currentTime() - idlePeriod;
+            int purgedCount = 0;
+            // Stop snapshots from being taken while groups are removed
+            siddhiAppContext.getThreadBarrier().lock();
+            try {
+                for (QuerySelector querySelector : querySelectors) {
+                    purgedCount += querySelector.purgeIdleGroups(idleSince);
+                }
+            } finally {
+                siddhiAppContext.getThreadBarrier().unlock();
+            }
+            if (purgedCount > 0) {
+                if (purgedGroupCounter != null) {
+                    purgedGroupCounter.inc(purgedCount);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Purged " + purgedCount + " idle groups of query '" + queryName + "' in Siddhi App '" +
+                            siddhiAppContext.getName() + "'");
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error when purging idle groups of query '" + queryName + "' in Siddhi App '" +
+                    siddhiAppContext.getName() + "'", t);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
 import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
 import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 
 import java.util.ArrayList;
@@ -55,6 +56,9 @@ public class QuerySelector implements Processor {
     private ConditionExpressionExecutor havingConditionExecutor = null;
     private boolean isGroupBy = false;
     private GroupByKeyGenerator groupByKeyGenerator;
+    private GroupByKeyDictionary groupByKeyDictionary;
+    private CounterTracker liveGroupCounter;
+    private GroupByStatePurger groupByStatePurger;
     private boolean isOrderBy = false;
     private OrderByEventComparator orderByEventComparator;
     private String id;
@@ -182,8 +186,9 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupedByKey = groupByKeyGenerator.constructEventKey(event);
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
+                        GroupByKey groupedByKey = groupByKeyGenerator.constructEventKey(event);
+                        groupByKeyDictionary.setCurrentKey(groupedByKey);
+                        GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().set(groupByKeyDictionary);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
                             attributeProcessor.process(event);
@@ -202,7 +207,7 @@ public class QuerySelector implements Processor {
                                 }
                             }
                         }
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
+                        GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().remove();
                         break;
                     case TIMER:
                         break;
@@ -275,7 +280,7 @@ public class QuerySelector implements Processor {
     }
 
     private ComplexEventChunk processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<GroupByKey, ComplexEvent> groupedEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
         complexEventChunk.reset();
 
         synchronized (this) {
@@ -286,8 +291,9 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupByKey);
+                        GroupByKey groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        groupByKeyDictionary.setCurrentKey(groupByKey);
+                        GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().set(groupByKeyDictionary);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
                             attributeProcessor.process(event);
@@ -300,7 +306,7 @@ public class QuerySelector implements Processor {
                                 groupedEvents.put(groupByKey, event);
                             }
                         }
-                        GroupByAggregationAttributeExecutor.getKeyThreadLocal().remove();
+                        GroupByAggregationAttributeExecutor.getDictionaryThreadLocal().remove();
                         break;
                     case TIMER:
                         break;
@@ -315,7 +321,7 @@ public class QuerySelector implements Processor {
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<GroupByKey, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(),
                         groupedEventEntry.getValue()));
             }
@@ -377,9 +383,23 @@ public class QuerySelector implements Processor {
         if (groupByKeyGenerator != null) {
             groupByKeyGenerator.clean();
         }
+        cleanGroupByState();
         outputRateLimiter.clean();
     }
 
+    /**
+     * Release the state of the groups, without cleaning the executors this selector shares with the other instances
+     * of its query, used when the partition instance of the selector is purged
+     */
+    public void cleanGroupByState() {
+        if (groupByStatePurger != null) {
+            groupByStatePurger.removeQuerySelector(this);
+        }
+        if (groupByKeyDictionary != null) {
+            groupByKeyDictionary.clean();
+        }
+    }
+
     public List<AttributeProcessor> getAttributeProcessorList() {
         return attributeProcessorList;
     }
@@ -392,6 +412,35 @@ public class QuerySelector implements Processor {
     public void setGroupByKeyGenerator(GroupByKeyGenerator groupByKeyGenerator) {
         isGroupBy = true;
         this.groupByKeyGenerator = groupByKeyGenerator;
+        this.groupByKeyDictionary = new GroupByKeyDictionary();
+    }
+
+    /**
+     * Count the groups holding aggregation state, as live groups
+     */
+    public void setLiveGroupCounter(CounterTracker liveGroupCounter) {
+        this.liveGroupCounter = liveGroupCounter;
+        groupByKeyDictionary.setLiveGroupCounter(liveGroupCounter);
+    }
+
+    /**
+     * Purge the aggregation state of idle groups through the given purger
+     */
+    public void setGroupByStatePurger(GroupByStatePurger groupByStatePurger) {
+        this.groupByStatePurger = groupByStatePurger;
+        groupByKeyDictionary.trackAccessTimes(siddhiAppContext.getTimestampGenerator());
+        groupByStatePurger.addQuerySelector(this);
+    }
+
+    /**
+     * Remove the aggregation state of the groups which have not received events since the given time
+     *
+     * @return number of groups removed
+     */
+    int purgeIdleGroups(long idleSince) {
+        synchronized (this) {
+            return groupByKeyDictionary.purgeIdleGroups(idleSince);
+        }
     }
 
     public void setOrderByEventComparator(OrderByEventComparator orderByEventComparator) {
@@ -416,7 +465,20 @@ public class QuerySelector implements Processor {
         clonedQuerySelector.isGroupBy = isGroupBy;
         clonedQuerySelector.containsAggregator = containsAggregator;
         clonedQuerySelector.groupByKeyGenerator = groupByKeyGenerator;
-        clonedQuerySelector.havingConditionExecutor = havingConditionExecutor;
+        if (isGroupBy) {
+            clonedQuerySelector.groupByKeyDictionary = new GroupByKeyDictionary();
+            if (liveGroupCounter != null) {
+                clonedQuerySelector.setLiveGroupCounter(liveGroupCounter);
+            }
+            if (groupByStatePurger != null) {
+                clonedQuerySelector.setGroupByStatePurger(groupByStatePurger);
+            }
+        }
+        if (havingConditionExecutor != null) {
+            // Cloned as it can hold the state of aggregations
+            clonedQuerySelector.havingConditionExecutor = (ConditionExpressionExecutor) havingConditionExecutor
+                    .cloneExecutor(key);
+        }
         clonedQuerySelector.eventPopulator = eventPopulator;
         clonedQuerySelector.batchingEnabled = batchingEnabled;
         clonedQuerySelector.isOrderBy = isOrderBy;
@@ -20,26 +20,38 @@ package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+import org.wso2.siddhi.core.query.selector.GroupByKeyDictionary;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Executor class for aggregations with group by configuration.
+ * <p>
+ * The state of the groups is kept in arrays indexed by the group id assigned by the {@link GroupByKeyDictionary} of
+ * the selector, which is shared by all the aggregations of the selector. Sum, count and avg keep their state in
+ * primitive columns, while other aggregators are cloned per group.
  */
-public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
+public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor
+        implements GroupByKeyDictionary.GroupStateHolder {
 
-    private static final ThreadLocal<String> keyThreadLocal = new ThreadLocal<String>();
+    private static final ThreadLocal<GroupByKeyDictionary> dictionaryThreadLocal =
+            new ThreadLocal<GroupByKeyDictionary>();
     private final ConfigReader configReader;
     private final TimestampGenerator timestampGenerator;
-    protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
-    protected Set<String> obsoleteAggregatorKeys = new HashSet<>();
+    private final GroupByAggregationColumn column;
+    protected GroupByKeyDictionary dictionary;
+    protected AttributeAggregator[] aggregators;
+    protected BitSet groupIds = new BitSet();
+    protected BitSet obsoleteGroupIds = new BitSet();
+    protected int obsoleteGroupCount = 0;
+    protected Map<GroupByKey, Map<String, Object>> pendingStates;
     protected long lastCleanupTimestamp = 0;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
@@ -50,10 +62,17 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
         this.configReader = configReader;
         timestampGenerator = siddhiAppContext.getTimestampGenerator();
         lastCleanupTimestamp = timestampGenerator.currentTime();
+        column = GroupByAggregationColumn.create(attributeAggregator, attributeExpressionExecutors);
+        if (column == null) {
+            aggregators = new AttributeAggregator[0];
+        }
     }
 
-    public static ThreadLocal<String> getKeyThreadLocal() {
-        return keyThreadLocal;
+    /**
+     * @return thread local holding the dictionary of the selector, which has the key of the event being processed
+     */
+    public static ThreadLocal<GroupByKeyDictionary> getDictionaryThreadLocal() {
+        return dictionaryThreadLocal;
     }
 
     @Override
@@ -61,7 +80,7 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
 
         long currentTime = timestampGenerator.currentTime();
         boolean canClean = false;
-        if (lastCleanupTimestamp + 5000 < currentTime || obsoleteAggregatorKeys.size() > 25) {
+        if (lastCleanupTimestamp + 5000 < currentTime || obsoleteGroupCount > 25) {
             lastCleanupTimestamp = currentTime;
             canClean = true;
         }
@@ -69,29 +88,44 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
         if (event.getType() == ComplexEvent.Type.RESET) {
             Object aOutput = null;
             if (canClean) {
-                Iterator<AttributeAggregator> iterator = aggregatorMap.values().iterator();
-                if (iterator.hasNext()) {
-                    aOutput = iterator.next().process(event);
+                int groupId = groupIds.nextSetBit(0);
+                if (groupId >= 0) {
+                    aOutput = reset(groupId, event);
+                }
+                for (; groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+                    destroy(groupId);
                 }
-                aggregatorMap.clear();
-                obsoleteAggregatorKeys.clear();
+                groupIds.clear();
+                obsoleteGroupIds.clear();
+                obsoleteGroupCount = 0;
             } else {
-                for (Map.Entry<String, AttributeAggregator> attributeAggregatorEntry : aggregatorMap.entrySet()) {
-                    aOutput = attributeAggregatorEntry.getValue().process(event);
+                for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+                    aOutput = reset(groupId, event);
                 }
             }
             return aOutput;
         }
 
-        String key = keyThreadLocal.get();
-        AttributeAggregator currentAttributeAggregator = aggregatorMap.get(key);
-        if (currentAttributeAggregator == null) {
-            currentAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aggregatorMap.put(key, currentAttributeAggregator);
+        int groupId = getGroupId();
+        Object results;
+        if (column != null) {
+            Object data = size == 1 ? attributeExpressionExecutors[0].execute(event) : null;
+            switch (event.getType()) {
+                case CURRENT:
+                    results = column.processAdd(groupId, data);
+                    break;
+                case EXPIRED:
+                    results = column.processRemove(groupId, data);
+                    break;
+                default:
+                    results = null;
+            }
+        } else {
+            results = aggregators[groupId].process(event);
         }
-        Object results = currentAttributeAggregator.process(event);
-        if (event.getType() == ComplexEvent.Type.EXPIRED && currentAttributeAggregator.canDestroy()) {
-            obsoleteAggregatorKeys.add(key);
+        if (event.getType() == ComplexEvent.Type.EXPIRED && canDestroy(groupId) && !obsoleteGroupIds.get(groupId)) {
+            obsoleteGroupIds.set(groupId);
+            obsoleteGroupCount++;
         }
         if (canClean) {
             destroyObsoleteAggregators();
@@ -100,38 +134,155 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
     }
 
     public ExpressionExecutor cloneExecutor(String key) {
+        ExpressionExecutor[] innerExpressionExecutors = new ExpressionExecutor[size];
+        for (int i = 0; i < size; i++) {
+            innerExpressionExecutors[i] = attributeExpressionExecutors[i].cloneExecutor(key);
+        }
         return new GroupByAggregationAttributeExecutor(attributeAggregator.cloneAggregator(key),
-                attributeExpressionExecutors, configReader, siddhiAppContext,
+                innerExpressionExecutors, configReader, siddhiAppContext,
                 queryName);
     }
 
     @Override
     public Map<String, Object> currentState() {
-        Map<String, Object> state = new HashMap<>();
-        for (Map.Entry<String, AttributeAggregator> entry : aggregatorMap.entrySet()) {
-            state.put(entry.getKey(), entry.getValue().currentState());
+        Map<GroupByKey, Map<String, Object>> aggregatorStates = new HashMap<>();
+        if (pendingStates != null) {
+            aggregatorStates.putAll(pendingStates);
+        }
+        for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+            aggregatorStates.put(dictionary.getKey(groupId), column != null ? column.currentState(groupId) :
+                    aggregators[groupId].currentState());
         }
+        Map<String, Object> state = new HashMap<>();
+        state.put("AggregatorStates", aggregatorStates);
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        for (HashMap.Entry<String, Object> item: state.entrySet()) {
-            String key = item.getKey();
-            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aAttributeAggregator.restoreState((Map<String, Object>) item.getValue());
-            aggregatorMap.put(key, aAttributeAggregator);
+        Map<GroupByKey, Map<String, Object>> aggregatorStates =
+                (Map<GroupByKey, Map<String, Object>>) state.get("AggregatorStates");
+        if (aggregatorStates == null) {
+            // Older snapshots hold the state of each group directly, keyed by string
+            GroupByKey.checkRestoredKeys(state.keySet(), getElementId());
+            aggregatorStates = new HashMap<>();
+        }
+        GroupByKey.checkRestoredKeys(aggregatorStates.keySet(), getElementId());
+        if (dictionary == null) {
+            // Restored once the dictionary of the selector is known, when the first event arrives
+            pendingStates = new HashMap<>(aggregatorStates);
+        } else {
+            restoreStates(aggregatorStates);
+        }
+    }
+
+    @Override
+    public void removeGroup(int groupId) {
+        if (groupIds.get(groupId)) {
+            destroy(groupId);
+            groupIds.clear(groupId);
+            if (obsoleteGroupIds.get(groupId)) {
+                obsoleteGroupIds.clear(groupId);
+                obsoleteGroupCount--;
+            }
+        }
+    }
+
+    @Override
+    public void clean() {
+        super.clean();
+        if (dictionary != null) {
+            dictionary.removeGroupStateHolder(this);
+        }
+    }
+
+    private int getGroupId() {
+        GroupByKeyDictionary currentDictionary = dictionaryThreadLocal.get();
+        if (dictionary == null) {
+            if (currentDictionary != null && currentDictionary.isShareable()) {
+                dictionary = currentDictionary;
+                dictionary.addGroupStateHolder(this);
+            } else {
+                dictionary = new GroupByKeyDictionary();
+            }
+            if (pendingStates != null) {
+                restoreStates(pendingStates);
+                pendingStates = null;
+            }
+        }
+        int groupId;
+        if (currentDictionary == dictionary) {
+            groupId = currentDictionary.getCurrentGroupId();
+        } else {
+            groupId = dictionary.getId(currentDictionary != null ? currentDictionary.getCurrentKey() : null);
+        }
+        if (!groupIds.get(groupId)) {
+            occupy(groupId);
+        }
+        return groupId;
+    }
+
+    private void occupy(int groupId) {
+        dictionary.retain(groupId);
+        groupIds.set(groupId);
+        if (column != null) {
+            column.ensureCapacity(dictionary.getCapacity());
+        } else {
+            if (aggregators.length < dictionary.getCapacity()) {
+                aggregators = Arrays.copyOf(aggregators, dictionary.getCapacity());
+            }
+            GroupByKey key = dictionary.getKey(groupId);
+            aggregators[groupId] = attributeAggregator.cloneAggregator(key != null ? key.toString() : null);
+        }
+    }
+
+    private void restoreStates(Map<GroupByKey, Map<String, Object>> aggregatorStates) {
+        for (Map.Entry<GroupByKey, Map<String, Object>> item : aggregatorStates.entrySet()) {
+            int groupId = dictionary.getId(item.getKey());
+            if (!groupIds.get(groupId)) {
+                occupy(groupId);
+            }
+            if (column != null) {
+                column.restoreState(groupId, item.getValue());
+            } else {
+                aggregators[groupId].restoreState(item.getValue());
+            }
+        }
+    }
+
+    private Object reset(int groupId, ComplexEvent event) {
+        if (column != null) {
+            return column.reset(groupId);
+        }
+        return aggregators[groupId].process(event);
+    }
+
+    private boolean canDestroy(int groupId) {
+        if (column != null) {
+            return column.canDestroy(groupId);
+        }
+        return aggregators[groupId].canDestroy();
+    }
+
+    private void destroy(int groupId) {
+        if (column != null) {
+            column.clear(groupId);
+        } else {
+            aggregators[groupId].clean();
+            aggregators[groupId] = null;
         }
+        dictionary.release(groupId);
     }
 
     private void destroyObsoleteAggregators() {
-        for (String obsoleteKey : obsoleteAggregatorKeys) {
-            AttributeAggregator attributeAggregator = aggregatorMap.get(obsoleteKey);
-            if (attributeAggregator != null && attributeAggregator.canDestroy()) {
-                attributeAggregator.clean();
-                aggregatorMap.remove(obsoleteKey);
+        for (int groupId = obsoleteGroupIds.nextSetBit(0); groupId >= 0;
+             groupId = obsoleteGroupIds.nextSetBit(groupId + 1)) {
+            if (groupIds.get(groupId) && canDestroy(groupId)) {
+                destroy(groupId);
+                groupIds.clear(groupId);
             }
         }
-        obsoleteAggregatorKeys.clear();
+        obsoleteGroupIds.clear();
+        obsoleteGroupCount = 0;
     }
 }
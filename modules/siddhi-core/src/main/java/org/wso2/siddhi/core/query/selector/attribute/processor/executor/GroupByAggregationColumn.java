@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
+
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.AvgAttributeAggregator;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.CountAttributeAggregator;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.SumAttributeAggregator;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of an aggregation for all the groups of a GroupBy selector, kept in primitive arrays indexed by the group id.
+ * Columns behave as the aggregator they replace for each group, and have the same state when taking snapshots. The
+ * arrays are grown as group ids are assigned, through {@link #ensureCapacity(int)}.
+ */
+abstract class GroupByAggregationColumn {
+
+    /**
+     * @return column for the given aggregator, or null if the state of the aggregator cannot be kept in a column
+     */
+    static GroupByAggregationColumn create(AttributeAggregator attributeAggregator,
+                                           ExpressionExecutor[] attributeExpressionExecutors) {
+        Class<? extends AttributeAggregator> aggregatorClass = attributeAggregator.getClass();
+        if (aggregatorClass == CountAttributeAggregator.class) {
+            return new CountColumn();
+        }
+        if (attributeExpressionExecutors.length != 1) {
+            return null;
+        }
+        Attribute.Type type = attributeExpressionExecutors[0].getReturnType();
+        boolean integral = type == Attribute.Type.INT || type == Attribute.Type.LONG;
+        boolean floatingPoint = type == Attribute.Type.FLOAT || type == Attribute.Type.DOUBLE;
+        if (aggregatorClass == SumAttributeAggregator.class) {
+            if (integral) {
+                return new LongSumColumn();
+            } else if (floatingPoint) {
+                return new DoubleSumColumn();
+            }
+        } else if (aggregatorClass == AvgAttributeAggregator.class && (integral || floatingPoint)) {
+            return new AvgColumn();
+        }
+        return null;
+    }
+
+    abstract void ensureCapacity(int capacity);
+
+    abstract Object processAdd(int groupId, Object data);
+
+    abstract Object processRemove(int groupId, Object data);
+
+    abstract Object reset(int groupId);
+
+    abstract boolean canDestroy(int groupId);
+
+    abstract void clear(int groupId);
+
+    abstract Map<String, Object> currentState(int groupId);
+
+    abstract void restoreState(int groupId, Map<String, Object> state);
+
+    /**
+     * Column of count()
+     */
+    private static final class CountColumn extends GroupByAggregationColumn {
+
+        private long[] counts;
+
+        private CountColumn() {
+            counts = new long[0];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (counts.length < capacity) {
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+
+        @Override
+        Object processAdd(int groupId, Object data) {
+            return ++counts[groupId];
+        }
+
+        @Override
+        Object processRemove(int groupId, Object data) {
+            return --counts[groupId];
+        }
+
+        @Override
+        Object reset(int groupId) {
+            counts[groupId] = 0L;
+            return 0L;
+        }
+
+        @Override
+        boolean canDestroy(int groupId) {
+            return counts[groupId] == 0;
+        }
+
+        @Override
+        void clear(int groupId) {
+            counts[groupId] = 0L;
+        }
+
+        @Override
+        Map<String, Object> currentState(int groupId) {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Count", counts[groupId]);
+            return state;
+        }
+
+        @Override
+        void restoreState(int groupId, Map<String, Object> state) {
+            counts[groupId] = (long) state.get("Count");
+        }
+    }
+
+    /**
+     * Column of sum() of int and long attributes
+     */
+    private static final class LongSumColumn extends GroupByAggregationColumn {
+
+        private long[] sums;
+        private long[] counts;
+
+        private LongSumColumn() {
+            sums = new long[0];
+            counts = new long[0];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (sums.length < capacity) {
+                sums = Arrays.copyOf(sums, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+
+        @Override
+        Object processAdd(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            sums[groupId] += ((Number) data).longValue();
+            counts[groupId]++;
+            return sums[groupId];
+        }
+
+        @Override
+        Object processRemove(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            sums[groupId] -= ((Number) data).longValue();
+            counts[groupId]--;
+            return currentValue(groupId);
+        }
+
+        private Object currentValue(int groupId) {
+            if (counts[groupId] == 0) {
+                return null;
+            }
+            return sums[groupId];
+        }
+
+        @Override
+        Object reset(int groupId) {
+            sums[groupId] = 0L;
+            return 0L;
+        }
+
+        @Override
+        boolean canDestroy(int groupId) {
+            return counts[groupId] == 0 && sums[groupId] == 0L;
+        }
+
+        @Override
+        void clear(int groupId) {
+            sums[groupId] = 0L;
+            counts[groupId] = 0L;
+        }
+
+        @Override
+        Map<String, Object> currentState(int groupId) {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Sum", sums[groupId]);
+            state.put("Count", counts[groupId]);
+            return state;
+        }
+
+        @Override
+        void restoreState(int groupId, Map<String, Object> state) {
+            sums[groupId] = (long) state.get("Sum");
+            counts[groupId] = (long) state.get("Count");
+        }
+    }
+
+    /**
+     * Column of sum() of float and double attributes
+     */
+    private static final class DoubleSumColumn extends GroupByAggregationColumn {
+
+        private double[] sums;
+        private long[] counts;
+
+        private DoubleSumColumn() {
+            sums = new double[0];
+            counts = new long[0];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (sums.length < capacity) {
+                sums = Arrays.copyOf(sums, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+
+        @Override
+        Object processAdd(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            sums[groupId] += ((Number) data).doubleValue();
+            counts[groupId]++;
+            return sums[groupId];
+        }
+
+        @Override
+        Object processRemove(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            sums[groupId] -= ((Number) data).doubleValue();
+            counts[groupId]--;
+            return currentValue(groupId);
+        }
+
+        private Object currentValue(int groupId) {
+            if (counts[groupId] == 0) {
+                return null;
+            }
+            return sums[groupId];
+        }
+
+        @Override
+        Object reset(int groupId) {
+            sums[groupId] = 0.0;
+            return null;
+        }
+
+        @Override
+        boolean canDestroy(int groupId) {
+            return counts[groupId] == 0 && sums[groupId] == 0.0;
+        }
+
+        @Override
+        void clear(int groupId) {
+            sums[groupId] = 0.0;
+            counts[groupId] = 0L;
+        }
+
+        @Override
+        Map<String, Object> currentState(int groupId) {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Sum", sums[groupId]);
+            state.put("Count", counts[groupId]);
+            return state;
+        }
+
+        @Override
+        void restoreState(int groupId, Map<String, Object> state) {
+            sums[groupId] = (double) state.get("Sum");
+            counts[groupId] = (long) state.get("Count");
+        }
+    }
+
+    /**
+     * Column of avg() of numeric attributes
+     */
+    private static final class AvgColumn extends GroupByAggregationColumn {
+
+        private double[] values;
+        private long[] counts;
+
+        private AvgColumn() {
+            values = new double[0];
+            counts = new long[0];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+
+        @Override
+        Object processAdd(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            counts[groupId]++;
+            values[groupId] += ((Number) data).doubleValue();
+            return currentValue(groupId);
+        }
+
+        @Override
+        Object processRemove(int groupId, Object data) {
+            if (data == null) {
+                return currentValue(groupId);
+            }
+            counts[groupId]--;
+            values[groupId] -= ((Number) data).doubleValue();
+            return currentValue(groupId);
+        }
+
+        private Object currentValue(int groupId) {
+            if (counts[groupId] == 0) {
+                return null;
+            }
+            return values[groupId] / counts[groupId];
+        }
+
+        @Override
+        Object reset(int groupId) {
+            clear(groupId);
+            return null;
+        }
+
+        @Override
+        boolean canDestroy(int groupId) {
+            return values[groupId] == 0.0 && counts[groupId] == 0;
+        }
+
+        @Override
+        void clear(int groupId) {
+            values[groupId] = 0.0;
+            counts[groupId] = 0L;
+        }
+
+        @Override
+        Map<String, Object> currentState(int groupId) {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Value", values[groupId]);
+            state.put("Count", counts[groupId]);
+            return state;
+        }
+
+        @Override
+        void restoreState(int groupId, Map<String, Object> state) {
+            values[groupId] = (double) state.get("Value");
+            counts[groupId] = (long) state.get("Count");
+        }
+    }
+}
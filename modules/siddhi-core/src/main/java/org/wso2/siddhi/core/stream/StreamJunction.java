@@ -19,12 +19,18 @@
 package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
@@ -49,10 +55,13 @@ import java.beans.ExceptionListener;
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
@@ -67,6 +76,10 @@ public class StreamJunction implements EventBufferHolder {
     private int batchSize;
     private int workers = -1;
     private int bufferSize;
+    private WaitStrategyType waitStrategyType = WaitStrategyType.BLOCKING;
+    private long waitTimeout = 1000;
+    private ProducerType producerType = ProducerType.MULTI;
+    private int partitionAttributePosition = -1;
     private List<Receiver> receivers = new CopyOnWriteArrayList<Receiver>();
     private List<Publisher> publishers = Collections.synchronizedList(new LinkedList<>());
     private ThreadFactory threadFactory;
@@ -133,6 +146,73 @@ public class StreamJunction implements EventBufferHolder {
                                 siddhiAppContext.getSiddhiAppString());
                     }
                 }
+                String waitStrategyString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    this.waitStrategyType = WaitStrategyType.fromName(waitStrategyString);
+                    if (waitStrategyType == null) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY + "' should be one of " +
+                                WaitStrategyType.names() + ", but found, '" + waitStrategyString + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String waitTimeoutString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_TIMEOUT);
+                if (waitTimeoutString != null) {
+                    try {
+                        this.waitTimeout = Long.parseLong(waitTimeoutString.trim());
+                    } catch (NumberFormatException e) {
+                        this.waitTimeout = -1;
+                    }
+                    if (waitTimeout <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WAIT_TIMEOUT + "' of stream '" +
+                                streamDefinition.getId() + "' should be a positive number of milliseconds, " +
+                                "but found, '" + waitTimeoutString + "'.", asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String producerString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER);
+                if (producerString != null) {
+                    if ("single".equalsIgnoreCase(producerString)) {
+                        this.producerType = ProducerType.SINGLE;
+                    } else if ("multi".equalsIgnoreCase(producerString)) {
+                        this.producerType = ProducerType.MULTI;
+                    } else {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER + "' should be either 'single' or " +
+                                "'multi', but found, '" + producerString + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String partitionByString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_PARTITION_BY);
+                if (partitionByString != null) {
+                    if (!Arrays.asList(streamDefinition.getAttributeNameArray()).contains(partitionByString)) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PARTITION_BY + "' should refer an attribute of " +
+                                "stream '" + streamDefinition.getId() + "', but found, '" + partitionByString + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                    if (workers <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PARTITION_BY + "' requires the annotation " +
+                                "element '" + SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "' to be set, as events " +
+                                "are only routed when there are worker threads.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                    this.partitionAttributePosition = streamDefinition.getAttributePosition(partitionByString);
+                }
             }
             Annotation onErrorAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ON_ERROR,
                     streamDefinition.getAnnotations());
@@ -154,20 +234,17 @@ public class StreamJunction implements EventBufferHolder {
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int eventCount = 0;
+            ComplexEvent lastEvent = null;
             while (complexEventList != null) {
-                if (throughputTracker != null && Level.DETAIL.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(complexEventList);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
+                eventCount++;
+                lastEvent = complexEventList;
                 complexEventList = complexEventList.getNext();
             }
+            if (throughputTracker != null && Level.DETAIL.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                throughputTracker.eventsIn(eventCount);
+            }
+            publishEvents(new ComplexEventChunk<>(complexEvent, lastEvent, true), eventCount, Event::copyFrom);
         } else {
             if (throughputTracker != null && Level.DETAIL.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
                 int messageCount = 0;
@@ -214,16 +291,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishEvents(Arrays.asList(events).iterator(), events.length, Event::copyFrom);
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events);
@@ -236,16 +304,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishEvents(events.iterator(), events.size(), Event::copyFrom);
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events.toArray(new Event[events.size()]));
@@ -253,6 +312,45 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    /**
+     * Publish the given events to the ring buffer, claiming and publishing the slots in batches of at most the ring
+     * buffer size so that the producer pays the sequence claim and publish barrier once per batch.
+     *
+     * @param events     events to be published
+     * @param eventCount number of events in the iterator
+     * @param copier     copies an event to the event of a ring buffer slot
+     * @param <T>        type of the events to be published
+     */
+    private <T> void publishEvents(Iterator<T> events, int eventCount, BiConsumer<Event, T> copier) {
+        while (eventCount > 0) {
+            int batchSize = Math.min(eventCount, ringBuffer.getBufferSize());
+            long hi = ringBuffer.next(batchSize);
+            long lo = hi - (batchSize - 1);
+            long sequenceNo = lo;
+            try {
+                for (; sequenceNo <= hi; sequenceNo++) {
+                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
+                    copier.accept(eventExchangeHolder.getEvent(), events.next());
+                    eventExchangeHolder.getAndSetIsProcessed(false);
+                }
+            } finally {
+                publish(sequenceNo, lo, hi);
+            }
+            eventCount -= batchSize;
+        }
+    }
+
+    /**
+     * Publish the claimed sequence range, slots from {@code filledUpTo} onwards were not populated due to a failure
+     * and hence they are marked as processed for the handlers to skip them.
+     */
+    private void publish(long filledUpTo, long lo, long hi) {
+        for (long sequenceNo = filledUpTo; sequenceNo <= hi; sequenceNo++) {
+            ringBuffer.get(sequenceNo).getAndSetIsProcessed(true);
+        }
+        ringBuffer.publish(lo, hi);
+    }
+
     private void sendData(long timeStamp, Object[] data) {
         if (throughputTracker != null && Level.DETAIL.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
             throughputTracker.eventIn();
@@ -282,11 +380,9 @@ public class StreamJunction implements EventBufferHolder {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<EventExchangeHolder>(
                             new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
-                            bufferSize, threadFactory, producerType,
-                            new BlockingWaitStrategy());
+                            bufferSize, threadFactory, producerType, createWaitStrategy());
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -300,7 +396,8 @@ public class StreamJunction implements EventBufferHolder {
             if (workers > 0) {
                 for (int i = 0; i < workers; i++) {
                     disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
-                            siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
+                            siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener,
+                            partitionAttributePosition, i, workers));
                 }
             } else {
                 disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
@@ -316,6 +413,22 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    private WaitStrategy createWaitStrategy() {
+        switch (waitStrategyType) {
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case TIMEOUT_BLOCKING:
+                return new TimeoutBlockingWaitStrategy(waitTimeout, TimeUnit.MILLISECONDS);
+            case BLOCKING:
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+
     public synchronized void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
@@ -363,6 +476,45 @@ public class StreamJunction implements EventBufferHolder {
         return (!receivers.isEmpty() && async);
     }
 
+    /**
+     * Disruptor wait strategies that can be configured for async Stream Junctions via the
+     * {@link SiddhiConstants#ANNOTATION_ELEMENT_WAIT_STRATEGY} element
+     */
+    public enum WaitStrategyType {
+        BUSY_SPIN("busy-spin"),
+        YIELDING("yielding"),
+        SLEEPING("sleeping"),
+        BLOCKING("blocking"),
+        TIMEOUT_BLOCKING("timeout-blocking");
+
+        private final String name;
+
+        WaitStrategyType(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static WaitStrategyType fromName(String name) {
+            for (WaitStrategyType waitStrategyType : values()) {
+                if (waitStrategyType.name.equalsIgnoreCase(name)) {
+                    return waitStrategyType;
+                }
+            }
+            return null;
+        }
+
+        public static List<String> names() {
+            List<String> names = new LinkedList<>();
+            for (WaitStrategyType waitStrategyType : values()) {
+                names.add(waitStrategyType.name);
+            }
+            return names;
+        }
+    }
+
     /**
      * Different Type of On Error Actions
      */
@@ -34,6 +34,7 @@ import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.lock.StripedReadWriteLock;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
@@ -46,8 +47,6 @@ import org.wso2.siddhi.query.api.expression.Expression;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * In-memory event table implementation of SiddhiQL.
@@ -56,7 +55,7 @@ public class InMemoryTable extends Table implements Snapshotable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
-    private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private StripedReadWriteLock readWriteLock = new StripedReadWriteLock();
     private EventHolder eventHolder;
     private String elementId;
     private SiddhiAppContext siddhiAppContext;
@@ -69,7 +68,7 @@ public class InMemoryTable extends Table implements Snapshotable {
         this.tableStreamEventCloner = storeEventCloner;
         this.siddhiAppContext = siddhiAppContext;
 
-        eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext);
+        eventHolder = createEventHolder(tableDefinition, storeEventPool, siddhiAppContext);
 
         if (elementId == null) {
             elementId = "InMemoryTable-" + siddhiAppContext.getElementIdGenerator().createNewId();
@@ -77,6 +76,19 @@ public class InMemoryTable extends Table implements Snapshotable {
         siddhiAppContext.getSnapshotService().addSnapshotable(tableDefinition.getId(), this);
     }
 
+    /**
+     * Create the holder keeping the events of the table
+     *
+     * @param tableDefinition  definition of the table
+     * @param storeEventPool   pool of the events of the table
+     * @param siddhiAppContext context of the Siddhi app
+     * @return event holder of the table
+     */
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventPool storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        return EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext);
+    }
+
     @Override
     public TableDefinition getTableDefinition() {
         return tableDefinition;
@@ -85,10 +97,10 @@ public class InMemoryTable extends Table implements Snapshotable {
     @Override
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
         try {
-            readWriteLock.writeLock().lock();
+            readWriteLock.writeLock();
             eventHolder.add(addingEventChunk);
         } finally {
-            readWriteLock.writeLock().unlock();
+            readWriteLock.writeUnlock();
         }
 
     }
@@ -96,10 +108,10 @@ public class InMemoryTable extends Table implements Snapshotable {
     @Override
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
         try {
-            readWriteLock.writeLock().lock();
+            readWriteLock.writeLock();
             ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
         } finally {
-            readWriteLock.writeLock().unlock();
+            readWriteLock.writeUnlock();
         }
     }
 
@@ -107,11 +119,11 @@ public class InMemoryTable extends Table implements Snapshotable {
     public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
                        CompiledUpdateSet compiledUpdateSet) {
         try {
-            readWriteLock.writeLock().lock();
+            readWriteLock.writeLock();
             ((Operator) compiledCondition).update(updatingEventChunk, eventHolder,
                     (InMemoryCompiledUpdateSet) compiledUpdateSet);
         } finally {
-            readWriteLock.writeLock().unlock();
+            readWriteLock.writeUnlock();
         }
 
     }
@@ -122,7 +134,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                             CompiledUpdateSet compiledUpdateSet,
                             AddingStreamEventExtractor addingStreamEventExtractor) {
         try {
-            readWriteLock.writeLock().lock();
+            readWriteLock.writeLock();
             ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate(
                     updateOrAddingEventChunk,
                     eventHolder,
@@ -132,7 +144,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                 eventHolder.add(failedEvents);
             }
         } finally {
-            readWriteLock.writeLock().unlock();
+            readWriteLock.writeUnlock();
         }
 
     }
@@ -140,10 +152,10 @@ public class InMemoryTable extends Table implements Snapshotable {
     @Override
     public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
         try {
-            readWriteLock.readLock().lock();
+            readWriteLock.readLock();
             return ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
         } finally {
-            readWriteLock.readLock().unlock();
+            readWriteLock.readUnlock();
         }
 
     }
@@ -166,10 +178,10 @@ public class InMemoryTable extends Table implements Snapshotable {
     @Override
     public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
         try {
-            readWriteLock.readLock().lock();
+            readWriteLock.readLock();
             return ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner);
         } finally {
-            readWriteLock.readLock().unlock();
+            readWriteLock.readUnlock();
         }
     }
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.table.holder.EventHolder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.parser.EventHolderPasser;
+import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.definition.TableDefinition;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+
+/**
+ * In-memory table which keeps its events outside of the Java heap, such that large tables do not add to the garbage
+ * collection work of the JVM.
+ */
+@Extension(
+        name = "offheap",
+        namespace = "store",
+        description = "In-memory table keeping its events in off-heap memory, encoded using the attribute types of " +
+                "the table definition. Only the primary key and index values are kept on the Java heap, and events " +
+                "are decoded when they are found. It supports the same operations and annotations as the default " +
+                "in-memory table, and suits large tables which are mostly read, such as lookup tables.",
+        parameters = @Parameter(name = "block.size",
+                description = "Size in bytes of the off-heap memory blocks the events are stored in.",
+                type = DataType.INT, optional = true, defaultValue = "1048576"),
+        examples = @Example(
+                syntax = "@store(type='offheap')\n" +
+                        "@PrimaryKey('ip')\n" +
+                        "define table GeoIPTable (ip string, country string, city string);",
+                description = "This defines a table keeping the location of IP addresses in off-heap memory."
+        )
+)
+public class OffHeapTable extends InMemoryTable {
+
+    private static final String BLOCK_SIZE = "block.size";
+    private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    @Override
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventPool storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        int blockSize = DEFAULT_BLOCK_SIZE;
+        Annotation storeAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STORE,
+                tableDefinition.getAnnotations());
+        String blockSizeValue = storeAnnotation == null ? null : storeAnnotation.getElement(BLOCK_SIZE);
+        if (blockSizeValue != null) {
+            try {
+                blockSize = Integer.parseInt(blockSizeValue.trim());
+            } catch (NumberFormatException e) {
+                blockSize = -1;
+            }
+            if (blockSize <= 0) {
+                throw new SiddhiAppCreationException("Invalid " + BLOCK_SIZE + " '" + blockSizeValue + "' of " +
+                        "off-heap table '" + tableDefinition.getId() + "', it must be a positive integer");
+            }
+        }
+        return EventHolderPasser.parseOffHeap(tableDefinition, blockSize, siddhiAppContext);
+    }
+}
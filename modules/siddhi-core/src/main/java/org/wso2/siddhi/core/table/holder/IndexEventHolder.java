@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -62,6 +63,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private static final long serialVersionUID = 1272291743721603253L;
     private final Map<Object, StreamEvent> primaryKeyData;
     private final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    private final Map<String, HashMap<Object, Set<StreamEvent>>> hashIndexData;
     private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private final String tableName;
     private final String siddhiAppName;
@@ -71,6 +73,9 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private Map<String, Integer> indexMetaData;
     private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private Map<String, int[]> compositeIndexMetaData;
+    private Map<String, List<String>> compositeIndexAttributes = new HashMap<>();
+    private Set<Integer> compositeIndexPositions = new HashSet<>();
     private ArrayList<Operation> operationChangeLog = new ArrayList<>();
     private long eventsCount;
     private static final float FULL_SNAPSHOT_THRESHOLD = 2.1f;
@@ -80,11 +85,13 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
                             PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
                             boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Set<String> hashIndexAttributes, Map<String, int[]> compositeIndexMetaData,
                             AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
         this.tableStreamEventPool = tableStreamEventPool;
         this.eventConverter = eventConverter;
         this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
         this.indexMetaData = indexMetaData;
+        this.compositeIndexMetaData = compositeIndexMetaData;
         this.tableName = tableDefinition.getId();
         this.siddhiAppName = siddhiAppContext.getName();
 
@@ -111,15 +118,36 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         } else {
             primaryKeyData = null;
         }
-        if (indexMetaData.size() > 0) {
+        if (indexMetaData.size() > hashIndexAttributes.size()) {
             indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
             for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                if (!hashIndexAttributes.contains(indexAttributeName)) {
+                    indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                }
             }
-            allIndexMetaData.putAll(indexMetaData);
         } else {
             indexData = null;
         }
+        if (hashIndexAttributes.size() > 0 || compositeIndexMetaData.size() > 0) {
+            hashIndexData = new HashMap<String, HashMap<Object, Set<StreamEvent>>>();
+            for (String indexAttributeName : hashIndexAttributes) {
+                hashIndexData.put(indexAttributeName, new HashMap<Object, Set<StreamEvent>>());
+            }
+            // composite indexes are only searched for equal values, hence they are always hash based
+            String[] attributeNames = tableDefinition.getAttributeNameArray();
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                hashIndexData.put(compositeIndexEntry.getKey(), new HashMap<Object, Set<StreamEvent>>());
+                List<String> attributes = new ArrayList<>();
+                for (int position : compositeIndexEntry.getValue()) {
+                    attributes.add(attributeNames[position]);
+                    compositeIndexPositions.add(position);
+                }
+                compositeIndexAttributes.put(compositeIndexEntry.getKey(), attributes);
+            }
+        } else {
+            hashIndexData = null;
+        }
+        allIndexMetaData.putAll(indexMetaData);
 
     }
 
@@ -149,7 +177,21 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     @Override
     public boolean isAttributeIndexed(int position) {
-        return allIndexMetaData.containsValue(position);
+        // Stored events are updated in place, hence updates of composite index members need to re-key the index
+        return allIndexMetaData.containsValue(position) || compositeIndexPositions.contains(position);
+    }
+
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.containsKey(attribute);
+    }
+
+    @Override
+    public Map<String, List<String>> getCompositeIndexAttributes() {
+        return compositeIndexAttributes;
     }
 
     @Override
@@ -185,21 +227,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         }
 
-        if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
-            }
-        }
-
+        addToIndexes(streamEvent);
     }
 
     private Object constructPrimaryKey(StreamEvent streamEvent,
@@ -234,41 +262,27 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             deletedEvent = primaryKeyData.put(primaryKey, streamEvent);
         }
 
-        if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
-            }
+        if (deletedEvent != null) {
+            deleteFromIndexes(deletedEvent);
         }
+        addToIndexes(streamEvent);
+    }
+
+    @Override
+    public void writeBack(StreamEvent streamEvent) {
+        // The stored events are changed in place
     }
 
     @Override
     public Collection<StreamEvent> getAllEvents() {
         if (primaryKeyData != null) {
             return primaryKeyData.values();
-        } else if (indexData != null) {
+        } else if (indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
-            if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
-                for (Set<StreamEvent> streamEvents : aIndexData.values()) {
-                    resultEventSet.addAll(streamEvents);
-                }
+            Map<Object, Set<StreamEvent>> aIndexData = getIndex(indexMetaData.size() > 0 ?
+                    indexMetaData.keySet().iterator().next() : compositeIndexMetaData.keySet().iterator().next());
+            for (Set<StreamEvent> streamEvents : aIndexData.values()) {
+                resultEventSet.addAll(streamEvents);
             }
             return resultEventSet;
         } else {
@@ -313,27 +327,31 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Map<Object, Set<StreamEvent>> currentIndexedData = getIndex(attribute);
 
             Set<StreamEvent> resultEvents;
             switch (operator) {
                 case LESS_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : getRangeIndex(attribute, operator).headMap(value, false)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : getRangeIndex(attribute, operator).tailMap(value, false)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case LESS_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : getRangeIndex(attribute, operator).headMap(value, true)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : getRangeIndex(attribute, operator).tailMap(value, true)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
@@ -382,6 +400,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                 aIndexedData.clear();
             }
         }
+        if (hashIndexData != null) {
+            for (HashMap<Object, Set<StreamEvent>> aIndexedData : hashIndexData.values()) {
+                aIndexedData.clear();
+            }
+        }
     }
 
     @Override
@@ -406,10 +429,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         if (primaryKeyData != null) {
             Object primaryKey = constructPrimaryKey(streamEvent, primaryKeyReferenceHolders);
             StreamEvent deletedEvent = primaryKeyData.remove(primaryKey);
-            if (indexData != null) {
+            if (deletedEvent != null) {
                 deleteFromIndexes(deletedEvent);
             }
-        } else if (indexData != null) {
+        } else {
             deleteFromIndexes(streamEvent);
         }
     }
@@ -483,7 +506,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = getRangeIndex(attribute, operator).
                             headMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -492,7 +515,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = getRangeIndex(attribute, operator).
                             tailMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -501,7 +524,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = getRangeIndex(attribute, operator).
                             headMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -510,7 +533,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = getRangeIndex(attribute, operator).
                             tailMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -519,16 +542,18 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case EQUAL:
-                    Set<StreamEvent> deletedEventSet = indexData.get(attribute).remove(value);
+                    Set<StreamEvent> deletedEventSet = getIndex(attribute).remove(value);
                     if (deletedEventSet != null && deletedEventSet.size() > 0) {
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
                     }
                     return;
                 case NOT_EQUAL:
-                    Set<StreamEvent> matchingEventSet = indexData.get(attribute).get(value);
+                    Set<StreamEvent> matchingEventSet = getIndex(attribute).get(value);
                     deleteAll();
-                    for (StreamEvent matchingEvent : matchingEventSet) {
-                        add(matchingEvent);
+                    if (matchingEventSet != null) {
+                        for (StreamEvent matchingEvent : matchingEventSet) {
+                            add(matchingEvent);
+                        }
                     }
                     return;
             }
@@ -555,18 +580,18 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Map<Object, Set<StreamEvent>> currentIndexedData = getIndex(attribute);
 
             switch (operator) {
 
                 case LESS_THAN:
-                    return currentIndexedData.lowerKey(value) != null;
+                    return getRangeIndex(attribute, operator).lowerKey(value) != null;
                 case GREATER_THAN:
-                    return currentIndexedData.higherKey(value) != null;
+                    return getRangeIndex(attribute, operator).higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return currentIndexedData.ceilingKey(value) != null;
+                    return getRangeIndex(attribute, operator).ceilingKey(value) != null;
                 case GREATER_THAN_EQUAL:
-                    return currentIndexedData.floorKey(value) != null;
+                    return getRangeIndex(attribute, operator).floorKey(value) != null;
                 case EQUAL:
                     return currentIndexedData.get(value) != null;
                 case NOT_EQUAL:
@@ -583,32 +608,85 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                 Object primaryKey = constructPrimaryKey(deletedEvent, primaryKeyReferenceHolders);
                 primaryKeyData.remove(primaryKey);
             }
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                    Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
-            }
+            deleteFromIndexes(deletedEvent, currentAttribute);
         }
     }
 
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
-        if (indexMetaData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                values.remove(toDeleteEvent);
-                if (values.size() == 0) {
-                    indexMap.remove(key);
-                }
+        deleteFromIndexes(toDeleteEvent, null);
+    }
+
+    private void deleteFromIndexes(StreamEvent toDeleteEvent, String skippedIndex) {
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            if (!indexEntry.getKey().equals(skippedIndex)) {
+                deleteFromIndex(getIndex(indexEntry.getKey()), toDeleteEvent.getOutputData()[indexEntry.getValue()],
+                        toDeleteEvent);
+            }
+        }
+        for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+            if (!compositeIndexEntry.getKey().equals(skippedIndex)) {
+                deleteFromIndex(hashIndexData.get(compositeIndexEntry.getKey()),
+                        constructCompositeIndexKey(toDeleteEvent, compositeIndexEntry.getValue()), toDeleteEvent);
+            }
+        }
+    }
+
+    private static void deleteFromIndex(Map<Object, Set<StreamEvent>> indexMap, Object key,
+                                        StreamEvent toDeleteEvent) {
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values != null) {
+            values.remove(toDeleteEvent);
+            if (values.size() == 0) {
+                indexMap.remove(key);
+            }
+        }
+    }
+
+    private void addToIndexes(StreamEvent streamEvent) {
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            addToIndex(getIndex(indexEntry.getKey()), streamEvent.getOutputData()[indexEntry.getValue()],
+                    streamEvent);
+        }
+        for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+            addToIndex(hashIndexData.get(compositeIndexEntry.getKey()),
+                    constructCompositeIndexKey(streamEvent, compositeIndexEntry.getValue()), streamEvent);
+        }
+    }
+
+    private static void addToIndex(Map<Object, Set<StreamEvent>> indexMap, Object key, StreamEvent streamEvent) {
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values == null) {
+            values = new HashSet<StreamEvent>();
+            indexMap.put(key, values);
+        }
+        values.add(streamEvent);
+    }
+
+    private static Object constructCompositeIndexKey(StreamEvent streamEvent, int[] positions) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int position : positions) {
+            stringBuilder.append(streamEvent.getOutputData()[position]).append(SiddhiConstants.KEY_DELIMITER);
+        }
+        return stringBuilder.toString();
+    }
+
+    private Map<Object, Set<StreamEvent>> getIndex(String attribute) {
+        if (hashIndexData != null) {
+            HashMap<Object, Set<StreamEvent>> hashIndex = hashIndexData.get(attribute);
+            if (hashIndex != null) {
+                return hashIndex;
             }
         }
+        return indexData.get(attribute);
+    }
+
+    private TreeMap<Object, Set<StreamEvent>> getRangeIndex(String attribute, Compare.Operator operator) {
+        TreeMap<Object, Set<StreamEvent>> rangeIndex = indexData == null ? null : indexData.get(attribute);
+        if (rangeIndex == null) {
+            throw new OperationNotSupportedException(operator + " not supported by the hash index of '" +
+                    attribute + "' at " + getClass().getName());
+        }
+        return rangeIndex;
     }
 
     private boolean isFullSnapshot() {
@@ -645,6 +723,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     indexData.clear();
                     indexData.putAll(snapshotEventHolder.indexData);
                 }
+                if (hashIndexData != null && snapshotEventHolder.hashIndexData != null) {
+                    hashIndexData.clear();
+                    hashIndexData.putAll(snapshotEventHolder.hashIndexData);
+                }
                 forceFullSnapshot = false;
             } else {
                 ArrayList<Operation> operations = (ArrayList<Operation>) snapshotEntry.getValue().getState();
@@ -22,6 +22,8 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,6 +35,19 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean isAttributeIndexed(int position);
 
+    /**
+     * @param attribute indexed attribute, or the primary key attribute
+     * @return true if range comparisons on the attribute can be answered by its index, which is not the case for
+     * hash indexes
+     */
+    boolean isAttributeRangeIndexed(String attribute);
+
+    /**
+     * @return attributes of each composite index, in the order their values form the keys of the index, keyed by the
+     * name the index is searched by through {@link #findEvents(String, Compare.Operator, Object)}
+     */
+    Map<String, List<String>> getCompositeIndexAttributes();
+
     Collection<StreamEvent> getAllEvents();
 
     Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value);
@@ -47,6 +62,14 @@ public interface IndexedEventHolder extends EventHolder {
 
     void overwrite(StreamEvent streamEvent);
 
+    /**
+     * Store the changes made to the attributes of an event returned by this holder, when the holder does not keep
+     * the returned events themselves. Indexed attributes of the event are expected to be unchanged.
+     *
+     * @param streamEvent event returned by this holder
+     */
+    void writeBack(StreamEvent streamEvent);
+
     Set<Object> getAllPrimaryKeyValues();
 
     PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders();
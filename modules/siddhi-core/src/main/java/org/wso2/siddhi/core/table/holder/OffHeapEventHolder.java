@@ -0,0 +1,629 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@link IndexedEventHolder} which keeps the events outside of the Java heap in an {@link OffHeapRowStore}. Only the
+ * primary key and index maps are kept on heap, and they refer to rows by their row ids. {@link StreamEvent}s are
+ * created from the stored rows when they are iterated, so finding a few rows of a large table creates only a few
+ * events.
+ * <p>
+ * The events returned by this holder are detached from the stored rows, hence changes made to them are stored through
+ * {@link #writeBack(StreamEvent)}. Snapshots of this holder are always full snapshots.
+ */
+public class OffHeapEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(OffHeapEventHolder.class);
+    private final OffHeapRowStore rows;
+    private final Map<Object, Integer> primaryKeyData;
+    private final Map<String, Map<Object, Set<Integer>>> indexData;
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final String tableName;
+    private final String siddhiAppName;
+    private String primaryKeyAttributes = null;
+    private Map<String, Integer> indexMetaData;
+    private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private Map<String, int[]> compositeIndexMetaData;
+    private Map<String, List<String>> compositeIndexAttributes = new HashMap<>();
+
+    public OffHeapEventHolder(PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders, boolean isPrimaryNumeric,
+                              Map<String, Integer> indexMetaData, Set<String> hashIndexAttributes,
+                              Map<String, int[]> compositeIndexMetaData, AbstractDefinition tableDefinition,
+                              int blockSize, SiddhiAppContext siddhiAppContext) {
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.indexMetaData = indexMetaData;
+        this.compositeIndexMetaData = compositeIndexMetaData;
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+        Attribute.Type[] types = tableDefinition.getAttributeList().stream()
+                .map(Attribute::getType).toArray(Attribute.Type[]::new);
+        this.rows = new OffHeapRowStore(types, blockSize, siddhiAppContext);
+
+        if (primaryKeyReferenceHolders != null) {
+            if (isPrimaryNumeric) {
+                primaryKeyData = new TreeMap<>();
+            } else {
+                primaryKeyData = new HashMap<>();
+            }
+            if (primaryKeyReferenceHolders.length == 1) {
+                allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
+                        primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+                primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+            } else {
+                StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                            primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                    primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                            .append(SiddhiConstants.KEY_DELIMITER);
+                }
+                primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+            }
+        } else {
+            primaryKeyData = null;
+        }
+        if (indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
+            indexData = new HashMap<>();
+            for (String indexAttributeName : indexMetaData.keySet()) {
+                if (hashIndexAttributes.contains(indexAttributeName)) {
+                    indexData.put(indexAttributeName, new HashMap<>());
+                } else {
+                    indexData.put(indexAttributeName, new TreeMap<>());
+                }
+            }
+            String[] attributeNames = tableDefinition.getAttributeNameArray();
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                indexData.put(compositeIndexEntry.getKey(), new HashMap<>());
+                List<String> attributes = new ArrayList<>();
+                for (int position : compositeIndexEntry.getValue()) {
+                    attributes.add(attributeNames[position]);
+                }
+                compositeIndexAttributes.put(compositeIndexEntry.getKey(), attributes);
+            }
+            allIndexMetaData.putAll(indexMetaData);
+        } else {
+            indexData = null;
+        }
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        if (primaryKeyData != null) {
+            return primaryKeyData.keySet();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexMetaData.containsValue(position);
+    }
+
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.get(attribute) instanceof TreeMap;
+    }
+
+    @Override
+    public Map<String, List<String>> getCompositeIndexAttributes() {
+        return compositeIndexAttributes;
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            add(complexEvent.getTimestamp(), complexEvent.getType(), complexEvent.getOutputData());
+        }
+    }
+
+    private void add(long timestamp, ComplexEvent.Type type, Object[] data) {
+        Object primaryKey = null;
+        if (primaryKeyData != null) {
+            primaryKey = constructPrimaryKey(data);
+            if (primaryKeyData.containsKey(primaryKey)) {
+                log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' dropping event : " +
+                        Arrays.toString(data) + ", as there is already an event stored with primary key '" +
+                        primaryKey + "'");
+                return;
+            }
+        }
+        int rowId = rows.add(timestamp, type, data);
+        if (primaryKeyData != null) {
+            primaryKeyData.put(primaryKey, rowId);
+        }
+        addToIndexes(rowId, data);
+    }
+
+    private Object constructPrimaryKey(Object[] data) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return data[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(data[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        Integer rowId = null;
+        if (primaryKeyData != null) {
+            rowId = primaryKeyData.get(constructPrimaryKey(streamEvent.getOutputData()));
+        }
+        if (rowId == null) {
+            add(streamEvent.getTimestamp(), streamEvent.getType(), streamEvent.getOutputData());
+        } else {
+            update(rowId, streamEvent);
+        }
+    }
+
+    @Override
+    public void writeBack(StreamEvent streamEvent) {
+        if (streamEvent instanceof RowStreamEvent && ((RowStreamEvent) streamEvent).getHolder() == this) {
+            int rowId = ((RowStreamEvent) streamEvent).rowId;
+            if (rows.isLive(rowId)) {
+                update(rowId, streamEvent);
+            }
+        }
+    }
+
+    private void update(int rowId, StreamEvent streamEvent) {
+        Object[] data = streamEvent.getOutputData();
+        Object[] oldData = rows.getData(rowId);
+        if (primaryKeyData != null) {
+            Object oldPrimaryKey = constructPrimaryKey(oldData);
+            Object primaryKey = constructPrimaryKey(data);
+            if (!Objects.equals(oldPrimaryKey, primaryKey)) {
+                if (primaryKeyData.containsKey(primaryKey)) {
+                    log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' dropping update : " +
+                            streamEvent + ", as there is already an event stored with primary key '" +
+                            primaryKey + "'");
+                    return;
+                }
+                primaryKeyData.remove(oldPrimaryKey);
+                primaryKeyData.put(primaryKey, rowId);
+            }
+        }
+        rows.update(rowId, streamEvent.getTimestamp(), streamEvent.getType(), data);
+        if (indexData != null) {
+            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                Object oldKey = oldData[indexEntry.getValue()];
+                Object key = data[indexEntry.getValue()];
+                if (!Objects.equals(oldKey, key)) {
+                    Map<Object, Set<Integer>> indexMap = indexData.get(indexEntry.getKey());
+                    removeFromIndex(indexMap, oldKey, rowId);
+                    indexMap.computeIfAbsent(key, k -> new HashSet<>()).add(rowId);
+                }
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                Object oldKey = constructCompositeIndexKey(oldData, compositeIndexEntry.getValue());
+                Object key = constructCompositeIndexKey(data, compositeIndexEntry.getValue());
+                if (!oldKey.equals(key)) {
+                    Map<Object, Set<Integer>> indexMap = indexData.get(compositeIndexEntry.getKey());
+                    removeFromIndex(indexMap, oldKey, rowId);
+                    indexMap.computeIfAbsent(key, k -> new HashSet<>()).add(rowId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        return new AbstractCollection<StreamEvent>() {
+            @Override
+            public Iterator<StreamEvent> iterator() {
+                return new Iterator<StreamEvent>() {
+                    private int rowId = nextLiveRowId(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return rowId < rows.getRowIdLimit();
+                    }
+
+                    @Override
+                    public StreamEvent next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        StreamEvent streamEvent = createEvent(rowId);
+                        rowId = nextLiveRowId(rowId + 1);
+                        return streamEvent;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return isRowOfThisHolder(o) && rows.isLive(((RowStreamEvent) o).rowId);
+            }
+
+            @Override
+            public int size() {
+                return rows.size();
+            }
+        };
+    }
+
+    private int nextLiveRowId(int rowId) {
+        int rowIdLimit = rows.getRowIdLimit();
+        while (rowId < rowIdLimit && !rows.isLive(rowId)) {
+            rowId++;
+        }
+        return rowId;
+    }
+
+    private StreamEvent createEvent(int rowId) {
+        return new RowStreamEvent(rowId, rows.getTimestamp(rowId), rows.getType(rowId), rows.getData(rowId));
+    }
+
+    private boolean isRowOfThisHolder(Object o) {
+        return o instanceof RowStreamEvent && ((RowStreamEvent) o).getHolder() == this;
+    }
+
+    /**
+     * @return events of the given rows, which are created when they are iterated
+     */
+    private Collection<StreamEvent> events(Collection<Integer> rowIds) {
+        return new AbstractCollection<StreamEvent>() {
+            @Override
+            public Iterator<StreamEvent> iterator() {
+                Iterator<Integer> iterator = rowIds.iterator();
+                return new Iterator<StreamEvent>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public StreamEvent next() {
+                        return createEvent(iterator.next());
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return isRowOfThisHolder(o) && rowIds.contains(((RowStreamEvent) o).rowId);
+            }
+
+            @Override
+            public int size() {
+                return rowIds.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        return events(findRowIds(attribute, operator, value));
+    }
+
+    private Collection<Integer> findRowIds(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            Integer rowId;
+            switch (operator) {
+                case LESS_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).headMap(value, false).values();
+                case GREATER_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).tailMap(value, false).values();
+                case LESS_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).headMap(value, true).values();
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).tailMap(value, true).values();
+                case EQUAL:
+                    rowId = primaryKeyData.get(value);
+                    return rowId == null ? Collections.emptySet() : Collections.singleton(rowId);
+                case NOT_EQUAL:
+                    Set<Integer> rowIds = new HashSet<>(primaryKeyData.values());
+                    rowId = primaryKeyData.get(value);
+                    if (rowId != null) {
+                        rowIds.remove(rowId);
+                    }
+                    return rowIds;
+            }
+        } else {
+            Map<Object, Set<Integer>> currentIndexedData = indexData.get(attribute);
+            Set<Integer> rowIds;
+            switch (operator) {
+                case LESS_THAN:
+                    return union(getRangeIndex(attribute, operator).headMap(value, false).values());
+                case GREATER_THAN:
+                    return union(getRangeIndex(attribute, operator).tailMap(value, false).values());
+                case LESS_THAN_EQUAL:
+                    return union(getRangeIndex(attribute, operator).headMap(value, true).values());
+                case GREATER_THAN_EQUAL:
+                    return union(getRangeIndex(attribute, operator).tailMap(value, true).values());
+                case EQUAL:
+                    rowIds = currentIndexedData.get(value);
+                    return rowIds == null ? Collections.emptySet() : rowIds;
+                case NOT_EQUAL:
+                    Set<Integer> matchingRowIds = currentIndexedData.get(value);
+                    rowIds = union(currentIndexedData.values());
+                    if (matchingRowIds != null) {
+                        rowIds.removeAll(matchingRowIds);
+                    }
+                    return rowIds;
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    private static Set<Integer> union(Collection<Set<Integer>> rowIdSets) {
+        Set<Integer> rowIds = new HashSet<>();
+        for (Set<Integer> rowIdSet : rowIdSets) {
+            rowIds.addAll(rowIdSet);
+        }
+        return rowIds;
+    }
+
+    @Override
+    public void deleteAll() {
+        if (primaryKeyData != null) {
+            primaryKeyData.clear();
+        }
+        if (indexData != null) {
+            for (Map<Object, Set<Integer>> aIndexedData : indexData.values()) {
+                aIndexedData.clear();
+            }
+        }
+        rows.clear();
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        ArrayList<Integer> rowIds = new ArrayList<>(storeEventSet.size());
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (isRowOfThisHolder(streamEvent)) {
+                rowIds.add(((RowStreamEvent) streamEvent).rowId);
+            } else if (primaryKeyData != null) {
+                Integer rowId = primaryKeyData.get(constructPrimaryKey(streamEvent.getOutputData()));
+                if (rowId != null) {
+                    rowIds.add(rowId);
+                }
+            }
+        }
+        deleteRows(rowIds);
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        deleteRows(findRowIds(attribute, operator, value));
+    }
+
+    private void deleteRows(Collection<Integer> rowIds) {
+        // Copy the row ids, as they can be a view of the maps changed when deleting
+        for (Integer rowId : rowIds.toArray(new Integer[rowIds.size()])) {
+            if (rows.isLive(rowId)) {
+                Object[] data = rows.getData(rowId);
+                if (primaryKeyData != null) {
+                    primaryKeyData.remove(constructPrimaryKey(data));
+                }
+                if (indexData != null) {
+                    for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                        removeFromIndex(indexData.get(indexEntry.getKey()), data[indexEntry.getValue()], rowId);
+                    }
+                    for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                        removeFromIndex(indexData.get(compositeIndexEntry.getKey()),
+                                constructCompositeIndexKey(data, compositeIndexEntry.getValue()), rowId);
+                    }
+                }
+                rows.remove(rowId);
+            }
+        }
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case LESS_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).lowerKey(value) != null;
+                case GREATER_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).higherKey(value) != null;
+                case LESS_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).floorKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).ceilingKey(value) != null;
+                case EQUAL:
+                    return primaryKeyData.containsKey(value);
+                case NOT_EQUAL:
+                    return primaryKeyData.size() > 1 ||
+                            (primaryKeyData.size() == 1 && !primaryKeyData.containsKey(value));
+            }
+        } else {
+            Map<Object, Set<Integer>> currentIndexedData = indexData.get(attribute);
+            switch (operator) {
+                case LESS_THAN:
+                    return getRangeIndex(attribute, operator).lowerKey(value) != null;
+                case GREATER_THAN:
+                    return getRangeIndex(attribute, operator).higherKey(value) != null;
+                case LESS_THAN_EQUAL:
+                    return getRangeIndex(attribute, operator).floorKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return getRangeIndex(attribute, operator).ceilingKey(value) != null;
+                case EQUAL:
+                    return currentIndexedData.containsKey(value);
+                case NOT_EQUAL:
+                    return currentIndexedData.size() > 1 ||
+                            (currentIndexedData.size() == 1 && !currentIndexedData.containsKey(value));
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    private void addToIndexes(int rowId, Object[] data) {
+        if (indexData != null) {
+            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                indexData.get(indexEntry.getKey()).computeIfAbsent(data[indexEntry.getValue()],
+                        k -> new HashSet<>()).add(rowId);
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                indexData.get(compositeIndexEntry.getKey()).computeIfAbsent(
+                        constructCompositeIndexKey(data, compositeIndexEntry.getValue()),
+                        k -> new HashSet<>()).add(rowId);
+            }
+        }
+    }
+
+    private static Object constructCompositeIndexKey(Object[] data, int[] positions) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int position : positions) {
+            stringBuilder.append(data[position]).append(SiddhiConstants.KEY_DELIMITER);
+        }
+        return stringBuilder.toString();
+    }
+
+    private TreeMap<Object, Set<Integer>> getRangeIndex(String attribute, Compare.Operator operator) {
+        Map<Object, Set<Integer>> index = indexData.get(attribute);
+        if (!(index instanceof TreeMap)) {
+            throw new OperationNotSupportedException(operator + " not supported by the hash index of '" +
+                    attribute + "' at " + getClass().getName());
+        }
+        return (TreeMap<Object, Set<Integer>>) index;
+    }
+
+    private static void removeFromIndex(Map<Object, Set<Integer>> indexMap, Object key, int rowId) {
+        Set<Integer> rowIds = indexMap.get(key);
+        if (rowIds != null) {
+            rowIds.remove(rowId);
+            if (rowIds.size() == 0) {
+                indexMap.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public SnapshotState getSnapshot() {
+        ArrayList<StreamEvent> events = new ArrayList<>(rows.size());
+        for (int rowId = nextLiveRowId(0); rowId < rows.getRowIdLimit(); rowId = nextLiveRowId(rowId + 1)) {
+            StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+            streamEvent.setTimestamp(rows.getTimestamp(rowId));
+            streamEvent.setType(rows.getType(rowId));
+            streamEvent.setOutputData(rows.getData(rowId));
+            events.add(streamEvent);
+        }
+        return new SnapshotState(events, false);
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        for (SnapshotState snapshotState : snapshotStatelist.getSnapshotStates().values()) {
+            if (!snapshotState.isIncrementalSnapshot()) {
+                deleteAll();
+                for (StreamEvent streamEvent : (ArrayList<StreamEvent>) snapshotState.getState()) {
+                    add(streamEvent.getTimestamp(), streamEvent.getType(), streamEvent.getOutputData());
+                }
+            }
+        }
+    }
+
+    /**
+     * Event created from a stored row, which remembers the row it was created from
+     */
+    private final class RowStreamEvent extends StreamEvent {
+
+        private static final long serialVersionUID = -2417836479253367301L;
+        private final int rowId;
+
+        private RowStreamEvent(int rowId, long timestamp, ComplexEvent.Type type, Object[] data) {
+            super(0, 0, 0);
+            this.rowId = rowId;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.outputData = data;
+        }
+
+        private OffHeapEventHolder getHolder() {
+            return OffHeapEventHolder.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RowStreamEvent)) {
+                return false;
+            }
+            RowStreamEvent event = (RowStreamEvent) o;
+            return rowId == event.rowId && getHolder() == event.getHolder();
+        }
+
+        @Override
+        public int hashCode() {
+            return rowId;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps rows outside of the Java heap, in direct buffers allocated in blocks. Rows are encoded using the attribute
+ * types of the table definition, and are referred to by row ids which stay the same for the lifetime of the row. The
+ * only on-heap cost of a row is the address of its encoded form.
+ * <p>
+ * A row is laid out as its length, timestamp, event type, the bit set of its null attributes and the non null
+ * attributes. Numeric and bool attributes take their primitive size, strings are stored as UTF-8 and objects are
+ * Java serialized. Rows which are deleted, or updated to a different length, leave a hole in their block, and the
+ * holes are reclaimed by rewriting the live rows into new blocks once they take more than half of the memory.
+ */
+final class OffHeapRowStore {
+
+    private static final long FREE = -1;
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+    // Row length, timestamp and event type
+    private static final int ROW_HEADER_LENGTH = 4 + 8 + 1;
+
+    private final Attribute.Type[] types;
+    private final int nullBitSetLength;
+    private final int blockSize;
+    private final SiddhiAppContext siddhiAppContext;
+    private List<ByteBuffer> blocks = new ArrayList<>();
+    private ByteBuffer activeBlock;
+    private long[] addresses = new long[16];
+    private int rowIdLimit;
+    private int[] freeRowIds = new int[16];
+    private int freeRowIdCount;
+    private long liveBytes;
+    private long totalBytes;
+    private ByteBuffer encodingBuffer = ByteBuffer.allocate(256);
+
+    OffHeapRowStore(Attribute.Type[] types, int blockSize, SiddhiAppContext siddhiAppContext) {
+        this.types = types;
+        this.nullBitSetLength = (types.length + 7) / 8;
+        this.blockSize = blockSize;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    /**
+     * @return id of the added row
+     */
+    int add(long timestamp, ComplexEvent.Type type, Object[] data) {
+        int length = encode(timestamp, type, data);
+        int rowId;
+        if (freeRowIdCount > 0) {
+            rowId = freeRowIds[--freeRowIdCount];
+        } else {
+            if (rowIdLimit == addresses.length) {
+                addresses = Arrays.copyOf(addresses, addresses.length * 2);
+            }
+            rowId = rowIdLimit++;
+        }
+        addresses[rowId] = append(length);
+        liveBytes += length;
+        return rowId;
+    }
+
+    void update(int rowId, long timestamp, ComplexEvent.Type type, Object[] data) {
+        int length = encode(timestamp, type, data);
+        long address = addresses[rowId];
+        ByteBuffer block = blocks.get(blockIndex(address));
+        int oldLength = block.getInt(offset(address));
+        if (oldLength == length) {
+            ByteBuffer buffer = block.duplicate();
+            buffer.position(offset(address));
+            encodingBuffer.flip();
+            buffer.put(encodingBuffer);
+        } else {
+            liveBytes += length - oldLength;
+            addresses[rowId] = append(length);
+            compactIfNeeded();
+        }
+    }
+
+    void remove(int rowId) {
+        long address = addresses[rowId];
+        liveBytes -= blocks.get(blockIndex(address)).getInt(offset(address));
+        addresses[rowId] = FREE;
+        if (freeRowIdCount == freeRowIds.length) {
+            freeRowIds = Arrays.copyOf(freeRowIds, freeRowIds.length * 2);
+        }
+        freeRowIds[freeRowIdCount++] = rowId;
+        compactIfNeeded();
+    }
+
+    void clear() {
+        blocks = new ArrayList<>();
+        activeBlock = null;
+        addresses = new long[16];
+        rowIdLimit = 0;
+        freeRowIds = new int[16];
+        freeRowIdCount = 0;
+        liveBytes = 0;
+        totalBytes = 0;
+    }
+
+    /**
+     * @return row ids are below this limit
+     */
+    int getRowIdLimit() {
+        return rowIdLimit;
+    }
+
+    boolean isLive(int rowId) {
+        return rowId < rowIdLimit && addresses[rowId] != FREE;
+    }
+
+    int size() {
+        return rowIdLimit - freeRowIdCount;
+    }
+
+    long getTimestamp(int rowId) {
+        long address = addresses[rowId];
+        return blocks.get(blockIndex(address)).getLong(offset(address) + 4);
+    }
+
+    ComplexEvent.Type getType(int rowId) {
+        long address = addresses[rowId];
+        return EVENT_TYPES[blocks.get(blockIndex(address)).get(offset(address) + 12)];
+    }
+
+    /**
+     * Decode the attributes of the row. Can be called concurrently, as long as the store is not changed meanwhile.
+     */
+    Object[] getData(int rowId) {
+        long address = addresses[rowId];
+        ByteBuffer buffer = blocks.get(blockIndex(address)).duplicate();
+        buffer.position(offset(address) + ROW_HEADER_LENGTH);
+        int nullBitSetStart = buffer.position();
+        buffer.position(nullBitSetStart + nullBitSetLength);
+        Object[] data = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if ((buffer.get(nullBitSetStart + (i >> 3)) & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            switch (types[i]) {
+                case INT:
+                    data[i] = buffer.getInt();
+                    break;
+                case LONG:
+                    data[i] = buffer.getLong();
+                    break;
+                case FLOAT:
+                    data[i] = buffer.getFloat();
+                    break;
+                case DOUBLE:
+                    data[i] = buffer.getDouble();
+                    break;
+                case BOOL:
+                    data[i] = buffer.get() != 0;
+                    break;
+                case STRING:
+                    data[i] = new String(getBytes(buffer), StandardCharsets.UTF_8);
+                    break;
+                default:
+                    data[i] = ByteSerializer.byteToObject(getBytes(buffer), siddhiAppContext);
+            }
+        }
+        return data;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Encode the row into the encoding buffer
+     *
+     * @return length of the encoded row
+     */
+    private int encode(long timestamp, ComplexEvent.Type type, Object[] data) {
+        encodingBuffer.clear();
+        ensureCapacity(ROW_HEADER_LENGTH + nullBitSetLength);
+        encodingBuffer.putInt(0);
+        encodingBuffer.putLong(timestamp);
+        encodingBuffer.put((byte) type.ordinal());
+        int nullBitSetStart = encodingBuffer.position();
+        for (int i = 0; i < nullBitSetLength; i++) {
+            encodingBuffer.put((byte) 0);
+        }
+        for (int i = 0; i < types.length; i++) {
+            Object value = data[i];
+            if (value == null) {
+                encodingBuffer.put(nullBitSetStart + (i >> 3),
+                        (byte) (encodingBuffer.get(nullBitSetStart + (i >> 3)) | (1 << (i & 7))));
+                continue;
+            }
+            switch (types[i]) {
+                case INT:
+                    ensureCapacity(4);
+                    encodingBuffer.putInt((Integer) value);
+                    break;
+                case LONG:
+                    ensureCapacity(8);
+                    encodingBuffer.putLong((Long) value);
+                    break;
+                case FLOAT:
+                    ensureCapacity(4);
+                    encodingBuffer.putFloat((Float) value);
+                    break;
+                case DOUBLE:
+                    ensureCapacity(8);
+                    encodingBuffer.putDouble((Double) value);
+                    break;
+                case BOOL:
+                    ensureCapacity(1);
+                    encodingBuffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case STRING:
+                    putBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    putBytes(ByteSerializer.objectToByte(value, siddhiAppContext));
+            }
+        }
+        int length = encodingBuffer.position();
+        encodingBuffer.putInt(0, length);
+        return length;
+    }
+
+    private void putBytes(byte[] bytes) {
+        ensureCapacity(4 + bytes.length);
+        encodingBuffer.putInt(bytes.length);
+        encodingBuffer.put(bytes);
+    }
+
+    private void ensureCapacity(int length) {
+        if (encodingBuffer.remaining() < length) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(encodingBuffer.capacity() * 2,
+                    encodingBuffer.position() + length));
+            encodingBuffer.flip();
+            buffer.put(encodingBuffer);
+            encodingBuffer = buffer;
+        }
+    }
+
+    /**
+     * Copy the encoded row from the encoding buffer to the active block
+     *
+     * @return address of the row
+     */
+    private long append(int length) {
+        if (activeBlock == null || activeBlock.remaining() < length) {
+            activeBlock = ByteBuffer.allocateDirect(Math.max(blockSize, length));
+            blocks.add(activeBlock);
+        }
+        long address = ((long) (blocks.size() - 1) << 32) | activeBlock.position();
+        encodingBuffer.flip();
+        activeBlock.put(encodingBuffer);
+        totalBytes += length;
+        return address;
+    }
+
+    private void compactIfNeeded() {
+        if (totalBytes - liveBytes <= Math.max(liveBytes, blockSize)) {
+            return;
+        }
+        List<ByteBuffer> oldBlocks = blocks;
+        blocks = new ArrayList<>();
+        activeBlock = null;
+        totalBytes = 0;
+        for (int rowId = 0; rowId < rowIdLimit; rowId++) {
+            long address = addresses[rowId];
+            if (address != FREE) {
+                ByteBuffer row = oldBlocks.get(blockIndex(address)).duplicate();
+                int offset = offset(address);
+                int length = row.getInt(offset);
+                row.position(offset);
+                row.limit(offset + length);
+                encodingBuffer.clear();
+                ensureCapacity(length);
+                encodingBuffer.put(row);
+                addresses[rowId] = append(length);
+            }
+        }
+    }
+
+    private static int blockIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
@@ -26,23 +26,31 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.CompiledUpdateSet;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.CompiledExpression;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.execution.query.output.stream.UpdateSet;
 import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -55,6 +63,7 @@ public abstract class AbstractRecordTable extends Table {
 
     protected StreamEventPool storeEventPool;
     protected RecordTableHandler recordTableHandler;
+    private RecordTableCache cache;
 
     @Override
     public void init(TableDefinition tableDefinition, StreamEventPool storeEventPool,
@@ -66,9 +75,76 @@ public abstract class AbstractRecordTable extends Table {
         }
         this.recordTableHandler = recordTableHandler;
         this.storeEventPool = storeEventPool;
+        this.cache = createCache(tableDefinition, siddhiAppContext);
         init(tableDefinition, configReader);
     }
 
+    /**
+     * Create the cache configured by the {@code @cache} annotation nested in the {@code @store} annotation
+     *
+     * @return the cache, or null if the table is not cached
+     */
+    private static RecordTableCache createCache(TableDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        Annotation storeAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STORE,
+                tableDefinition.getAnnotations());
+        if (storeAnnotation == null) {
+            return null;
+        }
+        List<Annotation> cacheAnnotations = storeAnnotation.getAnnotations(SiddhiConstants.ANNOTATION_CACHE);
+        if (cacheAnnotations.isEmpty()) {
+            return null;
+        }
+        Annotation cacheAnnotation = cacheAnnotations.get(0);
+        String tableId = tableDefinition.getId();
+        int size = SiddhiConstants.DEFAULT_CACHE_SIZE;
+        String sizeValue = cacheAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+        if (sizeValue != null) {
+            try {
+                size = Integer.parseInt(sizeValue.trim());
+            } catch (NumberFormatException e) {
+                size = -1;
+            }
+            if (size <= 0) {
+                throw new SiddhiAppCreationException("Invalid size '" + sizeValue + "' in @cache of table '" +
+                        tableId + "', it must be a positive integer");
+            }
+        }
+        RecordTableCache.Policy policy = RecordTableCache.Policy.LRU;
+        String policyValue = cacheAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_POLICY);
+        if (policyValue != null) {
+            try {
+                policy = RecordTableCache.Policy.valueOf(policyValue.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new SiddhiAppCreationException("Invalid policy '" + policyValue + "' in @cache of table '" +
+                        tableId + "', it must be either LRU or LFU");
+            }
+        }
+        long expiry = 0;
+        String expiryValue = cacheAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_EXPIRY);
+        if (expiryValue != null) {
+            try {
+                expiry = SiddhiCompiler.parseTimeConstantDefinition(expiryValue).value();
+            } catch (SiddhiParserException e) {
+                throw new SiddhiAppCreationException("Invalid expiry '" + expiryValue + "' in @cache of table '" +
+                        tableId + "'", e);
+            }
+        }
+        return new RecordTableCache(size, policy, expiry,
+                QueryParserHelper.createCounterTracker(siddhiAppContext, tableId,
+                        SiddhiConstants.METRIC_INFIX_TABLES, SiddhiConstants.METRIC_TYPE_CACHE_HITS),
+                QueryParserHelper.createCounterTracker(siddhiAppContext, tableId,
+                        SiddhiConstants.METRIC_INFIX_TABLES, SiddhiConstants.METRIC_TYPE_CACHE_MISSES));
+    }
+
+    /**
+     * Drop the cached results, as records have been written to the store
+     */
+    void invalidateCache() {
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
     /**
      * Initializing the Record Table
      *
@@ -92,10 +168,14 @@ public abstract class AbstractRecordTable extends Table {
             records.add(event.getOutputData());
             timestamp = event.getTimestamp();
         }
-        if (recordTableHandler != null) {
-            recordTableHandler.add(timestamp, records);
-        } else {
-            add(records);
+        try {
+            if (recordTableHandler != null) {
+                recordTableHandler.add(timestamp, records);
+            } else {
+                add(records);
+            }
+        } finally {
+            invalidateCache();
         }
     }
 
@@ -121,12 +201,36 @@ public abstract class AbstractRecordTable extends Table {
             findConditionParameterMap.put(entry.getKey(), entry.getValue().execute(matchingEvent));
         }
 
+        RecordTableCache.CacheKey cacheKey = null;
+        List<Object[]> cachedRecords = null;
+        long cacheGeneration = 0;
+        if (cache != null) {
+            cacheKey = new RecordTableCache.CacheKey(false, recordStoreCompiledCondition.compiledCondition,
+                    findConditionParameterMap);
+            cachedRecords = getCachedRecords(cacheKey);
+            cacheGeneration = cache.getGeneration();
+        }
+
         Iterator<Object[]> records;
-        if (recordTableHandler != null) {
-            records = recordTableHandler.find(matchingEvent.getTimestamp(), findConditionParameterMap,
-                    recordStoreCompiledCondition.compiledCondition);
+        if (cachedRecords != null) {
+            records = cachedRecords.iterator();
         } else {
-            records = find(findConditionParameterMap, recordStoreCompiledCondition.compiledCondition);
+            if (recordTableHandler != null) {
+                records = recordTableHandler.find(matchingEvent.getTimestamp(), findConditionParameterMap,
+                        recordStoreCompiledCondition.compiledCondition);
+            } else {
+                records = find(findConditionParameterMap, recordStoreCompiledCondition.compiledCondition);
+            }
+            if (cache != null) {
+                List<Object[]> foundRecords = new ArrayList<>();
+                if (records != null) {
+                    while (records.hasNext()) {
+                        foundRecords.add(records.next());
+                    }
+                }
+                cache.put(cacheKey, foundRecords, cacheGeneration);
+                records = foundRecords.iterator();
+            }
         }
         ComplexEventChunk<StreamEvent> streamEventComplexEventChunk = new ComplexEventChunk<>(true);
         if (records != null) {
@@ -140,6 +244,11 @@ public abstract class AbstractRecordTable extends Table {
         return streamEventComplexEventChunk.getFirst();
     }
 
+    @SuppressWarnings("unchecked")
+    private List<Object[]> getCachedRecords(RecordTableCache.CacheKey cacheKey) {
+        return (List<Object[]>) cache.get(cacheKey);
+    }
+
     /**
      * Find records matching the compiled condition
      *
@@ -164,12 +273,28 @@ public abstract class AbstractRecordTable extends Table {
                 recordStoreCompiledCondition.variableExpressionExecutorMap.entrySet()) {
             containsConditionParameterMap.put(entry.getKey(), entry.getValue().execute(matchingEvent));
         }
+        RecordTableCache.CacheKey cacheKey = null;
+        long cacheGeneration = 0;
+        if (cache != null) {
+            cacheKey = new RecordTableCache.CacheKey(true, recordStoreCompiledCondition.compiledCondition,
+                    containsConditionParameterMap);
+            Boolean cachedResult = (Boolean) cache.get(cacheKey);
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+            cacheGeneration = cache.getGeneration();
+        }
+        boolean result;
         if (recordTableHandler != null) {
-            return recordTableHandler.contains(matchingEvent.getTimestamp(), containsConditionParameterMap,
+            result = recordTableHandler.contains(matchingEvent.getTimestamp(), containsConditionParameterMap,
                     recordStoreCompiledCondition.compiledCondition);
         } else {
-            return contains(containsConditionParameterMap, recordStoreCompiledCondition.compiledCondition);
+            result = contains(containsConditionParameterMap, recordStoreCompiledCondition.compiledCondition);
         }
+        if (cache != null) {
+            cache.put(cacheKey, result, cacheGeneration);
+        }
+        return result;
     }
 
     /**
@@ -206,11 +331,15 @@ public abstract class AbstractRecordTable extends Table {
             deleteConditionParameterMaps.add(variableMap);
             timestamp = stateEvent.getTimestamp();
         }
-        if (recordTableHandler != null) {
-            recordTableHandler.delete(timestamp, deleteConditionParameterMaps, recordStoreCompiledCondition.
-                    compiledCondition);
-        } else {
-            delete(deleteConditionParameterMaps, recordStoreCompiledCondition.compiledCondition);
+        try {
+            if (recordTableHandler != null) {
+                recordTableHandler.delete(timestamp, deleteConditionParameterMaps, recordStoreCompiledCondition.
+                        compiledCondition);
+            } else {
+                delete(deleteConditionParameterMaps, recordStoreCompiledCondition.compiledCondition);
+            }
+        } finally {
+            invalidateCache();
         }
     }
 
@@ -255,13 +384,17 @@ public abstract class AbstractRecordTable extends Table {
             updateSetParameterMaps.add(variableMapForUpdateSet);
             timestamp = stateEvent.getTimestamp();
         }
-        if (recordTableHandler != null) {
-            recordTableHandler.update(timestamp, recordStoreCompiledCondition.compiledCondition,
-                    updateConditionParameterMaps, recordTableCompiledUpdateSet.getUpdateSetMap(),
-                    updateSetParameterMaps);
-        } else {
-            update(recordStoreCompiledCondition.compiledCondition, updateConditionParameterMaps,
-                    recordTableCompiledUpdateSet.getUpdateSetMap(), updateSetParameterMaps);
+        try {
+            if (recordTableHandler != null) {
+                recordTableHandler.update(timestamp, recordStoreCompiledCondition.compiledCondition,
+                        updateConditionParameterMaps, recordTableCompiledUpdateSet.getUpdateSetMap(),
+                        updateSetParameterMaps);
+            } else {
+                update(recordStoreCompiledCondition.compiledCondition, updateConditionParameterMaps,
+                        recordTableCompiledUpdateSet.getUpdateSetMap(), updateSetParameterMaps);
+            }
+        } finally {
+            invalidateCache();
         }
     }
 
@@ -315,13 +448,17 @@ public abstract class AbstractRecordTable extends Table {
             addingRecords.add(stateEvent.getStreamEvent(0).getOutputData());
             timestamp = stateEvent.getTimestamp();
         }
-        if (recordTableHandler != null) {
-            recordTableHandler.updateOrAdd(timestamp, recordStoreCompiledCondition.compiledCondition,
-                    updateConditionParameterMaps, recordTableCompiledUpdateSet.getUpdateSetMap(),
-                    updateSetParameterMaps, addingRecords);
-        } else {
-            updateOrAdd(recordStoreCompiledCondition.compiledCondition, updateConditionParameterMaps,
-                    recordTableCompiledUpdateSet.getUpdateSetMap(), updateSetParameterMaps, addingRecords);
+        try {
+            if (recordTableHandler != null) {
+                recordTableHandler.updateOrAdd(timestamp, recordStoreCompiledCondition.compiledCondition,
+                        updateConditionParameterMaps, recordTableCompiledUpdateSet.getUpdateSetMap(),
+                        updateSetParameterMaps, addingRecords);
+            } else {
+                updateOrAdd(recordStoreCompiledCondition.compiledCondition, updateConditionParameterMaps,
+                        recordTableCompiledUpdateSet.getUpdateSetMap(), updateSetParameterMaps, addingRecords);
+            }
+        } finally {
+            invalidateCache();
         }
 
     }
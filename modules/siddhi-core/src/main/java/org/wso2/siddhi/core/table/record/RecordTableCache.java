@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.record;
+
+import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Size and time bounded cache of the results of finding and checking records in a record table, such that lookups
+ * of hot keys do not go to the store each time. Results are cached per compiled condition and the values of its
+ * parameters, and the least recently or the least frequently used result is evicted when the cache is full.
+ * <p>
+ * The cache is invalidated as a whole when records are written through the table. Results fetched from the store
+ * while a write was in progress are not cached, as they might not reflect the write.
+ */
+final class RecordTableCache {
+
+    /**
+     * Eviction policy of the cache
+     */
+    enum Policy {
+        LRU, LFU
+    }
+
+    private final int maxSize;
+    private final Policy policy;
+    private final long expiryMillis;
+    private final CounterTracker hitTracker;
+    private final CounterTracker missTracker;
+    private final Map<CacheKey, CacheEntry> entries;
+    // Keys of the LFU policy, grouped by their usage and ordered by insertion within a group
+    private final TreeMap<Integer, LinkedHashSet<CacheKey>> frequencies = new TreeMap<>();
+    private volatile long generation;
+    private long hitCount;
+    private long missCount;
+
+    RecordTableCache(int maxSize, Policy policy, long expiryMillis, CounterTracker hitTracker,
+                     CounterTracker missTracker) {
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.expiryMillis = expiryMillis;
+        this.hitTracker = hitTracker;
+        this.missTracker = missTracker;
+        if (policy == Policy.LRU) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        } else {
+            this.entries = new HashMap<>();
+        }
+    }
+
+    /**
+     * @return generation to be passed when caching a result fetched from the store after calling this
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the cached result, or null if it is not cached or has expired
+     */
+    synchronized Object get(CacheKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && expiryMillis > 0 && System.currentTimeMillis() >= entry.expiryTime) {
+            remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            if (missTracker != null) {
+                missTracker.inc();
+            }
+            return null;
+        }
+        if (policy == Policy.LFU) {
+            use(key, entry);
+        }
+        hitCount++;
+        if (hitTracker != null) {
+            hitTracker.inc();
+        }
+        return entry.value;
+    }
+
+    /**
+     * Cache a result, unless the table has been written to since the given generation
+     */
+    synchronized void put(CacheKey key, Object value, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        long expiryTime = System.currentTimeMillis() + expiryMillis;
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.value = value;
+            entry.expiryTime = expiryTime;
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entry = new CacheEntry(value, expiryTime);
+        entries.put(key, entry);
+        if (policy == Policy.LFU) {
+            frequencies.computeIfAbsent(entry.frequency, k -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+        frequencies.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private void use(CacheKey key, CacheEntry entry) {
+        if (entry.frequency == Integer.MAX_VALUE) {
+            return;
+        }
+        removeFrequency(key, entry.frequency);
+        entry.frequency++;
+        frequencies.computeIfAbsent(entry.frequency, k -> new LinkedHashSet<>()).add(key);
+    }
+
+    private void evict() {
+        if (policy == Policy.LRU) {
+            Iterator<CacheKey> iterator = entries.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        } else {
+            Map.Entry<Integer, LinkedHashSet<CacheKey>> leastUsed = frequencies.firstEntry();
+            Iterator<CacheKey> iterator = leastUsed.getValue().iterator();
+            CacheKey key = iterator.next();
+            iterator.remove();
+            if (leastUsed.getValue().isEmpty()) {
+                frequencies.remove(leastUsed.getKey());
+            }
+            entries.remove(key);
+        }
+    }
+
+    private void remove(CacheKey key, CacheEntry entry) {
+        entries.remove(key);
+        if (policy == Policy.LFU) {
+            removeFrequency(key, entry.frequency);
+        }
+    }
+
+    private void removeFrequency(CacheKey key, int frequency) {
+        LinkedHashSet<CacheKey> keys = frequencies.get(frequency);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            frequencies.remove(frequency);
+        }
+    }
+
+    /**
+     * Key of a cached result, being the operation, the condition and the values of the condition parameters
+     */
+    static final class CacheKey {
+        private final boolean contains;
+        private final CompiledCondition compiledCondition;
+        private final Map<String, Object> parameterMap;
+        private final int hashCode;
+
+        CacheKey(boolean contains, CompiledCondition compiledCondition, Map<String, Object> parameterMap) {
+            this.contains = contains;
+            this.compiledCondition = compiledCondition;
+            this.parameterMap = parameterMap;
+            this.hashCode = 31 * (31 * Boolean.hashCode(contains) + System.identityHashCode(compiledCondition)) +
+                    parameterMap.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return contains == cacheKey.contains && compiledCondition == cacheKey.compiledCondition &&
+                    parameterMap.equals(cacheKey.parameterMap);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached result
+     */
+    private static final class CacheEntry {
+        private Object value;
+        private long expiryTime;
+        private int frequency = 1;
+
+        private CacheEntry(Object value, long expiryTime) {
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -42,7 +42,11 @@ public class RecordTableHandlerCallback {
     }
 
     public void add(List<Object[]> records) throws ConnectionUnavailableException {
-        abstractRecordTable.add(records);
+        try {
+            abstractRecordTable.add(records);
+        } finally {
+            abstractRecordTable.invalidateCache();
+        }
     }
 
     public RecordIterator<Object[]> find(Map<String, Object> findConditionParameterMap,
@@ -57,22 +61,34 @@ public class RecordTableHandlerCallback {
 
     public void delete(List<Map<String, Object>> deleteConditionParameterMaps, CompiledCondition compiledCondition)
             throws ConnectionUnavailableException {
-        abstractRecordTable.delete(deleteConditionParameterMaps, compiledCondition);
+        try {
+            abstractRecordTable.delete(deleteConditionParameterMaps, compiledCondition);
+        } finally {
+            abstractRecordTable.invalidateCache();
+        }
     }
 
     public void update(CompiledCondition updateCondition, List<Map<String, Object>> updateConditionParameterMaps,
                        Map<String, CompiledExpression> updateSetExpressions,
                        List<Map<String, Object>> updateSetParameterMaps) throws ConnectionUnavailableException {
-        abstractRecordTable.update(updateCondition, updateConditionParameterMaps, updateSetExpressions,
-                updateSetParameterMaps);
+        try {
+            abstractRecordTable.update(updateCondition, updateConditionParameterMaps, updateSetExpressions,
+                    updateSetParameterMaps);
+        } finally {
+            abstractRecordTable.invalidateCache();
+        }
     }
 
     public void updateOrAdd(CompiledCondition updateCondition, List<Map<String, Object>> updateConditionParameterMaps,
                             Map<String, CompiledExpression> updateSetExpressions,
                             List<Map<String, Object>> updateSetParameterMaps, List<Object[]> addingRecords)
             throws ConnectionUnavailableException {
-        abstractRecordTable.updateOrAdd(updateCondition, updateConditionParameterMaps, updateSetExpressions,
-                updateSetParameterMaps, addingRecords);
+        try {
+            abstractRecordTable.updateOrAdd(updateCondition, updateConditionParameterMaps, updateSetExpressions,
+                    updateSetParameterMaps, addingRecords);
+        } finally {
+            abstractRecordTable.invalidateCache();
+        }
     }
 
     public Iterator<Object[]> query(Map<String, Object> parameterMap, CompiledCondition compiledCondition,
@@ -30,16 +30,12 @@ import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.metrics.Level;
-import org.wso2.siddhi.core.util.timestamp.TimestampGeneratorImpl;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Scheduler implementation to take periodic snapshots
@@ -50,68 +46,24 @@ public class Scheduler implements Snapshotable {
     private final BlockingQueue<Long> toNotifyQueue = new LinkedBlockingQueue<Long>();
     private final ThreadBarrier threadBarrier;
     private final Schedulable singleThreadEntryValve;
+    private final TimerWheel timerWheel;
     private SiddhiAppContext siddhiAppContext;
     private String elementId;
     protected String queryName;
     private LockWrapper lockWrapper;
-    private ScheduledExecutorService scheduledExecutorService;
-    private EventCaller eventCaller;
-    private final Semaphore mutex;
     private StreamEventPool streamEventPool;
     private ComplexEventChunk<StreamEvent> streamEventChunk;
     private LatencyTracker latencyTracker;
-    private volatile boolean running = false;
-    private ScheduledFuture scheduledFuture;
+    // Keeps the timer events from being sent by two threads at once, as the stream event chunk is not thread safe
+    private final AtomicBoolean sending = new AtomicBoolean(false);
+    private volatile boolean resend = false;
 
 
     public Scheduler(Schedulable singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         this.threadBarrier = siddhiAppContext.getThreadBarrier();
         this.siddhiAppContext = siddhiAppContext;
         this.singleThreadEntryValve = singleThreadEntryValve;
-        this.scheduledExecutorService = siddhiAppContext.getScheduledExecutorService();
-        this.eventCaller = new EventCaller();
-        mutex = new Semaphore(1);
-
-        siddhiAppContext.getTimestampGenerator()
-                .addTimeChangeListener(new TimestampGeneratorImpl.TimeChangeListener() {
-                    @Override
-                    public void onTimeChange(long currentTimestamp) {
-                        Long lastTime = toNotifyQueue.peek();
-                        if (lastTime != null && lastTime <= currentTimestamp) {
-                            // If executed in a separate thread, while it is processing,
-                            // the new event will come into the window. As the result of it,
-                            // the window will emit the new event as an existing current event.
-                            sendTimerEvents();
-                        }
-                    }
-                });
-    }
-
-    private void schedule(long time, boolean force) {
-        if (!siddhiAppContext.isPlayback()) {
-            if (!running && (toNotifyQueue.size() == 1 || force)) {
-                try {
-                    mutex.acquire();
-                    if (!running) {
-                        running = true;
-                        long timeDiff = time - siddhiAppContext.getTimestampGenerator().currentTime();
-                        if (timeDiff > 0) {
-                            scheduledFuture = scheduledExecutorService.schedule(eventCaller,
-                                    timeDiff, TimeUnit.MILLISECONDS);
-                        } else {
-                            scheduledFuture = scheduledExecutorService.schedule(eventCaller,
-                                    0, TimeUnit.MILLISECONDS);
-                        }
-                    }
-
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Error when scheduling System Time Based Scheduler", e);
-                } finally {
-                    mutex.release();
-                }
-            }
-        }
+        this.timerWheel = siddhiAppContext.getTimerWheel();
     }
 
     public Scheduler clone(String key, EntryValveProcessor entryValveProcessor) {
@@ -125,10 +77,10 @@ public class Scheduler implements Snapshotable {
         try {
             // Insert the time into the queue
             toNotifyQueue.put(time);
-            schedule(time, false);     // Let the subclasses to schedule the scheduler
+            timerWheel.notifyAt(this, time);
         } catch (InterruptedException e) {
             // InterruptedException ignored if scheduledExecutorService has already been shutdown
-            if (!scheduledExecutorService.isShutdown()) {
+            if (!siddhiAppContext.getScheduledExecutorService().isShutdown()) {
                 log.error("Error when adding time:" + time + " to toNotifyQueue at Scheduler", e);
             }
         }
@@ -170,6 +122,9 @@ public class Scheduler implements Snapshotable {
 
     @Override
     public void clean() {
+        toNotifyQueue.clear();
+        timerWheel.remove(this);
+        siddhiAppContext.removeScheduler(this);
         siddhiAppContext.getSnapshotService().removeSnapshotable(queryName, this);
     }
 
@@ -179,8 +134,22 @@ public class Scheduler implements Snapshotable {
 
     /**
      * Go through the timestamps stored in the {@link #toNotifyQueue} and send the TIMER events for the expired events.
+     * This is called by the {@link TimerWheel} when any of the times in the queue is reached. When the events are
+     * being sent by another thread, that thread sends them once more instead.
      */
-    private void sendTimerEvents() {
+    void sendTimerEvents() {
+        resend = true;
+        while (resend && sending.compareAndSet(false, true)) {
+            try {
+                resend = false;
+                sendDueTimerEvents();
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+
+    private void sendDueTimerEvents() {
         Long toNotifyTime = toNotifyQueue.peek();
         long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
         while (toNotifyTime != null && toNotifyTime - currentTime <= 0) {
@@ -216,76 +185,4 @@ public class Scheduler implements Snapshotable {
             currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
         }
     }
-
-    /**
-     * Schedule events which are not scheduled in the queue when switching back from event time to system current time
-     */
-    public void switchToLiveMode() {
-        Long toNotifyTime = toNotifyQueue.peek();
-        if (toNotifyTime != null) {
-            schedule(toNotifyTime, true);
-        }
-    }
-
-    /**
-     * this can be used to release
-     * the acquired resources for processing.
-     */
-    public void switchToPlayBackMode() {
-        if (scheduledFuture != null) {
-            scheduledFuture.cancel(true);
-        }
-        //Make the scheduler running flag to false to make sure scheduler will schedule next time starts
-        running = false;
-    }
-
-    private class EventCaller implements Runnable {
-        /**
-         * When an object implementing interface <code>Runnable</code> is used
-         * to create a thread, starting the thread causes the object's
-         * <code>run</code> method to be called in that separately executing
-         * thread.
-         * <p>
-         * The general contract of the method <code>run</code> is that it may
-         * take any action whatsoever.
-         *
-         * @see Thread#run()
-         */
-        @Override
-        public void run() {
-            try {
-                if (!siddhiAppContext.isPlayback()) {
-                    sendTimerEvents();
-
-                    Long toNotifyTime = toNotifyQueue.peek();
-                    long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
-
-                    if (toNotifyTime != null) {
-                        scheduledFuture = scheduledExecutorService.
-                                schedule(eventCaller, toNotifyTime - currentTime, TimeUnit.MILLISECONDS);
-                    } else {
-                        try {
-                            mutex.acquire();
-                            running = false;
-                            if (toNotifyQueue.peek() != null) {
-                                running = true;
-                                scheduledFuture = scheduledExecutorService.schedule(eventCaller,
-                                        0, TimeUnit.MILLISECONDS);
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            log.error("Error when scheduling System Time Based Scheduler", e);
-                        } finally {
-                            mutex.release();
-                        }
-                    }
-                } else {
-                    running = false;
-                }
-            } catch (Throwable t) {
-                log.error(t);
-            }
-        }
-
-    }
 }
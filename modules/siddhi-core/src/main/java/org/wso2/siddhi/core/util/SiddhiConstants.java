@@ -38,6 +38,11 @@ public final class SiddhiConstants {
     public static final int ON_AFTER_WINDOW_DATA_INDEX = 1;
     public static final int OUTPUT_DATA_INDEX = 2;
     public static final int STATE_OUTPUT_DATA_INDEX = 3;
+    public static final int BEFORE_WINDOW_INT_DATA_INDEX = 4;
+    public static final int BEFORE_WINDOW_LONG_DATA_INDEX = 5;
+    public static final int BEFORE_WINDOW_FLOAT_DATA_INDEX = 6;
+    public static final int BEFORE_WINDOW_DOUBLE_DATA_INDEX = 7;
+    public static final int MAX_PRIMITIVE_DATA_SIZE = 64;
 
     public static final int STREAM_EVENT_CHAIN_INDEX = 0;
     public static final int STREAM_EVENT_INDEX_IN_CHAIN = 1;
@@ -48,6 +53,10 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_PLAYBACK = "Playback";
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
     public static final String ANNOTATION_ASYNC = "Async";
+    public static final String ANNOTATION_EVENT_POOL = "EventPool";
+    public static final String ANNOTATION_EVENT_LAYOUT = "EventLayout";
+    public static final String ANNOTATION_COMPILE = "Compile";
+    public static final String ANNOTATION_SNAPSHOT = "Snapshot";
 
     public static final String ANNOTATION_ON_ERROR = "OnError";
     public static final String FAULT_STREAM_PREFIX = "!";
@@ -59,6 +68,7 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_INDEX = "Index";
     public static final String ANNOTATION_PRIMARY_KEY = "PrimaryKey";
     public static final String ANNOTATION_STORE = "Store";
+    public static final String ANNOTATION_CACHE = "Cache";
     public static final String ANNOTATION_SOURCE = "Source";
     public static final String ANNOTATION_SINK = "Sink";
     public static final String ANNOTATION_MAP = "Map";
@@ -70,9 +80,26 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
     public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
     public static final String ANNOTATION_ELEMENT_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_WAIT_TIMEOUT = "wait.timeout";
+    public static final String ANNOTATION_ELEMENT_PRODUCER = "producer";
+    public static final String ANNOTATION_ELEMENT_PARTITION_BY = "partition.by";
+    public static final String ANNOTATION_ELEMENT_THREAD_CACHE_SIZE = "thread.cache.size";
+    public static final String ANNOTATION_ELEMENT_SHARED_SIZE = "shared.size";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String EVENT_LAYOUT_OBJECT = "object";
+    public static final String EVENT_LAYOUT_PRIMITIVE = "primitive";
+    public static final String ANNOTATION_ELEMENT_MODE = "mode";
+    public static final String ANNOTATION_ELEMENT_RESTORE_PARALLELISM = "restore.parallelism";
+    public static final String SNAPSHOT_MODE_LOCK = "lock";
+    public static final String SNAPSHOT_MODE_COPY = "copy";
+    public static final String INDEX_TYPE_TREE = "tree";
+    public static final String INDEX_TYPE_HASH = "hash";
+    public static final String ANNOTATION_ELEMENT_SIZE = "size";
+    public static final String ANNOTATION_ELEMENT_POLICY = "policy";
+    public static final String ANNOTATION_ELEMENT_EXPIRY = "expiry";
     public static final String ANNOTATION_BUFFER_SIZE = "BufferSize";
     public static final String ANNOTATION_IGNORE_EVENTS_OLDER_THAN_BUFFER = "IgnoreEventsOlderThanBuffer";
     public static final String ANNOTATION_ELEMENT_REF = "ref";
@@ -83,6 +110,9 @@ public final class SiddhiConstants {
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_EVENT_POOL_THREAD_CACHE_SIZE = 16;
+    public static final int DEFAULT_EVENT_POOL_SHARED_SIZE = 256;
+    public static final int DEFAULT_CACHE_SIZE = 10000;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -99,6 +129,7 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_TRIGGERS = "Trigger";
     public static final String METRIC_INFIX_SIDDHI = "Siddhi";
     public static final String METRIC_INFIX_QUERIES = "Queries";
+    public static final String METRIC_INFIX_PARTITIONS = "Partitions";
     public static final String METRIC_INFIX_AGGREGATIONS = "Aggregations";
     public static final String METRIC_INFIX_WINDOWS = "Windows";
     public static final String METRIC_INFIX_SOURCES = "Sources";
@@ -111,6 +142,8 @@ public final class SiddhiConstants {
     public static final String METRIC_TYPE_DELETE = "delete";
     public static final String METRIC_TYPE_UPDATE_OR_INSERT = "updateOrInsert";
     public static final String METRIC_TYPE_CONTAINS = "contains";
+    public static final String METRIC_TYPE_CACHE_HITS = "cache.hits";
+    public static final String METRIC_TYPE_CACHE_MISSES = "cache.misses";
     public static final String METRIC_DELIMITER = ".";
     public static final String METRIC_AGGREGATE_ANNOTATION = "[+]";
     public static final String EXTENSION_SEPARATOR = ":";
@@ -121,6 +154,7 @@ public final class SiddhiConstants {
     public static final String NAMESPACE_PURGE = "purge";
     public static final String NAMESPACE_RETENTION = "retentionPeriod";
     public static final String NAMESPACE_INTERVAL = "interval";
+    public static final String NAMESPACE_IDLE_PERIOD = "idle.period";
     public static final String AGG_START_TIMESTAMP_COL = "AGG_TIMESTAMP";
     public static final String AGG_EXTERNAL_TIMESTAMP_COL = "AGG_EVENT_TIMESTAMP";
     public static final String AGG_LAST_TIMESTAMP_COL = "AGG_LAST_EVENT_TIMESTAMP";
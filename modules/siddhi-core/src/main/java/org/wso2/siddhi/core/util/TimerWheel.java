@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.timestamp.TimestampGeneratorImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timer wheel shared by all the {@link Scheduler}s of a Siddhi app. Each scheduler registers the time of its
+ * next notification in a wheel of millisecond slots, and a single task on the app's {@link ScheduledExecutorService},
+ * or in playback mode the time changes of the timestamp generator, finds all the schedulers that are due in one
+ * pass. There is only one pending task and one time change listener per app, regardless of the number of
+ * schedulers. Based on the system time, each due scheduler sends its timer events in a task of its own on the
+ * {@link ScheduledExecutorService}, such that a slow query does not delay the timers of the others, while in
+ * playback mode they are sent in the thread setting the time.
+ * <p>
+ * The wheel covers one revolution of {@link #WHEEL_SIZE} milliseconds ahead of the processed time, and registering a
+ * notification within it is O(1). Notifications further ahead, such as those of minute and hour long windows, are
+ * kept in an overflow priority queue ordered by time, and are moved into the wheel once they come within a
+ * revolution, such that finding the next notification never scans more than the slots of one revolution.
+ */
+public class TimerWheel {
+
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private static final int WHEEL_SIZE = 1024;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final Comparator<Timeout> TIMEOUT_COMPARATOR = new Comparator<Timeout>() {
+        @Override
+        public int compare(Timeout timeout1, Timeout timeout2) {
+            return Long.compare(timeout1.time, timeout2.time);
+        }
+    };
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final List<List<Timeout>> slots;
+    private final PriorityQueue<Timeout> overflow = new PriorityQueue<Timeout>(11, TIMEOUT_COMPARATOR);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Ticker ticker = new Ticker();
+    private long processedTime = Long.MIN_VALUE;
+    private long nextTime = Long.MAX_VALUE;
+    private int size = 0;
+    private int wheelSize = 0;
+    private ScheduledFuture scheduledFuture;
+    private long scheduledTime = Long.MAX_VALUE;
+
+    public TimerWheel(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.slots = new ArrayList<List<Timeout>>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            slots.add(new ArrayList<Timeout>(0));
+        }
+        siddhiAppContext.getTimestampGenerator()
+                .addTimeChangeListener(new TimestampGeneratorImpl.TimeChangeListener() {
+                    @Override
+                    public void onTimeChange(long currentTimestamp) {
+                        // Notified in the thread setting the time, so that due timer events are processed
+                        // before the event carrying the new time reaches the windows.
+                        advance(currentTimestamp, false);
+                    }
+                });
+    }
+
+    /**
+     * Register the scheduler to be notified when the given time is reached.
+     *
+     * @param scheduler scheduler to be notified
+     * @param time      time of the notification
+     */
+    public void notifyAt(Scheduler scheduler, long time) {
+        lock.lock();
+        try {
+            if (processedTime != Long.MIN_VALUE && time <= processedTime + WHEEL_SIZE) {
+                // Times that are already passed are kept in the next slot to be processed
+                long slotTime = time <= processedTime ? processedTime + 1 : time;
+                slots.get((int) (slotTime & WHEEL_MASK)).add(new Timeout(scheduler, time));
+                wheelSize++;
+            } else {
+                overflow.add(new Timeout(scheduler, time));
+            }
+            size++;
+            if (time < nextTime) {
+                nextTime = time;
+            }
+            if (!siddhiAppContext.isPlayback() && time < scheduledTime) {
+                scheduleTicker(time);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start notifying the schedulers based on the system time when switching back from event time.
+     */
+    public void switchToLiveMode() {
+        lock.lock();
+        try {
+            if (size > 0) {
+                scheduleTicker(nextTime);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop notifying the schedulers based on the system time, they will be notified on event time changes.
+     */
+    public void switchToPlayBackMode() {
+        lock.lock();
+        try {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+                scheduledFuture = null;
+            }
+            scheduledTime = Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of pending notifications
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop notifying the scheduler, when it is cleaned.
+     *
+     * @param scheduler scheduler to be removed
+     */
+    public void remove(Scheduler scheduler) {
+        lock.lock();
+        try {
+            for (List<Timeout> slot : slots) {
+                for (int i = slot.size() - 1; i >= 0; i--) {
+                    if (slot.get(i).scheduler == scheduler) {
+                        Timeout last = slot.remove(slot.size() - 1);
+                        if (i < slot.size()) {
+                            slot.set(i, last);
+                        }
+                        size--;
+                        wheelSize--;
+                    }
+                }
+            }
+            for (Iterator<Timeout> iterator = overflow.iterator(); iterator.hasNext(); ) {
+                if (iterator.next().scheduler == scheduler) {
+                    iterator.remove();
+                    size--;
+                }
+            }
+            if (processedTime != Long.MIN_VALUE) {
+                nextTime = findNextTime();
+            } else if (size == 0) {
+                nextTime = Long.MAX_VALUE;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Notify the schedulers that are due at the given time.
+     *
+     * @param currentTime current time of the Siddhi app
+     * @param dispatch    whether each due scheduler sends its timer events in a task of its own, instead of in the
+     *                    calling thread
+     */
+    void advance(long currentTime, boolean dispatch) {
+        List<Timeout> dueTimeouts = null;
+        lock.lock();
+        try {
+            if (currentTime < nextTime) {
+                return;
+            }
+            long fromTime = processedTime == Long.MIN_VALUE ? currentTime - WHEEL_SIZE + 1 : processedTime + 1;
+            if (currentTime - fromTime >= WHEEL_SIZE) {
+                fromTime = currentTime - WHEEL_SIZE + 1;
+            }
+            for (long time = fromTime; time <= currentTime; time++) {
+                List<Timeout> slot = slots.get((int) (time & WHEEL_MASK));
+                for (int i = slot.size() - 1; i >= 0; i--) {
+                    Timeout timeout = slot.get(i);
+                    if (timeout.time <= currentTime) {
+                        if (dueTimeouts == null) {
+                            dueTimeouts = new ArrayList<Timeout>();
+                        }
+                        dueTimeouts.add(timeout);
+                        Timeout last = slot.remove(slot.size() - 1);
+                        if (i < slot.size()) {
+                            slot.set(i, last);
+                        }
+                        size--;
+                        wheelSize--;
+                    }
+                }
+            }
+            processedTime = currentTime;
+            // Move the notifications that came within a revolution from the overflow queue into the wheel
+            while (!overflow.isEmpty() && overflow.peek().time <= currentTime + WHEEL_SIZE) {
+                Timeout timeout = overflow.poll();
+                if (timeout.time <= currentTime) {
+                    if (dueTimeouts == null) {
+                        dueTimeouts = new ArrayList<Timeout>();
+                    }
+                    dueTimeouts.add(timeout);
+                    size--;
+                } else {
+                    slots.get((int) (timeout.time & WHEEL_MASK)).add(timeout);
+                    wheelSize++;
+                }
+            }
+            nextTime = findNextTime();
+        } finally {
+            lock.unlock();
+        }
+        if (dueTimeouts != null) {
+            if (dueTimeouts.size() > 1) {
+                Collections.sort(dueTimeouts, TIMEOUT_COMPARATOR);
+            }
+            for (Timeout timeout : dueTimeouts) {
+                if (dispatch) {
+                    dispatch(timeout.scheduler);
+                } else {
+                    sendTimerEvents(timeout.scheduler);
+                }
+            }
+        }
+    }
+
+    private void dispatch(Scheduler scheduler) {
+        try {
+            siddhiAppContext.getScheduledExecutorService().execute(() -> sendTimerEvents(scheduler));
+        } catch (RejectedExecutionException e) {
+            // Ignored as the scheduledExecutorService has been shutdown
+        }
+    }
+
+    private void sendTimerEvents(Scheduler scheduler) {
+        try {
+            scheduler.sendTimerEvents();
+        } catch (Throwable t) {
+            log.error("Error when sending timer events of " + scheduler.getElementId(), t);
+        }
+    }
+
+    /**
+     * Find the earliest time of the pending notifications, this must be called while holding the lock.
+     *
+     * @return earliest time, or Long.MAX_VALUE if there are no pending notifications
+     */
+    private long findNextTime() {
+        // Notifications in the overflow queue are always later than the ones in the wheel
+        if (wheelSize == 0) {
+            return overflow.isEmpty() ? Long.MAX_VALUE : overflow.peek().time;
+        }
+        for (long time = processedTime + 1; time <= processedTime + WHEEL_SIZE; time++) {
+            long earliestTime = Long.MAX_VALUE;
+            for (Timeout timeout : slots.get((int) (time & WHEEL_MASK))) {
+                if (timeout.time < earliestTime) {
+                    earliestTime = timeout.time;
+                }
+            }
+            if (earliestTime != Long.MAX_VALUE) {
+                return earliestTime;
+            }
+        }
+        return overflow.isEmpty() ? Long.MAX_VALUE : overflow.peek().time;
+    }
+
+    /**
+     * Schedule the ticker at the given time, this must be called while holding the lock.
+     *
+     * @param time time to run the ticker
+     */
+    private void scheduleTicker(long time) {
+        ScheduledExecutorService scheduledExecutorService = siddhiAppContext.getScheduledExecutorService();
+        if (scheduledExecutorService.isShutdown()) {
+            return;
+        }
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+        long timeDiff = time - siddhiAppContext.getTimestampGenerator().currentTime();
+        try {
+            scheduledFuture = scheduledExecutorService.schedule(ticker, timeDiff > 0 ? timeDiff : 0,
+                    TimeUnit.MILLISECONDS);
+            scheduledTime = time;
+        } catch (RejectedExecutionException e) {
+            // Ignored as the scheduledExecutorService has been shutdown
+            scheduledFuture = null;
+            scheduledTime = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Pending notification of a scheduler.
+     */
+    private static class Timeout {
+        private final Scheduler scheduler;
+        private final long time;
+
+        Timeout(Scheduler scheduler, long time) {
+            this.scheduler = scheduler;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Task notifying the due schedulers based on the system time.
+     */
+    private class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                lock.lock();
+                try {
+                    scheduledFuture = null;
+                    scheduledTime = Long.MAX_VALUE;
+                } finally {
+                    lock.unlock();
+                }
+                if (siddhiAppContext.isPlayback()) {
+                    return;
+                }
+                advance(siddhiAppContext.getTimestampGenerator().currentTime(), true);
+                lock.lock();
+                try {
+                    if (size > 0 && nextTime < scheduledTime && !siddhiAppContext.isPlayback()) {
+                        scheduleTicker(nextTime);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } catch (Throwable t) {
+                log.error(t);
+            }
+        }
+    }
+}
@@ -31,7 +31,8 @@ import java.util.Collection;
 import java.util.List;
 
 /**
- * Implementation of {@link CollectionExecutor}
+ * Implementation of {@link CollectionExecutor} which finds events by the composite key of a multi attribute primary
+ * key or of a composite index.
  */
 public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor {
 
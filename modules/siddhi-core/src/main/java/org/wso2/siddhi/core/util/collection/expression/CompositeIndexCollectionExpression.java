@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection.expression;
+
+import org.wso2.siddhi.query.api.expression.Expression;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link CollectionExpression} which represent And expressions comparing all the attributes of a
+ * composite index for equality.
+ */
+public class CompositeIndexCollectionExpression implements CollectionExpression {
+
+    private final Expression expression;
+    private final CollectionScope collectionScope;
+    private final String compositeIndex;
+    private final List<Expression> valueExpressions;
+
+    public CompositeIndexCollectionExpression(Expression expression, CollectionScope collectionScope,
+                                              String compositeIndex, List<Expression> valueExpressions) {
+        this.expression = expression;
+        this.collectionScope = collectionScope;
+        this.compositeIndex = compositeIndex;
+        this.valueExpressions = valueExpressions;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public CollectionScope getCollectionScope() {
+        return collectionScope;
+    }
+
+    public String getCompositeIndex() {
+        return compositeIndex;
+    }
+
+    /**
+     * @return expressions of the values the composite index attributes are compared with, in the order of the
+     * attributes of the index
+     */
+    public List<Expression> getValueExpressions() {
+        return valueExpressions;
+    }
+
+    @Override
+    public Set<String> getMultiPrimaryKeys() {
+        return new HashSet<>();
+    }
+}
@@ -185,6 +185,7 @@ public class IndexOperator implements Operator {
                             compiledUpdateSet.getExpressionExecutorMap().entrySet()) {
                         streamEvent.setOutputData(entry.getValue().execute(overwritingOrAddingEvent), entry.getKey());
                     }
+                    storeEvents.writeBack(streamEvent);
                     StreamEvent next = first.getNext();
                     first.setNext(null); // to make the chained state back to normal
                     first = next;
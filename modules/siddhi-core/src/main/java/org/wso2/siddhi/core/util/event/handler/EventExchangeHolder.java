@@ -38,6 +38,10 @@ public class EventExchangeHolder {
         return event;
     }
 
+    public boolean isProcessed() {
+        return processed.get();
+    }
+
     public boolean getAndSetIsProcessed(boolean isProcessed) {
         return processed.getAndSet(isProcessed);
     }
@@ -41,10 +41,30 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     private final StreamJunction faultStreamJunction;
     private final StreamJunction.OnErrorAction onErrorAction;
     private final ExceptionListener exceptionListener;
+    private final int partitionAttributePosition;
+    private final int workerIndex;
+    private final int workers;
 
     public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
                          String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
                          StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener) {
+        this(receivers, batchSize, streamName, siddhiAppName, faultStreamJunction, onErrorAction, exceptionListener,
+                -1, 0, 1);
+    }
+
+    /**
+     * Creates a handler that only processes the events whose partition attribute hashes to the given worker, such
+     * that all the events having the same key are processed in order by the same worker.
+     *
+     * @param partitionAttributePosition position of the partition attribute in the event data, or -1 when events
+     *                                   are processed by whichever worker gets to them first
+     * @param workerIndex                index of this worker
+     * @param workers                    total number of workers
+     */
+    public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
+                         String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
+                         StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener,
+                         int partitionAttributePosition, int workerIndex, int workers) {
         this.receivers = receivers;
         this.batchSize = batchSize;
         this.streamName = streamName;
@@ -52,10 +72,19 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
         this.faultStreamJunction = faultStreamJunction;
         this.onErrorAction = onErrorAction;
         this.exceptionListener = exceptionListener;
+        this.partitionAttributePosition = partitionAttributePosition;
+        this.workerIndex = workerIndex;
+        this.workers = workers;
     }
 
     public void onEvent(EventExchangeHolder eventExchangeHolder, long sequence, boolean endOfBatch) {
-        boolean isProcessed = eventExchangeHolder.getAndSetIsProcessed(true);
+        boolean isProcessed;
+        if (partitionAttributePosition < 0) {
+            isProcessed = eventExchangeHolder.getAndSetIsProcessed(true);
+        } else {
+            isProcessed = eventExchangeHolder.isProcessed() ||
+                    workerOf(eventExchangeHolder.getEvent().getData(partitionAttributePosition)) != workerIndex;
+        }
         if (!isProcessed) {
             eventBuffer.add(eventExchangeHolder.getEvent());
             if (eventBuffer.size() == batchSize || endOfBatch) {
@@ -83,6 +112,15 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
 
     }
 
+    private int workerOf(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % workers;
+    }
+
     private void onError(List<Event> eventBuffer, Exception e) {
         if (exceptionListener != null) {
             exceptionListener.exceptionThrown(e);
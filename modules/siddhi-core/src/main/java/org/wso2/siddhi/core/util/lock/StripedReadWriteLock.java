@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.lock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read write lock for data which is read far more often than it is written, such as lookup tables joined by many
+ * queries. Readers only count themselves in one of several stripes, picked by their thread, hence concurrent readers
+ * do not contend on a single lock word as they do with {@link java.util.concurrent.locks.ReentrantReadWriteLock}.
+ * Writers are serialized by a {@link ReentrantLock}, stop new readers from entering and wait for the readers in all
+ * the stripes to leave, which makes writing more expensive.
+ * <p>
+ * Both locks are reentrant, and a thread holding the write lock can acquire the read lock. A thread holding the read
+ * lock must not acquire the write lock.
+ */
+public class StripedReadWriteLock {
+
+    // Longs between the used slots, such that stripes do not share a cache line
+    private static final int PADDING = 16;
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final int stripes;
+    private final AtomicLongArray readerCounts;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<ReadHold> readHolds = ThreadLocal.withInitial(ReadHold::new);
+    private volatile boolean writing;
+
+    public StripedReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedReadWriteLock(int stripes) {
+        this.stripes = Math.max(1, stripes);
+        this.readerCounts = new AtomicLongArray(this.stripes * PADDING);
+    }
+
+    public void readLock() {
+        ReadHold readHold = readHolds.get();
+        if (readHold.count++ > 0) {
+            return;
+        }
+        int slot = readHold.slot;
+        readerCounts.incrementAndGet(slot);
+        if (writing) {
+            // Back off while a writer is active, and wait for it by acquiring the write lock
+            readerCounts.decrementAndGet(slot);
+            writeLock.lock();
+            try {
+                readerCounts.incrementAndGet(slot);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    public void readUnlock() {
+        ReadHold readHold = readHolds.get();
+        if (--readHold.count == 0) {
+            readerCounts.decrementAndGet(readHold.slot);
+        }
+    }
+
+    public void writeLock() {
+        writeLock.lock();
+        if (writeLock.getHoldCount() > 1) {
+            return;
+        }
+        writing = true;
+        int spins = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            while (readerCounts.get(stripe * PADDING) > 0) {
+                if (++spins > SPINS_BEFORE_YIELD) {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    public void writeUnlock() {
+        if (writeLock.getHoldCount() == 1) {
+            writing = false;
+        }
+        writeLock.unlock();
+    }
+
+    /**
+     * Read lock state of a thread
+     */
+    private final class ReadHold {
+        private final int slot = (int) (Thread.currentThread().getId() % stripes) * PADDING;
+        private int count;
+    }
+}
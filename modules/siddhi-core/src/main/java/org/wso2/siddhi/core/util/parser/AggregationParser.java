@@ -20,10 +20,12 @@ package org.wso2.siddhi.core.util.parser;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.aggregation.AggregationRuntime;
+import org.wso2.siddhi.core.aggregation.Executor;
 import org.wso2.siddhi.core.aggregation.IncrementalAggregationProcessor;
 import org.wso2.siddhi.core.aggregation.IncrementalDataPurger;
 import org.wso2.siddhi.core.aggregation.IncrementalExecutor;
 import org.wso2.siddhi.core.aggregation.IncrementalExecutorsInitialiser;
+import org.wso2.siddhi.core.aggregation.PipelinedExecutor;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
@@ -80,7 +82,10 @@ import static org.wso2.siddhi.core.util.SiddhiConstants.AGG_EXTERNAL_TIMESTAMP_C
 import static org.wso2.siddhi.core.util.SiddhiConstants.AGG_LAST_TIMESTAMP_COL;
 import static org.wso2.siddhi.core.util.SiddhiConstants.AGG_SHARD_ID_COL;
 import static org.wso2.siddhi.core.util.SiddhiConstants.AGG_START_TIMESTAMP_COL;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_ASYNC;
 import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_BUFFER_SIZE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_ELEMENT_WORKERS;
 import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_IGNORE_EVENTS_OLDER_THAN_BUFFER;
 import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_PARTITION_BY_ID;
 import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_PRIMARY_KEY;
@@ -335,9 +340,12 @@ public class AggregationParser {
                     aggregationDefinition.getAnnotations(), groupByVariableList, isProcessingOnExternalTime,
                     isDistributed);
 
+            int pipelineBufferSize = getPipelineBufferSize(aggregationDefinition);
+            int pipelineWorkers = getPipelineWorkers(aggregationDefinition, !groupByVariableList.isEmpty());
             Map<TimePeriod.Duration, IncrementalExecutor> incrementalExecutorMap = buildIncrementalExecutors(
                     processedMetaStreamEvent, processExpressionExecutorsMap, groupByKeyGeneratorMap,
-                    incrementalDurations, aggregationTables, siddhiAppContext, aggregatorName, shouldUpdateTimestamp);
+                    incrementalDurations, aggregationTables, siddhiAppContext, aggregatorName, shouldUpdateTimestamp,
+                    pipelineBufferSize);
 
             IncrementalDataPurger incrementalDataPurger = new IncrementalDataPurger();
             incrementalDataPurger.init(aggregationDefinition, new StreamEventPool(processedMetaStreamEvent, 10)
@@ -351,10 +359,14 @@ public class AggregationParser {
 
             IncrementalExecutor rootIncrementalExecutor = incrementalExecutorMap.get(incrementalDurations.get(0));
             rootIncrementalExecutor.setScheduler(scheduler);
+            if (pipelineWorkers > 1) {
+                rootIncrementalExecutor.shard(pipelineWorkers, pipelineBufferSize);
+            }
             // Connect entry valve to root incremental executor
             entryValveExecutor.setNextExecutor(rootIncrementalExecutor);
 
-            QueryParserHelper.initStreamRuntime(streamRuntime, incomingMetaStreamEvent, lockWrapper, aggregatorName);
+            QueryParserHelper.initStreamRuntime(streamRuntime, incomingMetaStreamEvent, lockWrapper, aggregatorName,
+                    siddhiAppContext, SiddhiConstants.METRIC_INFIX_AGGREGATIONS);
 
             LatencyTracker latencyTrackerFind = null;
             LatencyTracker latencyTrackerInsert = null;
@@ -399,10 +411,10 @@ public class AggregationParser {
             Map<TimePeriod.Duration, GroupByKeyGenerator> groupByKeyGeneratorList,
             List<TimePeriod.Duration> incrementalDurations,
             Map<TimePeriod.Duration, Table> aggregationTables, SiddhiAppContext siddhiAppContext,
-            String aggregatorName, ExpressionExecutor shouldUpdateTimestamp) {
+            String aggregatorName, ExpressionExecutor shouldUpdateTimestamp, int pipelineBufferSize) {
         Map<TimePeriod.Duration, IncrementalExecutor> incrementalExecutorMap = new HashMap<>();
         // Create incremental executors
-        IncrementalExecutor child;
+        Executor child;
         IncrementalExecutor root = null;
         for (int i = incrementalDurations.size() - 1; i >= 0; i--) {
             // Base incremental expression executors created using new meta
@@ -411,6 +423,12 @@ public class AggregationParser {
                 isRoot = true;
             }
             child = root;
+            if (child != null && pipelineBufferSize > 0) {
+                PipelinedExecutor pipelinedExecutor = new PipelinedExecutor(child, pipelineBufferSize, aggregatorName,
+                        siddhiAppContext);
+                siddhiAppContext.addEternalReferencedHolder(pipelinedExecutor);
+                child = pipelinedExecutor;
+            }
             TimePeriod.Duration duration = incrementalDurations.get(i);
 
             IncrementalExecutor incrementalExecutor = new IncrementalExecutor(aggregatorName, duration,
@@ -424,6 +442,59 @@ public class AggregationParser {
         return incrementalExecutorMap;
     }
 
+    /**
+     * @return size of the queues between the durations when they are processed as a pipeline through @async, or 0
+     */
+    private static int getPipelineBufferSize(AggregationDefinition aggregationDefinition) {
+        Annotation async = AnnotationHelper.getAnnotation(ANNOTATION_ASYNC, aggregationDefinition.getAnnotations());
+        if (async == null) {
+            return 0;
+        }
+        String bufferSize = async.getElement(ANNOTATION_ELEMENT_BUFFER_SIZE);
+        if (bufferSize == null) {
+            return SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(bufferSize.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new SiddhiAppCreationException("Invalid value for " + ANNOTATION_ELEMENT_BUFFER_SIZE + ": " +
+                bufferSize + " in @async of aggregation '" + aggregationDefinition.getId() + "'. Please use a " +
+                "positive integer");
+    }
+
+    /**
+     * @return number of threads aggregating the groups of the first duration when they are sharded through @async,
+     * or 1
+     */
+    private static int getPipelineWorkers(AggregationDefinition aggregationDefinition, boolean isGroupBy) {
+        Annotation async = AnnotationHelper.getAnnotation(ANNOTATION_ASYNC, aggregationDefinition.getAnnotations());
+        if (async == null || async.getElement(ANNOTATION_ELEMENT_WORKERS) == null) {
+            return 1;
+        }
+        String workers = async.getElement(ANNOTATION_ELEMENT_WORKERS);
+        int count;
+        try {
+            count = Integer.parseInt(workers.trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count <= 0) {
+            throw new SiddhiAppCreationException("Invalid value for " + ANNOTATION_ELEMENT_WORKERS + ": " +
+                    workers + " in @async of aggregation '" + aggregationDefinition.getId() + "'. Please use a " +
+                    "positive integer");
+        }
+        if (count > 1 && !isGroupBy) {
+            throw new SiddhiAppCreationException(ANNOTATION_ELEMENT_WORKERS + " of @async requires aggregation '" +
+                    aggregationDefinition.getId() + "' to group by, as its groups are sharded across the workers");
+        }
+        return count;
+    }
+
     private static List<ExpressionExecutor> constructProcessExpressionExecutors(
             SiddhiAppContext siddhiAppContext, Map<String, Table> tableMap, String aggregatorName,
             int baseAggregatorBeginIndex, List<Expression> finalBaseAggregators,
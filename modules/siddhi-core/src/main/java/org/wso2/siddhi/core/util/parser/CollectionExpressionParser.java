@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.AnyAndCollectionExecutor;
@@ -42,6 +43,7 @@ import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpres
 import org.wso2.siddhi.core.util.collection.expression.BasicCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CompareCollectionExpression;
+import org.wso2.siddhi.core.util.collection.expression.CompositeIndexCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.NotCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.NullCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.OrCollectionExpression;
@@ -119,6 +121,11 @@ public class CollectionExpressionParser {
                                                                           IndexedEventHolder indexedEventHolder) {
         if (expression instanceof And) {
 
+            CollectionExpression compositeIndexCollectionExpression = parseCompositeIndexCollectionExpression(
+                    (And) expression, matchingMetaInfoHolder, indexedEventHolder);
+            if (compositeIndexCollectionExpression != null) {
+                return compositeIndexCollectionExpression;
+            }
             CollectionExpression leftCollectionExpression = parseInternalCollectionExpression(((And) expression)
                     .getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
             CollectionExpression rightCollectionExpression = parseInternalCollectionExpression(((And) expression)
@@ -218,6 +225,10 @@ public class CollectionExpressionParser {
                     leftCollectionExpression.getCollectionScope() == PRIMARY_KEY_ATTRIBUTE ||
                     leftCollectionExpression.getCollectionScope() == PARTIAL_PRIMARY_KEY_ATTRIBUTE) &&
                     rightCollectionExpression.getCollectionScope() == NON) {
+                if (isRangeCompareOnHashIndex(leftCollectionExpression, ((Compare) expression).getOperator(),
+                        indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (leftCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -256,6 +267,9 @@ public class CollectionExpressionParser {
                     case NOT_EQUAL:
                         break;
                 }
+                if (isRangeCompareOnHashIndex(rightCollectionExpression, operator, indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (rightCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -388,6 +402,115 @@ public class CollectionExpressionParser {
         throw new UnsupportedOperationException(expression.toString() + " not supported!");
     }
 
+    /**
+     * Parse And expressions comparing all the attributes of a composite index for equality, such that the matching
+     * events are found by a single lookup of the composite index, instead of intersecting the events matching each
+     * of the comparisons.
+     *
+     * @param expression             And expression to be parsed
+     * @param matchingMetaInfoHolder matchingMetaInfoHolder
+     * @param indexedEventHolder     indexed event holder
+     * @return null if the expression does not cover a composite index, or if it covers the primary key
+     */
+    private static CollectionExpression parseCompositeIndexCollectionExpression(
+            And expression, MatchingMetaInfoHolder matchingMetaInfoHolder, IndexedEventHolder indexedEventHolder) {
+        Map<String, List<String>> compositeIndexAttributes = indexedEventHolder.getCompositeIndexAttributes();
+        if (compositeIndexAttributes.isEmpty()) {
+            return null;
+        }
+        List<Expression> conditions = new ArrayList<>();
+        collectAndConditions(expression, conditions);
+        Map<String, Compare> equalConditions = new HashMap<>();
+        Map<String, Expression> equalValueExpressions = new HashMap<>();
+        for (Expression condition : conditions) {
+            if (condition instanceof Compare && ((Compare) condition).getOperator() == Compare.Operator.EQUAL) {
+                Compare compare = (Compare) condition;
+                CollectionExpression leftCollectionExpression = parseInternalCollectionExpression(
+                        compare.getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
+                CollectionExpression rightCollectionExpression = parseInternalCollectionExpression(
+                        compare.getRightExpression(), matchingMetaInfoHolder, indexedEventHolder);
+                if (compare.getLeftExpression() instanceof Variable
+                        && leftCollectionExpression.getCollectionScope() != NON
+                        && rightCollectionExpression.getCollectionScope() == NON) {
+                    String attribute = ((Variable) compare.getLeftExpression()).getAttributeName();
+                    if (equalConditions.putIfAbsent(attribute, compare) == null) {
+                        equalValueExpressions.put(attribute, compare.getRightExpression());
+                    }
+                } else if (compare.getRightExpression() instanceof Variable
+                        && rightCollectionExpression.getCollectionScope() != NON
+                        && leftCollectionExpression.getCollectionScope() == NON) {
+                    String attribute = ((Variable) compare.getRightExpression()).getAttributeName();
+                    if (equalConditions.putIfAbsent(attribute, compare) == null) {
+                        equalValueExpressions.put(attribute, compare.getLeftExpression());
+                    }
+                }
+            }
+        }
+
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = indexedEventHolder.getPrimaryKeyReferenceHolders();
+        if (primaryKeyReferenceHolders != null && Arrays.stream(primaryKeyReferenceHolders).allMatch(
+                holder -> equalConditions.containsKey(holder.getPrimaryKeyAttribute()))) {
+            return null;
+        }
+        String compositeIndex = null;
+        for (Map.Entry<String, List<String>> compositeIndexEntry : compositeIndexAttributes.entrySet()) {
+            if (equalConditions.keySet().containsAll(compositeIndexEntry.getValue()) && (compositeIndex == null
+                    || compositeIndexEntry.getValue().size() > compositeIndexAttributes.get(compositeIndex).size())) {
+                compositeIndex = compositeIndexEntry.getKey();
+            }
+        }
+        if (compositeIndex == null) {
+            return null;
+        }
+
+        List<Expression> valueExpressions = new ArrayList<>();
+        Expression indexedExpression = null;
+        for (String attribute : compositeIndexAttributes.get(compositeIndex)) {
+            Compare compare = equalConditions.get(attribute);
+            valueExpressions.add(equalValueExpressions.get(attribute));
+            indexedExpression = indexedExpression == null ? compare : Expression.and(indexedExpression, compare);
+            conditions.remove(compare);
+        }
+        if (conditions.isEmpty()) {
+            return new CompositeIndexCollectionExpression(expression, INDEXED_RESULT_SET, compositeIndex,
+                    valueExpressions);
+        }
+        Expression remainingExpression = conditions.get(0);
+        for (int i = 1; i < conditions.size(); i++) {
+            remainingExpression = Expression.and(remainingExpression, conditions.get(i));
+        }
+        CollectionExpression remainingCollectionExpression = parseInternalCollectionExpression(remainingExpression,
+                matchingMetaInfoHolder, indexedEventHolder);
+        if (remainingCollectionExpression.getCollectionScope() == PARTIAL_PRIMARY_KEY_ATTRIBUTE) {
+            remainingCollectionExpression = new BasicCollectionExpression(remainingExpression, EXHAUSTIVE);
+        }
+        return new AndCollectionExpression(expression, OPTIMISED_PRIMARY_KEY_OR_INDEXED_RESULT_SET,
+                new CompositeIndexCollectionExpression(indexedExpression, INDEXED_RESULT_SET, compositeIndex,
+                        valueExpressions), remainingCollectionExpression);
+    }
+
+    private static void collectAndConditions(Expression expression, List<Expression> conditions) {
+        if (expression instanceof And) {
+            collectAndConditions(((And) expression).getLeftExpression(), conditions);
+            collectAndConditions(((And) expression).getRightExpression(), conditions);
+        } else {
+            conditions.add(expression);
+        }
+    }
+
+    /**
+     * Range comparisons cannot use hash indexes, hence they are evaluated against all events
+     */
+    private static boolean isRangeCompareOnHashIndex(CollectionExpression attributeCollectionExpression,
+                                                     Compare.Operator operator,
+                                                     IndexedEventHolder indexedEventHolder) {
+        if (operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL) {
+            return false;
+        }
+        return attributeCollectionExpression.getCollectionScope() == INDEXED_ATTRIBUTE &&
+                !indexedEventHolder.isAttributeRangeIndexed(
+                        ((AttributeCollectionExpression) attributeCollectionExpression).getAttribute());
+    }
 
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
@@ -456,6 +579,17 @@ public class CollectionExpressionParser {
             return new CompareCollectionExecutor(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex(), (
                     (NullCollectionExpression) collectionExpression).getAttribute(),
                     Compare.Operator.EQUAL, new ConstantExpressionExecutor(null, Attribute.Type.OBJECT));
+        } else if (collectionExpression instanceof CompositeIndexCollectionExpression) {
+            List<ExpressionExecutor> valueExpressionExecutors = new ArrayList<ExpressionExecutor>();
+            for (Expression valueExpression :
+                    ((CompositeIndexCollectionExpression) collectionExpression).getValueExpressions()) {
+                valueExpressionExecutors.add(ExpressionParser.parseExpression(valueExpression,
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName));
+            }
+            return new AndMultiPrimaryKeyCollectionExecutor(
+                    ((CompositeIndexCollectionExpression) collectionExpression).getCompositeIndex(),
+                    valueExpressionExecutors);
         } else if (collectionExpression instanceof AndMultiPrimaryKeyCollectionExpression) {
             Map<String, ExpressionExecutor> multiPrimaryKeyExpressionExecutors =
                     buildMultiPrimaryKeyExpressionExecutors(collectionExpression,
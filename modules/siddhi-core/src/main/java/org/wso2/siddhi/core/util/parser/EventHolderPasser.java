@@ -37,7 +37,12 @@ import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Class to parse {@link EventHolder}
@@ -49,34 +54,110 @@ public class EventHolderPasser {
                                     SiddhiAppContext siddhiAppContext) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
-        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = null;
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKeyReferenceHolders(tableDefinition);
+        Set<String> hashIndexAttributes = new HashSet<>();
+        Map<String, int[]> compositeIndexMetaData = new LinkedHashMap<>();
+        Map<String, Integer> indexMetaData = parseIndexMetaData(tableDefinition, hashIndexAttributes,
+                compositeIndexMetaData);
 
-        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
+            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders,
+                    isPrimaryKeyNumeric(tableDefinition, primaryKeyReferenceHolders), indexMetaData,
+                    hashIndexAttributes, compositeIndexMetaData, tableDefinition, siddhiAppContext);
+        } else {
+            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+            for (Attribute attribute : tableDefinition.getAttributeList()) {
+                metaStreamEvent.addOutputData(attribute);
+            }
+            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventPool);
+            return new ListEventHolder(tableStreamEventPool, eventConverter,
+                    new StreamEventClonerHolder(streamEventCloner));
+        }
+    }
+
+    /**
+     * Parse an {@link OffHeapEventHolder} keeping the events of the table outside of the Java heap
+     *
+     * @param tableDefinition  definition of the table
+     * @param blockSize        size in bytes of the off-heap memory blocks the events are stored in
+     * @param siddhiAppContext context of the Siddhi app
+     * @return event holder indexing the events by the primary key and index attributes of the table
+     */
+    public static EventHolder parseOffHeap(AbstractDefinition tableDefinition, int blockSize,
+                                           SiddhiAppContext siddhiAppContext) {
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKeyReferenceHolders(tableDefinition);
+        Set<String> hashIndexAttributes = new HashSet<>();
+        Map<String, int[]> compositeIndexMetaData = new LinkedHashMap<>();
+        Map<String, Integer> indexMetaData = parseIndexMetaData(tableDefinition, hashIndexAttributes,
+                compositeIndexMetaData);
+        return new OffHeapEventHolder(primaryKeyReferenceHolders,
+                isPrimaryKeyNumeric(tableDefinition, primaryKeyReferenceHolders), indexMetaData,
+                hashIndexAttributes, compositeIndexMetaData, tableDefinition, blockSize, siddhiAppContext);
+    }
 
-        // primaryKey.
+    private static PrimaryKeyReferenceHolder[] parsePrimaryKeyReferenceHolders(AbstractDefinition tableDefinition) {
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
                 tableDefinition.getAnnotations());
-        if (primaryKeyAnnotation != null) {
-            if (primaryKeyAnnotation.getElements().size() == 0) {
-                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
-                        "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
-                        tableDefinition.getId() + "'");
-            }
-            primaryKeyReferenceHolders = primaryKeyAnnotation.getElements().stream()
-                    .map(element -> element.getValue().trim())
-                    .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
-                    .toArray(PrimaryKeyReferenceHolder[]::new);
+        if (primaryKeyAnnotation == null) {
+            return null;
+        }
+        if (primaryKeyAnnotation.getElements().size() == 0) {
+            throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
+                    "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
+                    tableDefinition.getId() + "'");
         }
+        return primaryKeyAnnotation.getElements().stream()
+                .map(element -> element.getValue().trim())
+                .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
+                .toArray(PrimaryKeyReferenceHolder[]::new);
+    }
+
+    /**
+     * Parse the attributes of the index annotation, which are indexed by tree maps unless the annotation's type is
+     * hash. Elements listing comma separated attributes, such as 'tenant, host', define composite indexes.
+     *
+     * @param tableDefinition        definition of the table
+     * @param hashIndexAttributes    set to add the hash indexed attributes to
+     * @param compositeIndexMetaData map to add the positions of the composite index attributes to, keyed by the
+     *                               index name
+     * @return positions of the indexed attributes
+     */
+    private static Map<String, Integer> parseIndexMetaData(AbstractDefinition tableDefinition,
+                                                           Set<String> hashIndexAttributes,
+                                                           Map<String, int[]> compositeIndexMetaData) {
+        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
 
         // indexes.
         Annotation indexAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX,
                 tableDefinition.getAnnotations());
         if (indexAnnotation != null) {
-            if (indexAnnotation.getElements().size() == 0) {
+            boolean isHashIndex = false;
+            String indexType = indexAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE);
+            if (indexType != null) {
+                if (SiddhiConstants.INDEX_TYPE_HASH.equalsIgnoreCase(indexType.trim())) {
+                    isHashIndex = true;
+                } else if (!SiddhiConstants.INDEX_TYPE_TREE.equalsIgnoreCase(indexType.trim())) {
+                    throw new SiddhiAppCreationException("Unknown " + SiddhiConstants.ANNOTATION_INDEX + " type '" +
+                            indexType + "', at '" + tableDefinition.getId() + "', supported types are '" +
+                            SiddhiConstants.INDEX_TYPE_TREE + "' and '" + SiddhiConstants.INDEX_TYPE_HASH + "'",
+                            indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
+                }
+            }
+            List<Element> attributeElements = indexAnnotation.getElements().stream()
+                    .filter(element -> element.getKey() == null).collect(Collectors.toList());
+            if (attributeElements.size() == 0) {
                 throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains "
-                        + indexAnnotation.getElements().size() + " element");
+                        + attributeElements.size() + " element");
             }
-            for (Element element : indexAnnotation.getElements()) {
+            for (Element element : attributeElements) {
+                if (element.getValue().contains(",")) {
+                    parseCompositeIndex(element.getValue(), indexAnnotation, tableDefinition,
+                            compositeIndexMetaData);
+                    continue;
+                }
+                if (isHashIndex) {
+                    hashIndexAttributes.add(element.getValue().trim());
+                }
                 Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
                         .getAttributePosition(element.getValue().trim()));
                 if (previousValue != null) {
@@ -96,31 +177,49 @@ public class EventHolderPasser {
                     "supported anymore, please use @PrimaryKey or @Index annotations instead," +
                     " at '" + tableDefinition.getId() + "'");
         }
+        return indexMetaData;
+    }
 
-        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
-            boolean isNumeric = false;
-            if (primaryKeyReferenceHolders != null) {
-                if (primaryKeyReferenceHolders.length == 1) {
-                    Attribute.Type type = tableDefinition.getAttributeType(
-                            primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
-                    if (type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
-                            type == Attribute.Type.LONG) {
-                        isNumeric = true;
-                    }
-                }
-
+    private static void parseCompositeIndex(String attributeList, Annotation indexAnnotation,
+                                            AbstractDefinition tableDefinition,
+                                            Map<String, int[]> compositeIndexMetaData) {
+        String[] attributes = attributeList.split(",");
+        Set<String> distinctAttributes = new HashSet<>();
+        StringBuilder indexName = new StringBuilder();
+        int[] positions = new int[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            String attribute = attributes[i].trim();
+            if (!distinctAttributes.add(attribute)) {
+                throw new SiddhiAppCreationException("Composite " + SiddhiConstants.ANNOTATION_INDEX + " '" +
+                        attributeList + "' contains attribute '" + attribute + "' more than once, at '" +
+                        tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                        indexAnnotation.getQueryContextEndIndex());
             }
-            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                    indexMetaData, tableDefinition, siddhiAppContext);
-        } else {
-            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
-            for (Attribute attribute : tableDefinition.getAttributeList()) {
-                metaStreamEvent.addOutputData(attribute);
-            }
-            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventPool);
-            return new ListEventHolder(tableStreamEventPool, eventConverter,
-                    new StreamEventClonerHolder(streamEventCloner));
+            positions[i] = tableDefinition.getAttributePosition(attribute);
+            indexName.append(attribute).append(SiddhiConstants.KEY_DELIMITER);
+        }
+        if (attributes.length < 2) {
+            throw new SiddhiAppCreationException("Composite " + SiddhiConstants.ANNOTATION_INDEX + " '" +
+                    attributeList + "' needs at least two attributes, at '" + tableDefinition.getId() + "'",
+                    indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
+        }
+        if (compositeIndexMetaData.put(indexName.toString(), positions) != null) {
+            throw new SiddhiAppCreationException("Multiple composite " + SiddhiConstants.ANNOTATION_INDEX + " " +
+                    "annotations defined with same attributes '" + attributeList + "', at '" +
+                    tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                    indexAnnotation.getQueryContextEndIndex());
+        }
+    }
+
+    private static boolean isPrimaryKeyNumeric(AbstractDefinition tableDefinition,
+                                               PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders) {
+        if (primaryKeyReferenceHolders != null && primaryKeyReferenceHolders.length == 1) {
+            Attribute.Type type = tableDefinition.getAttributeType(
+                    primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
+            return type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
+                    type == Attribute.Type.LONG;
         }
+        return false;
     }
 
 
@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.state.populater.StateEventPopulatorFactory;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent.EventType;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
@@ -32,6 +33,7 @@ import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.OutputCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.output.ratelimit.snapshot.WrappedSnapshotOutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByStatePurger;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.ExceptionUtil;
@@ -41,6 +43,7 @@ import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.window.Window;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateDefinitionException;
@@ -50,6 +53,8 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.OutputStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -115,6 +120,11 @@ public class QueryParser {
             QuerySelector selector = SelectorParser.parse(query.getSelector(), query.getOutputStream(),
                     siddhiAppContext, streamRuntime.getMetaComplexEvent(), tableMap, executors, queryName,
                     SiddhiConstants.UNKNOWN_STATE);
+            if (!query.getSelector().getGroupByList().isEmpty()) {
+                selector.setLiveGroupCounter(QueryParserHelper.createCounterTracker(siddhiAppContext, queryName,
+                        SiddhiConstants.METRIC_INFIX_QUERIES, "groups"));
+            }
+            initGroupByPurging(query, selector, siddhiAppContext, queryName);
             boolean isWindow = query.getInputStream() instanceof JoinInputStream;
             if (!isWindow && query.getInputStream() instanceof SingleInputStream) {
                 for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
@@ -198,10 +208,16 @@ public class QueryParser {
                     siddhiAppContext, !(streamRuntime instanceof SingleStreamRuntime) ||
                             !query.getSelector().getGroupByList().isEmpty(), queryName);
 
+            if (siddhiAppContext.isPrimitiveEventLayout() && streamRuntime instanceof SingleStreamRuntime) {
+                MetaStreamEvent metaStreamEvent = (MetaStreamEvent) streamRuntime.getMetaComplexEvent();
+                if (metaStreamEvent.getEventType() == EventType.DEFAULT) {
+                    metaStreamEvent.setPrimitiveBeforeWindowData(true);
+                }
+            }
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    queryName);
+                    queryName, siddhiAppContext, SiddhiConstants.METRIC_INFIX_QUERIES);
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime
                     .getMetaComplexEvent()));
             queryRuntime = new QueryRuntime(query, siddhiAppContext, streamRuntime, selector, outputRateLimiter,
@@ -231,5 +247,48 @@ public class QueryParser {
         return queryRuntime;
     }
 
+    private static void initGroupByPurging(Query query, QuerySelector selector, SiddhiAppContext siddhiAppContext,
+                                           String queryName) {
+        Annotation purge = AnnotationHelper.getAnnotation(SiddhiConstants.NAMESPACE_PURGE, query.getAnnotations());
+        if (purge == null) {
+            return;
+        }
+        String purgeEnable = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE);
+        if (purgeEnable == null) {
+            return;
+        }
+        if (!("true".equalsIgnoreCase(purgeEnable) || "false".equalsIgnoreCase(purgeEnable))) {
+            throw new SiddhiAppCreationException("Invalid value for enable: " + purgeEnable + " in @purge of " +
+                    "query '" + queryName + "'. Please use true or false");
+        }
+        if (!Boolean.parseBoolean(purgeEnable)) {
+            return;
+        }
+        if (query.getSelector().getGroupByList().isEmpty()) {
+            throw new SiddhiAppCreationException("@purge of query '" + queryName + "' can only be used with " +
+                    "group by, as it purges the state of idle groups");
+        }
+        String interval = purge.getElement(SiddhiConstants.NAMESPACE_INTERVAL);
+        String idlePeriod = purge.getElement(SiddhiConstants.NAMESPACE_IDLE_PERIOD);
+        if (interval == null || idlePeriod == null) {
+            throw new SiddhiAppCreationException("Both '" + SiddhiConstants.NAMESPACE_INTERVAL + "' and '" +
+                    SiddhiConstants.NAMESPACE_IDLE_PERIOD + "' need to be defined in @purge of query '" +
+                    queryName + "'");
+        }
+        GroupByStatePurger groupByStatePurger = new GroupByStatePurger(siddhiAppContext, queryName,
+                timeToLong(interval, queryName), timeToLong(idlePeriod, queryName),
+                QueryParserHelper.createCounterTracker(siddhiAppContext, queryName,
+                        SiddhiConstants.METRIC_INFIX_QUERIES, "groups.purged"));
+        selector.setGroupByStatePurger(groupByStatePurger);
+        siddhiAppContext.addEternalReferencedHolder(groupByStatePurger);
+    }
 
+    private static long timeToLong(String value, String queryName) {
+        try {
+            return SiddhiCompiler.parseTimeConstantDefinition(value).value();
+        } catch (SiddhiParserException e) {
+            throw new SiddhiAppCreationException("Invalid time value '" + value + "' in @purge of query '" +
+                    queryName + "'", e);
+        }
+    }
 }
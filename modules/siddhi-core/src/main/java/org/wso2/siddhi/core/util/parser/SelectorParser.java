@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.compiled.ExpressionExecutorCompiler;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.query.selector.OrderByEventComparator;
@@ -230,6 +231,9 @@ public class SelectorParser {
                 } else {
                     ((MetaStreamEvent) metaComplexEvent).addOutputDataAllowingDuplicate(null);
                 }
+                if (siddhiAppContext.isCompileExpressions()) {
+                    expressionExecutor = ExpressionExecutorCompiler.compile(expressionExecutor, queryName);
+                }
                 AttributeProcessor attributeProcessor = new AttributeProcessor(expressionExecutor);
                 attributeProcessor.setOutputPosition(i);
                 attributeProcessorList.add(attributeProcessor);
@@ -30,6 +30,7 @@ import org.wso2.siddhi.core.util.ExceptionUtil;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.metrics.Level;
 import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
@@ -107,6 +108,102 @@ public class SiddhiAppParser {
                         annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                for (Element e : annotation.getElements()) {
+                    int value;
+                    try {
+                        value = Integer.parseInt(e.getValue());
+                    } catch (NumberFormatException ex) {
+                        throw new SiddhiAppValidationException("EventPool annotation expects an integer for " +
+                                e.getKey() + " but found '" + e.getValue() + "'");
+                    }
+                    if (value <= 0) {
+                        throw new SiddhiAppValidationException("EventPool annotation expects a positive value for " +
+                                e.getKey() + " but found '" + e.getValue() + "'");
+                    }
+                    if (SiddhiConstants.ANNOTATION_ELEMENT_THREAD_CACHE_SIZE.equalsIgnoreCase(e.getKey())) {
+                        siddhiAppContext.setEventPoolThreadCacheSize(value);
+                    } else if (SiddhiConstants.ANNOTATION_ELEMENT_SHARED_SIZE.equalsIgnoreCase(e.getKey())) {
+                        siddhiAppContext.setEventPoolSharedSize(value);
+                    } else {
+                        throw new SiddhiAppValidationException("EventPool annotation accepts only " +
+                                "thread.cache.size and shared.size but found " + e.getKey());
+                    }
+                }
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_LAYOUT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                String layout = null;
+                for (Element e : annotation.getElements()) {
+                    if (e.getKey() == null || SiddhiConstants.ANNOTATION_ELEMENT_TYPE.equalsIgnoreCase(e.getKey())) {
+                        layout = e.getValue();
+                    } else {
+                        throw new SiddhiAppValidationException("EventLayout annotation accepts only type but " +
+                                "found " + e.getKey());
+                    }
+                }
+                if (SiddhiConstants.EVENT_LAYOUT_PRIMITIVE.equalsIgnoreCase(layout)) {
+                    siddhiAppContext.setPrimitiveEventLayout(true);
+                } else if (!SiddhiConstants.EVENT_LAYOUT_OBJECT.equalsIgnoreCase(layout)) {
+                    throw new SiddhiAppValidationException("EventLayout annotation accepts only type 'object' or " +
+                            "'primitive' but found '" + layout + "'");
+                }
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                String compile = "true";
+                for (Element e : annotation.getElements()) {
+                    if (e.getKey() == null || SiddhiConstants.ANNOTATION_ELEMENT_ENABLE.equalsIgnoreCase(e.getKey())) {
+                        compile = e.getValue();
+                    } else {
+                        throw new SiddhiAppValidationException("Compile annotation accepts only enable but " +
+                                "found " + e.getKey());
+                    }
+                }
+                if (!"true".equalsIgnoreCase(compile) && !"false".equalsIgnoreCase(compile)) {
+                    throw new SiddhiAppValidationException("Compile annotation accepts only 'true' or 'false' " +
+                            "but found '" + compile + "'");
+                }
+                siddhiAppContext.setCompileExpressions(Boolean.parseBoolean(compile));
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SNAPSHOT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                for (Element e : annotation.getElements()) {
+                    if (e.getKey() == null || SiddhiConstants.ANNOTATION_ELEMENT_MODE.equalsIgnoreCase(e.getKey())) {
+                        if (SiddhiConstants.SNAPSHOT_MODE_COPY.equalsIgnoreCase(e.getValue())) {
+                            siddhiAppContext.setCopySnapshotState(true);
+                        } else if (!SiddhiConstants.SNAPSHOT_MODE_LOCK.equalsIgnoreCase(e.getValue())) {
+                            throw new SiddhiAppValidationException("Snapshot annotation accepts only mode 'lock' " +
+                                    "or 'copy' but found '" + e.getValue() + "'");
+                        }
+                    } else if (SiddhiConstants.ANNOTATION_ELEMENT_RESTORE_PARALLELISM.equalsIgnoreCase(e.getKey())) {
+                        int restoreParallelism;
+                        try {
+                            restoreParallelism = Integer.parseInt(e.getValue());
+                        } catch (NumberFormatException ex) {
+                            throw new SiddhiAppValidationException("Snapshot annotation expects an integer for " +
+                                    e.getKey() + " but found '" + e.getValue() + "'");
+                        }
+                        if (restoreParallelism <= 0) {
+                            throw new SiddhiAppValidationException("Snapshot annotation expects a positive value " +
+                                    "for " + e.getKey() + " but found '" + e.getValue() + "'");
+                        }
+                        siddhiAppContext.setRestoreParallelism(restoreParallelism);
+                    } else {
+                        throw new SiddhiAppValidationException("Snapshot annotation accepts only mode and " +
+                                "restore.parallelism but found " + e.getKey());
+                    }
+                }
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STATISTICS,
                     siddhiApp.getAnnotations());
 
@@ -216,6 +313,7 @@ public class SiddhiAppParser {
             } else {
                 siddhiAppContext.setTimestampGenerator(new TimestampGeneratorImpl(siddhiAppContext));
             }
+            siddhiAppContext.setTimerWheel(new TimerWheel(siddhiAppContext));
             siddhiAppContext.setSnapshotService(new SnapshotService(siddhiAppContext));
             siddhiAppContext.setElementIdGenerator(new ElementIdGenerator(siddhiAppContext.getName()));
 
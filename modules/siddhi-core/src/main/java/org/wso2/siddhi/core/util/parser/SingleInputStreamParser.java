@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.compiled.ExpressionExecutorCompiler;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
@@ -191,7 +192,11 @@ public class SingleInputStreamParser {
 
         ConfigReader configReader;
         if (streamHandler instanceof Filter) {
-            return new FilterProcessor(attributeExpressionExecutors[0]);
+            ExpressionExecutor conditionExecutor = attributeExpressionExecutors[0];
+            if (siddhiAppContext.isCompileExpressions()) {
+                conditionExecutor = ExpressionExecutorCompiler.compile(conditionExecutor, queryName);
+            }
+            return new FilterProcessor(conditionExecutor);
 
         } else if (streamHandler instanceof Window) {
             WindowProcessor windowProcessor = (WindowProcessor) SiddhiClassLoader.loadExtensionImplementation(
@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEventAttribute;
 import org.wso2.siddhi.core.event.state.StateEventCloner;
 import org.wso2.siddhi.core.event.state.StateEventPool;
+import org.wso2.siddhi.core.event.stream.ConcurrentStreamEventPool;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
@@ -41,6 +42,7 @@ import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.operator.IncrementalAggregateCompileCondition;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
@@ -143,33 +145,57 @@ public class QueryParserHelper {
                 variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_INDEX_IN_TYPE] = metaStreamEvent
                         .getOnAfterWindowData().indexOf(variableExpressionExecutor.getAttribute());
             } else if (metaStreamEvent.getBeforeWindowData().contains(variableExpressionExecutor.getAttribute())) {
-                variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_TYPE_INDEX] = BEFORE_WINDOW_DATA_INDEX;
-                variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_INDEX_IN_TYPE] = metaStreamEvent
-                        .getBeforeWindowData().indexOf(variableExpressionExecutor.getAttribute());
+                int[] primitivePosition = metaStreamEvent.getBeforeWindowPrimitivePosition(
+                        variableExpressionExecutor.getAttribute());
+                if (primitivePosition != null) {
+                    variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_TYPE_INDEX] = primitivePosition[0];
+                    variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_INDEX_IN_TYPE] = primitivePosition[1];
+                } else {
+                    variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_TYPE_INDEX] = BEFORE_WINDOW_DATA_INDEX;
+                    variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_INDEX_IN_TYPE] = metaStreamEvent
+                            .getBeforeWindowObjectPosition(variableExpressionExecutor.getAttribute());
+                }
             }
         }
     }
 
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
-                                         LockWrapper lockWrapper, String queryName) {
+                                         LockWrapper lockWrapper, String queryName,
+                                         SiddhiAppContext siddhiAppContext, String metricInfix) {
+        initStreamRuntime(runtime, metaComplexEvent, lockWrapper, queryName, siddhiAppContext, metricInfix, null);
+    }
+
+    /**
+     * Initialize the stream runtime, reusing the given event pools such that the runtimes initialized with the same
+     * pools, such as the instances of a partitioned query, share their pooled events.
+     *
+     * @param streamEventPools event pools indexed by the single stream runtimes, where missing pools are created and
+     *                         set, or null to always create new pools
+     */
+    public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
+                                         LockWrapper lockWrapper, String queryName,
+                                         SiddhiAppContext siddhiAppContext, String metricInfix,
+                                         StreamEventPool[] streamEventPools) {
 
         if (runtime instanceof SingleStreamRuntime) {
             initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent,
-                    null, lockWrapper, queryName);
+                    null, lockWrapper, queryName, siddhiAppContext, metricInfix, streamEventPools);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
             StateEventPool stateEventPool = new StateEventPool(metaStateEvent, 5);
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i), i, metaStateEvent, stateEventPool,
-                        lockWrapper, queryName);
+                        lockWrapper, queryName, siddhiAppContext, metricInfix, streamEventPools);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventPool stateEventPool,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName,
+                                                SiddhiAppContext siddhiAppContext, String metricInfix,
+                                                StreamEventPool[] streamEventPools) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -177,8 +203,17 @@ public class QueryParserHelper {
         } else {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
-        StreamEventPool streamEventPool = new StreamEventPool(metaStreamEvent, 5);
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
+        // Shared by the receiving threads and the scheduler thread, hence needs to be thread safe
+        StreamEventPool streamEventPool = streamEventPools != null ? streamEventPools[streamEventChainIndex] : null;
+        if (streamEventPool == null) {
+            streamEventPool = createStreamEventPool(siddhiAppContext, metaStreamEvent,
+                    queryName + SiddhiConstants.METRIC_DELIMITER + metaStreamEvent.getLastInputDefinition().getId(),
+                    metricInfix);
+            if (streamEventPools != null) {
+                streamEventPools[streamEventChainIndex] = streamEventPool;
+            }
+        }
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventPool(streamEventPool);
         processStreamReceiver.setLockWrapper(lockWrapper);
@@ -289,6 +324,58 @@ public class QueryParserHelper {
     }
 
 
+    public static CounterTracker createCounterTracker(SiddhiAppContext siddhiAppContext, String name,
+                                                      String type, String counter) {
+        CounterTracker counterTracker = null;
+        if (siddhiAppContext.getStatisticsManager() != null) {
+            String metricName =
+                    siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                            SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                            SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                            SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                            SiddhiConstants.METRIC_DELIMITER + type +
+                            SiddhiConstants.METRIC_DELIMITER + name +
+                            SiddhiConstants.METRIC_DELIMITER + counter;
+            boolean matchExist = false;
+            for (String regex : siddhiAppContext.getIncludedMetrics()) {
+                if (metricName.matches(regex)) {
+                    matchExist = true;
+                    break;
+                }
+            }
+            if (matchExist) {
+                counterTracker = siddhiAppContext
+                        .getSiddhiContext()
+                        .getStatisticsConfiguration()
+                        .getFactory()
+                        .createCounterTracker(metricName, siddhiAppContext.getStatisticsManager());
+            }
+        }
+        return counterTracker;
+    }
+
+    /**
+     * Create a thread safe {@link StreamEventPool} sized as configured for the Siddhi app, with its hits and misses
+     * tracked when statistics are enabled. The pool is cleaned when the Siddhi app is shutdown.
+     *
+     * @param siddhiAppContext Siddhi app context
+     * @param metaStreamEvent  meta stream event of the pooled events
+     * @param name             name of the element using the pool
+     * @param type             metric infix of the element using the pool
+     * @return thread safe event pool
+     */
+    public static ConcurrentStreamEventPool createStreamEventPool(SiddhiAppContext siddhiAppContext,
+                                                                  MetaStreamEvent metaStreamEvent, String name,
+                                                                  String type) {
+        ConcurrentStreamEventPool streamEventPool = new ConcurrentStreamEventPool(metaStreamEvent,
+                siddhiAppContext.getEventPoolThreadCacheSize(), siddhiAppContext.getEventPoolSharedSize());
+        streamEventPool.setTrackers(
+                createCounterTracker(siddhiAppContext, name, type, "eventPool.hits"),
+                createCounterTracker(siddhiAppContext, name, type, "eventPool.misses"));
+        siddhiAppContext.addStreamEventPool(streamEventPool);
+        return streamEventPool;
+    }
+
     public static void registerMemoryUsageTracking(String name, Object value, String metricInfixQueries,
                                                    SiddhiAppContext siddhiAppContext,
                                                    MemoryUsageTracker memoryUsageTracker) {
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.exception.CannotClearSiddhiAppStateException;
+import org.wso2.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
+import org.wso2.siddhi.core.util.persistence.util.PersistenceConstants;
+import org.wso2.siddhi.core.util.persistence.util.PersistenceHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of Incremental Persistence Store that would persist snapshots to an append only log of memory mapped
+ * files, instead of a file per revision. The revisions to restore are found from the index of the log, so restoring
+ * from a long chain of increments does not list directories or open a file per increment.
+ */
+public class IncrementalLogFilePersistenceStore implements IncrementalPersistenceStore {
+
+    private static final Logger log = Logger.getLogger(IncrementalLogFilePersistenceStore.class);
+    private final SnapshotLogs snapshotLogs;
+
+    public IncrementalLogFilePersistenceStore() {
+        snapshotLogs = new SnapshotLogs(PersistenceConstants.DEFAULT_FILE_PERSISTENCE_FOLDER);
+    }
+
+    public IncrementalLogFilePersistenceStore(String storageFilePath) {
+        snapshotLogs = new SnapshotLogs(storageFilePath);
+    }
+
+    /**
+     * @param storageFilePath folder the logs are stored in
+     * @param segmentSize     size of the segment files of the logs in bytes
+     * @param syncInterval    interval in milliseconds the saved revisions are flushed to the storage device, or zero
+     *                        to flush each revision as it is saved
+     */
+    public IncrementalLogFilePersistenceStore(String storageFilePath, int segmentSize, long syncInterval) {
+        snapshotLogs = new SnapshotLogs(storageFilePath);
+        snapshotLogs.setSegmentSize(segmentSize);
+        snapshotLogs.setSyncInterval(syncInterval);
+    }
+
+    @Override
+    public void save(IncrementalSnapshotInfo snapshotInfo, byte[] snapshot) {
+        try {
+            snapshotLogs.save(snapshotInfo.getSiddhiAppId(), snapshotInfo.getRevision(), snapshot);
+            cleanOldRevisions(snapshotInfo);
+            if (log.isDebugEnabled()) {
+                log.debug("Incremental persistence of '" + snapshotInfo.getSiddhiAppId() +
+                        "' with revision '" + snapshotInfo.getRevision() + "' persisted successfully.");
+            }
+        } catch (IOException e) {
+            log.error("Cannot save the revision '" + snapshotInfo.getRevision() + "' of SiddhiApp: '" +
+                    snapshotInfo.getSiddhiAppId() + "' to the log file.", e);
+        }
+    }
+
+    @Override
+    public void setProperties(Map properties) {
+        snapshotLogs.setProperties((Map) properties.get(PersistenceConstants.STATE_PERSISTENCE_CONFIGS));
+    }
+
+    @Override
+    public byte[] load(IncrementalSnapshotInfo snapshotInfo) {
+        try {
+            byte[] bytes = snapshotLogs.get(snapshotInfo.getSiddhiAppId()).load(snapshotInfo.getRevision());
+            if (bytes == null) {
+                log.error("Cannot find the revision '" + snapshotInfo.getRevision() + "' of SiddhiApp '" +
+                        snapshotInfo.getSiddhiAppId() + "' in the log file.");
+            } else if (log.isDebugEnabled()) {
+                log.debug("State loaded for SiddhiApp '" + snapshotInfo.getSiddhiAppId() + "' revision '" +
+                        snapshotInfo.getRevision() + "' from the log file.");
+            }
+            return bytes;
+        } catch (IOException e) {
+            log.error("Cannot load the revision '" + snapshotInfo.getRevision() + "' of SiddhiApp '" +
+                    snapshotInfo.getSiddhiAppId() + "' from the log file.", e);
+        }
+        return null;
+    }
+
+    @Override
+    public List<IncrementalSnapshotInfo> getListOfRevisionsToLoad(long restoreTime, String siddhiAppName) {
+        List<IncrementalSnapshotInfo> revisions = getRevisions(siddhiAppName);
+        if (revisions.isEmpty()) {
+            return null;
+        }
+        List<IncrementalSnapshotInfo> results = new ArrayList<>();
+        for (IncrementalSnapshotInfo snapshotInfo : revisions) {
+            if (snapshotInfo.getTime() <= restoreTime) {
+                if (log.isDebugEnabled()) {
+                    log.debug("List of revisions to load : " + snapshotInfo.getRevision());
+                }
+                results.add(snapshotInfo);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String getLastRevision(String siddhiAppName) {
+        long restoreTime = -1;
+        for (IncrementalSnapshotInfo snapshotInfo : getRevisions(siddhiAppName)) {
+            if (snapshotInfo.getTime() > restoreTime) {
+                restoreTime = snapshotInfo.getTime();
+            }
+        }
+        if (restoreTime != -1) {
+            if (log.isDebugEnabled()) {
+                log.debug("Latest revision to load: " + restoreTime + PersistenceConstants.REVISION_SEPARATOR +
+                        siddhiAppName);
+            }
+            return restoreTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppName;
+        }
+        return null;
+    }
+
+    @Override
+    public void clearAllRevisions(String siddhiAppName) {
+        try {
+            if (!snapshotLogs.clear(siddhiAppName)) {
+                log.info("No revisions were found to delete for the Siddhi App " + siddhiAppName);
+            }
+        } catch (IOException e) {
+            throw new CannotClearSiddhiAppStateException("Persistence state log file of " + siddhiAppName +
+                    " is not deleted", e);
+        }
+    }
+
+    /**
+     * @return the incremental revisions of the Siddhi app. Full snapshot revisions are discarded as they are
+     * handled by the full snapshot handling
+     */
+    private List<IncrementalSnapshotInfo> getRevisions(String siddhiAppName) {
+        List<IncrementalSnapshotInfo> results = new ArrayList<>();
+        try {
+            for (String revision : snapshotLogs.get(siddhiAppName).getRevisions()) {
+                IncrementalSnapshotInfo snapshotInfo = PersistenceHelper.convertRevision(revision);
+                if (siddhiAppName.equals(snapshotInfo.getSiddhiAppId()) &&
+                        snapshotInfo.getElementId() != null &&
+                        snapshotInfo.getQueryName() != null) {
+                    results.add(snapshotInfo);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot read the revisions of SiddhiApp '" + siddhiAppName + "' from the log file.", e);
+        }
+        return results;
+    }
+
+    private void cleanOldRevisions(IncrementalSnapshotInfo incrementalSnapshotInfo) throws IOException {
+        if (incrementalSnapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.INCREMENT) {
+            SnapshotLog snapshotLog = snapshotLogs.get(incrementalSnapshotInfo.getSiddhiAppId());
+            long baseTimeStamp = incrementalSnapshotInfo.getTime();
+            for (IncrementalSnapshotInfo snapshotInfo : getRevisions(incrementalSnapshotInfo.getSiddhiAppId())) {
+                if (snapshotInfo.getTime() < baseTimeStamp &&
+                        incrementalSnapshotInfo.getQueryName().equals(snapshotInfo.getQueryName()) &&
+                        incrementalSnapshotInfo.getElementId().equals(snapshotInfo.getElementId())) {
+                    if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE &&
+                            snapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                        snapshotLog.delete(snapshotInfo.getRevision());
+                    } else if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC &&
+                            snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                        snapshotLog.delete(snapshotInfo.getRevision());
+                    }
+                }
+            }
+        }
+    }
+}
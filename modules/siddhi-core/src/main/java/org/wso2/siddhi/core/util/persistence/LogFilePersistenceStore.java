@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.exception.CannotClearSiddhiAppStateException;
+import org.wso2.siddhi.core.util.persistence.util.PersistenceConstants;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of Persistence Store that would persist snapshots to an append only log of memory mapped files,
+ * instead of a file per revision. Records are flushed to the storage device in batches every sync interval.
+ */
+public class LogFilePersistenceStore implements PersistenceStore {
+
+    private static final Logger log = Logger.getLogger(LogFilePersistenceStore.class);
+    private int numberOfRevisionsToSave = 3;
+    private final SnapshotLogs snapshotLogs;
+
+    public LogFilePersistenceStore() {
+        snapshotLogs = new SnapshotLogs(PersistenceConstants.DEFAULT_FILE_PERSISTENCE_FOLDER);
+    }
+
+    public LogFilePersistenceStore(String storageFilePath) {
+        snapshotLogs = new SnapshotLogs(storageFilePath);
+    }
+
+    /**
+     * @param storageFilePath folder the logs are stored in
+     * @param segmentSize     size of the segment files of the logs in bytes
+     * @param syncInterval    interval in milliseconds the saved revisions are flushed to the storage device, or zero
+     *                        to flush each revision as it is saved
+     */
+    public LogFilePersistenceStore(String storageFilePath, int segmentSize, long syncInterval) {
+        snapshotLogs = new SnapshotLogs(storageFilePath);
+        snapshotLogs.setSegmentSize(segmentSize);
+        snapshotLogs.setSyncInterval(syncInterval);
+    }
+
+    @Override
+    public void save(String siddhiAppName, String revision, byte[] snapshot) {
+        try {
+            snapshotLogs.save(siddhiAppName, revision, snapshot);
+            cleanOldRevisions(siddhiAppName);
+            if (log.isDebugEnabled()) {
+                log.debug("Periodic persistence of " + siddhiAppName + " persisted successfully.");
+            }
+        } catch (IOException e) {
+            log.error("Cannot save the revision " + revision + " of SiddhiApp: " + siddhiAppName +
+                    " to the log file.", e);
+        }
+    }
+
+    @Override
+    public void setProperties(Map properties) {
+        Object numberOfRevisionsObject = properties.get(PersistenceConstants.STATE_PERSISTENCE_REVISIONS_TO_KEEP);
+        if (numberOfRevisionsObject == null || !(numberOfRevisionsObject instanceof Integer)) {
+            numberOfRevisionsToSave = 3;
+            if (log.isDebugEnabled()) {
+                log.debug("Number of revisions to keep is not set or invalid. Default value will be used.");
+            }
+        } else {
+            numberOfRevisionsToSave = Integer.parseInt(String.valueOf(numberOfRevisionsObject));
+        }
+        snapshotLogs.setProperties((Map) properties.get(PersistenceConstants.STATE_PERSISTENCE_CONFIGS));
+    }
+
+    @Override
+    public byte[] load(String siddhiAppName, String revision) {
+        try {
+            byte[] bytes = snapshotLogs.get(siddhiAppName).load(revision);
+            if (bytes == null) {
+                log.error("Cannot find the revision " + revision + " of SiddhiApp: " + siddhiAppName +
+                        " in the log file.");
+            } else {
+                log.info("State loaded for " + siddhiAppName + " revision " + revision + " from the log file.");
+            }
+            return bytes;
+        } catch (IOException e) {
+            log.error("Cannot load the revision " + revision + " of SiddhiApp: " + siddhiAppName +
+                    " from the log file.", e);
+        }
+        return null;
+    }
+
+    @Override
+    public String getLastRevision(String siddhiAppName) {
+        try {
+            String lastRevision = null;
+            for (String revision : snapshotLogs.get(siddhiAppName).getRevisions()) {
+                if (lastRevision == null || revision.compareTo(lastRevision) > 0) {
+                    lastRevision = revision;
+                }
+            }
+            return lastRevision;
+        } catch (IOException e) {
+            log.error("Cannot read the revisions of SiddhiApp: " + siddhiAppName + " from the log file.", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void clearAllRevisions(String siddhiAppName) {
+        try {
+            if (!snapshotLogs.clear(siddhiAppName)) {
+                log.info("No revisions were found to delete for the Siddhi App " + siddhiAppName);
+            }
+        } catch (IOException e) {
+            throw new CannotClearSiddhiAppStateException("Persistence state log file of " + siddhiAppName +
+                    " is not deleted", e);
+        }
+    }
+
+    /**
+     * Method to remove revisions that are older than the user specified amount
+     *
+     * @param siddhiAppName is the name of the Siddhi Application whose old revisions to remove
+     */
+    private void cleanOldRevisions(String siddhiAppName) throws IOException {
+        SnapshotLog snapshotLog = snapshotLogs.get(siddhiAppName);
+        List<String> revisions = snapshotLog.getRevisions();
+        revisions.sort(null);
+        for (int i = 0; i < revisions.size() - numberOfRevisionsToSave; i++) {
+            snapshotLog.delete(revisions.get(i));
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append only log holding the revisions of a single Siddhi app. The log is made of segment files which are memory
+ * mapped and filled one after the other. Each record holds a revision and its snapshot, or marks a revision as
+ * deleted, and is followed by a checksum so a record torn by a crash is detected when the log is opened. The location
+ * of the live revisions is kept in memory, so revisions are listed and loaded without touching the file system.
+ * <p>
+ * The space of deleted and overwritten revisions is reclaimed by {@link #compact()}, which rewrites the live revisions
+ * into new segments once they take less than half of the log.
+ */
+final class SnapshotLog {
+    private static final Logger log = Logger.getLogger(SnapshotLog.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    // Record length, checksum, record type and revision length
+    private static final int RECORD_HEADER_LENGTH = 4 + 8 + 1 + 2;
+    // Revision lengths are written as unsigned shorts
+    private static final int MAX_REVISION_LENGTH = 0xFFFF;
+
+    private final File directory;
+    private final int segmentSize;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Record> records = new LinkedHashMap<>();
+    private Segment activeSegment;
+    private long liveBytes;
+    private long totalBytes;
+    private boolean closed;
+
+    SnapshotLog(File directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, new Segment(id, file, file.length()));
+                }
+            }
+        }
+        for (Segment segment : segments.values()) {
+            readRecords(segment);
+        }
+        if (!segments.isEmpty()) {
+            activeSegment = segments.lastEntry().getValue();
+        }
+    }
+
+    synchronized void save(String revision, byte[] snapshot) throws IOException {
+        Record record = append(SAVE, revision, snapshot);
+        put(revision, record);
+    }
+
+    synchronized byte[] load(String revision) {
+        Record record = records.get(revision);
+        if (record == null) {
+            return null;
+        }
+        ByteBuffer buffer = record.segment.buffer.duplicate();
+        buffer.position(record.offset);
+        byte[] snapshot = new byte[record.length];
+        buffer.get(snapshot);
+        return snapshot;
+    }
+
+    synchronized void delete(String revision) throws IOException {
+        if (remove(revision) != null) {
+            append(DELETE, revision, null);
+        }
+    }
+
+    /**
+     * @return live revisions, in the order they were saved
+     */
+    synchronized List<String> getRevisions() {
+        return new ArrayList<>(records.keySet());
+    }
+
+    /**
+     * Flush the records appended since the last call to the storage device
+     */
+    synchronized void sync() {
+        for (Segment segment : segments.values()) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Rewrite the live revisions into new segments and delete the old segments, when less than half of the log is
+     * taken by live revisions.
+     *
+     * @return true if the log was compacted
+     */
+    synchronized boolean compact() throws IOException {
+        if (closed || totalBytes - liveBytes <= Math.max(liveBytes, segmentSize)) {
+            return false;
+        }
+        List<Segment> oldSegments = new ArrayList<>(segments.values());
+        Map<String, byte[]> snapshots = new LinkedHashMap<>();
+        for (String revision : records.keySet()) {
+            snapshots.put(revision, load(revision));
+        }
+        records.clear();
+        liveBytes = 0;
+        totalBytes = 0;
+        activeSegment = null;
+        for (Map.Entry<String, byte[]> entry : snapshots.entrySet()) {
+            put(entry.getKey(), append(SAVE, entry.getKey(), entry.getValue()));
+        }
+        // Persist the new segments before removing the old ones, such that a crash does not lose revisions
+        sync();
+        for (Segment segment : oldSegments) {
+            segments.remove(segment.id);
+            if (!segment.file.delete()) {
+                log.error("Error deleting compacted snapshot log segment " + segment.file.getAbsolutePath());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compacted snapshot log " + directory.getAbsolutePath() + " to " + totalBytes + " bytes.");
+        }
+        return true;
+    }
+
+    /**
+     * Delete all revisions along with the segment files. The log cannot be used afterwards.
+     */
+    synchronized void clear() {
+        closed = true;
+        records.clear();
+        for (Segment segment : segments.values()) {
+            if (!segment.file.delete()) {
+                log.error("Error deleting snapshot log segment " + segment.file.getAbsolutePath());
+            }
+        }
+        segments.clear();
+        activeSegment = null;
+    }
+
+    private void put(String revision, Record record) {
+        remove(revision);
+        records.put(revision, record);
+        liveBytes += record.size;
+    }
+
+    private Record remove(String revision) {
+        Record record = records.remove(revision);
+        if (record != null) {
+            liveBytes -= record.size;
+        }
+        return record;
+    }
+
+    private Record append(byte type, String revision, byte[] snapshot) throws IOException {
+        if (closed) {
+            throw new IOException("Snapshot log " + directory.getAbsolutePath() + " is cleared");
+        }
+        byte[] revisionBytes = revision.getBytes(StandardCharsets.UTF_8);
+        if (revisionBytes.length > MAX_REVISION_LENGTH) {
+            throw new IOException("Revision of " + revisionBytes.length + " bytes exceeds the maximum of " +
+                    MAX_REVISION_LENGTH + " bytes of snapshot log " + directory.getAbsolutePath());
+        }
+        int snapshotLength = snapshot == null ? 0 : snapshot.length;
+        int size = RECORD_HEADER_LENGTH + revisionBytes.length + snapshotLength;
+        if (activeSegment == null || activeSegment.buffer.capacity() - activeSegment.position < size) {
+            newSegment(size);
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(type);
+        crc32.update(revisionBytes);
+        if (snapshot != null) {
+            crc32.update(snapshot);
+        }
+        ByteBuffer buffer = activeSegment.buffer.duplicate();
+        buffer.position(activeSegment.position);
+        buffer.putInt(size);
+        buffer.putLong(crc32.getValue());
+        buffer.put(type);
+        buffer.putShort((short) revisionBytes.length);
+        buffer.put(revisionBytes);
+        int offset = buffer.position();
+        if (snapshot != null) {
+            buffer.put(snapshot);
+        }
+        activeSegment.position += size;
+        activeSegment.dirty = true;
+        totalBytes += size;
+        return new Record(activeSegment, offset, snapshotLength, size);
+    }
+
+    private void newSegment(int recordSize) throws IOException {
+        if (activeSegment != null && activeSegment.dirty) {
+            activeSegment.buffer.force();
+            activeSegment.dirty = false;
+        }
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        File file = new File(directory, String.format("%s%019d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create snapshot log directory " + directory.getAbsolutePath());
+        }
+        activeSegment = new Segment(id, file, Math.max(segmentSize, recordSize));
+        segments.put(id, activeSegment);
+    }
+
+    /**
+     * Read the records of the segment into the index, stopping at the first incomplete or corrupted record. Records
+     * appended afterwards overwrite that record, and the rest of the segment is cleared, such that they are not left
+     * behind an unreadable record when the log is opened again.
+     */
+    private void readRecords(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int end = 0;
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int start = buffer.position();
+            int size = buffer.getInt();
+            if (size < RECORD_HEADER_LENGTH || size > buffer.capacity() - start) {
+                break;
+            }
+            long checksum = buffer.getLong();
+            byte type = buffer.get();
+            int revisionLength = buffer.getShort() & 0xFFFF;
+            int snapshotLength = size - RECORD_HEADER_LENGTH - revisionLength;
+            if (snapshotLength < 0) {
+                break;
+            }
+            byte[] revisionBytes = new byte[revisionLength];
+            buffer.get(revisionBytes);
+            int offset = buffer.position();
+            CRC32 crc32 = new CRC32();
+            crc32.update(type);
+            crc32.update(revisionBytes);
+            ByteBuffer snapshot = buffer.duplicate();
+            snapshot.limit(offset + snapshotLength);
+            crc32.update(snapshot);
+            if (crc32.getValue() != checksum) {
+                log.warn("Ignoring corrupted record at " + start + " of snapshot log segment " +
+                        segment.file.getAbsolutePath());
+                break;
+            }
+            buffer.position(offset + snapshotLength);
+            String revision = new String(revisionBytes, StandardCharsets.UTF_8);
+            if (type == SAVE) {
+                put(revision, new Record(segment, offset, snapshotLength, size));
+            } else {
+                remove(revision);
+            }
+            totalBytes += size;
+            end = buffer.position();
+        }
+        segment.position = end;
+        truncate(segment);
+    }
+
+    /**
+     * Clear the segment after its last record, when a torn or corrupted record is left there
+     */
+    private static void truncate(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(segment.position);
+        boolean clean = true;
+        while (clean && buffer.remaining() >= 8) {
+            clean = buffer.getLong() == 0;
+        }
+        while (clean && buffer.hasRemaining()) {
+            clean = buffer.get() == 0;
+        }
+        if (clean) {
+            return;
+        }
+        buffer.position(segment.position);
+        while (buffer.remaining() >= 8) {
+            buffer.putLong(0);
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        segment.dirty = true;
+    }
+
+    /**
+     * Memory mapped segment file of the log
+     */
+    private static class Segment {
+        private final long id;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private boolean dirty;
+
+        Segment(long id, File file, long size) throws IOException {
+            this.id = id;
+            this.file = file;
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                // The mapping stays valid after the channel is closed
+                this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+    }
+
+    /**
+     * Location of a saved revision
+     */
+    private static class Record {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final int size;
+
+        Record(Segment segment, int offset, int length, int size) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.persistence;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.util.persistence.util.PersistenceConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link SnapshotLog}s of the Siddhi apps persisted by a log file persistence store. A background thread flushes
+ * the records appended to the logs every sync interval, so saves are not blocked by the storage device, and compacts
+ * the logs. When the sync interval is zero, every save is flushed before it returns.
+ */
+final class SnapshotLogs {
+    private static final Logger log = Logger.getLogger(SnapshotLogs.class);
+
+    static final String SEGMENT_SIZE = "segmentSize";
+    static final String SYNC_INTERVAL = "syncInterval";
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    static final long DEFAULT_SYNC_INTERVAL = 1000;
+    // Interval of the compaction checks when every save is flushed
+    private static final long COMPACTION_INTERVAL = 1000;
+
+    private final ConcurrentHashMap<String, SnapshotLog> logs = new ConcurrentHashMap<>();
+    private String folder;
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private long syncInterval = DEFAULT_SYNC_INTERVAL;
+    private ScheduledExecutorService scheduledExecutorService;
+
+    SnapshotLogs(String folder) {
+        this.folder = folder;
+    }
+
+    void setFolder(String folder) {
+        this.folder = folder;
+    }
+
+    void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Read the location, segment size and sync interval from the persistence configuration
+     *
+     * @param configurationMap persistence configuration, can be null
+     */
+    void setProperties(Map configurationMap) {
+        folder = PersistenceConstants.DEFAULT_FILE_PERSISTENCE_FOLDER;
+        if (configurationMap == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Log file persistence config not set. Default persistence location will be used.");
+            }
+            return;
+        }
+        Object folderObject = configurationMap.get("location");
+        if (folderObject instanceof String) {
+            folder = String.valueOf(folderObject);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Log file persistence location not set. Default persistence location will be used.");
+        }
+        Object segmentSizeObject = configurationMap.get(SEGMENT_SIZE);
+        if (segmentSizeObject instanceof Integer && (Integer) segmentSizeObject > 0) {
+            segmentSize = (Integer) segmentSizeObject;
+        } else if (segmentSizeObject != null) {
+            log.warn("Invalid log file persistence " + SEGMENT_SIZE + " '" + segmentSizeObject + "'. Default value " +
+                    DEFAULT_SEGMENT_SIZE + " will be used.");
+        }
+        Object syncIntervalObject = configurationMap.get(SYNC_INTERVAL);
+        if (syncIntervalObject instanceof Number && ((Number) syncIntervalObject).longValue() >= 0) {
+            syncInterval = ((Number) syncIntervalObject).longValue();
+        } else if (syncIntervalObject != null) {
+            log.warn("Invalid log file persistence " + SYNC_INTERVAL + " '" + syncIntervalObject + "'. Default " +
+                    "value " + DEFAULT_SYNC_INTERVAL + " will be used.");
+        }
+    }
+
+    SnapshotLog get(String siddhiAppName) throws IOException {
+        SnapshotLog snapshotLog = logs.get(siddhiAppName);
+        if (snapshotLog == null) {
+            synchronized (this) {
+                snapshotLog = logs.get(siddhiAppName);
+                if (snapshotLog == null) {
+                    snapshotLog = new SnapshotLog(new File(folder + File.separator + siddhiAppName), segmentSize);
+                    logs.put(siddhiAppName, snapshotLog);
+                    startBackgroundTasks();
+                }
+            }
+        }
+        return snapshotLog;
+    }
+
+    void save(String siddhiAppName, String revision, byte[] snapshot) throws IOException {
+        SnapshotLog snapshotLog = get(siddhiAppName);
+        snapshotLog.save(revision, snapshot);
+        if (syncInterval == 0) {
+            snapshotLog.sync();
+        }
+    }
+
+    /**
+     * Delete all revisions of the Siddhi app
+     *
+     * @param siddhiAppName name of the Siddhi app
+     * @return false if there were no revisions to delete
+     */
+    synchronized boolean clear(String siddhiAppName) throws IOException {
+        SnapshotLog snapshotLog = logs.remove(siddhiAppName);
+        if (snapshotLog == null) {
+            File directory = new File(folder + File.separator + siddhiAppName);
+            if (!directory.exists()) {
+                return false;
+            }
+            snapshotLog = new SnapshotLog(directory, segmentSize);
+        }
+        snapshotLog.clear();
+        return true;
+    }
+
+    private void startBackgroundTasks() {
+        if (scheduledExecutorService == null) {
+            scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("Siddhi-snapshot-log-thread-%d").setDaemon(true).build());
+            long interval = syncInterval > 0 ? syncInterval : COMPACTION_INTERVAL;
+            scheduledExecutorService.scheduleWithFixedDelay(this::runBackgroundTasks, interval, interval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runBackgroundTasks() {
+        for (Map.Entry<String, SnapshotLog> entry : logs.entrySet()) {
+            try {
+                entry.getValue().sync();
+                entry.getValue().compact();
+            } catch (IOException | RuntimeException e) {
+                log.error("Error when syncing and compacting the snapshot log of SiddhiApp '" + entry.getKey() +
+                        "'.", e);
+            }
+        }
+    }
+}
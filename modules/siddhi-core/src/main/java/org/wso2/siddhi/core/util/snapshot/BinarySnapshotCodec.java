@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.Operation;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.util.ExceptionUtil;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link SnapshotCodec} with a compact binary format. The values commonly found in snapshot states, such as
+ * {@link StreamEvent}s, {@link StateEvent}s, {@link SnapshotStateList}s, maps, lists and boxed primitives, are written
+ * with a one byte type tag followed by their content. Integers are written as variable length integers, event
+ * timestamps are delta encoded against the previously written event, repeated strings are written only once and
+ * objects referred to more than once are written once and then referred to by their position. Values of other types
+ * are written using Java serialization. The encoded state can optionally be compressed with deflate.
+ * <p>
+ * States encoded with Java serialization by earlier versions are detected and decoded with {@link ByteSerializer}.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+    private static final Logger log = Logger.getLogger(BinarySnapshotCodec.class);
+
+    private static final byte[] MAGIC = new byte[]{'S', 'B', 'S'};
+    private static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATE = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte STRING_REFERENCE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte TRUE = 8;
+    private static final byte FALSE = 9;
+    private static final byte OBJECT_ARRAY = 10;
+    private static final byte LONG_ARRAY = 11;
+    private static final byte HASH_MAP = 12;
+    private static final byte LINKED_HASH_MAP = 13;
+    private static final byte CONCURRENT_HASH_MAP = 14;
+    private static final byte TREE_MAP = 15;
+    private static final byte ARRAY_LIST = 16;
+    private static final byte LINKED_LIST = 17;
+    private static final byte STREAM_EVENT = 18;
+    private static final byte STATE_EVENT = 19;
+    private static final byte SNAPSHOT_STATE_LIST = 20;
+    private static final byte SNAPSHOT_STATE = 21;
+    private static final byte OPERATION = 22;
+    private static final byte SERIALIZED = 23;
+
+    // Markers written after each event of an event chain
+    private static final byte END_OF_CHAIN = 0;
+    private static final byte NEXT_IN_CHAIN = 1;
+    private static final byte NEXT_AS_VALUE = 2;
+
+    private static final StreamEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+    private static final Operation.Operator[] OPERATORS = Operation.Operator.values();
+
+    private final boolean compress;
+
+    public BinarySnapshotCodec() {
+        this(false);
+    }
+
+    /**
+     * @param compress whether the encoded states should be compressed with deflate
+     */
+    public BinarySnapshotCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public byte[] encode(Object state, SiddhiAppContext siddhiAppContext) {
+        long start = System.currentTimeMillis();
+        byte[] out;
+        try {
+            Encoder encoder = new Encoder();
+            encoder.writeBytes(MAGIC, 0, MAGIC.length);
+            encoder.writeByte(VERSION);
+            encoder.writeByte(compress ? FLAG_DEFLATE : 0);
+            encoder.writeValue(state);
+            out = encoder.toByteArray();
+            if (compress) {
+                out = deflate(out, HEADER_LENGTH);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when encoding snapshot state.", e);
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("For SiddhiApp '" + siddhiAppContext.getName() + "'. Encoded " + out.length + " bytes in :" +
+                    (System.currentTimeMillis() - start) + " msec");
+        }
+        return out;
+    }
+
+    @Override
+    public Object decode(byte[] bytes, SiddhiAppContext siddhiAppContext) {
+        if (bytes == null) {
+            return null;
+        }
+        if (!isBinarySnapshot(bytes)) {
+            return ByteSerializer.byteToObject(bytes, siddhiAppContext);
+        }
+        long start = System.currentTimeMillis();
+        Object out;
+        try {
+            if (bytes[MAGIC.length] != VERSION) {
+                throw new IOException("Unsupported snapshot version " + bytes[MAGIC.length]);
+            }
+            if ((bytes[MAGIC.length + 1] & FLAG_DEFLATE) != 0) {
+                out = new Decoder(inflate(bytes, HEADER_LENGTH), 0).readValue();
+            } else {
+                out = new Decoder(bytes, HEADER_LENGTH).readValue();
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when decoding snapshot state.", e);
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("SiddhiApp '" + siddhiAppContext.getName() + "' decoded in: " +
+                    (System.currentTimeMillis() - start) + " milliseconds");
+        }
+        return out;
+    }
+
+    private static boolean isBinarySnapshot(byte[] bytes) {
+        return bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC[0] && bytes[1] == MAGIC[1] &&
+                bytes[2] == MAGIC[2];
+    }
+
+    private static byte[] deflate(byte[] bytes, int offset) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes, offset, bytes.length - offset);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            out.write(bytes, 0, offset);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Compressed snapshot state is truncated");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed snapshot state is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes values to a growing byte array
+     */
+    private static class Encoder {
+        private final IdentityHashMap<Object, Integer> references = new IdentityHashMap<>();
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] buffer = new byte[1024];
+        private int position = 0;
+        private long previousTimestamp = 0;
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeFixedLong(long value, int length) {
+            ensureCapacity(length);
+            for (int i = (length - 1) * 8; i >= 0; i -= 8) {
+                buffer[position++] = (byte) (value >>> i);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        /**
+         * Assign the next position to the object, so later occurrences of it can be written as references
+         *
+         * @param object object being written
+         */
+        private void register(Object object) {
+            references.put(object, references.size());
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                writeByte(INT);
+                writeVarLong(zigZag((Integer) value));
+            } else if (type == Long.class) {
+                writeByte(LONG);
+                writeVarLong(zigZag((Long) value));
+            } else if (type == Float.class) {
+                writeByte(FLOAT);
+                writeFixedLong(Float.floatToRawIntBits((Float) value), 4);
+            } else if (type == Double.class) {
+                writeByte(DOUBLE);
+                writeFixedLong(Double.doubleToRawLongBits((Double) value), 8);
+            } else if (type == Boolean.class) {
+                writeByte((Boolean) value ? TRUE : FALSE);
+            } else {
+                Integer reference = references.get(value);
+                if (reference != null) {
+                    writeByte(REFERENCE);
+                    writeVarLong(reference);
+                } else {
+                    writeObject(value, type);
+                }
+            }
+        }
+
+        private void writeString(String value) {
+            Integer reference = strings.get(value);
+            if (reference != null) {
+                writeByte(STRING_REFERENCE);
+                writeVarLong(reference);
+            } else {
+                strings.put(value, strings.size());
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeByte(STRING);
+                writeVarLong(bytes.length);
+                writeBytes(bytes, 0, bytes.length);
+            }
+        }
+
+        private void writeObject(Object value, Class<?> type) throws IOException {
+            if (type == StreamEvent.class) {
+                writeByte(STREAM_EVENT);
+                writeStreamEvents((StreamEvent) value);
+            } else if (type == StateEvent.class) {
+                writeByte(STATE_EVENT);
+                writeStateEvents((StateEvent) value);
+            } else if (type == Object[].class) {
+                register(value);
+                Object[] array = (Object[]) value;
+                writeByte(OBJECT_ARRAY);
+                writeVarLong(array.length);
+                for (Object item : array) {
+                    writeValue(item);
+                }
+            } else if (type == long[].class) {
+                register(value);
+                long[] array = (long[]) value;
+                writeByte(LONG_ARRAY);
+                writeVarLong(array.length);
+                for (long item : array) {
+                    writeVarLong(zigZag(item));
+                }
+            } else if (type == HashMap.class) {
+                register(value);
+                writeByte(HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == LinkedHashMap.class) {
+                register(value);
+                writeByte(LINKED_HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == ConcurrentHashMap.class) {
+                register(value);
+                writeByte(CONCURRENT_HASH_MAP);
+                writeMap(new HashMap<>((Map<?, ?>) value));
+            } else if (type == TreeMap.class && ((TreeMap) value).comparator() == null) {
+                register(value);
+                writeByte(TREE_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == ArrayList.class) {
+                register(value);
+                writeByte(ARRAY_LIST);
+                writeCollection((Collection<?>) value);
+            } else if (type == LinkedList.class) {
+                register(value);
+                writeByte(LINKED_LIST);
+                writeCollection((Collection<?>) value);
+            } else if (type == SnapshotStateList.class) {
+                register(value);
+                writeByte(SNAPSHOT_STATE_LIST);
+                writeValue(((SnapshotStateList) value).getSnapshotStates());
+            } else if (type == SnapshotState.class) {
+                register(value);
+                SnapshotState snapshotState = (SnapshotState) value;
+                writeByte(SNAPSHOT_STATE);
+                writeByte(snapshotState.isIncrementalSnapshot() ? TRUE : FALSE);
+                writeValue(snapshotState.getState());
+            } else if (type == Operation.class) {
+                register(value);
+                Operation operation = (Operation) value;
+                writeByte(OPERATION);
+                writeVarLong(operation.operation == null ? 0 : operation.operation.ordinal() + 1);
+                writeValue(operation.parameters);
+            } else {
+                register(value);
+                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
+                objectOutputStream.writeObject(value);
+                objectOutputStream.close();
+                byte[] bytes = byteArrayOutputStream.toByteArray();
+                writeByte(SERIALIZED);
+                writeVarLong(bytes.length);
+                writeBytes(bytes, 0, bytes.length);
+            }
+        }
+
+        private void writeMap(Map<?, ?> map) throws IOException {
+            writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeCollection(Collection<?> collection) throws IOException {
+            writeVarLong(collection.size());
+            for (Object item : collection) {
+                writeValue(item);
+            }
+        }
+
+        private void writeTimestamp(long timestamp) {
+            writeVarLong(zigZag(timestamp - previousTimestamp));
+            previousTimestamp = timestamp;
+        }
+
+        /**
+         * Write the event and the events chained to it. Chained events are written one after the other, rather
+         * than recursively, so long chains do not exhaust the stack.
+         */
+        private void writeStreamEvents(StreamEvent streamEvent) throws IOException {
+            StreamEvent event = streamEvent;
+            while (event != null) {
+                register(event);
+                writeByte(event.getType() == null ? 0 : event.getType().ordinal() + 1);
+                writeTimestamp(event.getTimestamp());
+                writeValue(event.getBeforeWindowData());
+                writeValue(event.getBeforeWindowPrimitiveData());
+                writeVarLong(event.getBeforeWindowPrimitiveNulls());
+                writeValue(event.getOnAfterWindowData());
+                writeValue(event.getOutputData());
+                event = writeNextMarker(event.getNext(), StreamEvent.class) ? event.getNext() : null;
+            }
+        }
+
+        private void writeStateEvents(StateEvent stateEvent) throws IOException {
+            StateEvent event = stateEvent;
+            while (event != null) {
+                register(event);
+                writeByte(event.getType() == null ? 0 : event.getType().ordinal() + 1);
+                writeTimestamp(event.getTimestamp());
+                writeVarLong(zigZag(event.getId()));
+                StreamEvent[] streamEvents = event.getStreamEvents();
+                writeVarLong(streamEvents.length);
+                for (StreamEvent item : streamEvents) {
+                    writeValue(item);
+                }
+                Object[] outputData = event.getOutputData();
+                writeVarLong(outputData.length);
+                for (Object item : outputData) {
+                    writeValue(item);
+                }
+                event = writeNextMarker(event.getNext(), StateEvent.class) ? event.getNext() : null;
+            }
+        }
+
+        /**
+         * @return true if the next event has to be written as part of the current chain
+         */
+        private boolean writeNextMarker(ComplexEvent next, Class<?> eventType) throws IOException {
+            if (next == null) {
+                writeByte(END_OF_CHAIN);
+                return false;
+            } else if (next.getClass() == eventType && !references.containsKey(next)) {
+                writeByte(NEXT_IN_CHAIN);
+                return true;
+            } else {
+                writeByte(NEXT_AS_VALUE);
+                writeValue(next);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads values written by the {@link Encoder}
+     */
+    private static class Decoder {
+        private final List<Object> references = new ArrayList<>();
+        private final List<String> strings = new ArrayList<>();
+        private final byte[] buffer;
+        private int position;
+        private long previousTimestamp = 0;
+
+        Decoder(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte readByte() throws EOFException {
+            if (position >= buffer.length) {
+                throw new EOFException("Unexpected end of snapshot state");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() throws EOFException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new EOFException("Malformed variable length integer in snapshot state");
+        }
+
+        /**
+         * Read the length of a string, array or collection. Each element takes at least one byte, hence lengths
+         * larger than the remaining bytes can only come from a corrupted state.
+         */
+        int readLength() throws IOException {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IOException("Invalid length " + length + " in snapshot state");
+            }
+            return (int) length;
+        }
+
+        long readFixedLong(int length) throws EOFException {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        private <T> T register(T object) {
+            references.add(object);
+            return object;
+        }
+
+        Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return references.get((int) readVarLong());
+                case STRING: {
+                    int length = readLength();
+                    if (position + length > buffer.length) {
+                        throw new EOFException("Unexpected end of snapshot state");
+                    }
+                    String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                    strings.add(value);
+                    return value;
+                }
+                case STRING_REFERENCE:
+                    return strings.get((int) readVarLong());
+                case INT:
+                    return (int) unZigZag(readVarLong());
+                case LONG:
+                    return unZigZag(readVarLong());
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readFixedLong(4));
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixedLong(8));
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case OBJECT_ARRAY: {
+                    Object[] array = register(new Object[readLength()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readValue();
+                    }
+                    return array;
+                }
+                case LONG_ARRAY: {
+                    long[] array = register(new long[readLength()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = unZigZag(readVarLong());
+                    }
+                    return array;
+                }
+                case HASH_MAP:
+                    return readMap(register(new HashMap<>()));
+                case LINKED_HASH_MAP:
+                    return readMap(register(new LinkedHashMap<>()));
+                case CONCURRENT_HASH_MAP:
+                    return readMap(register(new ConcurrentHashMap<>()));
+                case TREE_MAP:
+                    return readMap(register(new TreeMap<>()));
+                case ARRAY_LIST:
+                    return readCollection(register(new ArrayList<>()));
+                case LINKED_LIST:
+                    return readCollection(register(new LinkedList<>()));
+                case SNAPSHOT_STATE_LIST: {
+                    SnapshotStateList snapshotStateList = register(new SnapshotStateList());
+                    snapshotStateList.setSnapshotStates((TreeMap<Long, SnapshotState>) readValue());
+                    return snapshotStateList;
+                }
+                case SNAPSHOT_STATE: {
+                    // The state is immutable, hence register a placeholder and replace it once read
+                    int index = references.size();
+                    references.add(null);
+                    boolean isIncrementalSnapshot = readByte() == TRUE;
+                    SnapshotState snapshotState = new SnapshotState(readValue(), isIncrementalSnapshot);
+                    references.set(index, snapshotState);
+                    return snapshotState;
+                }
+                case OPERATION: {
+                    Operation operation = register(new Operation(null));
+                    int operator = (int) readVarLong();
+                    operation.operation = operator == 0 ? null : OPERATORS[operator - 1];
+                    operation.parameters = readValue();
+                    return operation;
+                }
+                case STREAM_EVENT:
+                    return readStreamEvents();
+                case STATE_EVENT:
+                    return readStateEvents();
+                case SERIALIZED: {
+                    int length = readLength();
+                    if (position + length > buffer.length) {
+                        throw new EOFException("Unexpected end of snapshot state");
+                    }
+                    ObjectInputStream objectInputStream = new ObjectInputStream(
+                            new ByteArrayInputStream(buffer, position, length));
+                    position += length;
+                    return register(objectInputStream.readObject());
+                }
+                default:
+                    throw new IOException("Unknown type tag " + tag + " in snapshot state");
+            }
+        }
+
+        private Map<Object, Object> readMap(Map<Object, Object> map) throws IOException, ClassNotFoundException {
+            int size = readLength();
+            for (int i = 0; i < size; i++) {
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+            return map;
+        }
+
+        private Collection<Object> readCollection(Collection<Object> collection) throws IOException,
+                ClassNotFoundException {
+            int size = readLength();
+            for (int i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+            return collection;
+        }
+
+        private StreamEvent.Type readType() throws EOFException {
+            int type = readByte();
+            return type == 0 ? null : EVENT_TYPES[type - 1];
+        }
+
+        private long readTimestamp() throws EOFException {
+            previousTimestamp += unZigZag(readVarLong());
+            return previousTimestamp;
+        }
+
+        private StreamEvent readStreamEvents() throws IOException, ClassNotFoundException {
+            StreamEvent first = null;
+            StreamEvent previous = null;
+            while (true) {
+                StreamEvent event = register(new StreamEvent(0, 0, 0));
+                if (previous == null) {
+                    first = event;
+                } else {
+                    previous.setNext(event);
+                }
+                event.setType(readType());
+                event.setTimestamp(readTimestamp());
+                event.setBeforeWindowData((Object[]) readValue());
+                event.setBeforeWindowPrimitiveData((long[]) readValue());
+                event.setBeforeWindowPrimitiveNulls(readVarLong());
+                event.setOnAfterWindowData((Object[]) readValue());
+                event.setOutputData((Object[]) readValue());
+                byte marker = readByte();
+                if (marker == END_OF_CHAIN) {
+                    return first;
+                } else if (marker == NEXT_AS_VALUE) {
+                    event.setNext((ComplexEvent) readValue());
+                    return first;
+                }
+                previous = event;
+            }
+        }
+
+        private StateEvent readStateEvents() throws IOException, ClassNotFoundException {
+            StateEvent first = null;
+            StateEvent previous = null;
+            while (true) {
+                // Register a placeholder as the sizes of the event are only known after reading its header
+                int index = references.size();
+                references.add(null);
+                StreamEvent.Type type = readType();
+                long timestamp = readTimestamp();
+                long id = unZigZag(readVarLong());
+                int streamEventsLength = readLength();
+                StreamEvent[] streamEvents = new StreamEvent[streamEventsLength];
+                for (int i = 0; i < streamEventsLength; i++) {
+                    streamEvents[i] = (StreamEvent) readValue();
+                }
+                int outputDataLength = readLength();
+                StateEvent event = new StateEvent(streamEventsLength, outputDataLength);
+                references.set(index, event);
+                for (int i = 0; i < streamEventsLength; i++) {
+                    event.setEvent(i, streamEvents[i]);
+                }
+                for (int i = 0; i < outputDataLength; i++) {
+                    event.setOutputData(readValue(), i);
+                }
+                event.setType(type);
+                event.setTimestamp(timestamp);
+                event.setId(id);
+                if (previous == null) {
+                    first = event;
+                } else {
+                    previous.setNext(event);
+                }
+                byte marker = readByte();
+                if (marker == END_OF_CHAIN) {
+                    return first;
+                } else if (marker == NEXT_AS_VALUE) {
+                    event.setNext((ComplexEvent) readValue());
+                    return first;
+                }
+                previous = event;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+/**
+ * {@link SnapshotCodec} which uses Java serialization through {@link ByteSerializer}. This was the only snapshot
+ * format available in earlier versions.
+ */
+public class JavaSnapshotCodec implements SnapshotCodec {
+
+    @Override
+    public byte[] encode(Object state, SiddhiAppContext siddhiAppContext) {
+        return ByteSerializer.objectToByte(state, siddhiAppContext);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, SiddhiAppContext siddhiAppContext) {
+        return ByteSerializer.byteToObject(bytes, siddhiAppContext);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+/**
+ * Codec used by {@link SnapshotService} to convert the snapshot states of the processing elements to byte[] and
+ * vise-versa. The codec can be changed via {@link org.wso2.siddhi.core.SiddhiManager#setSnapshotCodec(SnapshotCodec)}
+ * and {@link BinarySnapshotCodec} is used by default.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Encode the given snapshot state
+     *
+     * @param state            snapshot state to be encoded
+     * @param siddhiAppContext context of the Siddhi app the state belongs to
+     * @return encoded state, or null if the state cannot be encoded
+     */
+    byte[] encode(Object state, SiddhiAppContext siddhiAppContext);
+
+    /**
+     * Decode a snapshot state encoded by this codec
+     *
+     * @param bytes            encoded state
+     * @param siddhiAppContext context of the Siddhi app the state belongs to
+     * @return decoded state, or null if the state cannot be decoded
+     */
+    Object decode(byte[] bytes, SiddhiAppContext siddhiAppContext);
+}
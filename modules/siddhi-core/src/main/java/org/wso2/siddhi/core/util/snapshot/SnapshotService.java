@@ -31,13 +31,20 @@ import org.wso2.siddhi.core.util.persistence.util.PersistenceHelper;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -45,6 +52,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SnapshotService {
     private static final Logger log = Logger.getLogger(SnapshotService.class);
     private static final ThreadLocal<Boolean> skipSnapshotableThreadLocal = new ThreadLocal<Boolean>();
+    private static final ThreadLocal<List<Snapshotable>> recordSnapshotableThreadLocal =
+            new ThreadLocal<List<Snapshotable>>();
 
     private final ThreadBarrier threadBarrier;
     private ConcurrentHashMap<String, Map<String, Snapshotable>> snapshotableMap = new ConcurrentHashMap<>();
@@ -59,6 +68,16 @@ public class SnapshotService {
         return skipSnapshotableThreadLocal;
     }
 
+    /**
+     * When a list is set to this thread local, the snapshotables added by the current thread are also collected
+     * into it. This is used to find the elements created for a partition instance so they can be removed later.
+     *
+     * @return thread local holding the list to record into
+     */
+    public static ThreadLocal<List<Snapshotable>> getRecordSnapshotableThreadLocal() {
+        return recordSnapshotableThreadLocal;
+    }
+
     public ConcurrentHashMap<String, Map<String, Snapshotable>> getSnapshotableMap() {
         return snapshotableMap;
     }
@@ -77,6 +96,10 @@ public class SnapshotService {
                 // add if item is not already in list
                 snapshotableMap.putIfAbsent(snapshotable.getElementId(), snapshotable);
             }
+            List<Snapshotable> recordedSnapshotables = recordSnapshotableThreadLocal.get();
+            if (recordedSnapshotables != null) {
+                recordedSnapshotables.add(snapshotable);
+            }
         }
     }
 
@@ -85,7 +108,6 @@ public class SnapshotService {
         if (skipSnapshotable == null || !skipSnapshotable) {
             Map<String, Snapshotable> snapshotableMap = this.snapshotableMap.get(snapshotableName);
             if (snapshotableMap != null) {
-                snapshotableMap = new HashMap<>();
                 snapshotableMap.remove(snapshotable.getElementId(), snapshotable);
                 if (snapshotableMap.isEmpty()) {
                     this.snapshotableMap.remove(snapshotableName);
@@ -99,6 +121,7 @@ public class SnapshotService {
             SnapshotRequest.requestForFullSnapshot(true);
             Map<String, Map<String, Object>> elementSnapshotMapFull = new HashMap<>();
             byte[] serializedFullState = null;
+            boolean copySnapshotState = siddhiAppContext.isCopySnapshotState();
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
@@ -137,16 +160,29 @@ public class SnapshotService {
                         elementSnapshotMapFull.put(entry.getKey(), elementWiseFullSnapshots);
                     }
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("SnapshotState serialization started ...");
-                }
-                serializedFullState = ByteSerializer.objectToByte(elementSnapshotMapFull, siddhiAppContext);
-                if (log.isDebugEnabled()) {
-                    log.debug("SnapshotState serialization finished.");
+                if (copySnapshotState) {
+                    try {
+                        elementSnapshotMapFull = (Map<String, Map<String, Object>>)
+                                new SnapshotStateCopier().copy(elementSnapshotMapFull);
+                    } catch (SnapshotStateCopier.NotCopyableException e) {
+                        // The full snapshot is serialized as a whole, hence it is serialized while locked
+                        if (log.isDebugEnabled()) {
+                            log.debug(e.getMessage() + ", hence serializing the full snapshot of Siddhi app '" +
+                                    siddhiAppContext.getName() + "' while event processing is paused");
+                        }
+                        copySnapshotState = false;
+                        serializedFullState = serializeFullState(elementSnapshotMapFull);
+                    }
+                } else {
+                    serializedFullState = serializeFullState(elementSnapshotMapFull);
                 }
             } finally {
                 threadBarrier.unlock();
             }
+            if (copySnapshotState) {
+                // The copied states are not shared with the processing threads, hence serialize them unlocked
+                serializedFullState = serializeFullState(elementSnapshotMapFull);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("SnapshotState taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
@@ -156,21 +192,36 @@ public class SnapshotService {
         }
     }
 
+    private byte[] serializeFullState(Map<String, Map<String, Object>> elementSnapshotMapFull) {
+        if (log.isDebugEnabled()) {
+            log.debug("SnapshotState serialization started ...");
+        }
+        byte[] serializedFullState = encode(elementSnapshotMapFull);
+        if (log.isDebugEnabled()) {
+            log.debug("SnapshotState serialization finished.");
+        }
+        return serializedFullState;
+    }
+
     public IncrementalSnapshot incrementalSnapshot() {
         try {
             SnapshotRequest.requestForFullSnapshot(false);
+            Map<String, Map<String, Map<String, Object>>> elementStateMapIncremental = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> elementStateMapIncrementalBase = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> elementStateMapPeriodic = new HashMap<>();
             Map<String, Map<String, byte[]>> elementSnapshotMapIncremental = new HashMap<>();
             Map<String, Map<String, byte[]>> elementSnapshotMapIncrementalBase = new HashMap<>();
             Map<String, Map<String, byte[]>> elementSnapshotMapPeriodic = new HashMap<>();
+            boolean copySnapshotState = siddhiAppContext.isCopySnapshotState();
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
             try {
                 threadBarrier.lock();
                 for (Map.Entry<String, Map<String, Snapshotable>> entry : snapshotableMap.entrySet()) {
-                    Map<String, byte[]> elementWiseIncrementalSnapshots = new HashMap<>();
-                    Map<String, byte[]> elementWiseIncrementalSnapshotsBase = new HashMap<>();
-                    Map<String, byte[]> elementWisePeriodicSnapshots = new HashMap<>();
+                    Map<String, Map<String, Object>> elementWiseIncrementalStates = new HashMap<>();
+                    Map<String, Map<String, Object>> elementWiseIncrementalStatesBase = new HashMap<>();
+                    Map<String, Map<String, Object>> elementWisePeriodicStates = new HashMap<>();
                     for (Map.Entry snapshotableEntry : entry.getValue().entrySet()) {
                         Snapshotable snapshotableObj = ((Snapshotable) snapshotableEntry.getValue());
                         Map<String, Object> currentState = snapshotableObj.currentState();
@@ -191,40 +242,48 @@ public class SnapshotService {
                                     periodicSnapshotableMap.put(key, snapShot);
                                 }
                             }
-                            if (log.isDebugEnabled()) {
-                                log.debug("SnapshotState serialization started ...");
-                            }
                             if (!incrementalSnapshotableMap.isEmpty()) {
-                                //Do we need to get and then update?
-                                elementWiseIncrementalSnapshots.put(snapshotableObj.getElementId(),
-                                        ByteSerializer.objectToByte(incrementalSnapshotableMap, siddhiAppContext));
+                                elementWiseIncrementalStates.put(snapshotableObj.getElementId(),
+                                        incrementalSnapshotableMap);
                             }
                             if (!incrementalSnapshotableMapBase.isEmpty()) {
-                                elementWiseIncrementalSnapshotsBase.put(snapshotableObj.getElementId(),
-                                        ByteSerializer.objectToByte(incrementalSnapshotableMapBase, siddhiAppContext));
+                                elementWiseIncrementalStatesBase.put(snapshotableObj.getElementId(),
+                                        incrementalSnapshotableMapBase);
                             }
                             if (!periodicSnapshotableMap.isEmpty()) {
-                                elementWisePeriodicSnapshots.put(snapshotableObj.getElementId(),
-                                        ByteSerializer.objectToByte(periodicSnapshotableMap, siddhiAppContext));
-                            }
-                            if (log.isDebugEnabled()) {
-                                log.debug("SnapshotState serialization finished.");
+                                elementWisePeriodicStates.put(snapshotableObj.getElementId(),
+                                        periodicSnapshotableMap);
                             }
                         }
                     }
-                    if (!elementWiseIncrementalSnapshots.isEmpty()) {
-                        elementSnapshotMapIncremental.put(entry.getKey(), elementWiseIncrementalSnapshots);
+                    if (!elementWiseIncrementalStates.isEmpty()) {
+                        elementStateMapIncremental.put(entry.getKey(), elementWiseIncrementalStates);
                     }
-                    if (!elementWiseIncrementalSnapshotsBase.isEmpty()) {
-                        elementSnapshotMapIncrementalBase.put(entry.getKey(), elementWiseIncrementalSnapshotsBase);
+                    if (!elementWiseIncrementalStatesBase.isEmpty()) {
+                        elementStateMapIncrementalBase.put(entry.getKey(), elementWiseIncrementalStatesBase);
                     }
-                    if (!elementWisePeriodicSnapshots.isEmpty()) {
-                        elementSnapshotMapPeriodic.put(entry.getKey(), elementWisePeriodicSnapshots);
+                    if (!elementWisePeriodicStates.isEmpty()) {
+                        elementStateMapPeriodic.put(entry.getKey(), elementWisePeriodicStates);
                     }
                 }
+                if (copySnapshotState) {
+                    copyElementStates(elementStateMapIncremental, elementSnapshotMapIncremental);
+                    copyElementStates(elementStateMapIncrementalBase, elementSnapshotMapIncrementalBase);
+                    copyElementStates(elementStateMapPeriodic, elementSnapshotMapPeriodic);
+                } else {
+                    serializeElementStates(elementStateMapIncremental, elementSnapshotMapIncremental);
+                    serializeElementStates(elementStateMapIncrementalBase, elementSnapshotMapIncrementalBase);
+                    serializeElementStates(elementStateMapPeriodic, elementSnapshotMapPeriodic);
+                }
             } finally {
                 threadBarrier.unlock();
             }
+            if (copySnapshotState) {
+                // The copied states are not shared with the processing threads, hence serialize them unlocked
+                serializeElementStates(elementStateMapIncremental, elementSnapshotMapIncremental);
+                serializeElementStates(elementStateMapIncrementalBase, elementSnapshotMapIncrementalBase);
+                serializeElementStates(elementStateMapPeriodic, elementSnapshotMapPeriodic);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("SnapshotState taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
@@ -244,6 +303,56 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Replaces the states of the elements with their copies. The states of the elements which cannot be copied are
+     * serialized into the given snapshot map and removed from the state map, hence this has to be called while the
+     * thread barrier is locked.
+     */
+    private void copyElementStates(Map<String, Map<String, Map<String, Object>>> elementStateMap,
+                                   Map<String, Map<String, byte[]>> elementSnapshotMap) {
+        Iterator<Map.Entry<String, Map<String, Map<String, Object>>>> iterator = elementStateMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Map<String, Map<String, Object>>> entry = iterator.next();
+            Iterator<Map.Entry<String, Map<String, Object>>> elementIterator = entry.getValue().entrySet().iterator();
+            while (elementIterator.hasNext()) {
+                Map.Entry<String, Map<String, Object>> elementEntry = elementIterator.next();
+                try {
+                    elementEntry.setValue((Map<String, Object>) new SnapshotStateCopier().copy(
+                            elementEntry.getValue()));
+                } catch (SnapshotStateCopier.NotCopyableException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(e.getMessage() + ", hence serializing the state of '" + elementEntry.getKey() +
+                                "' of Siddhi app '" + siddhiAppContext.getName() +
+                                "' while event processing is paused");
+                    }
+                    elementSnapshotMap.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                            .put(elementEntry.getKey(), encode(elementEntry.getValue()));
+                    elementIterator.remove();
+                }
+            }
+            if (entry.getValue().isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void serializeElementStates(Map<String, Map<String, Map<String, Object>>> elementStateMap,
+                                        Map<String, Map<String, byte[]>> elementSnapshotMap) {
+        for (Map.Entry<String, Map<String, Map<String, Object>>> entry : elementStateMap.entrySet()) {
+            Map<String, byte[]> elementWiseSnapshots = elementSnapshotMap.computeIfAbsent(entry.getKey(),
+                    k -> new HashMap<>());
+            for (Map.Entry<String, Map<String, Object>> elementEntry : entry.getValue().entrySet()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("SnapshotState serialization started ...");
+                }
+                elementWiseSnapshots.put(elementEntry.getKey(), encode(elementEntry.getValue()));
+                if (log.isDebugEnabled()) {
+                    log.debug("SnapshotState serialization finished.");
+                }
+            }
+        }
+    }
+
     public Map<String, Object> queryState(String queryName) {
         Map<String, Object> state = new HashMap<>();
         try {
@@ -274,7 +383,7 @@ public class SnapshotService {
                     getName() + " failed due to no snapshot.");
         }
         Map<String, Map<String, Map<String, Object>>> snapshotsByQueryName =
-                (Map<String, Map<String, Map<String, Object>>>) ByteSerializer.byteToObject(snapshot, siddhiAppContext);
+                (Map<String, Map<String, Map<String, Object>>>) decode(snapshot);
         if (snapshotsByQueryName == null) {
             throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
                     getName() + " failed due to invalid snapshot.");
@@ -303,42 +412,51 @@ public class SnapshotService {
                 }
             }
 
+            // Elements registered under different names, such as queries, tables and aggregations, do not share
+            // state, hence they are restored concurrently
+            List<Callable<Void>> restoreTasks = new ArrayList<>();
             for (Map.Entry<String, Map<String, Snapshotable>> entry : snapshotableMap.entrySet()) {
                 if (!entry.getKey().equals("partition")) {
                     Map<String, Snapshotable> map = entry.getValue();
-                    try {
-                        for (Map.Entry snapshotableEntry : map.entrySet()) {
-                            Snapshotable snapshotable = (Snapshotable) snapshotableEntry.getValue();
-                            Map<String, Map<String, Object>> snapshotsByElementId =
-                                    snapshotsByQueryName.get(entry.getKey());
-                            if (snapshotsByElementId != null) {
-                                Map<String, Object> snapshotsByKey = snapshotsByElementId.get(
-                                        snapshotable.getElementId());
-                                if (snapshotsByKey != null) {
-                                    Map<String, Object> snapshotRestoresByKey = new HashMap<>();
-                                    for (Map.Entry<String, Object> snapshotsByKeyEntry : snapshotsByKey.entrySet()) {
-                                        if (snapshotsByKeyEntry.getValue() instanceof SnapshotState) {
-                                            SnapshotStateList snapshotStateList = new SnapshotStateList();
-                                            snapshotStateList.putSnapshotState(0L,
-                                                    (SnapshotState) snapshotsByKeyEntry.getValue());
-                                            snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(), snapshotStateList);
-                                        } else {
-                                            snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(),
-                                                    snapshotsByKeyEntry.getValue());
+                    restoreTasks.add(() -> {
+                        try {
+                            for (Map.Entry snapshotableEntry : map.entrySet()) {
+                                Snapshotable snapshotable = (Snapshotable) snapshotableEntry.getValue();
+                                Map<String, Map<String, Object>> snapshotsByElementId =
+                                        snapshotsByQueryName.get(entry.getKey());
+                                if (snapshotsByElementId != null) {
+                                    Map<String, Object> snapshotsByKey = snapshotsByElementId.get(
+                                            snapshotable.getElementId());
+                                    if (snapshotsByKey != null) {
+                                        Map<String, Object> snapshotRestoresByKey = new HashMap<>();
+                                        for (Map.Entry<String, Object> snapshotsByKeyEntry :
+                                                snapshotsByKey.entrySet()) {
+                                            if (snapshotsByKeyEntry.getValue() instanceof SnapshotState) {
+                                                SnapshotStateList snapshotStateList = new SnapshotStateList();
+                                                snapshotStateList.putSnapshotState(0L,
+                                                        (SnapshotState) snapshotsByKeyEntry.getValue());
+                                                snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(),
+                                                        snapshotStateList);
+                                            } else {
+                                                snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(),
+                                                        snapshotsByKeyEntry.getValue());
+                                            }
                                         }
+                                        snapshotable.restoreState(snapshotRestoresByKey);
                                     }
-                                    snapshotable.restoreState(snapshotRestoresByKey);
                                 }
                             }
+                        } catch (Throwable t) {
+                            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
+                                    siddhiAppContext.getName() + " not completed properly because content of " +
+                                    "Siddhi app has changed since last state persistence. Clean persistence store " +
+                                    "for a fresh deployment.", t);
                         }
-                    } catch (Throwable t) {
-                        throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
-                                siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
-                                "app has changed since last state persistence. Clean persistence store for a " +
-                                "fresh deployment.", t);
-                    }
+                        return null;
+                    });
                 }
             }
+            runInParallel(restoreTasks);
         } finally {
             threadBarrier.unlock();
         }
@@ -346,6 +464,7 @@ public class SnapshotService {
 
     public void restore(Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>> snapshot)
             throws CannotRestoreSiddhiAppStateException {
+        Map<IncrementalSnapshotInfo, Map<String, Object>> decodedSnapshots = decodeInParallel(snapshot);
         try {
             threadBarrier.lock();
             if (snapshotableMap.containsKey("partition")) {
@@ -357,7 +476,7 @@ public class SnapshotService {
                             Snapshotable snapshotable = (Snapshotable) snapshotableEntry.getValue();
                             Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByElementId
                                     = snapshot.get("partition");
-                            restoreIncrementalSnapshot(snapshotable, incrementalStateByElementId);
+                            restoreIncrementalSnapshot(snapshotable, incrementalStateByElementId, decodedSnapshots);
                         }
                     }
                 } catch (Throwable t) {
@@ -367,32 +486,114 @@ public class SnapshotService {
                 }
             }
 
+            List<Callable<Void>> restoreTasks = new ArrayList<>();
             for (Map.Entry<String, Map<String, Snapshotable>> entry : snapshotableMap.entrySet()) {
                 if (!entry.getKey().equals("partition")) {
                     Map<String, Snapshotable> map = entry.getValue();
-                    try {
-                        for (Map.Entry snapshotableEntry : map.entrySet()) {
-                            Snapshotable snapshotable = (Snapshotable) snapshotableEntry.getValue();
-                            Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByElementId
-                                    = snapshot.get(entry.getKey());
-                            restoreIncrementalSnapshot(snapshotable, incrementalStateByElementId);
+                    restoreTasks.add(() -> {
+                        try {
+                            for (Map.Entry snapshotableEntry : map.entrySet()) {
+                                Snapshotable snapshotable = (Snapshotable) snapshotableEntry.getValue();
+                                Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>
+                                        incrementalStateByElementId = snapshot.get(entry.getKey());
+                                restoreIncrementalSnapshot(snapshotable, incrementalStateByElementId,
+                                        decodedSnapshots);
+                            }
+                        } catch (Throwable t) {
+                            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
+                                    siddhiAppContext.getName() + " not completed properly because content of " +
+                                    "Siddhi app has changed since last state persistence. Clean persistence store " +
+                                    "for a fresh deployment.", t);
                         }
-                    } catch (Throwable t) {
-                        throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
-                                siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
-                                "app has changed since last state persistence. Clean persistence store for a " +
-                                "fresh deployment.", t);
-                    }
+                        return null;
+                    });
                 }
             }
+            runInParallel(restoreTasks);
         } finally {
             threadBarrier.unlock();
         }
     }
 
+    /**
+     * Decode the incremental snapshots concurrently. This is done before locking the threads in Siddhi, as decoding
+     * does not touch the state of the elements.
+     */
+    private Map<IncrementalSnapshotInfo, Map<String, Object>> decodeInParallel(
+            Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>> snapshot)
+            throws CannotRestoreSiddhiAppStateException {
+        Map<IncrementalSnapshotInfo, Map<String, Object>> decodedSnapshots = new ConcurrentHashMap<>();
+        List<Callable<Void>> decodeTasks = new ArrayList<>();
+        for (Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByElementId :
+                snapshot.values()) {
+            for (Map<Long, Map<IncrementalSnapshotInfo, byte[]>> incrementalStateByTime :
+                    incrementalStateByElementId.values()) {
+                for (Map<IncrementalSnapshotInfo, byte[]> incrementalStateByInfo : incrementalStateByTime.values()) {
+                    for (Map.Entry<IncrementalSnapshotInfo, byte[]> incrementalStateByInfoEntry :
+                            incrementalStateByInfo.entrySet()) {
+                        decodeTasks.add(() -> {
+                            Map<String, Object> singleIncrementSnapshot = (Map<String, Object>)
+                                    decode(incrementalStateByInfoEntry.getValue());
+                            if (singleIncrementSnapshot != null) {
+                                decodedSnapshots.put(incrementalStateByInfoEntry.getKey(), singleIncrementSnapshot);
+                            }
+                            return null;
+                        });
+                    }
+                }
+            }
+        }
+        runInParallel(decodeTasks);
+        return decodedSnapshots;
+    }
+
+    /**
+     * Run the tasks on a pool bounded by the restore parallelism of the Siddhi app, and wait for them to complete.
+     *
+     * @param tasks tasks to run
+     * @throws CannotRestoreSiddhiAppStateException thrown by a task, or if the tasks cannot be completed
+     */
+    private void runInParallel(List<Callable<Void>> tasks) throws CannotRestoreSiddhiAppStateException {
+        int parallelism = Math.min(siddhiAppContext.getRestoreParallelism(), tasks.size());
+        try {
+            if (parallelism <= 1) {
+                for (Callable<Void> task : tasks) {
+                    task.call();
+                }
+                return;
+            }
+            ThreadFactory threadFactory = siddhiAppContext.getExecutorThreadFactory();
+            ExecutorService executorService = Executors.newFixedThreadPool(parallelism,
+                    threadFactory != null ? threadFactory : Executors.defaultThreadFactory());
+            try {
+                for (Future<Void> future : executorService.invokeAll(tasks)) {
+                    future.get();
+                }
+            } finally {
+                executorService.shutdownNow();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CannotRestoreSiddhiAppStateException) {
+                throw (CannotRestoreSiddhiAppStateException) e.getCause();
+            }
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.getName() +
+                    " not completed properly.", e.getCause());
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.getName() +
+                    " was interrupted.", e);
+        } catch (Exception e) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.getName() +
+                    " not completed properly.", e);
+        }
+    }
+
     private void restoreIncrementalSnapshot(Snapshotable snapshotable,
                                             Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>
-                                                    incrementalStateByElementId) {
+                                                    incrementalStateByElementId,
+                                            Map<IncrementalSnapshotInfo, Map<String, Object>> decodedSnapshots) {
         if (incrementalStateByElementId != null) {
             Map<Long, Map<IncrementalSnapshotInfo, byte[]>> incrementalStateByTime
                     = incrementalStateByElementId.get(snapshotable.getElementId());
@@ -400,10 +601,8 @@ public class SnapshotService {
                 Map<String, Object> deserializedElementStateMap = new HashMap<>();
                 for (Map.Entry<Long, Map<IncrementalSnapshotInfo, byte[]>> incrementalStateByTimeEntry :
                         incrementalStateByTime.entrySet()) {
-                    for (Map.Entry<IncrementalSnapshotInfo, byte[]> incrementalStateByInfoEntry :
-                            incrementalStateByTimeEntry.getValue().entrySet()) {
-                        Map<String, Object> singleIncrementSnapshot = (Map<String, Object>)
-                                ByteSerializer.byteToObject(incrementalStateByInfoEntry.getValue(), siddhiAppContext);
+                    for (IncrementalSnapshotInfo snapshotInfo : incrementalStateByTimeEntry.getValue().keySet()) {
+                        Map<String, Object> singleIncrementSnapshot = decodedSnapshots.get(snapshotInfo);
                         if (singleIncrementSnapshot != null) {
                             for (Map.Entry<String, Object> singleIncrementSnapshotEntry :
                                     singleIncrementSnapshot.entrySet()) {
@@ -568,5 +767,11 @@ public class SnapshotService {
         }
     }
 
+    private byte[] encode(Object state) {
+        return siddhiAppContext.getSiddhiContext().getSnapshotCodec().encode(state, siddhiAppContext);
+    }
 
+    private Object decode(byte[] bytes) {
+        return siddhiAppContext.getSiddhiContext().getSnapshotCodec().decode(bytes, siddhiAppContext);
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.Operation;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the states returned by {@link Snapshotable#currentState()} so they can be serialized after the
+ * {@link org.wso2.siddhi.core.util.ThreadBarrier} is released, while the processing threads keep changing the
+ * originals. Events, arrays, maps, sets and lists are copied, and immutable values such as strings, boxed primitives
+ * and group by keys are shared with the original. Objects referred to more than once are copied once, so the copy has
+ * the same shape as the original.
+ * <p>
+ * Values of other types, such as whole table event holders, cannot be copied without serializing them, hence a
+ * {@link NotCopyableException} is thrown for them and the caller has to serialize such states while the barrier is
+ * still held.
+ */
+final class SnapshotStateCopier {
+
+    private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+    Object copy(Object value) throws NotCopyableException {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> type = value.getClass();
+        if (type == StreamEvent.class) {
+            return copyStreamEvents((StreamEvent) value);
+        } else if (type == StateEvent.class) {
+            return copyStateEvents((StateEvent) value);
+        } else if (type == Object[].class) {
+            Object[] array = (Object[]) value;
+            Object[] arrayCopy = register(value, new Object[array.length]);
+            for (int i = 0; i < array.length; i++) {
+                arrayCopy[i] = copy(array[i]);
+            }
+            return arrayCopy;
+        } else if (type == long[].class) {
+            return register(value, ((long[]) value).clone());
+        } else if (type == int[].class) {
+            return register(value, ((int[]) value).clone());
+        } else if (type == double[].class) {
+            return register(value, ((double[]) value).clone());
+        } else if (type == boolean[].class) {
+            return register(value, ((boolean[]) value).clone());
+        } else if (type == HashMap.class) {
+            return copyMap((Map<?, ?>) value, register(value, new HashMap<>()));
+        } else if (type == LinkedHashMap.class) {
+            return copyMap((Map<?, ?>) value, register(value, new LinkedHashMap<>()));
+        } else if (type == ConcurrentHashMap.class) {
+            return copyMap((Map<?, ?>) value, register(value, new ConcurrentHashMap<>()));
+        } else if (type == TreeMap.class && ((TreeMap) value).comparator() == null) {
+            return copyMap((Map<?, ?>) value, register(value, new TreeMap<>()));
+        } else if (type == ArrayList.class) {
+            return copyCollection((Collection<?>) value,
+                    register(value, new ArrayList<>(((Collection<?>) value).size())));
+        } else if (type == LinkedList.class) {
+            return copyCollection((Collection<?>) value, register(value, new LinkedList<>()));
+        } else if (type == ArrayDeque.class) {
+            return copyCollection((Collection<?>) value, register(value, new ArrayDeque<>()));
+        } else if (type == HashSet.class) {
+            return copyCollection((Collection<?>) value, register(value, new HashSet<>()));
+        } else if (type == LinkedHashSet.class) {
+            return copyCollection((Collection<?>) value, register(value, new LinkedHashSet<>()));
+        } else if (type == SnapshotStateList.class) {
+            SnapshotStateList snapshotStateList = register(value, new SnapshotStateList());
+            snapshotStateList.setSnapshotStates((TreeMap<Long, SnapshotState>)
+                    copy(((SnapshotStateList) value).getSnapshotStates()));
+            return snapshotStateList;
+        } else if (type == SnapshotState.class) {
+            SnapshotState snapshotState = (SnapshotState) value;
+            SnapshotState snapshotStateCopy = new SnapshotState(copy(snapshotState.getState()),
+                    snapshotState.isIncrementalSnapshot());
+            return register(value, snapshotStateCopy);
+        } else if (type == Operation.class) {
+            Operation operation = (Operation) value;
+            Operation operationCopy = register(value, new Operation(operation.operation));
+            operationCopy.parameters = copy(operation.parameters);
+            return operationCopy;
+        } else {
+            throw new NotCopyableException(type);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        Class<?> type = value.getClass();
+        return type == String.class || type == Integer.class || type == Long.class || type == Float.class ||
+                type == Double.class || type == Boolean.class || type == Short.class || type == Byte.class ||
+                type == Character.class || type == BigDecimal.class || type == BigInteger.class ||
+                value instanceof Enum || value instanceof GroupByKey;
+    }
+
+    private <T> T register(Object value, T copy) {
+        copies.put(value, copy);
+        return copy;
+    }
+
+    private Map<Object, Object> copyMap(Map<?, ?> map, Map<Object, Object> mapCopy) throws NotCopyableException {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            mapCopy.put(copy(entry.getKey()), copy(entry.getValue()));
+        }
+        return mapCopy;
+    }
+
+    private Collection<Object> copyCollection(Collection<?> collection, Collection<Object> collectionCopy)
+            throws NotCopyableException {
+        for (Object item : collection) {
+            collectionCopy.add(copy(item));
+        }
+        return collectionCopy;
+    }
+
+    private Object[] copyArray(Object[] array) throws NotCopyableException {
+        return array == null ? null : (Object[]) copy(array);
+    }
+
+    /**
+     * Copy the event and the events chained to it. The chain is copied iteratively, so long chains such as the
+     * events of a window do not exhaust the stack.
+     */
+    private StreamEvent copyStreamEvents(StreamEvent streamEvent) throws NotCopyableException {
+        StreamEvent first = null;
+        StreamEvent previousCopy = null;
+        StreamEvent event = streamEvent;
+        while (event != null) {
+            StreamEvent eventCopy = register(event, new StreamEvent(0, 0, 0));
+            eventCopy.setType(event.getType());
+            eventCopy.setTimestamp(event.getTimestamp());
+            eventCopy.setBeforeWindowData(copyArray(event.getBeforeWindowData()));
+            eventCopy.setBeforeWindowPrimitiveData((long[]) copy(event.getBeforeWindowPrimitiveData()));
+            eventCopy.setBeforeWindowPrimitiveNulls(event.getBeforeWindowPrimitiveNulls());
+            eventCopy.setOnAfterWindowData(copyArray(event.getOnAfterWindowData()));
+            eventCopy.setOutputData(copyArray(event.getOutputData()));
+            if (previousCopy == null) {
+                first = eventCopy;
+            } else {
+                previousCopy.setNext(eventCopy);
+            }
+            previousCopy = eventCopy;
+            event = nextInChain(event.getNext(), eventCopy);
+        }
+        return first;
+    }
+
+    private StateEvent copyStateEvents(StateEvent stateEvent) throws NotCopyableException {
+        StateEvent first = null;
+        StateEvent previousCopy = null;
+        StateEvent event = stateEvent;
+        while (event != null) {
+            StreamEvent[] streamEvents = event.getStreamEvents();
+            Object[] outputData = event.getOutputData();
+            StateEvent eventCopy = register(event, new StateEvent(streamEvents.length, outputData.length));
+            for (int i = 0; i < streamEvents.length; i++) {
+                eventCopy.setEvent(i, (StreamEvent) copy(streamEvents[i]));
+            }
+            for (int i = 0; i < outputData.length; i++) {
+                eventCopy.setOutputData(copy(outputData[i]), i);
+            }
+            eventCopy.setType(event.getType());
+            eventCopy.setTimestamp(event.getTimestamp());
+            eventCopy.setId(event.getId());
+            if (previousCopy == null) {
+                first = eventCopy;
+            } else {
+                previousCopy.setNext(eventCopy);
+            }
+            previousCopy = eventCopy;
+            event = nextInChain(event.getNext(), eventCopy);
+        }
+        return first;
+    }
+
+    /**
+     * @return the next event if it has to be copied as part of the current chain, else null after linking the copy
+     * of the next event to the given event copy
+     */
+    private <T extends ComplexEvent> T nextInChain(ComplexEvent next, ComplexEvent eventCopy)
+            throws NotCopyableException {
+        if (next == null) {
+            return null;
+        } else if (next.getClass() == eventCopy.getClass() && !copies.containsKey(next)) {
+            return (T) next;
+        } else {
+            eventCopy.setNext((ComplexEvent) copy(next));
+            return null;
+        }
+    }
+
+    /**
+     * Thrown when a snapshot state holds a value which cannot be copied
+     */
+    static final class NotCopyableException extends Exception {
+
+        NotCopyableException(Class<?> type) {
+            super("Cannot copy snapshot state of type " + type.getName());
+        }
+    }
+}
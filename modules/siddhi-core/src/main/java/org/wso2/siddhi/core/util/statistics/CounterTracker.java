@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.statistics;
+
+/**
+ * This interface will have the necessary methods to count occurrences, such as pool hits and misses, or to track
+ * the number of live elements, such as live partition instances.
+ */
+public interface CounterTracker {
+
+    /**
+     * Increment the counter by one
+     */
+    void inc();
+
+    /**
+     * Increment the counter
+     *
+     * @param count amount to increment
+     */
+    void inc(long count);
+
+    /**
+     * Decrement the counter by one
+     */
+    void dec();
+
+    /**
+     * Decrement the counter
+     *
+     * @param count amount to decrement
+     */
+    void dec(long count);
+
+    /**
+     * @return Name of the counter tracker
+     */
+    String getName();
+}
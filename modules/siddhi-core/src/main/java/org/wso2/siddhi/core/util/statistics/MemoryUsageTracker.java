@@ -31,6 +31,15 @@ public interface MemoryUsageTracker {
      */
     void registerObject(Object object, String name);
 
+    /**
+     * Stop measuring the memory usage of an object, such as the query of a purged partition instance
+     *
+     * @param object Object registered earlier
+     */
+    default void unregisterObject(Object object) {
+        // Trackers holding no references to the registered objects need not do anything
+    }
+
     void enableMemoryUsageMetrics();
 
     void disableMemoryUsageMetrics();
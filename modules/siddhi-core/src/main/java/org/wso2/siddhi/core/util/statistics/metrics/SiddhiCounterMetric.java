@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+
+/**
+ * Class to count occurrences in Siddhi. Trackers created with the same name share the same counter, such that the
+ * counts of cloned elements (e.g. per partition key) are aggregated.
+ */
+public class SiddhiCounterMetric implements CounterTracker {
+    private Counter counter;
+    private String name;
+
+    public SiddhiCounterMetric(String name, MetricRegistry metricRegistry) {
+        this.name = name;
+        counter = metricRegistry.counter(this.name);
+    }
+
+    @Override
+    public void inc() {
+        counter.inc();
+    }
+
+    @Override
+    public void inc(long count) {
+        counter.inc(count);
+    }
+
+    @Override
+    public void dec() {
+        counter.dec();
+    }
+
+    @Override
+    public void dec(long count) {
+        counter.dec(count);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
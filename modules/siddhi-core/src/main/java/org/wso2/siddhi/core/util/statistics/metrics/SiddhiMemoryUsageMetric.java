@@ -51,6 +51,14 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
         }
     }
 
+    @Override
+    public void unregisterObject(Object object) {
+        ObjectMetric objectMetric = registeredObjects.remove(object);
+        if (objectMetric != null) {
+            metricRegistry.remove(objectMetric.getName());
+        }
+    }
+
     @Override
     public void enableMemoryUsageMetrics() {
         for (ConcurrentMap.Entry<Object, ObjectMetric> entry :
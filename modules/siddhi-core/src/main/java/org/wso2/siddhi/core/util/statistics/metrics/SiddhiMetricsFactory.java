@@ -19,6 +19,7 @@
 package org.wso2.siddhi.core.util.statistics.metrics;
 
 import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
@@ -41,6 +42,10 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiThroughputMetric(name, ((SiddhiStatisticsManager) statisticsManager).getRegistry());
     }
 
+    public CounterTracker createCounterTracker(String name, StatisticsManager statisticsManager) {
+        return new SiddhiCounterMetric(name, ((SiddhiStatisticsManager) statisticsManager).getRegistry());
+    }
+
     public BufferedEventsTracker createBufferSizeTracker(StatisticsManager statisticsManager) {
         return new SiddhiBufferedEventsMetric(((SiddhiStatisticsManager) statisticsManager).getRegistry());
     }
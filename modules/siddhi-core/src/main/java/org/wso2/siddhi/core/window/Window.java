@@ -155,7 +155,8 @@ public class Window implements FindableProcessor, Snapshotable, MemoryCalculable
             metaStreamEvent.addOutputData(attribute);
         }
 
-        this.streamEventPool = new StreamEventPool(metaStreamEvent, 5);
+        this.streamEventPool = QueryParserHelper.createStreamEventPool(this.siddhiAppContext, metaStreamEvent,
+                windowDefinition.getId(), SiddhiConstants.METRIC_INFIX_WINDOWS);
         StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, this.streamEventPool);
         OutputStream.OutputEventType outputEventType = windowDefinition.getOutputEventType();
         boolean outputExpectsExpiredEvents = outputEventType != OutputStream.OutputEventType.CURRENT_EVENTS;
@@ -613,5 +613,190 @@ public class Aggregation2TestCase {
         logger.removeAppender(appender);
         siddhiAppRuntime.shutdown();
     }
-}
 
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest57"})
+    public void incrementalStreamProcessorTest58() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest58 - Aggregation with durations pipelined through @async");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "@async(buffer.size='16') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...hour ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        try {
+            InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+            siddhiAppRuntime.start();
+
+            // Thursday, June 1, 2017 4:05:50 AM
+            stockStreamInputHandler.send(new Object[]{"WSO2", 50f, 60f, 90L, 6, 1496289950000L});
+            stockStreamInputHandler.send(new Object[]{"WSO2", 70f, null, 40L, 10, 1496289950000L});
+
+            // Thursday, June 1, 2017 4:05:52 AM
+            stockStreamInputHandler.send(new Object[]{"WSO2", 60f, 44f, 200L, 56, 1496289952000L});
+
+            // Thursday, June 1, 2017 4:06:10 AM
+            stockStreamInputHandler.send(new Object[]{"IBM", 100f, null, 200L, 16, 1496289970000L});
+
+            // Thursday, June 1, 2017 4:07:10 AM
+            stockStreamInputHandler.send(new Object[]{"WSO2", 40f, null, 200L, 26, 1496290030000L});
+
+            // Rollups still queued between the durations are drained by the retrieval, only the table writes are
+            // waited for
+            Thread.sleep(100);
+
+            Event[] events = siddhiAppRuntime.query("from stockAggregation within \"2017-06-** **:**:**\" per " +
+                    "'minutes' select AGG_TIMESTAMP, symbol, totalPrice, avgPrice ");
+
+            AssertJUnit.assertNotNull("Check if events arrived", events);
+            AssertJUnit.assertEquals("Check time windows", 3, events.length);
+
+            List<Object[]> eventsList = new ArrayList<>();
+            for (Event event : events) {
+                eventsList.add(event.getData());
+            }
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{1496289900000L, "WSO2", 180.0, 60.0},
+                    new Object[]{1496289960000L, "IBM", 100.0, 100.0},
+                    new Object[]{1496290020000L, "WSO2", 40.0, 40.0}
+            );
+            AssertJUnit.assertTrue("Data Matched", SiddhiTestHelper.isUnsortedEventsMatch(eventsList, expected));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest58"})
+    public void incrementalStreamProcessorTest59() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest59 - Aggregation writing many rollups to its tables in batches");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select sum(price) as totalPrice, count() as count " +
+                "aggregate by timestamp every sec...min ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        try {
+            InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+            siddhiAppRuntime.start();
+
+            // One event per second from Thursday, June 1, 2017 4:05:00 AM, each rolling up the previous second
+            for (int i = 0; i < 50; i++) {
+                stockStreamInputHandler.send(new Object[]{"WSO2", 10f, null, 200L, 6, 1496289900000L + i * 1000L});
+            }
+
+            Thread.sleep(500);
+
+            Event[] events = siddhiAppRuntime.query("from stockAggregation within 1496289900000L, " +
+                    "1496289960000L per 'seconds' select AGG_TIMESTAMP, totalPrice, count ");
+
+            AssertJUnit.assertNotNull("Check if events arrived", events);
+            AssertJUnit.assertEquals("Check time windows", 50, events.length);
+            for (Event event : events) {
+                AssertJUnit.assertEquals(10.0, event.getData(1));
+                AssertJUnit.assertEquals(1L, event.getData(2));
+            }
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest59"})
+    public void incrementalStreamProcessorTest60() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest60 - Aggregation with groups sharded across @async workers");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "@async(buffer.size='16', workers='3') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...hour ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        try {
+            InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+            siddhiAppRuntime.start();
+
+            // Thursday, June 1, 2017 4:05:50 AM
+            stockStreamInputHandler.send(new Object[]{"WSO2", 50f, 60f, 90L, 6, 1496289950000L});
+            stockStreamInputHandler.send(new Object[]{"WSO2", 70f, null, 40L, 10, 1496289950000L});
+            stockStreamInputHandler.send(new Object[]{"IBM", 30f, null, 40L, 10, 1496289950000L});
+
+            // Thursday, June 1, 2017 4:05:52 AM
+            stockStreamInputHandler.send(new Object[]{"WSO2", 60f, 44f, 200L, 56, 1496289952000L});
+            stockStreamInputHandler.send(new Object[]{"ORCL", 20f, 44f, 200L, 56, 1496289952000L});
+
+            // Thursday, June 1, 2017 4:06:10 AM
+            stockStreamInputHandler.send(new Object[]{"IBM", 100f, null, 200L, 16, 1496289970000L});
+
+            // Thursday, June 1, 2017 4:07:10 AM, still aggregated by the shards when retrieved
+            stockStreamInputHandler.send(new Object[]{"WSO2", 40f, null, 200L, 26, 1496290030000L});
+            stockStreamInputHandler.send(new Object[]{"ORCL", 10f, null, 200L, 26, 1496290030000L});
+
+            Thread.sleep(100);
+
+            Event[] events = siddhiAppRuntime.query("from stockAggregation within \"2017-06-** **:**:**\" per " +
+                    "'minutes' select AGG_TIMESTAMP, symbol, totalPrice, avgPrice ");
+
+            AssertJUnit.assertNotNull("Check if events arrived", events);
+            AssertJUnit.assertEquals("Check time windows", 6, events.length);
+
+            List<Object[]> eventsList = new ArrayList<>();
+            for (Event event : events) {
+                eventsList.add(event.getData());
+            }
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{1496289900000L, "WSO2", 180.0, 60.0},
+                    new Object[]{1496289900000L, "IBM", 30.0, 30.0},
+                    new Object[]{1496289900000L, "ORCL", 20.0, 20.0},
+                    new Object[]{1496289960000L, "IBM", 100.0, 100.0},
+                    new Object[]{1496290020000L, "WSO2", 40.0, 40.0},
+                    new Object[]{1496290020000L, "ORCL", 10.0, 10.0}
+            );
+            AssertJUnit.assertTrue("Data Matched", SiddhiTestHelper.isUnsortedEventsMatch(eventsList, expected));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest60"},
+            expectedExceptions = SiddhiAppCreationException.class)
+    public void incrementalStreamProcessorTest61() {
+        LOG.info("incrementalStreamProcessorTest61 - Aggregation sharded across @async workers without group by");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "@async(workers='2') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select sum(price) as totalPrice " +
+                "aggregate by timestamp every sec...hour ;";
+
+        siddhiManager.createSiddhiAppRuntime(stockStream + query);
+    }
+}
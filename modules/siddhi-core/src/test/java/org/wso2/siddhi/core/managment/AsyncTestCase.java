@@ -32,7 +32,14 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AsyncTestCase {
@@ -400,4 +407,266 @@ public class AsyncTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
 
     }
+
+    @Test
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='4')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@async(buffer.size='2')" +
+                "define stream innerStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.lengthBatch(5) " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object[]> received = Collections.synchronizedList(new ArrayList<>());
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    received.add(event.getData());
+                    count.incrementAndGet();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[10];
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < events.length; i++) {
+            Object[] data = new Object[]{"WSO2", 55.6f, i};
+            events[i] = new Event(System.currentTimeMillis(), data);
+            expected.add(data);
+        }
+        inputHandler.send(events);
+        SiddhiTestHelper.waitForEvents(100, 10, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(10, count.get());
+        AssertJUnit.assertTrue(SiddhiTestHelper.isEventsMatch(received, expected));
+    }
+
+    @Test
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='yielding', producer='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@async(buffer.size='16', wait.strategy='timeout-blocking', wait.timeout='100')" +
+                "define stream innerStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream[volume > 90] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                count.addAndGet(events.length);
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 9.6f, 100});
+        inputHandler.send(new Object[]{"FB", 7.6f, 10});
+        inputHandler.send(new Object[]{"GOOG", 75.6f, 100});
+        SiddhiTestHelper.waitForEvents(100, 2, count, 10000);
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(2, count.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', producer='many')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void asyncTest13() throws InterruptedException {
+        log.info("async test 13");
+        Map<String, Set<String>> threadsPerSymbol = new HashMap<>();
+        Map<String, Integer> lastVolumePerSymbol = new HashMap<>();
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='64', workers='4', partition.by='symbol')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                synchronized (threadsPerSymbol) {
+                    for (Event event : events) {
+                        String symbol = (String) event.getData(0);
+                        int volume = (Integer) event.getData(2);
+                        threadsPerSymbol.computeIfAbsent(symbol, k -> new HashSet<>())
+                                .add(Thread.currentThread().getName());
+                        Integer lastVolume = lastVolumePerSymbol.put(symbol, volume);
+                        if (lastVolume != null && lastVolume >= volume) {
+                            inOrder.set(false);
+                        }
+                        count.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        String[] symbols = new String[]{"WSO2", "IBM", "GOOG", "ORCL", "MSFT", "FB", "AMZN"};
+        for (int i = 0; i < 700; i++) {
+            inputHandler.send(new Object[]{symbols[i % symbols.length], 55.6f, i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 700, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(700, count.get());
+        AssertJUnit.assertTrue(inOrder.get());
+        Set<String> threads = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : threadsPerSymbol.entrySet()) {
+            AssertJUnit.assertEquals("Symbol " + entry.getKey() + " processed by " + entry.getValue(),
+                    1, entry.getValue().size());
+            threads.addAll(entry.getValue());
+        }
+        AssertJUnit.assertTrue(threads.size() > 1);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest14() throws InterruptedException {
+        log.info("async test 14");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='2', partition.by='company')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest15() throws InterruptedException {
+        log.info("async test 15");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', partition.by='symbol')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void asyncTest16() throws InterruptedException {
+        log.info("async test 16");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='timeout-blocking', wait.timeout='1 sec')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        try {
+            siddhiManager.createSiddhiAppRuntime(siddhiApp);
+            Assert.fail("Siddhi app creation should fail for a non numeric wait.timeout");
+        } catch (SiddhiAppCreationException e) {
+            AssertJUnit.assertTrue(e.getMessage().contains("cseEventStream"));
+            AssertJUnit.assertTrue(e.getMessage().contains("1 sec"));
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.core.util.persistence.IncrementalFileSystemPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.IncrementalLogFilePersistenceStore;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -1279,4 +1280,175 @@ public class IncrementalPersistenceTestCase {
 
         AssertJUnit.assertEquals(true, eventArrived);
     }
+
+    @Test
+    public void incrementalPersistenceTest13() throws InterruptedException {
+        log.info("Incremental persistence test 13 - length window query persisted to a log file store");
+        final int inputEventCount = 10;
+        final int eventWindowSize = 4;
+        String logFilePath = storageFilePath + "/log";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalLogFilePersistenceStore(logFilePath, 1024, 0));
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest13') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(" + eventWindowSize + ") " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.clearAllRevisions();
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < inputEventCount; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f + i, 100});
+            // Persist a chain of increments spanning several segments of the log
+            siddhiAppRuntime.persist();
+            Thread.sleep(100);
+        }
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+
+        inputHandler.send(new Object[]{"WSO2", 200.4f, 200});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        // Restore with a new store, which has to rebuild its index from the log file
+        siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalLogFilePersistenceStore(logFilePath, 1024, 0));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"WSO2", 600.6f, 400});
+        Thread.sleep(500);
+        siddhiAppRuntime.clearAllRevisions();
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(inputEventCount + 2, count);
+        AssertJUnit.assertEquals(new Long(800), lastValue);
+        AssertJUnit.assertEquals(true, eventArrived);
+    }
+
+    @Test
+    public void incrementalPersistenceTest14() throws InterruptedException {
+        log.info("Incremental persistence test 14 - window and table queries persisted in copy snapshot mode");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalFileSystemPersistenceStore(storageFilePath));
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest14') " +
+                "@app:snapshot(mode = 'copy') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream CheckStream ( symbol string );" +
+                "define table StockTable ( symbol string, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ;" +
+                "" +
+                "from StockStream " +
+                "select symbol, volume " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from CheckStream join StockTable " +
+                "on CheckStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, sum(StockTable.volume) as totalVol " +
+                "insert into TableOutStream ;";
+
+        AtomicLong tableTotal = new AtomicLong(0);
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+        QueryCallback tableCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                tableTotal.set((Long) inEvents[inEvents.length - 1].getData(1));
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", tableCallback);
+        siddhiAppRuntime.clearAllRevisions();
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 200});
+
+        // The table holder cannot be copied, hence its base state is serialized while event processing is paused
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        // Events arriving after the snapshot must not change the persisted state
+        inputHandler.send(new Object[]{"IBM", 75.6f, 400});
+        AssertJUnit.assertEquals(new Long(1000), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", tableCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 50});
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        Thread.sleep(100);
+        siddhiAppRuntime.clearAllRevisions();
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(5, count);
+        AssertJUnit.assertEquals(new Long(650), lastValue);
+        AssertJUnit.assertEquals(650L, tableTotal.get());
+    }
 }
@@ -25,7 +25,12 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.Operation;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
@@ -34,11 +39,23 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.LogFilePersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
-
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PersistenceTestCase {
     private static final Logger log = Logger.getLogger(PersistenceTestCase.class);
@@ -1119,4 +1136,492 @@ public class PersistenceTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test(dependsOnMethods = "persistenceTest13")
+    public void persistenceTest14() {
+        log.info("persistence test 14 - binary snapshot codec");
+
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("Test");
+
+        StreamEvent first = new StreamEvent(1, 1, 2);
+        first.setTimestamp(1000L);
+        first.setBeforeWindowData(new Object[]{"WSO2"});
+        first.setOnAfterWindowData(new Object[]{null});
+        first.setOutputData(new Object[]{"WSO2", 55.6f});
+        first.setBeforeWindowPrimitiveData(new long[]{-5L, Double.doubleToRawLongBits(10.5)});
+        first.setBeforeWindowPrimitiveNulls(2L);
+        StreamEvent second = new StreamEvent(0, 0, 2);
+        second.setTimestamp(990L);
+        second.setType(ComplexEvent.Type.EXPIRED);
+        second.setOutputData(new Object[]{"WSO2", 57.6d});
+        first.setNext(second);
+
+        StateEvent stateEvent = new StateEvent(2, 1);
+        stateEvent.setId(7L);
+        stateEvent.setEvent(0, second);
+        stateEvent.setOutputData(Integer.MIN_VALUE, 0);
+
+        TreeMap<Long, SnapshotState> snapshotStates = new TreeMap<>();
+        snapshotStates.put(1L, new SnapshotState(first, false));
+        snapshotStates.put(2L, new SnapshotState(new Operation(Operation.Operator.ADD, second), true));
+        Map<String, Object> state = new HashMap<>();
+        state.put("EventChunk", first);
+        state.put("StateEvent", stateEvent);
+        state.put("SnapshotStates", new SnapshotStateList(snapshotStates));
+        state.put("Values", new ArrayList<>(Arrays.asList(Long.MAX_VALUE, true, "WSO2", null)));
+        state.put("Fallback", new AtomicLong(42));
+
+        for (SnapshotCodec codec : new SnapshotCodec[]{new BinarySnapshotCodec(), new BinarySnapshotCodec(true)}) {
+            byte[] bytes = codec.encode(state, siddhiAppContext);
+            AssertJUnit.assertNotNull(bytes);
+            Map<String, Object> decoded = (Map<String, Object>) new BinarySnapshotCodec().decode(bytes,
+                    siddhiAppContext);
+            AssertJUnit.assertNotNull(decoded);
+
+            StreamEvent decodedFirst = (StreamEvent) decoded.get("EventChunk");
+            AssertJUnit.assertEquals(first.toString(), decodedFirst.toString());
+            AssertJUnit.assertEquals(1000L, decodedFirst.getTimestamp());
+            AssertJUnit.assertTrue(Arrays.equals(first.getBeforeWindowPrimitiveData(),
+                    decodedFirst.getBeforeWindowPrimitiveData()));
+            AssertJUnit.assertEquals(2L, decodedFirst.getBeforeWindowPrimitiveNulls());
+            StreamEvent decodedSecond = decodedFirst.getNext();
+            AssertJUnit.assertEquals(990L, decodedSecond.getTimestamp());
+            AssertJUnit.assertEquals(ComplexEvent.Type.EXPIRED, decodedSecond.getType());
+            AssertJUnit.assertEquals(57.6d, decodedSecond.getOutputData()[1]);
+            AssertJUnit.assertNull(decodedSecond.getNext());
+
+            StateEvent decodedStateEvent = (StateEvent) decoded.get("StateEvent");
+            AssertJUnit.assertEquals(7L, decodedStateEvent.getId());
+            AssertJUnit.assertSame(decodedSecond, decodedStateEvent.getStreamEvent(0));
+            AssertJUnit.assertNull(decodedStateEvent.getStreamEvent(1));
+            AssertJUnit.assertEquals(Integer.MIN_VALUE, decodedStateEvent.getOutputData()[0]);
+
+            SnapshotStateList decodedStates = (SnapshotStateList) decoded.get("SnapshotStates");
+            AssertJUnit.assertSame(decodedFirst, decodedStates.getSnapshotStates().get(1L).getState());
+            AssertJUnit.assertFalse(decodedStates.getSnapshotStates().get(1L).isIncrementalSnapshot());
+            Operation operation = (Operation) decodedStates.getSnapshotStates().get(2L).getState();
+            AssertJUnit.assertTrue(decodedStates.getSnapshotStates().get(2L).isIncrementalSnapshot());
+            AssertJUnit.assertEquals(Operation.Operator.ADD, operation.operation);
+            AssertJUnit.assertSame(decodedSecond, operation.parameters);
+
+            AssertJUnit.assertEquals(state.get("Values"), decoded.get("Values"));
+            AssertJUnit.assertEquals(42L, ((AtomicLong) decoded.get("Fallback")).get());
+        }
+
+        byte[] javaBytes = new JavaSnapshotCodec().encode(state, siddhiAppContext);
+        Map<String, Object> decoded = (Map<String, Object>) new BinarySnapshotCodec().decode(javaBytes,
+                siddhiAppContext);
+        AssertJUnit.assertEquals(first.toString(), decoded.get("EventChunk").toString());
+    }
+
+    @Test(dependsOnMethods = "persistenceTest14")
+    public void persistenceTest15() throws InterruptedException {
+        log.info("persistence test 15 - window query persisted with a compressing snapshot codec");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setSnapshotCodec(new BinarySnapshotCodec(true));
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+        AssertJUnit.assertEquals(true, eventArrived);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest15")
+    public void persistenceTest16() throws InterruptedException {
+        log.info("persistence test 16 - window and pattern queries persisted in copy snapshot mode");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(mode = 'copy') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from e1=StockStream[symbol == 'IBM'] -> e2=StockStream[symbol == 'WSO2'] " +
+                "select e1.volume as volume1, e2.volume as volume2 " +
+                "insert into PatternStream ;";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+        AtomicInteger patternCount = new AtomicInteger(0);
+        QueryCallback patternCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    patternCount.incrementAndGet();
+                    AssertJUnit.assertEquals(100, inEvent.getData(0));
+                    AssertJUnit.assertEquals(300, inEvent.getData(1));
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", patternCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"ORACLE", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        // Events arriving after the snapshot must not change the persisted state
+        inputHandler.send(new Object[]{"IBM", 75.6f, 200});
+        inputHandler.send(new Object[]{"ORACLE", 75.6f, 200});
+        AssertJUnit.assertEquals(new Long(600), lastValue);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", patternCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 300});
+
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(5, count);
+        AssertJUnit.assertEquals(new Long(500), lastValue);
+        AssertJUnit.assertEquals(1, patternCount.get());
+        AssertJUnit.assertEquals(true, eventArrived);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest16")
+    public void persistenceTest17() throws InterruptedException {
+        log.info("persistence test 17 - queries and tables restored in parallel");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(restore.parallelism = '4') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream CheckStream ( symbol string );" +
+                "define table StockTable ( symbol string, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream#window.lengthBatch(3) " +
+                "select symbol, sum(volume) as totalVol " +
+                "insert into BatchStream ;" +
+                "" +
+                "from StockStream " +
+                "select symbol, volume " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query3')" +
+                "from CheckStream join StockTable " +
+                "on CheckStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, sum(StockTable.volume) as totalVol " +
+                "insert into TableOutStream ;";
+
+        AtomicLong batchTotal = new AtomicLong(0);
+        AtomicLong tableTotal = new AtomicLong(0);
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+        QueryCallback batchCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                batchTotal.set((Long) inEvents[inEvents.length - 1].getData(1));
+            }
+        };
+        QueryCallback tableCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                tableTotal.set((Long) inEvents[inEvents.length - 1].getData(1));
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", batchCallback);
+        siddhiAppRuntime.addCallback("query3", tableCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 200});
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", batchCallback);
+        siddhiAppRuntime.addCallback("query3", tableCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        Thread.sleep(100);
+
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(3, count);
+        AssertJUnit.assertEquals(new Long(600), lastValue);
+        AssertJUnit.assertEquals(600L, batchTotal.get());
+        AssertJUnit.assertEquals(600L, tableTotal.get());
+    }
+
+    @Test
+    public void persistenceTest18() {
+        log.info("persistence test 18 - revisions saved to a log file store across reopens");
+
+        String logFilePath = "./target/temp/log-reopen";
+        new LogFilePersistenceStore(logFilePath, 1024, 0).clearAllRevisions("Test");
+
+        byte[] snapshot1 = new byte[]{1, 2, 3};
+        byte[] snapshot2 = new byte[]{4, 5, 6, 7};
+        byte[] snapshot3 = new byte[]{8};
+
+        PersistenceStore persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        persistenceStore.save("Test", "1000_Test", snapshot1);
+
+        // Each store opens the log again, and appends after the records of the previous ones
+        persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        AssertJUnit.assertEquals("1000_Test", persistenceStore.getLastRevision("Test"));
+        persistenceStore.save("Test", "2000_Test", snapshot2);
+
+        persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        AssertJUnit.assertEquals("2000_Test", persistenceStore.getLastRevision("Test"));
+        persistenceStore.save("Test", "3000_Test", snapshot3);
+
+        persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        AssertJUnit.assertEquals("3000_Test", persistenceStore.getLastRevision("Test"));
+        AssertJUnit.assertTrue(Arrays.equals(snapshot1, persistenceStore.load("Test", "1000_Test")));
+        AssertJUnit.assertTrue(Arrays.equals(snapshot2, persistenceStore.load("Test", "2000_Test")));
+        AssertJUnit.assertTrue(Arrays.equals(snapshot3, persistenceStore.load("Test", "3000_Test")));
+
+        persistenceStore.clearAllRevisions("Test");
+        AssertJUnit.assertNull(new LogFilePersistenceStore(logFilePath, 1024, 0).getLastRevision("Test"));
+    }
+
+    @Test
+    public void persistenceTest19() throws InterruptedException {
+        log.info("persistence test 19 - window query persisted to a log file store and restored twice");
+
+        String logFilePath = "./target/temp/log";
+        String siddhiApp = "" +
+                "@app:name('LogFilePersistenceTest') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new LogFilePersistenceStore(logFilePath, 1024, 0));
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.clearAllRevisions();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        // Restarting with a new store, which has to read the log written by the previous one
+        for (int i = 0; i < 2; i++) {
+            siddhiManager = new SiddhiManager();
+            siddhiManager.setPersistenceStore(new LogFilePersistenceStore(logFilePath, 1024, 0));
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+            siddhiAppRuntime.addCallback("query1", queryCallback);
+            inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+            siddhiAppRuntime.start();
+
+            //loading
+            try {
+                siddhiAppRuntime.restoreLastRevision();
+            } catch (CannotRestoreSiddhiAppStateException e) {
+                Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+            }
+
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+            Thread.sleep(100);
+
+            //persisting
+            siddhiAppRuntime.persist();
+            Thread.sleep(500);
+            siddhiAppRuntime.shutdown();
+        }
+
+        AssertJUnit.assertEquals(true, eventArrived);
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+
+        siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new LogFilePersistenceStore(logFilePath, 1024, 0));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.clearAllRevisions();
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void persistenceTest20() {
+        log.info("persistence test 20 - revision too long for the log file store");
+
+        String logFilePath = "./target/temp/log-long-revision";
+        new LogFilePersistenceStore(logFilePath, 1024, 0).clearAllRevisions("Test");
+
+        byte[] snapshot1 = new byte[]{1, 2, 3};
+        byte[] snapshot2 = new byte[]{4, 5, 6, 7};
+        char[] longRevision = new char[70000];
+        Arrays.fill(longRevision, 'a');
+
+        PersistenceStore persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        persistenceStore.save("Test", "1000_Test", snapshot1);
+        // The revision does not fit the header of a record, hence it is not saved
+        persistenceStore.save("Test", new String(longRevision), snapshot2);
+        AssertJUnit.assertEquals("1000_Test", persistenceStore.getLastRevision("Test"));
+
+        persistenceStore = new LogFilePersistenceStore(logFilePath, 1024, 0);
+        AssertJUnit.assertEquals("1000_Test", persistenceStore.getLastRevision("Test"));
+        AssertJUnit.assertTrue(Arrays.equals(snapshot1, persistenceStore.load("Test", "1000_Test")));
+
+        persistenceStore.clearAllRevisions("Test");
+    }
 }
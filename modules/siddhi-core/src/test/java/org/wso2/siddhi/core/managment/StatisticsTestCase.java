@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.managment;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
@@ -30,6 +31,7 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.statistics.metrics.Level;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMemoryUsageMetric;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -483,4 +485,23 @@ public class StatisticsTestCase {
 
     }
 
+    @Test
+    public void statisticsTest7() {
+        log.info("statistics test 7 - unregister memory usage tracking");
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        SiddhiMemoryUsageMetric memoryUsageMetric = new SiddhiMemoryUsageMetric(metricRegistry);
+        Object query = new Object();
+        memoryUsageMetric.registerObject(query, "query1-1");
+        memoryUsageMetric.enableMemoryUsageMetrics();
+        AssertJUnit.assertEquals("query1-1", memoryUsageMetric.getName(query));
+        AssertJUnit.assertTrue(metricRegistry.getNames().contains("query1-1"));
+
+        memoryUsageMetric.unregisterObject(query);
+        AssertJUnit.assertNull(memoryUsageMetric.getName(query));
+        AssertJUnit.assertFalse(metricRegistry.getNames().contains("query1-1"));
+
+        memoryUsageMetric.enableMemoryUsageMetrics();
+        AssertJUnit.assertFalse(metricRegistry.getNames().contains("query1-1"));
+    }
 }
@@ -25,6 +25,13 @@ import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.compiled.CompiledExpressionExecutor;
+import org.wso2.siddhi.core.executor.compiled.ExpressionExecutorCompiler;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutorLongInt;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
@@ -33,12 +40,15 @@ import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.execution.query.Query;
 import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
 import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -1773,4 +1783,187 @@ public class FilterTestCase2 {
 
 
     }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123 - primitive event layout");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:eventLayout(type='primitive') " +
+                "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+                "avgPrice double);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[volume < 150 and price > 50 and quantity == 5 and avgPrice is null]" +
+                "#window.length(2) " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        AssertJUnit.assertTrue(((String) event.getData(0)).startsWith("IBM"));
+                    }
+                    count.addAndGet(inEvents.length);
+                    eventArrived.set(true);
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM1", 700f, 100L, 5, null});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 200L, 5, null});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, null, 5, null});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 100L, 5, 55.6});
+        inputHandler.send(new Object[]{"WSO2", 40.5f, 100L, 5, null});
+        inputHandler.send(new Object[]{"IBM2", 55f, 10L, 5, null});
+        inputHandler.send(new Object[]{"IBM3", 55f, -10L, 5, null});
+        SiddhiTestHelper.waitForEvents(10, 3, count, 100);
+        AssertJUnit.assertEquals(3, count.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test(expectedExceptions = SiddhiAppValidationException.class)
+    public void filterTest124() throws InterruptedException {
+        log.info("filter test124");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:eventLayout(type='columnar') " +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[150 > volume] " +
+                "select symbol,price " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+    }
+
+    @Test
+    public void filterTest125() throws InterruptedException {
+        log.info("filter test125 - math and compare with nulls on both event layouts");
+
+        for (String layout : new String[]{"object", "primitive"}) {
+            count.set(0);
+            eventArrived.set(false);
+            SiddhiManager siddhiManager = new SiddhiManager();
+
+            String cseEventStream = "@app:eventLayout(type='" + layout + "') " +
+                    "define stream cseEventStream (symbol string, price float, volume long, quantity int);";
+            String query = "@info(name = 'query1') " +
+                    "from cseEventStream[(price * 2 > 100 or not (volume / quantity < 20)) and " +
+                    "(volume % quantity) != 1] " +
+                    "select symbol " +
+                    "insert into outputStream ;";
+
+            SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            AssertJUnit.assertTrue(((String) event.getData(0)).startsWith("IBM"));
+                        }
+                        count.addAndGet(inEvents.length);
+                        eventArrived.set(true);
+                    }
+                }
+
+            });
+
+            InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+            siddhiAppRuntime.start();
+
+            inputHandler.send(new Object[]{"IBM1", 60f, 100L, 5});
+            inputHandler.send(new Object[]{"WSO2", 40f, 100L, 0});
+            inputHandler.send(new Object[]{"IBM2", 40f, 300L, 7});
+            inputHandler.send(new Object[]{"WSO2", null, 10L, 3});
+            inputHandler.send(new Object[]{"WSO2", 60f, 10L, 3});
+            inputHandler.send(new Object[]{"WSO2", 60f, null, 3});
+            inputHandler.send(new Object[]{"IBM3", 50.5f, 11L, 3});
+            SiddhiTestHelper.waitForEvents(10, 3, count, 100);
+            AssertJUnit.assertEquals(3, count.get());
+            AssertJUnit.assertTrue(eventArrived.get());
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void filterTest126() throws InterruptedException {
+        log.info("filter test126 - compiled filter and select expressions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:compile('true') " +
+                "define stream cseEventStream (symbol string, price float, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[(price * 2 > 100 or not (volume / quantity < 20)) and " +
+                "(volume % quantity) != 1 and symbol != 'XX'] " +
+                "select symbol, price * 2 as doubled, volume % quantity as remainder, quantity / 0 as nothing " +
+                "insert into outputStream ;";
+
+        final List<Object[]> results = new ArrayList<>();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        results.add(event.getData());
+                    }
+                    count.addAndGet(inEvents.length);
+                    eventArrived.set(true);
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM1", 60f, 100L, 5});
+        inputHandler.send(new Object[]{"WSO2", 40f, 100L, 0});
+        inputHandler.send(new Object[]{"IBM2", 40f, 300L, 7});
+        inputHandler.send(new Object[]{"WSO2", null, 10L, 3});
+        inputHandler.send(new Object[]{"WSO2", 60f, 10L, 3});
+        inputHandler.send(new Object[]{"XX", 60f, 100L, 5});
+        inputHandler.send(new Object[]{"IBM3", 50.5f, 11L, 3});
+        SiddhiTestHelper.waitForEvents(10, 3, count, 100);
+        AssertJUnit.assertEquals(3, count.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM1", 120f, 0L, null}, results.get(0));
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM2", 80f, 6L, null}, results.get(1));
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM3", 101f, 2L, null}, results.get(2));
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void filterTest127() {
+        log.info("filter test127 - expression compiler");
+
+        ExpressionExecutor volume = new ConstantExpressionExecutor(100L, Attribute.Type.LONG);
+        ExpressionExecutor quantity = new ConstantExpressionExecutor(3, Attribute.Type.INT);
+        ExpressionExecutor condition = new GreaterThanCompareConditionExpressionExecutorLongInt(
+                new ModExpressionExecutorLong(volume, quantity), new ConstantExpressionExecutor(0, Attribute.Type.INT));
+        ExpressionExecutor compiledCondition = ExpressionExecutorCompiler.compile(condition, "query1");
+        AssertJUnit.assertTrue(compiledCondition instanceof CompiledExpressionExecutor);
+        AssertJUnit.assertEquals(Attribute.Type.BOOL, compiledCondition.getReturnType());
+        AssertJUnit.assertEquals(Boolean.TRUE, compiledCondition.execute(null));
+        AssertJUnit.assertEquals(Boolean.TRUE, compiledCondition.cloneExecutor("key").execute(null));
+
+        ExpressionExecutor variable = new VariableExpressionExecutor(new Attribute("volume", Attribute.Type.LONG),
+                0, 0);
+        AssertJUnit.assertSame(variable, ExpressionExecutorCompiler.compile(variable, "query1"));
+    }
 }
@@ -24,11 +24,18 @@ import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class GroupByTestCase {
@@ -146,4 +153,175 @@ public class GroupByTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void testGroupByQuery3() throws InterruptedException {
+        log.info("GroupBy test3 - group by int and long attributes with null values");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (region int, shard long, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select region, shard, sum(volume) as totalVolume " +
+                "   group by region, shard " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Long> totalVolumes = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    totalVolumes.add((Long) event.getData(2));
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{1, 1L, 10L});
+        inputHandler.send(new Object[]{1, 2L, 20L});
+        inputHandler.send(new Object[]{1, 1L, 5L});
+        inputHandler.send(new Object[]{null, 1L, 7L});
+        inputHandler.send(new Object[]{1, null, 3L});
+        inputHandler.send(new Object[]{null, 1L, 1L});
+        AssertJUnit.assertEquals(Arrays.asList(10L, 20L, 15L, 7L, 3L, 8L), totalVolumes);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testGroupByQuery4() throws InterruptedException {
+        log.info("GroupBy test4 - aggregations over a window, with groups expiring");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price double, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(3) " +
+                "select symbol, sum(volume) as totalVolume, count() as trades, avg(price) as avgPrice, " +
+                "   max(price) as maxPrice " +
+                "   group by symbol " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> results = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    results.add(Arrays.toString(event.getData()));
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"A", 10.0, 1});
+        inputHandler.send(new Object[]{"B", 20.0, 2});
+        inputHandler.send(new Object[]{"A", 30.0, 3});
+        inputHandler.send(new Object[]{"C", 40.0, 4});
+        inputHandler.send(new Object[]{"A", 50.0, 5});
+        inputHandler.send(new Object[]{"B", 60.0, 6});
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[A, 1, 1, 10.0, 10.0]",
+                "[B, 2, 1, 20.0, 20.0]",
+                "[A, 4, 2, 20.0, 30.0]",
+                "[C, 4, 1, 40.0, 40.0]",
+                "[A, 8, 2, 40.0, 50.0]",
+                "[B, 6, 1, 60.0, 60.0]"), results);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testGroupByQuery5() throws InterruptedException {
+        log.info("GroupBy test5 - purging idle groups");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@purge(enable='true', interval='100 millisec', idle.period='300 millisec') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume, count() as trades " +
+                "   group by symbol " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> results = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    results.add(Arrays.toString(event.getData()));
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"A", 10L});
+        inputHandler.send(new Object[]{"B", 20L});
+        inputHandler.send(new Object[]{"A", 30L});
+        Thread.sleep(1000);
+        inputHandler.send(new Object[]{"A", 40L});
+        inputHandler.send(new Object[]{"B", 50L});
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[A, 10, 1]",
+                "[B, 20, 1]",
+                "[A, 40, 2]",
+                "[A, 40, 1]",
+                "[B, 50, 1]"), results);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testGroupByQuery6() throws InterruptedException {
+        log.info("GroupBy test6 - purging idle groups of a query without group by");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@purge(enable='true', interval='100 millisec', idle.period='300 millisec') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream;" +
+                "";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppRuntimeException.class)
+    public void testGroupByQuery7() {
+        log.info("GroupBy test7 - restoring groups keyed by strings");
+        // Groups of older snapshots are keyed by the concatenated group by values
+        GroupByKey.checkRestoredKeys(Collections.singleton("IBM:-:"), "query1");
+    }
 }
@@ -17,19 +17,30 @@
  */
 package org.wso2.siddhi.core.query.partition;
 
+import com.codahale.metrics.Counter;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.config.StatisticsConfiguration;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
-
+import org.wso2.siddhi.core.util.statistics.StatisticsManager;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiStatisticsManager;
+import org.wso2.siddhi.query.api.annotation.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionTestCase2 {
@@ -673,4 +684,200 @@ public class PartitionTestCase2 {
 
         }
     }
+
+    @Test
+    public void partitionPurgeTest1() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("Partition purge test1");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('partitionPurgeTest1') " +
+                "define stream StockStream (symbol string, volume int);" +
+                "@purge(enable='true', interval='200 millisec', idle.period='500 millisec') " +
+                "partition with (symbol of StockStream) begin " +
+                "@info(name = 'query1') from StockStream#window.length(5) select symbol, count() as total " +
+                "insert into #CountStream ; " +
+                "@info(name = 'query2') from #CountStream select symbol, total insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final long[] expectedTotals = new long[]{1L, 2L, 1L, 1L, 1L, 2L};
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(expectedTotals[count.getAndIncrement()], event.getData(1));
+                }
+                eventArrived = true;
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 100});
+        inputHandler.send(new Object[]{"IBM", 200});
+        inputHandler.send(new Object[]{"WSO2", 300});
+        SiddhiTestHelper.waitForEvents(100, 3, count, 60000);
+        Thread.sleep(1500);
+        // state of the purged partition instances should not be part of the snapshot anymore
+        byte[] snapshot = siddhiAppRuntime.snapshot();
+        inputHandler.send(new Object[]{"IBM", 400});
+        inputHandler.send(new Object[]{"WSO2", 500});
+        inputHandler.send(new Object[]{"WSO2", 600});
+        SiddhiTestHelper.waitForEvents(100, 6, count, 60000);
+        AssertJUnit.assertEquals(6, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+        // Restoring the snapshot, the windows of the purged keys start empty
+        SiddhiAppRuntime restoredSiddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Object> restoredTotals = Collections.synchronizedList(new ArrayList<>());
+        restoredSiddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    restoredTotals.add(event.getData(1));
+                }
+            }
+        });
+        inputHandler = restoredSiddhiAppRuntime.getInputHandler("StockStream");
+        restoredSiddhiAppRuntime.start();
+        restoredSiddhiAppRuntime.restore(snapshot);
+        inputHandler.send(new Object[]{"IBM", 700});
+        SiddhiTestHelper.waitForEvents(100, 1, restoredTotals, 60000);
+        AssertJUnit.assertEquals(1, restoredTotals.size());
+        AssertJUnit.assertEquals(1L, restoredTotals.get(0));
+        restoredSiddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void partitionPurgeTest2() throws InterruptedException {
+        log.info("Partition purge test2");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('partitionPurgeTest2') " +
+                "define stream StockStream (symbol string, volume int);" +
+                "@purge(enable='yes', interval='1 sec', idle.period='1 min') " +
+                "partition with (symbol of StockStream) begin " +
+                "@info(name = 'query1') from StockStream select symbol, count() as total " +
+                "insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionPurgeTest3() throws InterruptedException {
+        log.info("Partition purge test3 - purging partition instances holding groups of a group by query");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        RecordingMetricsFactory metricsFactory = new RecordingMetricsFactory();
+        siddhiManager.setStatisticsConfiguration(new StatisticsConfiguration(metricsFactory));
+
+        // Groups are only dropped when their partition instance is purged, as the query idle period is not reached
+        String siddhiApp = "@app:name('partitionPurgeTest3') " +
+                "@app:statistics(reporter = 'console', interval = '60') " +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='200 millisec', idle.period='500 millisec') " +
+                "partition with (symbol of StockStream) begin " +
+                "@info(name = 'query1') " +
+                "@purge(enable='true', interval='200 millisec', idle.period='1 min') " +
+                "from StockStream select symbol, sum(volume) as total group by symbol " +
+                "insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final long[] expectedTotals = new long[]{100L, 300L, 300L, 400L};
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(expectedTotals[count.getAndIncrement()], event.getData(1));
+                }
+                eventArrived = true;
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        Counter groupCounter = metricsFactory.getCounter(".query1.groups");
+        AssertJUnit.assertNotNull(groupCounter);
+        inputHandler.send(new Object[]{"IBM", 100L});
+        inputHandler.send(new Object[]{"IBM", 200L});
+        inputHandler.send(new Object[]{"WSO2", 300L});
+        SiddhiTestHelper.waitForEvents(100, 3, count, 60000);
+        AssertJUnit.assertEquals(2, groupCounter.getCount());
+        Thread.sleep(1500);
+        AssertJUnit.assertEquals(0, groupCounter.getCount());
+        inputHandler.send(new Object[]{"IBM", 400L});
+        SiddhiTestHelper.waitForEvents(100, 4, count, 60000);
+        AssertJUnit.assertEquals(4, count.get());
+        AssertJUnit.assertEquals(1, groupCounter.getCount());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionEventPoolTest1() throws InterruptedException {
+        log.info("Partition event pool test1");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        // Small pools, such that the partition instances keep reusing the events returned by each other
+        String siddhiApp = "@app:name('partitionEventPoolTest1') " +
+                "@app:eventPool(thread.cache.size='2', shared.size='4') " +
+                "define stream StockStream (symbol string, volume int);" +
+                "partition with (symbol of StockStream) begin " +
+                "@info(name = 'query1') from StockStream#window.length(2) select symbol, sum(volume) as total " +
+                "insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final long[] expectedTotals = new long[]{100L, 10L, 300L, 30L, 500L, 50L};
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    AssertJUnit.assertEquals(expectedTotals[count.getAndIncrement()], event.getData(1));
+                }
+                eventArrived = true;
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 100});
+        inputHandler.send(new Object[]{"WSO2", 10});
+        inputHandler.send(new Object[]{"IBM", 200});
+        inputHandler.send(new Object[]{"WSO2", 20});
+        inputHandler.send(new Object[]{"IBM", 300});
+        inputHandler.send(new Object[]{"WSO2", 30});
+        SiddhiTestHelper.waitForEvents(100, 6, count, 60000);
+        AssertJUnit.assertEquals(6, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    /**
+     * Metrics factory giving access to the counters of the Siddhi app
+     */
+    private static class RecordingMetricsFactory extends SiddhiMetricsFactory {
+        private SiddhiStatisticsManager statisticsManager;
+
+        @Override
+        public StatisticsManager createStatisticsManager(String prefix, String siddhiAppName,
+                                                         List<Element> elements) {
+            statisticsManager = (SiddhiStatisticsManager) super.createStatisticsManager(prefix, siddhiAppName,
+                    elements);
+            return statisticsManager;
+        }
+
+        private Counter getCounter(String nameSuffix) {
+            for (Map.Entry<String, Counter> entry : statisticsManager.getRegistry().getCounters().entrySet()) {
+                if (entry.getKey().endsWith(nameSuffix)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -24,6 +24,7 @@ import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.query.table.util.TestStore;
 import org.wso2.siddhi.core.util.config.InMemoryConfigManager;
 import org.wso2.siddhi.query.api.SiddhiApp;
@@ -381,4 +382,154 @@ public class DefineTableTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery22() throws InterruptedException {
+        log.info("testTableDefinition22 - Table w/ cache");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:test", TestStore.class);
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price int, volume float); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@store(type='test', @cache(size='10', policy='LFU', expiry='5 min'))" +
+                "define table testTable (symbol string, price int, volume float); " +
+                "" +
+                "from StockStream " +
+                "insert into testTable ;" +
+                "" +
+                "from CheckStockStream join testTable " +
+                " on CheckStockStream.symbol == testTable.symbol " +
+                "select CheckStockStream.symbol, testTable.price " +
+                "insert into OutStream ;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"IBM"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals("Cached results are not reused", 2, TestStore.findCount);
+
+        stockStream.send(new Object[]{"WSO2", 55, 100f});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals("Cache is not invalidated on insert", 3, TestStore.findCount);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testQuery23() {
+        log.info("testTableDefinition23 - Table w/ cache of an invalid policy");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:test", TestStore.class);
+        String siddhiApp = "" +
+                "@store(type='test', @cache(size='10', policy='FIFO'))" +
+                "define table testTable (symbol string, price int, volume float); ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testQuery24() throws InterruptedException {
+        log.info("testTableDefinition24 - Table w/ LRU cache evicting the least recently used result");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:test", TestStore.class);
+        String siddhiApp = "" +
+                "define stream CheckStockStream (symbol string); " +
+                "@store(type='test', @cache(size='2', policy='LRU'))" +
+                "define table testTable (symbol string, price int, volume float); " +
+                "" +
+                "from CheckStockStream join testTable " +
+                " on CheckStockStream.symbol == testTable.symbol " +
+                "select CheckStockStream.symbol, testTable.price " +
+                "insert into OutStream ;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"IBM"});
+        AssertJUnit.assertEquals(2, TestStore.findCount);
+
+        // WSO2 is the least recently used result, though it is the most frequently used one
+        checkStockStream.send(new Object[]{"ORACLE"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals("Least recently used result is not evicted", 4, TestStore.findCount);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testQuery25() throws InterruptedException {
+        log.info("testTableDefinition25 - Table w/ LFU cache evicting the least frequently used result");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:test", TestStore.class);
+        String siddhiApp = "" +
+                "define stream CheckStockStream (symbol string); " +
+                "@store(type='test', @cache(size='2', policy='LFU'))" +
+                "define table testTable (symbol string, price int, volume float); " +
+                "" +
+                "from CheckStockStream join testTable " +
+                " on CheckStockStream.symbol == testTable.symbol " +
+                "select CheckStockStream.symbol, testTable.price " +
+                "insert into OutStream ;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"IBM"});
+        AssertJUnit.assertEquals(2, TestStore.findCount);
+
+        // IBM is the least frequently used result, though it is the most recently used one
+        checkStockStream.send(new Object[]{"ORACLE"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals("Least frequently used result is not evicted", 3, TestStore.findCount);
+        checkStockStream.send(new Object[]{"IBM"});
+        AssertJUnit.assertEquals(4, TestStore.findCount);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testQuery26() throws InterruptedException {
+        log.info("testTableDefinition26 - Table w/ cache expiring results");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:test", TestStore.class);
+        String siddhiApp = "" +
+                "define stream CheckStockStream (symbol string); " +
+                "@store(type='test', @cache(size='10', expiry='200 millisec'))" +
+                "define table testTable (symbol string, price int, volume float); " +
+                "" +
+                "from CheckStockStream join testTable " +
+                " on CheckStockStream.symbol == testTable.symbol " +
+                "select CheckStockStream.symbol, testTable.price " +
+                "insert into OutStream ;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals(1, TestStore.findCount);
+
+        Thread.sleep(500);
+        checkStockStream.send(new Object[]{"WSO2"});
+        checkStockStream.send(new Object[]{"WSO2"});
+        AssertJUnit.assertEquals("Expired result is reused", 2, TestStore.findCount);
+
+        siddhiAppRuntime.shutdown();
+    }
+
 }
@@ -28,6 +28,9 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinTableTestCase {
     private static final Logger log = Logger.getLogger(JoinTableTestCase.class);
@@ -525,4 +528,74 @@ public class JoinTableTestCase {
 
     }
 
+    @Test
+    public void testTableJoinQuery8() throws InterruptedException {
+        log.info("testTableJoinQuery8 - concurrent joins and updates");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@async(buffer.size='256', workers='4', batch.size.max='10') " +
+                "define stream CheckStockStream (symbol string); " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                "   on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.volume " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger joinedEventCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        AssertJUnit.assertNotNull(event.getData(1));
+                        joinedEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+        siddhiAppRuntime.start();
+        try {
+            for (int i = 0; i < 10; i++) {
+                stockStream.send(new Object[]{"SYMBOL" + i, 55.6f, (long) i});
+            }
+            Thread updatingThread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1000; i++) {
+                        stockStream.send(new Object[]{"SYMBOL" + (i % 10), 55.6f, (long) i});
+                    }
+                } catch (InterruptedException e) {
+                    log.error(e.getMessage(), e);
+                }
+            });
+            updatingThread.start();
+            for (int i = 0; i < 1000; i++) {
+                checkStockStream.send(new Object[]{"SYMBOL" + (i % 10)});
+            }
+            updatingThread.join();
+            SiddhiTestHelper.waitForEvents(100, 1000, joinedEventCount, 10000);
+
+            AssertJUnit.assertEquals("Number of success events", 1000, joinedEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
 }
@@ -54,9 +54,11 @@ import static org.wso2.siddhi.core.util.SiddhiConstants.ANNOTATION_STORE;
 )
 public class TestStore extends AbstractRecordTable {
     public static Map<String, String> systemConfigs;
+    public static int findCount;
 
     @Override
     protected void init(TableDefinition tableDefinition, ConfigReader configReader) {
+        findCount = 0;
         systemConfigs = new HashMap<>();
         systemConfigs = AnnotationHelper.getAnnotation(ANNOTATION_STORE, tableDefinition.getAnnotations())
                 .getElements().stream().collect(Collectors.toMap(
@@ -73,7 +75,7 @@ public class TestStore extends AbstractRecordTable {
     protected RecordIterator<Object[]> find(Map<String, Object> findConditionParameterMap,
                                             CompiledCondition compiledCondition)
             throws ConnectionUnavailableException {
-        //Not Applicable
+        findCount++;
         return null;
     }
 
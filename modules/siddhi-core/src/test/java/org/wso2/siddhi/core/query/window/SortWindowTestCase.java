@@ -32,6 +32,9 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class SortWindowTestCase {
@@ -223,4 +226,49 @@ public class SortWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void sortWindowTest7() throws InterruptedException {
+        log.info("sortWindow test7");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String cseEventStream = "" +
+                "define stream LatencyStream (id int, latency long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from LatencyStream#window.sort(50, latency, 'desc') " +
+                "select id, latency " +
+                "insert expired events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        final List<Object> expiredIds = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        expiredIds.add(event.getData(0));
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("LatencyStream");
+        siddhiAppRuntime.start();
+        // Expected expiry order computed by sorting the whole window on every event, keeping equal latencies
+        // in their arrival order
+        List<Object[]> window = new ArrayList<Object[]>();
+        List<Object> expectedExpiredIds = new ArrayList<Object>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            Object[] data = new Object[]{i, (long) random.nextInt(100)};
+            inputHandler.send(data);
+            window.add(data);
+            if (window.size() > 50) {
+                window.sort((d1, d2) -> Long.compare((Long) d2[1], (Long) d1[1]));
+                expectedExpiredIds.add(window.remove(window.size() - 1)[0]);
+            }
+        }
+        AssertJUnit.assertEquals(expectedExpiredIds, expiredIds);
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -29,6 +29,9 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TimeWindowTestCase {
     private static final Logger log = Logger.getLogger(TimeWindowTestCase.class);
@@ -221,4 +224,169 @@ public class TimeWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void timeWindowTest7() throws InterruptedException {
+        log.info("timeWindowTest7 - time windows of many partitions expiring through the timer wheel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert all events into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        final AtomicInteger currentCount = new AtomicInteger(0);
+        final AtomicInteger expiredCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        expiredCount.incrementAndGet();
+                    } else {
+                        currentCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + (i % 250), 10f, i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 500, expiredCount, 5000);
+        AssertJUnit.assertEquals(500, currentCount.get());
+        AssertJUnit.assertEquals(500, expiredCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void timeWindowTest8() throws InterruptedException {
+        log.info("timeWindowTest8 - time windows expiring within and beyond a revolution of the timer wheel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(500 milliseconds) " +
+                "select symbol, volume " +
+                "insert expired events into shortOutputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.time(3 sec) " +
+                "select symbol, volume " +
+                "insert expired events into longOutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        final AtomicInteger shortExpiredCount = new AtomicInteger(0);
+        final AtomicInteger longExpiredCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("shortOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                shortExpiredCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.addCallback("longOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                longExpiredCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        long timestamp = 1000;
+        inputHandler.send(timestamp, new Object[]{"IBM", 700f, 0});
+
+        timestamp += 600;
+        inputHandler.send(timestamp, new Object[]{"WSO2", 60.5f, 1});
+        AssertJUnit.assertEquals(1, shortExpiredCount.get());
+        AssertJUnit.assertEquals(0, longExpiredCount.get());
+
+        // The expiry of the first event in the 3 sec window comes within a revolution of the wheel
+        timestamp += 1600;
+        inputHandler.send(timestamp, new Object[]{"GOOGLE", 85.0f, 2});
+        AssertJUnit.assertEquals(2, shortExpiredCount.get());
+        AssertJUnit.assertEquals(0, longExpiredCount.get());
+
+        timestamp += 900;
+        inputHandler.send(timestamp, new Object[]{"ORACLE", 90.5f, 3});
+        AssertJUnit.assertEquals(3, shortExpiredCount.get());
+        AssertJUnit.assertEquals(1, longExpiredCount.get());
+
+        // Jump beyond a revolution, expiring the events of both windows
+        timestamp += 10000;
+        inputHandler.send(timestamp, new Object[]{"IBM", 700f, 4});
+        AssertJUnit.assertEquals(4, shortExpiredCount.get());
+        AssertJUnit.assertEquals(4, longExpiredCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void timeWindowTest9() throws InterruptedException {
+        log.info("timeWindowTest9 - a slow query not delaying the expiry of the time windows of other queries");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream slowStream (symbol string, price float, volume int); " +
+                "define stream fastStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from slowStream#window.time(100 milliseconds) " +
+                "select symbol, volume " +
+                "insert expired events into slowOutputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from fastStream#window.time(200 milliseconds) " +
+                "select symbol, volume " +
+                "insert expired events into fastOutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final AtomicInteger slowExpiredCount = new AtomicInteger(0);
+        final AtomicInteger fastExpiredCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("slowOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                try {
+                    Thread.sleep(3000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                slowExpiredCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.addCallback("fastOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                fastExpiredCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler slowInputHandler = siddhiAppRuntime.getInputHandler("slowStream");
+        InputHandler fastInputHandler = siddhiAppRuntime.getInputHandler("fastStream");
+        siddhiAppRuntime.start();
+        slowInputHandler.send(new Object[]{"IBM", 700f, 0});
+        fastInputHandler.send(new Object[]{"WSO2", 60.5f, 1});
+
+        // The expiry of the fast window comes while the slow query is still sending its expired event
+        SiddhiTestHelper.waitForEvents(100, 1, fastExpiredCount, 1500);
+        AssertJUnit.assertEquals(1, fastExpiredCount.get());
+        AssertJUnit.assertEquals(0, slowExpiredCount.get());
+
+        SiddhiTestHelper.waitForEvents(100, 1, slowExpiredCount, 5000);
+        AssertJUnit.assertEquals(1, slowExpiredCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
 }
@@ -24,8 +24,10 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.config.SiddhiContext;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
+import org.wso2.siddhi.core.event.stream.ConcurrentStreamEventPool;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventFactory;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.SelectiveStreamEventConverter;
@@ -65,9 +67,14 @@ import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EventTestCase {
 
@@ -103,6 +110,168 @@ public class EventTestCase {
 
     }
 
+    @Test
+    public void testConcurrentEventPool() {
+        StreamEventPool streamEventPool = new ConcurrentStreamEventPool(2, 3, 1, 4, 8);
+
+        StreamEvent[] streamEvents = new StreamEvent[15];
+        for (int i = 0; i < 15; i++) {
+            streamEvents[i] = streamEventPool.borrowEvent();
+        }
+        AssertJUnit.assertEquals(0, streamEventPool.getBufferedEventsSize());
+
+        for (int i = 0; i < 10; i++) {
+            streamEventPool.returnEvents(streamEvents[i]);
+        }
+        AssertJUnit.assertEquals(10, streamEventPool.getBufferedEventsSize());
+
+        streamEvents[10].setNext(streamEvents[11]);
+        streamEvents[11].setNext(streamEvents[12]);
+        streamEvents[12].setNext(streamEvents[13]);
+        streamEvents[13].setNext(streamEvents[14]);
+        streamEventPool.returnEvents(streamEvents[10]);
+        AssertJUnit.assertEquals(12, streamEventPool.getBufferedEventsSize());
+        AssertJUnit.assertEquals(12, streamEventPool.getSize());
+
+        StreamEvent streamEvent = streamEventPool.borrowEvent();
+        AssertJUnit.assertNull(streamEvent.getNext());
+        AssertJUnit.assertEquals(11, streamEventPool.getBufferedEventsSize());
+    }
+
+    @Test
+    public void testConcurrentEventPoolAcrossThreads() throws InterruptedException {
+        final StreamEventPool streamEventPool = new ConcurrentStreamEventPool(2, 3, 1, 4, 8);
+        final Set<StreamEvent> returnedEvents =
+                Collections.newSetFromMap(new IdentityHashMap<StreamEvent, Boolean>());
+        for (int i = 0; i < 8; i++) {
+            returnedEvents.add(streamEventPool.borrowEvent());
+        }
+        Thread returningThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (StreamEvent streamEvent : returnedEvents) {
+                    streamEventPool.returnEvents(streamEvent);
+                }
+            }
+        });
+        returningThread.start();
+        returningThread.join();
+
+        // Only the events overflowed to the shared chains are visible to other threads
+        AssertJUnit.assertEquals(4, streamEventPool.getBufferedEventsSize());
+        for (int i = 0; i < 4; i++) {
+            AssertJUnit.assertTrue(returnedEvents.contains(streamEventPool.borrowEvent()));
+        }
+        AssertJUnit.assertFalse(returnedEvents.contains(streamEventPool.borrowEvent()));
+    }
+
+    @Test
+    public void testConcurrentEventPoolClean() throws InterruptedException {
+        final ConcurrentStreamEventPool streamEventPool = new ConcurrentStreamEventPool(2, 3, 1, 4, 8);
+        final StreamEvent[] streamEvents = new StreamEvent[8];
+        for (int i = 0; i < 8; i++) {
+            streamEvents[i] = streamEventPool.borrowEvent();
+        }
+        final CountDownLatch returned = new CountDownLatch(1);
+        final CountDownLatch cleaned = new CountDownLatch(1);
+        final AtomicInteger bufferedEventsSize = new AtomicInteger(-1);
+        Thread returningThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (StreamEvent streamEvent : streamEvents) {
+                    streamEventPool.returnEvents(streamEvent);
+                }
+                returned.countDown();
+                try {
+                    cleaned.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                bufferedEventsSize.set(streamEventPool.getBufferedEventsSize());
+            }
+        });
+        returningThread.start();
+        returned.await();
+        AssertJUnit.assertEquals(4, streamEventPool.getBufferedEventsSize());
+
+        // Cleaning releases the events cached by the other thread as well as the shared ones
+        streamEventPool.clean();
+        cleaned.countDown();
+        returningThread.join();
+        AssertJUnit.assertEquals(0, streamEventPool.getBufferedEventsSize());
+        AssertJUnit.assertEquals(0, bufferedEventsSize.get());
+    }
+
+    @Test
+    public void testPrimitiveBeforeWindowData() {
+        Attribute symbol = new Attribute("symbol", Attribute.Type.STRING);
+        Attribute price = new Attribute("price", Attribute.Type.FLOAT);
+        Attribute volume = new Attribute("volume", Attribute.Type.INT);
+        Attribute total = new Attribute("total", Attribute.Type.DOUBLE);
+        Attribute exchange = new Attribute("exchange", Attribute.Type.STRING);
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.setPrimitiveBeforeWindowData(true);
+        metaStreamEvent.addData(symbol);
+        metaStreamEvent.addData(price);
+        metaStreamEvent.addData(volume);
+        metaStreamEvent.addData(total);
+        metaStreamEvent.addData(exchange);
+        metaStreamEvent.initializeAfterWindowData();
+        metaStreamEvent.addOutputData(symbol);
+
+        StreamDefinition streamDefinition = StreamDefinition.id("cseEventStream").attribute("symbol", Attribute.Type
+                .STRING).attribute("price", Attribute.Type.FLOAT).attribute("volume", Attribute.Type.INT)
+                .attribute("total", Attribute.Type.DOUBLE).attribute("exchange", Attribute.Type.STRING);
+        metaStreamEvent.addInputDefinition(streamDefinition);
+
+        VariableExpressionExecutor priceExecutor = new VariableExpressionExecutor(price, 0, 0);
+        VariableExpressionExecutor volumeExecutor = new VariableExpressionExecutor(volume, 0, 0);
+        VariableExpressionExecutor totalExecutor = new VariableExpressionExecutor(total, 0, 0);
+        VariableExpressionExecutor exchangeExecutor = new VariableExpressionExecutor(exchange, 0, 0);
+        QueryParserHelper.reduceMetaComplexEvent(metaStreamEvent);
+        QueryParserHelper.updateVariablePosition(metaStreamEvent, Arrays.asList(priceExecutor, volumeExecutor,
+                totalExecutor, exchangeExecutor));
+
+        AssertJUnit.assertEquals(3, metaStreamEvent.getBeforeWindowPrimitiveDataSize());
+        AssertJUnit.assertEquals(1, metaStreamEvent.getBeforeWindowObjectDataSize());
+        AssertJUnit.assertArrayEquals(new int[]{0, 0, SiddhiConstants.BEFORE_WINDOW_FLOAT_DATA_INDEX, 0},
+                priceExecutor.getPosition());
+        AssertJUnit.assertArrayEquals(new int[]{0, 0, SiddhiConstants.BEFORE_WINDOW_INT_DATA_INDEX, 1},
+                volumeExecutor.getPosition());
+        AssertJUnit.assertArrayEquals(new int[]{0, 0, SiddhiConstants.BEFORE_WINDOW_DATA_INDEX, 0},
+                exchangeExecutor.getPosition());
+
+        StreamEventConverter converter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+        StreamEventPool eventPool = new StreamEventPool(metaStreamEvent, 5);
+        StreamEvent streamEvent = eventPool.borrowEvent();
+        converter.convertEvent(new Event(System.currentTimeMillis(), new Object[]{"WSO2", 200.5f, 50, null, "NYSE"}),
+                streamEvent);
+
+        AssertJUnit.assertEquals(1, streamEvent.getBeforeWindowData().length);
+        AssertJUnit.assertEquals("NYSE", exchangeExecutor.execute(streamEvent));
+
+        AssertJUnit.assertEquals(200.5f, priceExecutor.execute(streamEvent));
+        AssertJUnit.assertEquals(50, volumeExecutor.execute(streamEvent));
+        AssertJUnit.assertEquals(200.5, priceExecutor.executeDouble(streamEvent));
+        AssertJUnit.assertEquals(50L, volumeExecutor.executeLong(streamEvent));
+        AssertJUnit.assertFalse(volumeExecutor.isNull(streamEvent));
+        AssertJUnit.assertTrue(totalExecutor.isNull(streamEvent));
+        AssertJUnit.assertNull(totalExecutor.execute(streamEvent));
+        AssertJUnit.assertEquals("WSO2", streamEvent.getOutputData()[0]);
+
+        StreamEvent clonedEvent = new StreamEventCloner(metaStreamEvent, eventPool).copyStreamEvent(streamEvent);
+        AssertJUnit.assertEquals(streamEvent, clonedEvent);
+        AssertJUnit.assertTrue(totalExecutor.isNull(clonedEvent));
+
+        converter.convertEvent(new Event(System.currentTimeMillis(), new Object[]{"IBM", 10f, null, 20.0, "LSE"}),
+                streamEvent);
+        AssertJUnit.assertTrue(volumeExecutor.isNull(streamEvent));
+        AssertJUnit.assertEquals(20.0, totalExecutor.execute(streamEvent));
+        AssertJUnit.assertEquals(50, volumeExecutor.execute(clonedEvent));
+        AssertJUnit.assertEquals("NYSE", exchangeExecutor.execute(clonedEvent));
+    }
+
     @Test
     public void testPassThroughStreamEventConverter() {
         Attribute symbol = new Attribute("symbol", Attribute.Type.STRING);
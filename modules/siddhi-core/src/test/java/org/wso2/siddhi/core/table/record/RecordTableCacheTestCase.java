@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.record;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.util.statistics.CounterTracker;
+
+import java.util.Collections;
+
+public class RecordTableCacheTestCase {
+    private static final Logger log = Logger.getLogger(RecordTableCacheTestCase.class);
+
+    private static RecordTableCache.CacheKey key(String symbol) {
+        return new RecordTableCache.CacheKey(false, null, Collections.singletonMap("symbol", symbol));
+    }
+
+    @Test
+    public void recordTableCacheTest1() {
+        log.info("RecordTableCache test1 - hits and misses");
+        TestCounterTracker hitTracker = new TestCounterTracker();
+        TestCounterTracker missTracker = new TestCounterTracker();
+        RecordTableCache cache = new RecordTableCache(10, RecordTableCache.Policy.LRU, 0, hitTracker,
+                missTracker);
+
+        AssertJUnit.assertNull(cache.get(key("WSO2")));
+        cache.put(key("WSO2"), Boolean.TRUE, cache.getGeneration());
+        AssertJUnit.assertEquals(Boolean.TRUE, cache.get(key("WSO2")));
+        AssertJUnit.assertEquals(Boolean.TRUE, cache.get(key("WSO2")));
+        AssertJUnit.assertNull(cache.get(key("IBM")));
+
+        AssertJUnit.assertEquals(2, cache.getHitCount());
+        AssertJUnit.assertEquals(2, cache.getMissCount());
+        AssertJUnit.assertEquals(2, hitTracker.count);
+        AssertJUnit.assertEquals(2, missTracker.count);
+    }
+
+    @Test
+    public void recordTableCacheTest2() {
+        log.info("RecordTableCache test2 - results fetched before a write are not cached");
+        RecordTableCache cache = new RecordTableCache(10, RecordTableCache.Policy.LFU, 0, null, null);
+
+        cache.put(key("WSO2"), Boolean.TRUE, cache.getGeneration());
+        long generation = cache.getGeneration();
+        cache.invalidate();
+        AssertJUnit.assertEquals(0, cache.size());
+        cache.put(key("IBM"), Boolean.FALSE, generation);
+        AssertJUnit.assertEquals(0, cache.size());
+        AssertJUnit.assertNull(cache.get(key("WSO2")));
+        AssertJUnit.assertNull(cache.get(key("IBM")));
+        AssertJUnit.assertEquals(0, cache.getHitCount());
+        AssertJUnit.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void recordTableCacheTest3() throws InterruptedException {
+        log.info("RecordTableCache test3 - expired results are counted as misses");
+        RecordTableCache cache = new RecordTableCache(10, RecordTableCache.Policy.LFU, 100, null, null);
+
+        cache.put(key("WSO2"), Boolean.TRUE, cache.getGeneration());
+        AssertJUnit.assertEquals(Boolean.TRUE, cache.get(key("WSO2")));
+        Thread.sleep(300);
+        AssertJUnit.assertNull(cache.get(key("WSO2")));
+        AssertJUnit.assertEquals(0, cache.size());
+        AssertJUnit.assertEquals(1, cache.getHitCount());
+        AssertJUnit.assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Counter tracker remembering its count
+     */
+    private static class TestCounterTracker implements CounterTracker {
+        private long count;
+
+        @Override
+        public void inc() {
+            count++;
+        }
+
+        @Override
+        public void inc(long count) {
+            this.count += count;
+        }
+
+        @Override
+        public void dec() {
+            count--;
+        }
+
+        @Override
+        public void dec(long count) {
+            this.count -= count;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    }
+}